@@ -48,7 +48,15 @@ public class CustomFieldContainer implements Iterable<CustomField>
       if (result == null)
       {
          result = new CustomField(field, this);
-         m_configMap.put(field, result);
+
+         //
+         // Once frozen, the default configuration is returned
+         // without being added to this container
+         //
+         if (!m_frozen)
+         {
+            m_configMap.put(field, result);
+         }
       }
       return result;
    }
@@ -97,6 +105,7 @@ public class CustomFieldContainer implements Iterable<CustomField>
     */
    public void registerValue(CustomFieldValueItem item)
    {
+      checkFrozen();
       m_valueMap.put(item.getUniqueID(), item);
       if (item.getGuid() != null)
       {
@@ -111,6 +120,7 @@ public class CustomFieldContainer implements Iterable<CustomField>
     */
    public void deregisterValue(CustomFieldValueItem item)
    {
+      checkFrozen();
       m_valueMap.remove(item.getUniqueID());
       if (item.getGuid() != null)
       {
@@ -126,6 +136,7 @@ public class CustomFieldContainer implements Iterable<CustomField>
     */
    void registerAlias(FieldType type, String alias)
    {
+      checkFrozen();
       m_aliasMap.put(new Pair<FieldTypeClass, String>(type.getFieldTypeClass(), alias), type);
    }
 
@@ -141,8 +152,32 @@ public class CustomFieldContainer implements Iterable<CustomField>
       return m_aliasMap.get(new Pair<FieldTypeClass, String>(typeClass, alias));
    }
 
+   /**
+    * Prevent further changes to the custom field configuration.
+    */
+   void freeze()
+   {
+      for (CustomField field : m_configMap.values())
+      {
+         field.getLookupTable().freeze();
+      }
+      m_frozen = true;
+   }
+
+   /**
+    * Throws an exception if this container has been frozen.
+    */
+   private void checkFrozen()
+   {
+      if (m_frozen)
+      {
+         throw new UnsupportedOperationException(ProjectFile.FROZEN_MESSAGE);
+      }
+   }
+
    private Map<FieldType, CustomField> m_configMap = new HashMap<FieldType, CustomField>();
    private Map<Integer, CustomFieldValueItem> m_valueMap = new HashMap<Integer, CustomFieldValueItem>();
    private Map<UUID, CustomFieldValueItem> m_guidMap = new HashMap<UUID, CustomFieldValueItem>();
    private Map<Pair<FieldTypeClass, String>, FieldType> m_aliasMap = new HashMap<Pair<FieldTypeClass, String>, FieldType>();
+   private boolean m_frozen;
 }
@@ -27,6 +27,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.listener.ProjectStreamListener;
 
 /**
  * Provides subscriptions to events raised when project files are written and read.
@@ -233,6 +234,61 @@ public class EventManager
       }
    }
 
+   /**
+    * This method is called to pass a task to the stream listener, if present.
+    *
+    * @param task task instance
+    * @return true if the task should be retained
+    */
+   public boolean fireTaskStreamEvent(Task task)
+   {
+      return m_streamListener == null || m_streamListener.taskRead(task);
+   }
+
+   /**
+    * This method is called to pass a resource to the stream listener, if present.
+    *
+    * @param resource resource instance
+    * @return true if the resource should be retained
+    */
+   public boolean fireResourceStreamEvent(Resource resource)
+   {
+      return m_streamListener == null || m_streamListener.resourceRead(resource);
+   }
+
+   /**
+    * This method is called to pass a resource assignment to the stream listener, if present.
+    *
+    * @param assignment resource assignment instance
+    * @return true if the resource assignment should be retained
+    */
+   public boolean fireAssignmentStreamEvent(ResourceAssignment assignment)
+   {
+      return m_streamListener == null || m_streamListener.assignmentRead(assignment);
+   }
+
+   /**
+    * This method is called to pass a relation to the stream listener, if present.
+    *
+    * @param relation relation instance
+    * @return true if the relation should be retained
+    */
+   public boolean fireRelationStreamEvent(Relation relation)
+   {
+      return m_streamListener == null || m_streamListener.relationRead(relation);
+   }
+
+   /**
+    * Set the listener used to decide which entities are retained
+    * when a project is streamed.
+    *
+    * @param listener stream listener, or null to retain all entities
+    */
+   public void setProjectStreamListener(ProjectStreamListener listener)
+   {
+      m_streamListener = listener;
+   }
+
    /**
     * Removes a listener from this project file.
     *
@@ -250,4 +306,5 @@ public class EventManager
     * List of project event listeners.
     */
    private List<ProjectListener> m_projectListeners;
+   private ProjectStreamListener m_streamListener;
 }
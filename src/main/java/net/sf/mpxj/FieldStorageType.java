@@ -0,0 +1,81 @@
+/*
+ * file:       FieldStorageType.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       01/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import net.sf.mpxj.common.ArrayFieldStore;
+import net.sf.mpxj.common.FieldStore;
+import net.sf.mpxj.common.PrimitiveFieldStore;
+import net.sf.mpxj.common.SparseFieldStore;
+
+/**
+ * Determines how field values are held by tasks, resources
+ * and resource assignments.
+ */
+public enum FieldStorageType
+{
+   /**
+    * One slot is allocated for every field type. Fastest access,
+    * largest memory footprint.
+    */
+   DENSE
+   {
+      @Override FieldStore createStore(int size)
+      {
+         return new ArrayFieldStore(size);
+      }
+   },
+
+   /**
+    * Only populated fields are stored. Slightly slower access,
+    * much smaller memory footprint.
+    */
+   SPARSE
+   {
+      @Override FieldStore createStore(int size)
+      {
+         return new SparseFieldStore();
+      }
+   },
+
+   /**
+    * Only populated fields are stored. Dates, doubles and durations
+    * are held as primitive values, and objects are only created when
+    * these values are retrieved.
+    */
+   PRIMITIVE
+   {
+      @Override FieldStore createStore(int size)
+      {
+         return new PrimitiveFieldStore();
+      }
+   };
+
+   /**
+    * Create a field store of this type.
+    *
+    * @param size number of possible fields
+    * @return new FieldStore instance
+    */
+   abstract FieldStore createStore(int size);
+}
@@ -71,6 +71,7 @@ public abstract class ListWithCallbacks<T> extends AbstractList<T>
     */
    @Override public void clear()
    {
+      checkFrozen();
       m_list.clear();
    }
 
@@ -86,6 +87,7 @@ public abstract class ListWithCallbacks<T> extends AbstractList<T>
 
    @Override public T set(int index, T element)
    {
+      checkFrozen();
       T removed = m_list.set(index, element);
       replaced(removed, element);
       return removed;
@@ -93,6 +95,7 @@ public abstract class ListWithCallbacks<T> extends AbstractList<T>
 
    @Override public boolean add(T e)
    {
+      checkFrozen();
       m_list.add(e);
       added(e);
       return true;
@@ -100,16 +103,48 @@ public abstract class ListWithCallbacks<T> extends AbstractList<T>
 
    @Override public void add(int index, T element)
    {
+      checkFrozen();
       m_list.add(index, element);
       added(element);
    }
 
    @Override public T remove(int index)
    {
+      checkFrozen();
       T removed = m_list.remove(index);
       removed(removed);
       return removed;
    }
 
+   /**
+    * Prevent further changes to the contents of this list.
+    */
+   void freeze()
+   {
+      m_frozen = true;
+   }
+
+   /**
+    * Retrieve the flag indicating if changes to this list are prevented.
+    *
+    * @return true if this list is frozen
+    */
+   public boolean isFrozen()
+   {
+      return m_frozen;
+   }
+
+   /**
+    * Throws an exception if this list has been frozen.
+    */
+   protected void checkFrozen()
+   {
+      if (m_frozen)
+      {
+         throw new UnsupportedOperationException(ProjectFile.FROZEN_MESSAGE);
+      }
+   }
+
    private final List<T> m_list = new ArrayList<T>();
+   private boolean m_frozen;
 }
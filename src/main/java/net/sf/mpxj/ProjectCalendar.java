@@ -30,9 +30,8 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
+import net.sf.mpxj.common.CalendarCache;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.NumberHelper;
 
@@ -356,24 +355,36 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     */
    public Date getStartTime(Date date)
    {
-      Date result = m_startTimeCache.get(date);
+      Date result = m_startTimeCache.get(date.getTime(), 0);
       if (result == null)
       {
-         ProjectCalendarDateRanges ranges = getRanges(date, null, null);
-         if (ranges == null)
-         {
-            result = getParentFile().getProjectProperties().getDefaultStartTime();
-         }
-         else
-         {
-            result = ranges.getRange(0).getStart();
-         }
-         result = DateHelper.getCanonicalTime(result);
-         m_startTimeCache.put(new Date(date.getTime()), result);
+         result = calculateStartTime(date);
+         m_startTimeCache.put(date.getTime(), 0, result);
       }
       return result;
    }
 
+   /**
+    * Calculate the time at which work starts on the given date.
+    *
+    * @param date Date instance
+    * @return start time, or null for non-working day
+    */
+   private Date calculateStartTime(Date date)
+   {
+      Date result;
+      ProjectCalendarDateRanges ranges = getRanges(date, null, null);
+      if (ranges == null)
+      {
+         result = getParentFile().getProjectProperties().getDefaultStartTime();
+      }
+      else
+      {
+         result = ranges.getRange(0).getStart();
+      }
+      return DateHelper.getCanonicalTime(result);
+   }
+
    /**
     * Retrieves the time at which work finishes on the given date, or returns
     * null if this is a non-working day.
@@ -440,21 +451,20 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       // Can we skip come computation by working forward from the
       // last call to this method?
       //
-      Date getDateLastStartDate = m_getDateLastStartDate;
-      double getDateLastRemainingMinutes = m_getDateLastRemainingMinutes;
-
-      m_getDateLastStartDate = startDate;
-      m_getDateLastRemainingMinutes = remainingMinutes;
+      GetDateState lastState = m_getDateLastState;
+      Date originalStartDate = startDate;
+      double originalRemainingMinutes = remainingMinutes;
 
-      if (m_getDateLastResult != null && DateHelper.compare(startDate, getDateLastStartDate) == 0 && remainingMinutes >= getDateLastRemainingMinutes)
+      if (lastState != null && DateHelper.compare(startDate, lastState.m_startDate) == 0 && remainingMinutes >= lastState.m_remainingMinutes)
       {
-         startDate = m_getDateLastResult;
-         remainingMinutes = remainingMinutes - getDateLastRemainingMinutes;
+         startDate = lastState.m_result;
+         remainingMinutes = remainingMinutes - lastState.m_remainingMinutes;
       }
 
       Calendar cal = Calendar.getInstance();
       cal.setTime(startDate);
       Calendar endCal = Calendar.getInstance();
+      int dayCount = 0;
 
       while (remainingMinutes > 0)
       {
@@ -503,6 +513,16 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
             //
             Date startTime = getStartTime(cal.getTime());
             DateHelper.setTime(cal, startTime);
+
+            //
+            // Once we have stepped through a number of days, use the
+            // compiled timeline to move directly to the day on which
+            // the remaining work will be completed
+            //
+            if (remainingMinutes > 0 && ++dayCount > TIMELINE_THRESHOLD_DAYS)
+            {
+               remainingMinutes = skipForward(cal, remainingMinutes);
+            }
          }
          else
          {
@@ -593,7 +613,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
          }
       }
 
-      m_getDateLastResult = cal.getTime();
+      m_getDateLastState = new GetDateState(originalStartDate, originalRemainingMinutes, cal.getTime());
       if (returnNextWorkStart)
       {
          updateToNextWorkStart(cal);
@@ -622,6 +642,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       Calendar cal = Calendar.getInstance();
       cal.setTime(finishDate);
       Calendar startCal = Calendar.getInstance();
+      int dayCount = 0;
 
       while (remainingMinutes > 0)
       {
@@ -673,6 +694,16 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
             //
             Date finishTime = getFinishTime(cal.getTime());
             DateHelper.setTime(cal, finishTime);
+
+            //
+            // Once we have stepped through a number of days, use the
+            // compiled timeline to move directly to the day on which
+            // the remaining work will be started
+            //
+            if (++dayCount > TIMELINE_THRESHOLD_DAYS)
+            {
+               remainingMinutes = skipBackward(cal, remainingMinutes);
+            }
          }
          else
          {
@@ -1201,60 +1232,97 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     */
    public Duration getWork(Date startDate, Date endDate, TimeUnit format)
    {
-      DateRange range = new DateRange(startDate, endDate);
-      Long cachedResult = m_workingDateCache.get(range);
-      long totalTime = 0;
+      long cacheStart = startDate.getTime();
+      long cacheEnd = endDate.getTime();
+      Long cachedResult = m_workingDateCache.get(cacheStart, cacheEnd);
+      long totalTime;
 
       if (cachedResult == null)
+      {
+         totalTime = calculateWork(startDate, endDate);
+         m_workingDateCache.put(cacheStart, cacheEnd, Long.valueOf(totalTime));
+      }
+      else
+      {
+         totalTime = cachedResult.longValue();
+      }
+
+      return convertFormat(totalTime, format);
+   }
+
+   /**
+    * Calculate the amount of work between two dates based on this calendar.
+    *
+    * @param startDate start date
+    * @param endDate end date
+    * @return amount of work in milliseconds
+    */
+   private long calculateWork(Date startDate, Date endDate)
+   {
+      long totalTime = 0;
+
+      //
+      // We want the start date to be the earliest date, and the end date
+      // to be the latest date. Set a flag here to indicate if we have swapped
+      // the order of the supplied date.
+      //
+      boolean invert = false;
+      if (startDate.getTime() > endDate.getTime())
+      {
+         invert = true;
+         Date temp = startDate;
+         startDate = endDate;
+         endDate = temp;
+      }
+
+      Date canonicalStartDate = DateHelper.getDayStartDate(startDate);
+      Date canonicalEndDate = DateHelper.getDayStartDate(endDate);
+
+      if (canonicalStartDate.getTime() == canonicalEndDate.getTime())
+      {
+         ProjectCalendarDateRanges ranges = getRanges(startDate, null, null);
+         if (ranges.getRangeCount() != 0)
+         {
+            totalTime = getTotalTime(ranges, startDate, endDate);
+         }
+      }
+      else
       {
          //
-         // We want the start date to be the earliest date, and the end date
-         // to be the latest date. Set a flag here to indicate if we have swapped
-         // the order of the supplied date.
+         // Find the first working day in the range
          //
-         boolean invert = false;
-         if (startDate.getTime() > endDate.getTime())
+         Date currentDate = startDate;
+         Calendar cal = Calendar.getInstance();
+         cal.setTime(startDate);
+         Day day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
+         while (isWorkingDate(currentDate, day) == false && currentDate.getTime() < canonicalEndDate.getTime())
          {
-            invert = true;
-            Date temp = startDate;
-            startDate = endDate;
-            endDate = temp;
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+            currentDate = cal.getTime();
+            day = day.getNextDay();
          }
 
-         Date canonicalStartDate = DateHelper.getDayStartDate(startDate);
-         Date canonicalEndDate = DateHelper.getDayStartDate(endDate);
-
-         if (canonicalStartDate.getTime() == canonicalEndDate.getTime())
-         {
-            ProjectCalendarDateRanges ranges = getRanges(startDate, null, null);
-            if (ranges.getRangeCount() != 0)
-            {
-               totalTime = getTotalTime(ranges, startDate, endDate);
-            }
-         }
-         else
+         if (currentDate.getTime() < canonicalEndDate.getTime())
          {
             //
-            // Find the first working day in the range
+            // Calculate the amount of working time for this day
+            //
+            totalTime += getTotalTime(getRanges(currentDate, null, day), currentDate, true);
+
             //
-            Date currentDate = startDate;
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(startDate);
-            Day day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
-            while (isWorkingDate(currentDate, day) == false && currentDate.getTime() < canonicalEndDate.getTime())
+            // Where the range covers a number of days, use the
+            // compiled timeline to find the working time for the
+            // days between the first and last days
+            //
+            ProjectCalendarTimeline timeline = null;
+            long firstDay = DateHelper.getDayStartDate(currentDate).getTime();
+            if ((canonicalEndDate.getTime() - firstDay) / DateHelper.MS_PER_DAY > TIMELINE_THRESHOLD_DAYS)
             {
-               cal.add(Calendar.DAY_OF_YEAR, 1);
-               currentDate = cal.getTime();
-               day = day.getNextDay();
+               timeline = getTimeline(firstDay, canonicalEndDate.getTime());
             }
 
-            if (currentDate.getTime() < canonicalEndDate.getTime())
+            if (timeline == null)
             {
-               //
-               // Calculate the amount of working time for this day
-               //
-               totalTime += getTotalTime(getRanges(currentDate, null, day), currentDate, true);
-
                //
                // Process each working day until we reach the last day
                //
@@ -1287,30 +1355,36 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
                   totalTime += getTotalTime(ranges);
                }
             }
-
-            //
-            // We are now at the last day
-            //
-            ProjectCalendarDateRanges ranges = getRanges(endDate, null, day);
-            if (ranges.getRangeCount() != 0)
+            else
             {
-               totalTime += getTotalTime(ranges, DateHelper.getDayStartDate(endDate), endDate);
+               //
+               // Add the working time for the days between the first
+               // and last days, then move to the last day
+               //
+               int firstIndex = timeline.getIndex(firstDay);
+               int lastIndex = timeline.getIndex(canonicalEndDate.getTime());
+               totalTime += timeline.getFullWork(firstIndex + 1, lastIndex);
+               cal.add(Calendar.DAY_OF_YEAR, lastIndex - firstIndex);
+               day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
             }
          }
 
-         if (invert)
+         //
+         // We are now at the last day
+         //
+         ProjectCalendarDateRanges ranges = getRanges(endDate, null, day);
+         if (ranges.getRangeCount() != 0)
          {
-            totalTime = -totalTime;
+            totalTime += getTotalTime(ranges, DateHelper.getDayStartDate(endDate), endDate);
          }
-
-         m_workingDateCache.put(range, Long.valueOf(totalTime));
       }
-      else
+
+      if (invert)
       {
-         totalTime = cachedResult.longValue();
+         totalTime = -totalTime;
       }
 
-      return convertFormat(totalTime, format);
+      return totalTime;
    }
 
    /**
@@ -1861,14 +1935,299 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       }
    }
 
+   /**
+    * Set the maximum number of results held by each of the caches used
+    * to speed up calculations using this calendar. Setting this value
+    * discards any cached results. Zero disables caching.
+    * Defaults to 1024.
+    *
+    * @param size cache size
+    */
+   public void setCacheSize(int size)
+   {
+      m_workingDateCache = new CalendarCache<Long>(size);
+      m_startTimeCache = new CalendarCache<Date>(size);
+   }
+
+   /**
+    * Retrieve the maximum number of results held by each of the caches
+    * used to speed up calculations using this calendar.
+    *
+    * @return cache size
+    */
+   public int getCacheSize()
+   {
+      return m_workingDateCache.getCapacity();
+   }
+
+   /**
+    * Retrieve the number of calculations using this calendar which
+    * were satisfied from a cached result.
+    *
+    * @return cache hit count
+    */
+   public long getCacheHitCount()
+   {
+      return m_workingDateCache.getHitCount() + m_startTimeCache.getHitCount();
+   }
+
+   /**
+    * Retrieve the number of calculations using this calendar which
+    * could not be satisfied from a cached result.
+    *
+    * @return cache miss count
+    */
+   public long getCacheMissCount()
+   {
+      return m_workingDateCache.getMissCount() + m_startTimeCache.getMissCount();
+   }
+
+   /**
+    * Working forward from the start time of a working day, use the compiled
+    * timeline to move the calendar to the day on which the remaining work
+    * will be completed. The calendar is left unchanged if the timeline
+    * can't be used.
+    *
+    * @param cal current Calendar instance
+    * @param remainingMinutes remaining work in minutes
+    * @return remaining work in minutes at the start of the new day
+    */
+   private double skipForward(Calendar cal, double remainingMinutes)
+   {
+      long dayStart = DateHelper.getDayStartDate(cal.getTime()).getTime();
+      long work = Math.round(remainingMinutes * 60000);
+      ProjectCalendarTimeline timeline = getTimeline(dayStart, dayStart);
+
+      while (timeline != null)
+      {
+         int from = timeline.getIndex(dayStart);
+         if (from == -1)
+         {
+            break;
+         }
+
+         int to = timeline.findForward(from, work);
+         if (to != -1)
+         {
+            if (to > from && !timeline.hasLongForwardGap(from, to))
+            {
+               remainingMinutes = NumberHelper.round(remainingMinutes - timeline.getForwardWork(from, to) / 60000.0, 2);
+               cal.add(Calendar.DAY_OF_YEAR, to - from);
+               DateHelper.setTime(cal, getStartTime(cal.getTime()));
+            }
+            break;
+         }
+
+         timeline = getTimeline(dayStart, timeline.getEndDay());
+      }
+
+      return remainingMinutes;
+   }
+
+   /**
+    * Working backward from the finish time of a working day, use the
+    * compiled timeline to move the calendar to the day on which the
+    * remaining work will be started. The calendar is left unchanged if
+    * the timeline can't be used.
+    *
+    * @param cal current Calendar instance
+    * @param remainingMinutes remaining work in minutes
+    * @return remaining work in minutes at the end of the new day
+    */
+   private double skipBackward(Calendar cal, double remainingMinutes)
+   {
+      long dayStart = DateHelper.getDayStartDate(cal.getTime()).getTime();
+      long work = Math.round(remainingMinutes * 60000);
+      ProjectCalendarTimeline timeline = getTimeline(dayStart, dayStart);
+
+      while (timeline != null)
+      {
+         int from = timeline.getIndex(dayStart);
+         if (from == -1)
+         {
+            break;
+         }
+
+         int to = timeline.findBackward(from, work);
+         if (to != -1)
+         {
+            if (to < from && !timeline.hasLongBackwardGap(to, from))
+            {
+               remainingMinutes = NumberHelper.round(remainingMinutes - timeline.getBackwardWork(to + 1, from + 1) / 60000.0, 2);
+               cal.add(Calendar.DAY_OF_YEAR, to - from);
+               DateHelper.setTime(cal, getFinishTime(cal.getTime()));
+            }
+            break;
+         }
+
+         timeline = getTimeline(timeline.getFirstDay() - 1, dayStart);
+      }
+
+      return remainingMinutes;
+   }
+
+   /**
+    * Retrieve a compiled timeline for this calendar which includes the
+    * supplied range of days. If the current timeline does not include
+    * these days, a larger timeline is compiled to replace it.
+    *
+    * @param firstDay a time on the first day required
+    * @param lastDay a time on the last day required
+    * @return timeline, or null if the range of days is too large
+    */
+   private ProjectCalendarTimeline getTimeline(long firstDay, long lastDay)
+   {
+      ProjectCalendarTimeline timeline = m_timeline;
+      if (timeline == null || firstDay < timeline.getFirstDay() || lastDay >= timeline.getEndDay())
+      {
+         long padding = TIMELINE_PADDING_DAYS;
+         long from = firstDay;
+         long to = lastDay;
+
+         if (timeline == null)
+         {
+            from -= padding * DateHelper.MS_PER_DAY;
+            to += padding * DateHelper.MS_PER_DAY;
+         }
+         else
+         {
+            //
+            // Grow the timeline in proportion to its current size,
+            // so repeated extensions are not required
+            //
+            padding = Math.max(padding, timeline.getDayCount());
+            from = firstDay < timeline.getFirstDay() ? firstDay - padding * DateHelper.MS_PER_DAY : timeline.getFirstDay();
+            to = lastDay >= timeline.getEndDay() ? lastDay + padding * DateHelper.MS_PER_DAY : timeline.getEndDay() - 1;
+         }
+
+         timeline = null;
+         if ((to - from) / DateHelper.MS_PER_DAY < MAX_TIMELINE_DAYS)
+         {
+            timeline = compileTimeline(DateHelper.getDayStartDate(new Date(from)), DateHelper.getDayStartDate(new Date(to)));
+            m_timeline = timeline;
+         }
+      }
+      return timeline;
+   }
+
+   /**
+    * Compile a timeline representing the working time defined
+    * by this calendar over a range of days.
+    *
+    * @param firstDay start of the first day
+    * @param lastDay start of the last day
+    * @return timeline
+    */
+   private ProjectCalendarTimeline compileTimeline(Date firstDay, Date lastDay)
+   {
+      Calendar cal = Calendar.getInstance();
+      cal.setTime(firstDay);
+      int dayCount = 0;
+      while (cal.getTimeInMillis() <= lastDay.getTime())
+      {
+         addDay(cal);
+         ++dayCount;
+      }
+
+      long[] dayStarts = new long[dayCount + 1];
+      long[] fullWork = new long[dayCount];
+      long[] forwardWork = new long[dayCount];
+      long[] backwardWork = new long[dayCount];
+      boolean[] working = new boolean[dayCount];
+
+      cal.setTime(firstDay);
+      Date previousDayEnd = DateHelper.getDayEndDate(new Date(firstDay.getTime() - DateHelper.MS_PER_DAY));
+      for (int index = 0; index < dayCount; index++)
+      {
+         Date dayStart = cal.getTime();
+         Day day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
+         dayStarts[index] = dayStart.getTime();
+         addDay(cal);
+         Date nextDayStart = cal.getTime();
+
+         ProjectCalendarDateRanges ranges = getRanges(dayStart, null, day);
+         if (ranges.getRangeCount() != 0)
+         {
+            working[index] = true;
+            fullWork[index] = getTotalTime(ranges);
+
+            //
+            // Working time as measured by getDate and getStartDate
+            // when they move through this day
+            //
+            Calendar timeCal = DateHelper.popCalendar(dayStart);
+            DateHelper.setTime(timeCal, calculateStartTime(dayStart));
+            forwardWork[index] = calculateWork(timeCal.getTime(), nextDayStart);
+
+            timeCal.setTime(dayStart);
+            DateHelper.setTime(timeCal, getFinishTime(dayStart));
+            backwardWork[index] = calculateWork(previousDayEnd, timeCal.getTime());
+            DateHelper.pushCalendar(timeCal);
+         }
+
+         previousDayEnd = DateHelper.getDayEndDate(dayStart);
+      }
+      dayStarts[dayCount] = cal.getTimeInMillis();
+
+      return new ProjectCalendarTimeline(dayStarts, fullWork, forwardWork, backwardWork, working);
+   }
+
+   /**
+    * Move a calendar to the start of the following day. The time of day
+    * is reset each time, so a day which does not start at midnight,
+    * due to a daylight saving transition, does not affect the days
+    * which follow it.
+    *
+    * @param cal calendar positioned at the start of a day
+    */
+   private void addDay(Calendar cal)
+   {
+      cal.add(Calendar.DAY_OF_YEAR, 1);
+      cal.set(Calendar.HOUR_OF_DAY, 0);
+      cal.set(Calendar.MINUTE, 0);
+      cal.set(Calendar.SECOND, 0);
+      cal.set(Calendar.MILLISECOND, 0);
+   }
+
+   /**
+    * Complete any deferred sorting of this calendar's exceptions and work
+    * weeks, and any deferred expansion of recurring exceptions. Once this
+    * is done, and as long as the calendar is not modified, the calendar
+    * can be queried by several threads at once.
+    */
+   void prepareForConcurrentUse()
+   {
+      sortExceptions();
+      populateExpandedExceptions();
+      sortWorkWeeks();
+   }
+
+   /**
+    * Complete any deferred sorting of this calendar's exceptions and work
+    * weeks, and prevent further changes to them. Called when the parent
+    * project is frozen.
+    */
+   void freeze()
+   {
+      prepareForConcurrentUse();
+      m_exceptions = Collections.unmodifiableList(m_exceptions);
+      m_workWeeks = Collections.unmodifiableList(m_workWeeks);
+   }
+
    /**
     * Utility method to clear cached calendar data.
     */
    private void clearWorkingDateCache()
    {
+      if (m_projectFile.isFrozen())
+      {
+         throw new UnsupportedOperationException(ProjectFile.FROZEN_MESSAGE);
+      }
+
       m_workingDateCache.clear();
       m_startTimeCache.clear();
-      m_getDateLastResult = null;
+      m_timeline = null;
+      m_getDateLastState = null;
       for (ProjectCalendar calendar : m_derivedCalendars)
       {
          calendar.clearWorkingDateCache();
@@ -1979,6 +2338,32 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       return (m_projectFile);
    }
 
+   /**
+    * Immutable record of the most recent call to getDate. A new instance
+    * replaces the previous one on each call, so concurrent callers always
+    * see a consistent start date, duration and result.
+    */
+   private static final class GetDateState
+   {
+      /**
+       * Constructor.
+       *
+       * @param startDate start date
+       * @param remainingMinutes duration in minutes
+       * @param result calculated date
+       */
+      public GetDateState(Date startDate, double remainingMinutes, Date result)
+      {
+         m_startDate = startDate;
+         m_remainingMinutes = remainingMinutes;
+         m_result = result;
+      }
+
+      final Date m_startDate;
+      final double m_remainingMinutes;
+      final Date m_result;
+   }
+
    /**
     * Reference to parent ProjectFile.
     */
@@ -2020,18 +2405,19 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    private ArrayList<ProjectCalendar> m_derivedCalendars = new ArrayList<ProjectCalendar>();
 
    /**
-    * Caches used to speed up date calculations.
+    * Caches used to speed up date calculations. The working date cache
+    * is keyed by the start and end timestamps, the start time cache by
+    * the date timestamp.
     */
-   private Map<DateRange, Long> m_workingDateCache = new WeakHashMap<DateRange, Long>();
-   private Map<Date, Date> m_startTimeCache = new WeakHashMap<Date, Date>();
-   private Date m_getDateLastStartDate;
-   private double m_getDateLastRemainingMinutes;
-   private Date m_getDateLastResult;
+   private volatile CalendarCache<Long> m_workingDateCache = new CalendarCache<Long>(DEFAULT_CACHE_SIZE);
+   private volatile CalendarCache<Date> m_startTimeCache = new CalendarCache<Date>(DEFAULT_CACHE_SIZE);
+   private volatile ProjectCalendarTimeline m_timeline;
+   private volatile GetDateState m_getDateLastState;
 
    /**
     * Work week definitions.
     */
-   private ArrayList<ProjectCalendarWeek> m_workWeeks = new ArrayList<ProjectCalendarWeek>();
+   private List<ProjectCalendarWeek> m_workWeeks = new ArrayList<ProjectCalendarWeek>();
 
    private Integer m_minutesPerDay;
    private Integer m_minutesPerWeek;
@@ -2051,4 +2437,26 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     * and take an alternative approach.
     */
    private static final int MAX_NONWORKING_DAYS = 1000;
+
+   /**
+    * Default number of results held by each calendar cache.
+    */
+   private static final int DEFAULT_CACHE_SIZE = 1024;
+
+   /**
+    * Number of days a calculation steps through one at a time before
+    * the compiled timeline is used.
+    */
+   private static final int TIMELINE_THRESHOLD_DAYS = 7;
+
+   /**
+    * Number of days added to either side of the range of days
+    * required when a timeline is compiled.
+    */
+   private static final long TIMELINE_PADDING_DAYS = 366;
+
+   /**
+    * Maximum number of days covered by a timeline.
+    */
+   private static final long MAX_TIMELINE_DAYS = 36600;
 }
@@ -0,0 +1,320 @@
+/*
+ * file:       ProjectCalendarTimeline.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Arrays;
+
+/**
+ * A compiled representation of the working time defined by a calendar
+ * over a range of days. For each day the timeline records the working
+ * time in the day, and the working time used by ProjectCalendar when
+ * moving forward or backward through the day. These values are held as
+ * cumulative totals, so the working time across any span of days can be
+ * found by subtraction, and the day on which a given amount of working
+ * time is exhausted can be found by binary search.
+ *
+ * Instances are immutable, and are discarded by ProjectCalendar when
+ * the calendar is modified.
+ */
+final class ProjectCalendarTimeline
+{
+   /**
+    * Constructor.
+    *
+    * @param dayStarts start timestamp of each day, plus the start of the following day
+    * @param fullWork working time in each day
+    * @param forwardWork working time from the start time of each working day to the end of the day
+    * @param backwardWork working time from the start of each working day to its finish time
+    * @param working working day flags
+    */
+   public ProjectCalendarTimeline(long[] dayStarts, long[] fullWork, long[] forwardWork, long[] backwardWork, boolean[] working)
+   {
+      int dayCount = working.length;
+      m_dayStarts = dayStarts;
+      m_fullWork = accumulate(fullWork);
+      m_forwardWork = accumulate(forwardWork);
+      m_backwardWork = accumulate(backwardWork);
+      m_longForwardGaps = new int[dayCount + 1];
+      m_longBackwardGaps = new int[dayCount + 1];
+
+      //
+      // Record the working days which are preceded by a run of
+      // non-working days too long for ProjectCalendar to step across.
+      // A skip across one of these days is not attempted, so that the
+      // existing day by day behaviour applies.
+      //
+      int previous = -1;
+      for (int index = 0; index < dayCount; index++)
+      {
+         int gap = 0;
+         if (working[index])
+         {
+            if (previous != -1)
+            {
+               gap = index - previous;
+            }
+            previous = index;
+         }
+
+         m_longForwardGaps[index + 1] = m_longForwardGaps[index] + (gap > MAX_FORWARD_GAP ? 1 : 0);
+         m_longBackwardGaps[index + 1] = m_longBackwardGaps[index] + (gap > MAX_BACKWARD_GAP ? 1 : 0);
+      }
+   }
+
+   /**
+    * Retrieve the start timestamp of the first day in the timeline.
+    *
+    * @return first day start
+    */
+   public long getFirstDay()
+   {
+      return m_dayStarts[0];
+   }
+
+   /**
+    * Retrieve the start timestamp of the day following the last day
+    * in the timeline.
+    *
+    * @return end of the timeline
+    */
+   public long getEndDay()
+   {
+      return m_dayStarts[m_dayStarts.length - 1];
+   }
+
+   /**
+    * Retrieve the number of days in the timeline.
+    *
+    * @return day count
+    */
+   public int getDayCount()
+   {
+      return m_dayStarts.length - 1;
+   }
+
+   /**
+    * Retrieve the index of a day in the timeline.
+    *
+    * @param dayStart start timestamp of the day
+    * @return day index, or -1 if the day is not in the timeline
+    */
+   public int getIndex(long dayStart)
+   {
+      int index = Arrays.binarySearch(m_dayStarts, 0, m_dayStarts.length - 1, dayStart);
+      return index < 0 ? -1 : index;
+   }
+
+   /**
+    * Retrieve the working time in a range of days.
+    *
+    * @param from index of the first day
+    * @param to index of the day following the last day
+    * @return working time in milliseconds
+    */
+   public long getFullWork(int from, int to)
+   {
+      return m_fullWork[to] - m_fullWork[from];
+   }
+
+   /**
+    * Retrieve the working time from the start time of each working day
+    * to the end of the day, for a range of days.
+    *
+    * @param from index of the first day
+    * @param to index of the day following the last day
+    * @return working time in milliseconds
+    */
+   public long getForwardWork(int from, int to)
+   {
+      return m_forwardWork[to] - m_forwardWork[from];
+   }
+
+   /**
+    * Retrieve the working time from the start of each working day to
+    * its finish time, for a range of days.
+    *
+    * @param from index of the first day
+    * @param to index of the day following the last day
+    * @return working time in milliseconds
+    */
+   public long getBackwardWork(int from, int to)
+   {
+      return m_backwardWork[to] - m_backwardWork[from];
+   }
+
+   /**
+    * Working forward from the start time of a working day, find the
+    * day on which the supplied amount of working time is exhausted.
+    *
+    * @param from index of the first day
+    * @param work working time in milliseconds
+    * @return day index, or -1 if the working time extends beyond the timeline
+    */
+   public int findForward(int from, long work)
+   {
+      long target = m_forwardWork[from] + work;
+      int result = -1;
+      if (target <= m_forwardWork[m_forwardWork.length - 1])
+      {
+         result = lowerBound(m_forwardWork, from + 1, m_forwardWork.length - 1, target) - 1;
+      }
+      return result;
+   }
+
+   /**
+    * Working backward from the finish time of a working day, find the
+    * day on which the supplied amount of working time is exhausted.
+    *
+    * @param from index of the first day
+    * @param work working time in milliseconds
+    * @return day index, or -1 if the working time extends beyond the timeline
+    */
+   public int findBackward(int from, long work)
+   {
+      long target = m_backwardWork[from + 1] - work;
+      int result = -1;
+      if (target >= 0)
+      {
+         result = upperBound(m_backwardWork, 0, from, target);
+      }
+      return result;
+   }
+
+   /**
+    * Determine if moving forward from one working day to another
+    * requires a run of non-working days to be crossed which is too
+    * long for ProjectCalendar.getDate to step across.
+    *
+    * @param from index of the first working day
+    * @param to index of the last working day
+    * @return true if a long run of non-working days is present
+    */
+   public boolean hasLongForwardGap(int from, int to)
+   {
+      return m_longForwardGaps[to + 1] != m_longForwardGaps[from + 1];
+   }
+
+   /**
+    * Determine if moving backward from one working day to another
+    * requires a run of non-working days to be crossed which is too
+    * long for ProjectCalendar.getStartDate to step across.
+    *
+    * @param from index of the earlier working day
+    * @param to index of the later working day
+    * @return true if a long run of non-working days is present
+    */
+   public boolean hasLongBackwardGap(int from, int to)
+   {
+      return m_longBackwardGaps[to + 1] != m_longBackwardGaps[from + 1];
+   }
+
+   /**
+    * Convert an array of values into an array of cumulative totals.
+    * The resulting array has one more entry than the original, the
+    * first entry is always zero.
+    *
+    * @param values values
+    * @return cumulative totals
+    */
+   private static long[] accumulate(long[] values)
+   {
+      long[] result = new long[values.length + 1];
+      for (int index = 0; index < values.length; index++)
+      {
+         result[index + 1] = result[index] + values[index];
+      }
+      return result;
+   }
+
+   /**
+    * Find the first index in a range of a sorted array whose value is
+    * greater than or equal to the target.
+    *
+    * @param values sorted array
+    * @param low first index to search
+    * @param high last index to search
+    * @param target target value
+    * @return index
+    */
+   private static int lowerBound(long[] values, int low, int high, long target)
+   {
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (values[mid] < target)
+         {
+            low = mid + 1;
+         }
+         else
+         {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   /**
+    * Find the last index in a range of a sorted array whose value is
+    * less than or equal to the target.
+    *
+    * @param values sorted array
+    * @param low first index to search
+    * @param high last index to search
+    * @param target target value
+    * @return index
+    */
+   private static int upperBound(long[] values, int low, int high, long target)
+   {
+      while (low < high)
+      {
+         int mid = (low + high + 1) >>> 1;
+         if (values[mid] > target)
+         {
+            high = mid - 1;
+         }
+         else
+         {
+            low = mid;
+         }
+      }
+      return low;
+   }
+
+   private final long[] m_dayStarts;
+   private final long[] m_fullWork;
+   private final long[] m_forwardWork;
+   private final long[] m_backwardWork;
+   private final int[] m_longForwardGaps;
+   private final int[] m_longBackwardGaps;
+
+   /**
+    * Longest run of non-working days ProjectCalendar.getDate will skip.
+    */
+   private static final int MAX_FORWARD_GAP = 1000;
+
+   /**
+    * Longest run of non-working days ProjectCalendar.getStartDate will skip.
+    */
+   private static final int MAX_BACKWARD_GAP = 7;
+}
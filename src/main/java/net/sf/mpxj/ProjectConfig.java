@@ -23,6 +23,7 @@
 
 package net.sf.mpxj;
 
+import net.sf.mpxj.common.FieldStore;
 import net.sf.mpxj.common.NumberHelper;
 
 /**
@@ -229,6 +230,42 @@ public class ProjectConfig
       return m_autoResourceID;
    }
 
+   /**
+    * Set the storage type used to hold field values for tasks,
+    * resources and resource assignments. This only affects entities
+    * created after this method has been called. Readers which create
+    * project files can be asked to use a storage type using
+    * AbstractProjectReader.setFieldStorageType.
+    *
+    * @param type field storage type
+    */
+   public void setFieldStorageType(FieldStorageType type)
+   {
+      m_fieldStorageType = type;
+   }
+
+   /**
+    * Retrieve the storage type used to hold field values for tasks,
+    * resources and resource assignments.
+    *
+    * @return field storage type
+    */
+   public FieldStorageType getFieldStorageType()
+   {
+      return m_fieldStorageType;
+   }
+
+   /**
+    * Create a store to hold the field values of an entity.
+    *
+    * @param size number of possible fields
+    * @return new FieldStore instance
+    */
+   FieldStore createFieldStore(int size)
+   {
+      return m_fieldStorageType.createStore(size);
+   }
+
    /**
     * This method is used to retrieve the next unique ID for a task.
     *
@@ -448,4 +485,9 @@ public class ProjectConfig
     */
    private int m_resourceID;
 
+   /**
+    * Storage type used to hold entity field values.
+    */
+   private FieldStorageType m_fieldStorageType = FieldStorageType.DENSE;
+
 }
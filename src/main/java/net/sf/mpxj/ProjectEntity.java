@@ -51,6 +51,23 @@ class ProjectEntity
       return (m_mpx);
    }
 
+   /**
+    * Called when a field is updated after the parent project has been
+    * frozen. Calculated fields are populated on first use by their getter
+    * methods, so an update which leaves the field value unchanged is
+    * silently ignored, any other update is rejected.
+    *
+    * @param oldValue current field value
+    * @param newValue new field value
+    */
+   protected void checkFrozenUpdate(Object oldValue, Object newValue)
+   {
+      if (oldValue == null ? newValue != null : !oldValue.equals(newValue))
+      {
+         throw new UnsupportedOperationException(ProjectFile.FROZEN_MESSAGE);
+      }
+   }
+
    /**
     * Reference to parent ProjectFile.
     */
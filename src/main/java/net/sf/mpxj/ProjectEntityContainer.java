@@ -104,6 +104,7 @@ public abstract class ProjectEntityContainer<T extends ProjectEntityWithUniqueID
     */
    public void unmapUniqueID(Integer id)
    {
+      checkFrozen();
       m_uniqueIDMap.remove(id);
    }
 
@@ -115,6 +116,7 @@ public abstract class ProjectEntityContainer<T extends ProjectEntityWithUniqueID
     */
    public void mapUniqueID(Integer id, T entity)
    {
+      checkFrozen();
       m_uniqueIDMap.put(id, entity);
    }
 
@@ -91,6 +91,7 @@ public abstract class ProjectEntityWithIDContainer<T extends ProjectEntityWithID
     */
    public void unmapID(Integer id)
    {
+      checkFrozen();
       m_idMap.remove(id);
    }
 
@@ -102,6 +103,7 @@ public abstract class ProjectEntityWithIDContainer<T extends ProjectEntityWithID
     */
    public void mapID(Integer id, T entity)
    {
+      checkFrozen();
       m_idMap.put(id, entity);
    }
 
@@ -23,11 +23,17 @@
 
 package net.sf.mpxj;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.ParallelHelper;
 
 /**
  * This class represents a project plan.
@@ -679,11 +685,169 @@ public final class ProjectFile implements ChildTaskContainer
       return result;
    }
 
+   /**
+    * Normalise the raw timephased data held by every resource assignment
+    * in this project. Timephased data read from a schedule is normally
+    * held in its raw form, and normalised by the first call to retrieve
+    * it. Where the timephased data for every assignment will be used, this
+    * method allows the work to be shared between a number of threads.
+    * Assignments are grouped by calendar, so each thread works with as
+    * few calendars as possible. The project must not be modified by
+    * another thread while this method runs.
+    *
+    * @param parallelism number of threads to use
+    */
+   public void normaliseTimephasedData(int parallelism) throws MPXJException
+   {
+      //
+      // Complete any deferred work in the calendars before they
+      // are shared between threads, and group the assignments by calendar.
+      //
+      for (ProjectCalendar calendar : m_calendars)
+      {
+         calendar.prepareForConcurrentUse();
+      }
+
+      Map<ProjectCalendar, List<ResourceAssignment>> map = new LinkedHashMap<ProjectCalendar, List<ResourceAssignment>>();
+      for (ResourceAssignment assignment : m_assignments)
+      {
+         ProjectCalendar calendar = assignment.getCalendar();
+         List<ResourceAssignment> list = map.get(calendar);
+         if (list == null)
+         {
+            list = new ArrayList<ResourceAssignment>();
+            map.put(calendar, list);
+         }
+         list.add(assignment);
+      }
+
+      final List<ResourceAssignment> assignments = new ArrayList<ResourceAssignment>(m_assignments.size());
+      for (List<ResourceAssignment> list : map.values())
+      {
+         assignments.addAll(list);
+      }
+
+      int assignmentCount = assignments.size();
+      int threadCount = Math.min(parallelism, assignmentCount / MIN_ASSIGNMENTS_PER_THREAD);
+
+      if (threadCount < 2)
+      {
+         normaliseTimephasedData(assignments, 0, assignmentCount);
+      }
+      else
+      {
+         List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threadCount);
+         int assignmentsPerThread = (assignmentCount + threadCount - 1) / threadCount;
+         for (int start = 0; start < assignmentCount; start += assignmentsPerThread)
+         {
+            final int rangeStart = start;
+            final int rangeEnd = Math.min(start + assignmentsPerThread, assignmentCount);
+            tasks.add(new Callable<Void>()
+            {
+               @Override public Void call()
+               {
+                  normaliseTimephasedData(assignments, rangeStart, rangeEnd);
+                  return null;
+               }
+            });
+         }
+
+         try
+         {
+            ParallelHelper.invokeAll(tasks, threadCount, MPXJException.class);
+         }
+
+         catch (InterruptedException ex)
+         {
+            Thread.currentThread().interrupt();
+            throw new MPXJException("Interrupted while normalising timephased data", ex);
+         }
+      }
+   }
+
+   /**
+    * Normalise the timephased data for a range of assignments.
+    *
+    * @param assignments resource assignments
+    * @param start first assignment index
+    * @param end last assignment index (exclusive)
+    */
+   private void normaliseTimephasedData(List<ResourceAssignment> assignments, int start, int end)
+   {
+      for (int index = start; index < end; index++)
+      {
+         assignments.get(index).normaliseTimephasedData();
+      }
+   }
+
+   /**
+    * Freeze this project. Calculated field values are populated, deferred
+    * sorting is completed, and from this point on any attempt to change the
+    * project's tasks, resources, assignments, calendars or containers throws
+    * an UnsupportedOperationException. A frozen project can be shared by
+    * any number of threads which query it concurrently, without locking.
+    * Once frozen, a project can't be unfrozen.
+    */
+   public void freeze()
+   {
+      if (!m_frozen)
+      {
+         //
+         // Ensure the default calendar exists before we freeze the calendars
+         //
+         getDefaultCalendar();
+
+         for (ProjectCalendar calendar : m_calendars)
+         {
+            calendar.freeze();
+         }
+
+         for (Task task : m_tasks)
+         {
+            task.freeze();
+         }
+
+         for (Resource resource : m_resources)
+         {
+            resource.freeze();
+         }
+
+         for (ResourceAssignment assignment : m_assignments)
+         {
+            assignment.freeze();
+         }
+
+         m_childTasks = Collections.unmodifiableList(m_childTasks);
+         m_tasks.freeze();
+         m_resources.freeze();
+         m_assignments.freeze();
+         m_calendars.freeze();
+         m_tables.freeze();
+         m_groups.freeze();
+         m_subProjects.freeze();
+         m_views.freeze();
+         m_customFields.freeze();
+         m_activityCodes.freeze();
+         m_dataLinks.freeze();
+         m_frozen = true;
+      }
+   }
+
+   /**
+    * Retrieve the flag indicating if this project has been frozen.
+    *
+    * @return true if this project is frozen
+    */
+   public boolean isFrozen()
+   {
+      return m_frozen;
+   }
+
    private final ProjectConfig m_config = new ProjectConfig(this);
    private final ProjectProperties m_properties = new ProjectProperties(this);
    private final ResourceContainer m_resources = new ResourceContainer(this);
    private final TaskContainer m_tasks = new TaskContainer(this);
-   private final List<Task> m_childTasks = new LinkedList<Task>();
+   private List<Task> m_childTasks = new LinkedList<Task>();
    private final ResourceAssignmentContainer m_assignments = new ResourceAssignmentContainer(this);
    private final ProjectCalendarContainer m_calendars = new ProjectCalendarContainer(this);
    private final TableContainer m_tables = new TableContainer();
@@ -695,4 +859,12 @@ public final class ProjectFile implements ChildTaskContainer
    private final CustomFieldContainer m_customFields = new CustomFieldContainer();
    private final ActivityCodeContainer m_activityCodes = new ActivityCodeContainer();
    private final DataLinkContainer m_dataLinks = new DataLinkContainer();
+   private volatile boolean m_frozen;
+
+   /**
+    * Message used when an attempt is made to modify a frozen project.
+    */
+   static final String FROZEN_MESSAGE = "Project is frozen and can't be modified";
+
+   private static final int MIN_ASSIGNMENTS_PER_THREAD = 16;
 }
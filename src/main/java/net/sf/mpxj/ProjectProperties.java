@@ -2717,7 +2717,14 @@ public final class ProjectProperties extends ProjectEntity implements FieldConta
       if (field != null)
       {
          int index = field.getValue();
-         m_array[index] = value;
+         if (getParentFile().isFrozen())
+         {
+            checkFrozenUpdate(m_array[index], value);
+         }
+         else
+         {
+            m_array[index] = value;
+         }
       }
    }
 
@@ -24,6 +24,7 @@
 
 package net.sf.mpxj;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
@@ -31,6 +32,7 @@ import java.util.UUID;
 
 import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.FieldStore;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.ResourceFieldLists;
 import net.sf.mpxj.listener.FieldListener;
@@ -48,6 +50,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
    Resource(ProjectFile file)
    {
       super(file);
+      m_fields = file.getProjectConfig().createFieldStore(ResourceField.MAX_VALUE);
 
       setType(ResourceType.WORK);
       ProjectConfig config = file.getProjectConfig();
@@ -2323,12 +2326,70 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       return (fields[index - 1]);
    }
 
+   /**
+    * Retrieve the cost as a primitive value.
+    *
+    * @return cost, or zero if not set
+    */
+   public double getCostValue()
+   {
+      return getCachedDouble(ResourceField.COST);
+   }
+
+   /**
+    * Retrieve the work amount as a primitive value. The units
+    * can be retrieved using {@code getCachedUnits(ResourceField.WORK)}.
+    *
+    * @return work amount, or zero if not set
+    */
+   public double getWorkValue()
+   {
+      return getCachedDouble(ResourceField.WORK);
+   }
+
+   /**
+    * Retrieve a date field value as milliseconds since the epoch.
+    * Avoids creating a Date instance when primitive field storage is in use.
+    *
+    * @param field field identifier
+    * @return date in milliseconds, or DateHelper.NULL_MILLIS if the field is not populated
+    */
+   public long getCachedMillis(FieldType field)
+   {
+      return (field == null ? DateHelper.NULL_MILLIS : m_fields.getMillis(field.getValue(), DateHelper.NULL_MILLIS));
+   }
+
+   /**
+    * Retrieve a numeric field value, or the amount of a duration field.
+    * Avoids creating a Number or Duration instance when primitive field
+    * storage is in use.
+    *
+    * @param field field identifier
+    * @return numeric value, or zero if the field is not populated
+    */
+   public double getCachedDouble(FieldType field)
+   {
+      return (field == null ? 0 : m_fields.getDouble(field.getValue(), 0));
+   }
+
+   /**
+    * Retrieve the units of a duration field.
+    * Avoids creating a Duration instance when primitive field storage is in use.
+    *
+    * @param field field identifier
+    * @return duration units, or null if the field is not populated
+    */
+   public TimeUnit getCachedUnits(FieldType field)
+   {
+      return (field == null ? null : m_fields.getUnits(field.getValue()));
+   }
+
    /**
     * {@inheritDoc}
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : m_fields.get(field.getValue()));
    }
 
    /**
@@ -2376,7 +2437,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
 
             default:
             {
-               result = m_array[field.getValue()];
+               result = m_fields.get(field.getValue());
                break;
             }
          }
@@ -2393,11 +2454,18 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       if (field != null)
       {
          int index = field.getValue();
-         if (m_eventsEnabled)
+         if (getParentFile().isFrozen())
+         {
+            checkFrozenUpdate(m_fields.get(index), value);
+         }
+         else
          {
-            fireFieldChangeEvent((ResourceField) field, m_array[index], value);
+            if (m_eventsEnabled)
+            {
+               fireFieldChangeEvent((ResourceField) field, m_fields.get(index), value);
+            }
+            m_fields.set(index, value);
          }
-         m_array[index] = value;
       }
    }
 
@@ -2439,35 +2507,35 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
          case COST:
          case BASELINE_COST:
          {
-            m_array[ResourceField.COST_VARIANCE.getValue()] = null;
+            m_fields.set(ResourceField.COST_VARIANCE.getValue(), null);
             break;
          }
 
          case WORK:
          case BASELINE_WORK:
          {
-            m_array[ResourceField.WORK_VARIANCE.getValue()] = null;
+            m_fields.set(ResourceField.WORK_VARIANCE.getValue(), null);
             break;
          }
 
          case BCWP:
          case ACWP:
          {
-            m_array[ResourceField.CV.getValue()] = null;
-            m_array[ResourceField.SV.getValue()] = null;
+            m_fields.set(ResourceField.CV.getValue(), null);
+            m_fields.set(ResourceField.SV.getValue(), null);
             break;
          }
 
          case BCWS:
          {
-            m_array[ResourceField.SV.getValue()] = null;
+            m_fields.set(ResourceField.SV.getValue(), null);
             break;
          }
 
          case PEAK:
          case MAX_UNITS:
          {
-            m_array[ResourceField.OVERALLOCATED.getValue()] = null;
+            m_fields.set(ResourceField.OVERALLOCATED.getValue(), null);
             break;
          }
 
@@ -2523,6 +2591,20 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       set(field, (value ? Boolean.TRUE : Boolean.FALSE));
    }
 
+   /**
+    * Populate the calculated fields for this resource and prevent further
+    * changes to its list of assignments. Called when the parent project is frozen.
+    */
+   void freeze()
+   {
+      for (ResourceField field : CALCULATED_FIELDS)
+      {
+         getCurrentValue(field);
+      }
+      m_assignments = Collections.unmodifiableList(m_assignments);
+      m_fields.freeze();
+   }
+
    /**
     * Disable events firing when fields are updated.
     */
@@ -2587,9 +2669,9 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
    }
 
    /**
-    * Array of field values.
+    * Field values.
     */
-   private Object[] m_array = new Object[ResourceField.MAX_VALUE];
+   private final FieldStore m_fields;
 
    /**
     * List of all assignments for this resource.
@@ -2603,4 +2685,16 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
    private CostRateTable[] m_costRateTables = new CostRateTable[5];
    private AvailabilityTable m_availability = new AvailabilityTable();
    private List<FieldListener> m_listeners;
+
+   /**
+    * Fields which are calculated when first read.
+    */
+   private static final ResourceField[] CALCULATED_FIELDS =
+   {
+      ResourceField.COST_VARIANCE,
+      ResourceField.WORK_VARIANCE,
+      ResourceField.CV,
+      ResourceField.SV,
+      ResourceField.OVERALLOCATED
+   };
 }
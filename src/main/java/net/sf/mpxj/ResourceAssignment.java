@@ -34,7 +34,9 @@ import net.sf.mpxj.common.AssignmentFieldLists;
 import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.common.FieldStore;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TimephasedCostSeries;
 import net.sf.mpxj.listener.FieldListener;
 
 /**
@@ -51,6 +53,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
    public ResourceAssignment(ProjectFile file, Task task)
    {
       super(file);
+      m_fields = file.getProjectConfig().createFieldStore(AssignmentField.MAX_VALUE);
 
       if (file.getProjectConfig().getAutoAssignmentUniqueID() == true)
       {
@@ -704,7 +707,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
     */
    private List<TimephasedCost> getTimephasedCostSingleRate(List<TimephasedWork> standardWorkList, List<TimephasedWork> overtimeWorkList)
    {
-      List<TimephasedCost> result = new LinkedList<TimephasedCost>();
+      List<TimephasedCost> result = new TimephasedCostSeries();
 
       //just return an empty list if there is no timephased work passed in
       if (standardWorkList == null)
@@ -845,7 +848,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
     */
    private List<TimephasedCost> getTimephasedCostFixedAmount()
    {
-      List<TimephasedCost> result = new LinkedList<TimephasedCost>();
+      List<TimephasedCost> result = new TimephasedCostSeries();
 
       ProjectCalendar cal = getCalendar();
 
@@ -919,7 +922,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
     */
    private List<TimephasedCost> getTimephasedActualCostFixedAmount()
    {
-      List<TimephasedCost> result = new LinkedList<TimephasedCost>();
+      List<TimephasedCost> result = new TimephasedCostSeries();
 
       double actualCost = getActualCost().doubleValue();
 
@@ -2705,11 +2708,18 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       if (field != null)
       {
          int index = field.getValue();
-         if (m_eventsEnabled)
+         if (getParentFile().isFrozen())
          {
-            fireFieldChangeEvent((AssignmentField) field, m_array[index], value);
+            checkFrozenUpdate(m_fields.get(index), value);
+         }
+         else
+         {
+            if (m_eventsEnabled)
+            {
+               fireFieldChangeEvent((AssignmentField) field, m_fields.get(index), value);
+            }
+            m_fields.set(index, value);
          }
-         m_array[index] = value;
       }
    }
 
@@ -2743,43 +2753,43 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
          case START:
          case BASELINE_START:
          {
-            m_array[AssignmentField.START_VARIANCE.getValue()] = null;
+            m_fields.set(AssignmentField.START_VARIANCE.getValue(), null);
             break;
          }
 
          case FINISH:
          case BASELINE_FINISH:
          {
-            m_array[AssignmentField.FINISH_VARIANCE.getValue()] = null;
+            m_fields.set(AssignmentField.FINISH_VARIANCE.getValue(), null);
             break;
          }
 
          case BCWP:
          case ACWP:
          {
-            m_array[AssignmentField.CV.getValue()] = null;
-            m_array[AssignmentField.SV.getValue()] = null;
+            m_fields.set(AssignmentField.CV.getValue(), null);
+            m_fields.set(AssignmentField.SV.getValue(), null);
             break;
          }
 
          case COST:
          case BASELINE_COST:
          {
-            m_array[AssignmentField.COST_VARIANCE.getValue()] = null;
+            m_fields.set(AssignmentField.COST_VARIANCE.getValue(), null);
             break;
          }
 
          case WORK:
          case BASELINE_WORK:
          {
-            m_array[AssignmentField.WORK_VARIANCE.getValue()] = null;
+            m_fields.set(AssignmentField.WORK_VARIANCE.getValue(), null);
             break;
          }
 
          case ACTUAL_OVERTIME_COST:
          case REMAINING_OVERTIME_COST:
          {
-            m_array[AssignmentField.OVERTIME_COST.getValue()] = null;
+            m_fields.set(AssignmentField.OVERTIME_COST.getValue(), null);
             break;
          }
 
@@ -2824,12 +2834,102 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       }
    }
 
+   /**
+    * Retrieve the start date as milliseconds since the epoch.
+    * If the assignment start date is not set, the task start date is used.
+    *
+    * @return start date in milliseconds, or DateHelper.NULL_MILLIS if not set
+    */
+   public long getStartMillis()
+   {
+      long result = getCachedMillis(AssignmentField.START);
+      if (result == DateHelper.NULL_MILLIS)
+      {
+         result = getTask().getStartMillis();
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the finish date as milliseconds since the epoch.
+    * If the assignment finish date is not set, the task finish date is used.
+    *
+    * @return finish date in milliseconds, or DateHelper.NULL_MILLIS if not set
+    */
+   public long getFinishMillis()
+   {
+      long result = getCachedMillis(AssignmentField.FINISH);
+      if (result == DateHelper.NULL_MILLIS)
+      {
+         result = getTask().getFinishMillis();
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the cost as a primitive value.
+    *
+    * @return cost, or zero if not set
+    */
+   public double getCostValue()
+   {
+      return getCachedDouble(AssignmentField.COST);
+   }
+
+   /**
+    * Retrieve the work amount as a primitive value. The units
+    * can be retrieved using {@code getCachedUnits(AssignmentField.WORK)}.
+    *
+    * @return work amount, or zero if not set
+    */
+   public double getWorkValue()
+   {
+      return getCachedDouble(AssignmentField.WORK);
+   }
+
+   /**
+    * Retrieve a date field value as milliseconds since the epoch.
+    * Avoids creating a Date instance when primitive field storage is in use.
+    *
+    * @param field field identifier
+    * @return date in milliseconds, or DateHelper.NULL_MILLIS if the field is not populated
+    */
+   public long getCachedMillis(FieldType field)
+   {
+      return (field == null ? DateHelper.NULL_MILLIS : m_fields.getMillis(field.getValue(), DateHelper.NULL_MILLIS));
+   }
+
+   /**
+    * Retrieve a numeric field value, or the amount of a duration field.
+    * Avoids creating a Number or Duration instance when primitive field
+    * storage is in use.
+    *
+    * @param field field identifier
+    * @return numeric value, or zero if the field is not populated
+    */
+   public double getCachedDouble(FieldType field)
+   {
+      return (field == null ? 0 : m_fields.getDouble(field.getValue(), 0));
+   }
+
+   /**
+    * Retrieve the units of a duration field.
+    * Avoids creating a Duration instance when primitive field storage is in use.
+    *
+    * @param field field identifier
+    * @return duration units, or null if the field is not populated
+    */
+   public TimeUnit getCachedUnits(FieldType field)
+   {
+      return (field == null ? null : m_fields.getUnits(field.getValue()));
+   }
+
    /**
     * {@inheritDoc}
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : m_fields.get(field.getValue()));
    }
 
    /**
@@ -2843,12 +2943,58 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       {
          int fieldValue = field.getValue();
 
-         result = m_array[fieldValue];
+         result = m_fields.get(fieldValue);
       }
 
       return (result);
    }
 
+   /**
+    * Normalise any raw timephased data held by this assignment. The
+    * calendars used by the assignment must be prepared for concurrent
+    * use before this method is called from a worker thread.
+    */
+   void normaliseTimephasedData()
+   {
+      getTimephasedWork();
+      getTimephasedActualWork();
+      getTimephasedActualOvertimeWork();
+      for (int index = 0; index < m_timephasedBaselineWork.length; index++)
+      {
+         getTimephasedBaselineWork(index);
+         getTimephasedBaselineCost(index);
+      }
+   }
+
+   /**
+    * Populate the calculated fields and timephased data for this
+    * assignment. Called when the parent project is frozen.
+    */
+   void freeze()
+   {
+      getOvertimeCost();
+      getSV();
+      getCV();
+      getCostVariance();
+      getPercentageWorkComplete();
+      getWorkVariance();
+      getStartVariance();
+      getFinishVariance();
+
+      getTimephasedWork();
+      getTimephasedActualWork();
+      getTimephasedOvertimeWork();
+      getTimephasedActualOvertimeWork();
+      getTimephasedCost();
+      getTimephasedActualCost();
+      for (int index = 0; index < m_timephasedBaselineWork.length; index++)
+      {
+         getTimephasedBaselineWork(index);
+         getTimephasedBaselineCost(index);
+      }
+      m_fields.freeze();
+   }
+
    /**
     * Disable events firing when fields are updated.
     */
@@ -2866,9 +3012,9 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
    }
 
    /**
-    * Array of field values.
+    * Field values.
     */
-   private Object[] m_array = new Object[AssignmentField.MAX_VALUE];
+   private final FieldStore m_fields;
 
    private boolean m_eventsEnabled = true;
 
@@ -24,6 +24,7 @@
 
 package net.sf.mpxj;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -32,6 +33,7 @@ import java.util.UUID;
 
 import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.FieldStore;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.TaskFieldLists;
 import net.sf.mpxj.listener.FieldListener;
@@ -50,6 +52,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    Task(ProjectFile file, Task parent)
    {
       super(file);
+      m_fields = file.getProjectConfig().createFieldStore(TaskField.MAX_VALUE);
 
       setType(TaskType.FIXED_UNITS);
       setConstraintType(ConstraintType.AS_SOON_AS_POSSIBLE);
@@ -4718,12 +4721,101 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       return (fields[index - 1]);
    }
 
+   /**
+    * Retrieve the start date as milliseconds since the epoch.
+    *
+    * @return start date in milliseconds, or DateHelper.NULL_MILLIS if not set
+    */
+   public long getStartMillis()
+   {
+      return getCachedMillis(TaskField.START);
+   }
+
+   /**
+    * Retrieve the finish date as milliseconds since the epoch.
+    *
+    * @return finish date in milliseconds, or DateHelper.NULL_MILLIS if not set
+    */
+   public long getFinishMillis()
+   {
+      return getCachedMillis(TaskField.FINISH);
+   }
+
+   /**
+    * Retrieve the cost as a primitive value.
+    *
+    * @return cost, or zero if not set
+    */
+   public double getCostValue()
+   {
+      return getCachedDouble(TaskField.COST);
+   }
+
+   /**
+    * Retrieve the duration amount as a primitive value. The units
+    * can be retrieved using {@code getCachedUnits(TaskField.DURATION)}.
+    *
+    * @return duration amount, or zero if not set
+    */
+   public double getDurationValue()
+   {
+      return getCachedDouble(TaskField.DURATION);
+   }
+
+   /**
+    * Retrieve the work amount as a primitive value. The units
+    * can be retrieved using {@code getCachedUnits(TaskField.WORK)}.
+    *
+    * @return work amount, or zero if not set
+    */
+   public double getWorkValue()
+   {
+      return getCachedDouble(TaskField.WORK);
+   }
+
+   /**
+    * Retrieve a date field value as milliseconds since the epoch.
+    * Avoids creating a Date instance when primitive field storage is in use.
+    *
+    * @param field field identifier
+    * @return date in milliseconds, or DateHelper.NULL_MILLIS if the field is not populated
+    */
+   public long getCachedMillis(FieldType field)
+   {
+      return (field == null ? DateHelper.NULL_MILLIS : m_fields.getMillis(field.getValue(), DateHelper.NULL_MILLIS));
+   }
+
+   /**
+    * Retrieve a numeric field value, or the amount of a duration field.
+    * Avoids creating a Number or Duration instance when primitive field
+    * storage is in use.
+    *
+    * @param field field identifier
+    * @return numeric value, or zero if the field is not populated
+    */
+   public double getCachedDouble(FieldType field)
+   {
+      return (field == null ? 0 : m_fields.getDouble(field.getValue(), 0));
+   }
+
+   /**
+    * Retrieve the units of a duration field.
+    * Avoids creating a Duration instance when primitive field storage is in use.
+    *
+    * @param field field identifier
+    * @return duration units, or null if the field is not populated
+    */
+   public TimeUnit getCachedUnits(FieldType field)
+   {
+      return (field == null ? null : m_fields.getUnits(field.getValue()));
+   }
+
    /**
     * {@inheritDoc}
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : m_fields.get(field.getValue()));
    }
 
    /**
@@ -4817,7 +4909,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
 
             default:
             {
-               result = m_array[field.getValue()];
+               result = m_fields.get(field.getValue());
                break;
             }
          }
@@ -4834,11 +4926,18 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       if (field != null)
       {
          int index = field.getValue();
-         if (m_eventsEnabled)
+         if (getParentFile().isFrozen())
          {
-            fireFieldChangeEvent((TaskField) field, m_array[index], value);
+            checkFrozenUpdate(m_fields.get(index), value);
+         }
+         else
+         {
+            if (m_eventsEnabled)
+            {
+               fireFieldChangeEvent((TaskField) field, m_fields.get(index), value);
+            }
+            m_fields.set(index, value);
          }
-         m_array[index] = value;
       }
    }
 
@@ -4872,88 +4971,88 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
          case START:
          case BASELINE_START:
          {
-            m_array[TaskField.START_VARIANCE.getValue()] = null;
+            m_fields.set(TaskField.START_VARIANCE.getValue(), null);
             break;
          }
 
          case FINISH:
          case BASELINE_FINISH:
          {
-            m_array[TaskField.FINISH_VARIANCE.getValue()] = null;
+            m_fields.set(TaskField.FINISH_VARIANCE.getValue(), null);
             break;
          }
 
          case COST:
          case BASELINE_COST:
          {
-            m_array[TaskField.COST_VARIANCE.getValue()] = null;
+            m_fields.set(TaskField.COST_VARIANCE.getValue(), null);
             break;
          }
 
          case DURATION:
          {
-            m_array[TaskField.DURATION_VARIANCE.getValue()] = null;
-            m_array[TaskField.COMPLETE_THROUGH.getValue()] = null;
+            m_fields.set(TaskField.DURATION_VARIANCE.getValue(), null);
+            m_fields.set(TaskField.COMPLETE_THROUGH.getValue(), null);
             break;
          }
 
          case BASELINE_DURATION:
          {
-            m_array[TaskField.DURATION_VARIANCE.getValue()] = null;
+            m_fields.set(TaskField.DURATION_VARIANCE.getValue(), null);
             break;
          }
 
          case WORK:
          case BASELINE_WORK:
          {
-            m_array[TaskField.WORK_VARIANCE.getValue()] = null;
+            m_fields.set(TaskField.WORK_VARIANCE.getValue(), null);
             break;
          }
 
          case BCWP:
          case ACWP:
          {
-            m_array[TaskField.CV.getValue()] = null;
-            m_array[TaskField.SV.getValue()] = null;
+            m_fields.set(TaskField.CV.getValue(), null);
+            m_fields.set(TaskField.SV.getValue(), null);
             break;
          }
 
          case BCWS:
          {
-            m_array[TaskField.SV.getValue()] = null;
+            m_fields.set(TaskField.SV.getValue(), null);
             break;
          }
 
          case START_SLACK:
          case FINISH_SLACK:
          {
-            m_array[TaskField.TOTAL_SLACK.getValue()] = null;
-            m_array[TaskField.CRITICAL.getValue()] = null;
+            m_fields.set(TaskField.TOTAL_SLACK.getValue(), null);
+            m_fields.set(TaskField.CRITICAL.getValue(), null);
             break;
          }
 
          case EARLY_FINISH:
          case LATE_FINISH:
          {
-            m_array[TaskField.FINISH_SLACK.getValue()] = null;
-            m_array[TaskField.TOTAL_SLACK.getValue()] = null;
-            m_array[TaskField.CRITICAL.getValue()] = null;
+            m_fields.set(TaskField.FINISH_SLACK.getValue(), null);
+            m_fields.set(TaskField.TOTAL_SLACK.getValue(), null);
+            m_fields.set(TaskField.CRITICAL.getValue(), null);
             break;
          }
 
          case EARLY_START:
          case LATE_START:
          {
-            m_array[TaskField.START_SLACK.getValue()] = null;
-            m_array[TaskField.TOTAL_SLACK.getValue()] = null;
-            m_array[TaskField.CRITICAL.getValue()] = null;
+            m_fields.set(TaskField.START_SLACK.getValue(), null);
+            m_fields.set(TaskField.TOTAL_SLACK.getValue(), null);
+            m_fields.set(TaskField.CRITICAL.getValue(), null);
             break;
          }
 
          case ACTUAL_START:
          case PERCENT_COMPLETE:
          {
-            m_array[TaskField.COMPLETE_THROUGH.getValue()] = null;
+            m_fields.set(TaskField.COMPLETE_THROUGH.getValue(), null);
             break;
          }
 
@@ -5073,6 +5172,39 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       return result;
    }
 
+   /**
+    * Populate the calculated fields for this task and prevent further
+    * changes to the lists it holds. Called when the parent project is frozen.
+    */
+   void freeze()
+   {
+      for (TaskField field : CALCULATED_FIELDS)
+      {
+         getCurrentValue(field);
+      }
+
+      freezeRelations(TaskField.PREDECESSORS);
+      freezeRelations(TaskField.SUCCESSORS);
+      m_children = Collections.unmodifiableList(m_children);
+      m_assignments = Collections.unmodifiableList(m_assignments);
+      m_activityCodes = Collections.unmodifiableList(m_activityCodes);
+      m_fields.freeze();
+   }
+
+   /**
+    * Replace a list of relations with an unmodifiable view.
+    *
+    * @param field predecessors or successors field
+    */
+   @SuppressWarnings("unchecked") private void freezeRelations(TaskField field)
+   {
+      List<Relation> list = (List<Relation>) m_fields.get(field.getValue());
+      if (list != null)
+      {
+         m_fields.set(field.getValue(), Collections.unmodifiableList(list));
+      }
+   }
+
    /**
     * Disable events firing when fields are updated.
     */
@@ -5090,9 +5222,9 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    }
 
    /**
-    * Array of field values.
+    * Field values.
     */
-   private Object[] m_array = new Object[TaskField.MAX_VALUE];
+   private final FieldStore m_fields;
 
    /**
     * This is a reference to the parent task, as specified by the
@@ -5128,4 +5260,23 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    private String m_externalTaskProject;
    private boolean m_expanded = true;
    private List<FieldListener> m_listeners;
+
+   /**
+    * Fields which are calculated when first read.
+    */
+   private static final TaskField[] CALCULATED_FIELDS =
+   {
+      TaskField.START_VARIANCE,
+      TaskField.FINISH_VARIANCE,
+      TaskField.START_SLACK,
+      TaskField.FINISH_SLACK,
+      TaskField.COST_VARIANCE,
+      TaskField.DURATION_VARIANCE,
+      TaskField.WORK_VARIANCE,
+      TaskField.CV,
+      TaskField.SV,
+      TaskField.TOTAL_SLACK,
+      TaskField.CRITICAL,
+      TaskField.COMPLETE_THROUGH
+   };
 }
@@ -0,0 +1,210 @@
+/*
+ * file:       AbstractRow.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.asta;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.BooleanHelper;
+import net.sf.mpxj.common.NumberHelper;
+
+/**
+ * Implementation of the typed accessors defined by the Row interface.
+ * Sub classes determine how the underlying values are stored.
+ */
+abstract class AbstractRow implements Row
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public String getString(String name)
+   {
+      Object value = getObject(name);
+      String result;
+      if (value instanceof byte[])
+      {
+         result = new String((byte[]) value);
+      }
+      else
+      {
+         result = (String) value;
+      }
+      return (result);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Integer getInteger(String name)
+   {
+      Object result = getObject(name);
+      if (result != null)
+      {
+         if (result instanceof Integer == false)
+         {
+            result = Integer.valueOf(((Number) result).intValue());
+         }
+      }
+      return ((Integer) result);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Double getDouble(String name)
+   {
+      Object result = getObject(name);
+      if (result != null)
+      {
+         if (result instanceof Double == false)
+         {
+            result = Double.valueOf(((Number) result).doubleValue());
+         }
+      }
+      return ((Double) result);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Double getCurrency(String name)
+   {
+      Double value = getDouble(name);
+      if (value != null)
+      {
+         value = Double.valueOf(value.doubleValue() / 100);
+      }
+      return (value);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public boolean getBoolean(String name)
+   {
+      boolean result = false;
+      Object value = getObject(name);
+      if (value != null)
+      {
+         if (value instanceof Boolean)
+         {
+            result = BooleanHelper.getBoolean((Boolean) value);
+         }
+         else
+         {
+            result = (((Number) value).intValue() == 1);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int getInt(String name)
+   {
+      return (NumberHelper.getInt((Number) getObject(name)));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Date getDate(String name)
+   {
+      return ((Date) getObject(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Duration getDuration(String name)
+   {
+      return (Duration.getInstance(NumberHelper.getDouble(getDouble(name)), TimeUnit.HOURS));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Duration getWork(String name)
+   {
+      return (Duration.getInstance(NumberHelper.getDouble(getDouble(name)) / 3600, TimeUnit.HOURS));
+   }
+
+   /**
+    * Retrieve a value from the row.
+    *
+    * @param name column name
+    * @return column value
+    */
+   public abstract Object getObject(String name);
+
+   /**
+    * Set a value in the row.
+    *
+    * @param name column name
+    * @param value column value
+    */
+   protected abstract void setObject(String name, Object value);
+
+   /**
+    * Retrieve a Map instance containing the row data.
+    *
+    * @return Map instance
+    */
+   public abstract Map<String, Object> getMap();
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void addChild(Row row)
+   {
+      m_childRows.add(row);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public List<Row> getChildRows()
+   {
+      return m_childRows;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void merge(Row row, String prefix)
+   {
+      Map<String, Object> otherMap = ((AbstractRow) row).getMap();
+      for (Map.Entry<String, Object> entry : otherMap.entrySet())
+      {
+         setObject(prefix + entry.getKey(), entry.getValue());
+      }
+   }
+
+   private List<Row> m_childRows = new ArrayList<Row>();
+}
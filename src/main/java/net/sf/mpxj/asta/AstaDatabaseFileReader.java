@@ -43,6 +43,7 @@ import java.util.Properties;
 import net.sf.mpxj.DayType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.FileHelper;
 import net.sf.mpxj.common.InputStreamHelper;
 import net.sf.mpxj.common.NumberHelper;
@@ -299,9 +300,10 @@ public final class AstaDatabaseFileReader implements ProjectReader
       m_ps = m_connection.prepareStatement(sql);
       m_rs = m_ps.executeQuery();
       populateMetaData();
+      ColumnarTable table = SqliteResultSetRow.createTable(m_meta);
       while (m_rs.next())
       {
-         result.add(new SqliteResultSetRow(m_rs, m_meta));
+         result.add(new SqliteResultSetRow(m_rs, m_meta, table));
       }
 
       return (result);
@@ -324,9 +326,10 @@ public final class AstaDatabaseFileReader implements ProjectReader
       m_ps.setInt(1, NumberHelper.getInt(var));
       m_rs = m_ps.executeQuery();
       populateMetaData();
+      ColumnarTable table = SqliteResultSetRow.createTable(m_meta);
       while (m_rs.next())
       {
-         result.add(new SqliteResultSetRow(m_rs, m_meta));
+         result.add(new SqliteResultSetRow(m_rs, m_meta, table));
       }
 
       return (result);
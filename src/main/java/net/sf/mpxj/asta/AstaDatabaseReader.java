@@ -42,6 +42,7 @@ import javax.sql.DataSource;
 import net.sf.mpxj.DayType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.ProjectReader;
@@ -373,9 +374,10 @@ public final class AstaDatabaseReader implements ProjectReader
          m_ps = m_connection.prepareStatement(sql);
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = MpdResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new MpdResultSetRow(m_rs, m_meta));
+            result.add(new MpdResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
@@ -408,9 +410,10 @@ public final class AstaDatabaseReader implements ProjectReader
          m_ps.setInt(1, NumberHelper.getInt(var));
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = MpdResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new MpdResultSetRow(m_rs, m_meta));
+            result.add(new MpdResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
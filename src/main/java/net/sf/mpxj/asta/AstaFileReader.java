@@ -109,7 +109,8 @@ public final class AstaFileReader extends AbstractProjectReader
     */
    private ProjectFile readTextFile(InputStream inputStream) throws MPXJException
    {
-      ProjectReader reader = new AstaTextFileReader();
+      AstaTextFileReader reader = new AstaTextFileReader();
+      reader.setFieldStorageType(getFieldStorageType());
       addListeners(reader);
       return reader.read(inputStream);
    }
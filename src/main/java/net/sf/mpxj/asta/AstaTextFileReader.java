@@ -71,6 +71,7 @@ final class AstaTextFileReader extends AbstractProjectReader
       {
          m_reader = new AstaReader();
          ProjectFile project = m_reader.getProject();
+         project.getProjectConfig().setFieldStorageType(getFieldStorageType());
          project.getEventManager().addProjectListeners(m_projectListeners);
 
          m_tables = new HashMap<String, List<Row>>();
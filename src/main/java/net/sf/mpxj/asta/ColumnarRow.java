@@ -0,0 +1,123 @@
+/*
+ * file:       ColumnarRow.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.asta;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.mpxj.common.ColumnarTable;
+import net.sf.mpxj.common.TableSchema;
+
+/**
+ * Implementation of the Row interface which represents a single row
+ * held in a ColumnarTable. Values merged from other rows which do not
+ * correspond to a column in the table are held separately.
+ */
+class ColumnarRow extends AbstractRow
+{
+   /**
+    * Constructor.
+    *
+    * @param table parent table
+    * @param row row index
+    */
+   public ColumnarRow(ColumnarTable table, int row)
+   {
+      m_table = table;
+      m_row = row;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int getInt(String name)
+   {
+      int column = m_table.getSchema().getOrdinal(name);
+      return (column == -1 ? super.getInt(name) : m_table.getInt(m_row, column));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Object getObject(String name)
+   {
+      Object result;
+      int column = m_table.getSchema().getOrdinal(name);
+      if (column == -1)
+      {
+         result = m_extraValues == null ? null : m_extraValues.get(name);
+      }
+      else
+      {
+         result = m_table.getObject(m_row, column);
+      }
+      return (result);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected void setObject(String name, Object value)
+   {
+      int column = m_table.getSchema().getOrdinal(name);
+      if (column == -1)
+      {
+         if (m_extraValues == null)
+         {
+            m_extraValues = new HashMap<String, Object>();
+         }
+         m_extraValues.put(name, value);
+      }
+      else
+      {
+         m_table.setValue(m_row, column, value);
+      }
+   }
+
+   /**
+    * Retrieve a new Map instance populated with the row data.
+    *
+    * @return Map instance
+    */
+   @Override public Map<String, Object> getMap()
+   {
+      TableSchema schema = m_table.getSchema();
+      Map<String, Object> result = new HashMap<String, Object>();
+      for (int column = 0; column < schema.getColumnCount(); column++)
+      {
+         result.put(schema.getColumnName(column), m_table.getObject(m_row, column));
+      }
+
+      if (m_extraValues != null)
+      {
+         result.putAll(m_extraValues);
+      }
+
+      return result;
+   }
+
+   protected final ColumnarTable m_table;
+   protected final int m_row;
+   private Map<String, Object> m_extraValues;
+}
@@ -23,20 +23,12 @@
 
 package net.sf.mpxj.asta;
 
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
 import java.util.Map;
 
-import net.sf.mpxj.Duration;
-import net.sf.mpxj.TimeUnit;
-import net.sf.mpxj.common.BooleanHelper;
-import net.sf.mpxj.common.NumberHelper;
-
 /**
  * Implementation of the Row interface, wrapping a Map.
  */
-class MapRow implements Row
+class MapRow extends AbstractRow
 {
    /**
     * Constructor.
@@ -48,171 +40,35 @@ class MapRow implements Row
       m_map = map;
    }
 
-   /**
-    * {@inheritDoc}
-    */
-   @Override public String getString(String name)
-   {
-      Object value = getObject(name);
-      String result;
-      if (value instanceof byte[])
-      {
-         result = new String((byte[]) value);
-      }
-      else
-      {
-         result = (String) value;
-      }
-      return (result);
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public Integer getInteger(String name)
-   {
-      Object result = getObject(name);
-      if (result != null)
-      {
-         if (result instanceof Integer == false)
-         {
-            result = Integer.valueOf(((Number) result).intValue());
-         }
-      }
-      return ((Integer) result);
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public Double getDouble(String name)
-   {
-      Object result = getObject(name);
-      if (result != null)
-      {
-         if (result instanceof Double == false)
-         {
-            result = Double.valueOf(((Number) result).doubleValue());
-         }
-      }
-      return ((Double) result);
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public Double getCurrency(String name)
-   {
-      Double value = getDouble(name);
-      if (value != null)
-      {
-         value = Double.valueOf(value.doubleValue() / 100);
-      }
-      return (value);
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public boolean getBoolean(String name)
-   {
-      boolean result = false;
-      Object value = getObject(name);
-      if (value != null)
-      {
-         if (value instanceof Boolean)
-         {
-            result = BooleanHelper.getBoolean((Boolean) value);
-         }
-         else
-         {
-            result = (((Number) value).intValue() == 1);
-         }
-      }
-      return result;
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public int getInt(String name)
-   {
-      return (NumberHelper.getInt((Number) getObject(name)));
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public Date getDate(String name)
-   {
-      return ((Date) getObject(name));
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public Duration getDuration(String name)
-   {
-      return (Duration.getInstance(NumberHelper.getDouble(getDouble(name)), TimeUnit.HOURS));
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public Duration getWork(String name)
-   {
-      return (Duration.getInstance(NumberHelper.getDouble(getDouble(name)) / 3600, TimeUnit.HOURS));
-   }
-
    /**
     * Retrieve a value from the map.
     *
     * @param name column name
     * @return column value
     */
-   public Object getObject(String name)
+   @Override public Object getObject(String name)
    {
       Object result = m_map.get(name);
       return (result);
    }
 
-   /**
-    * Retrieve the internal Map instance used to hold row data.
-    *
-    * @return Map instance
-    */
-   public Map<String, Object> getMap()
-   {
-      return m_map;
-   }
-
    /**
     * {@inheritDoc}
     */
-   @Override public void addChild(Row row)
+   @Override protected void setObject(String name, Object value)
    {
-      m_childRows.add(row);
+      m_map.put(name, value);
    }
 
    /**
-    * {@inheritDoc}
+    * Retrieve the internal Map instance used to hold row data.
+    *
+    * @return Map instance
     */
-   @Override public List<Row> getChildRows()
+   @Override public Map<String, Object> getMap()
    {
-      return m_childRows;
+      return m_map;
    }
 
-   /**
-    * {@inheritDoc}
-    */
-   @Override public void merge(Row row, String prefix)
-   {
-      Map<String, Object> otherMap = ((MapRow) row).m_map;
-      for (Map.Entry<String, Object> entry : otherMap.entrySet())
-      {
-         m_map.put(prefix + entry.getKey(), entry.getValue());
-      }
-   }
    protected Map<String, Object> m_map;
-   private List<Row> m_childRows = new ArrayList<Row>();
 }
@@ -28,30 +28,38 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TableSchema;
 
 /**
- * Implementation of the Row interface, wrapping a Map.
+ * Implementation of the Row interface, populated from the current
+ * row of a result set. The values are held in a table shared by all
+ * rows read from the same result set.
  */
-final class SqliteResultSetRow extends MapRow
+final class SqliteResultSetRow extends ColumnarRow
 {
    /**
     * Constructor.
     *
     * @param rs result set from which data is drawn
     * @param meta result set meta data
+    * @param table table to which this row is added
     */
-   public SqliteResultSetRow(ResultSet rs, Map<String, Integer> meta)
+   public SqliteResultSetRow(ResultSet rs, Map<String, Integer> meta, ColumnarTable table)
       throws SQLException
    {
-      super(new HashMap<String, Object>());
+      super(table, table.addRow());
+
+      TableSchema schema = table.getSchema();
 
       for (Entry<String, Integer> entry : meta.entrySet())
       {
@@ -150,8 +158,24 @@ final class SqliteResultSetRow extends MapRow
             value = null;
          }
 
-         m_map.put(name, value);
+         table.setValue(m_row, schema.getOrdinal(name), value);
+      }
+   }
+
+   /**
+    * Create a table to hold the rows read from a result set.
+    *
+    * @param meta result set meta data
+    * @return new table
+    */
+   public static ColumnarTable createTable(Map<String, Integer> meta)
+   {
+      List<String> names = new ArrayList<String>(meta.size());
+      for (String name : meta.keySet())
+      {
+         names.add(name.toUpperCase());
       }
+      return new ColumnarTable(new TableSchema(names));
    }
 
    /**
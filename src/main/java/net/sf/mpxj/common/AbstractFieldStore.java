@@ -0,0 +1,87 @@
+/*
+ * file:       AbstractFieldStore.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       03/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Date;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Implements the primitive accessors for field stores
+ * which hold all of their values as objects.
+ */
+public abstract class AbstractFieldStore implements FieldStore
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public long getMillis(int index, long defaultValue)
+   {
+      Object value = get(index);
+      return value instanceof Date ? ((Date) value).getTime() : defaultValue;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public double getDouble(int index, double defaultValue)
+   {
+      Object value = get(index);
+      double result;
+      if (value instanceof Number)
+      {
+         result = ((Number) value).doubleValue();
+      }
+      else
+      {
+         if (value instanceof Duration)
+         {
+            result = ((Duration) value).getDuration();
+         }
+         else
+         {
+            result = defaultValue;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public TimeUnit getUnits(int index)
+   {
+      Object value = get(index);
+      return value instanceof Duration ? ((Duration) value).getUnits() : null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void freeze()
+   {
+      // All values are already held as objects
+   }
+}
@@ -0,0 +1,277 @@
+/*
+ * file:       AbstractTimephasedSeries.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.RandomAccess;
+
+import net.sf.mpxj.TimephasedItem;
+
+/**
+ * A sequence of timephased items, held as parallel arrays of primitive
+ * values rather than as individual objects. The series can be used as a list
+ * of timephased items: each call to get creates a new item populated from the
+ * arrays, so changes made to an item retrieved from the series are not
+ * reflected in the series itself. Items can only be appended to the series.
+ *
+ * @param <T> timephased item type
+ */
+public abstract class AbstractTimephasedSeries<T extends TimephasedItem<?>> extends AbstractList<T> implements RandomAccess
+{
+   /**
+    * Constructor.
+    *
+    * @param capacity initial capacity
+    */
+   protected AbstractTimephasedSeries(int capacity)
+   {
+      m_capacity = capacity;
+      m_start = new long[capacity];
+      m_finish = new long[capacity];
+      m_modified = new boolean[capacity];
+   }
+
+   /**
+    * Copy constructor.
+    *
+    * @param source series to copy
+    */
+   protected AbstractTimephasedSeries(AbstractTimephasedSeries<T> source)
+   {
+      m_size = source.m_size;
+      m_capacity = source.m_size;
+      m_start = Arrays.copyOf(source.m_start, m_size);
+      m_finish = Arrays.copyOf(source.m_finish, m_size);
+      m_modified = Arrays.copyOf(source.m_modified, m_size);
+      m_ordered = source.m_ordered;
+   }
+
+   @Override public T get(int index)
+   {
+      checkIndex(index);
+      T item = createItem(index);
+      item.setStart(getDate(m_start[index]));
+      item.setFinish(getDate(m_finish[index]));
+      item.setModified(m_modified[index]);
+      return item;
+   }
+
+   @Override public int size()
+   {
+      return m_size;
+   }
+
+   /**
+    * Items may only be added to the end of the series.
+    *
+    * @param index index at which to add the item
+    * @param item item to add
+    */
+   @Override public void add(int index, T item)
+   {
+      if (index != m_size)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      if (m_size == m_capacity)
+      {
+         m_capacity = m_capacity == 0 ? INITIAL_CAPACITY : m_capacity * 2;
+         m_start = Arrays.copyOf(m_start, m_capacity);
+         m_finish = Arrays.copyOf(m_finish, m_capacity);
+         m_modified = Arrays.copyOf(m_modified, m_capacity);
+         setCapacity(m_capacity);
+      }
+
+      long start = getTime(item.getStart());
+      long finish = getTime(item.getFinish());
+
+      if (start == NULL_DATE || finish == NULL_DATE || (m_size != 0 && (start < m_start[m_size - 1] || finish < m_finish[m_size - 1])))
+      {
+         m_ordered = false;
+      }
+
+      m_start[m_size] = start;
+      m_finish[m_size] = finish;
+      m_modified[m_size] = item.getModified();
+      setAmounts(m_size, item);
+      ++m_size;
+      ++modCount;
+   }
+
+   /**
+    * Retrieve the start of an item as a timestamp.
+    *
+    * @param index item index
+    * @return start timestamp
+    */
+   public long getStartTime(int index)
+   {
+      checkIndex(index);
+      return m_start[index];
+   }
+
+   /**
+    * Retrieve the finish of an item as a timestamp.
+    *
+    * @param index item index
+    * @return finish timestamp
+    */
+   public long getFinishTime(int index)
+   {
+      checkIndex(index);
+      return m_finish[index];
+   }
+
+   /**
+    * Locate the first item, at or after a given index, which intersects
+    * with a date range. Where the items are in date order, which is the
+    * case for normalised timephased data, a binary search is used.
+    *
+    * @param rangeStart range start timestamp
+    * @param rangeEnd range end timestamp
+    * @param fromIndex index at which to start the search
+    * @return item index, or -1 if no item intersects with the range
+    */
+   public int getStartIndex(long rangeStart, long rangeEnd, int fromIndex)
+   {
+      int result = -1;
+
+      if (m_ordered)
+      {
+         //
+         // Find the first item which finishes at or after the range start.
+         // As the items are in order, if this item does not intersect with
+         // the range, none of the following items will.
+         //
+         int low = fromIndex;
+         int high = m_size;
+         while (low < high)
+         {
+            int mid = (low + high) >>> 1;
+            if (m_finish[mid] < rangeStart)
+            {
+               low = mid + 1;
+            }
+            else
+            {
+               high = mid;
+            }
+         }
+
+         if (low < m_size && (rangeStart >= m_start[low] || rangeEnd >= m_start[low]))
+         {
+            result = low;
+         }
+      }
+      else
+      {
+         for (int index = fromIndex; index < m_size; index++)
+         {
+            if (rangeStart > m_finish[index])
+            {
+               continue;
+            }
+
+            if (rangeStart >= m_start[index] || rangeEnd >= m_start[index])
+            {
+               result = index;
+               break;
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Create an item populated with the amounts held at a given index.
+    *
+    * @param index item index
+    * @return new item
+    */
+   protected abstract T createItem(int index);
+
+   /**
+    * Store the amounts from an item at a given index.
+    *
+    * @param index item index
+    * @param item source item
+    */
+   protected abstract void setAmounts(int index, T item);
+
+   /**
+    * Resize the arrays used to hold amounts.
+    *
+    * @param capacity new capacity
+    */
+   protected abstract void setCapacity(int capacity);
+
+   /**
+    * Ensure that an index refers to an item in the series.
+    *
+    * @param index item index
+    */
+   protected void checkIndex(int index)
+   {
+      if (index < 0 || index >= m_size)
+      {
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
+      }
+   }
+
+   /**
+    * Convert a date to a timestamp.
+    *
+    * @param date date
+    * @return timestamp
+    */
+   private long getTime(Date date)
+   {
+      return date == null ? NULL_DATE : date.getTime();
+   }
+
+   /**
+    * Convert a timestamp to a date.
+    *
+    * @param time timestamp
+    * @return date
+    */
+   private Date getDate(long time)
+   {
+      return time == NULL_DATE ? null : new Date(time);
+   }
+
+   private int m_size;
+   private int m_capacity;
+   private long[] m_start;
+   private long[] m_finish;
+   private boolean[] m_modified;
+   private boolean m_ordered = true;
+
+   private static final long NULL_DATE = Long.MIN_VALUE;
+   private static final int INITIAL_CAPACITY = 16;
+}
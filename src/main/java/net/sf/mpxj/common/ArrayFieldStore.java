@@ -0,0 +1,76 @@
+/*
+ * file:       ArrayFieldStore.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       01/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+/**
+ * Field store which allocates a slot for every possible field.
+ * This gives the fastest access, at the cost of one reference
+ * per field type whether or not the field is populated.
+ */
+public final class ArrayFieldStore extends AbstractFieldStore
+{
+   /**
+    * Constructor.
+    *
+    * @param size number of possible fields
+    */
+   public ArrayFieldStore(int size)
+   {
+      m_array = new Object[size];
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Object get(int index)
+   {
+      return m_array[index];
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void set(int index, Object value)
+   {
+      m_array[index] = value;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int size()
+   {
+      int result = 0;
+      for (Object value : m_array)
+      {
+         if (value != null)
+         {
+            ++result;
+         }
+      }
+      return result;
+   }
+
+   private final Object[] m_array;
+}
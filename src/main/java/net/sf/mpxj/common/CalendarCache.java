@@ -0,0 +1,258 @@
+/*
+ * file:       CalendarCache.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded cache used to hold the results of calendar calculations.
+ * Values are keyed by a pair of long values, typically a pair of
+ * timestamps, so no key objects need to be created to perform a lookup.
+ *
+ * The cache is organised as a set of buckets, each holding two entries.
+ * A key maps to a single bucket. When a value is added to a full bucket
+ * the least recently used entry in that bucket is replaced. Entries are
+ * immutable and are published through an AtomicReferenceArray, so the
+ * cache can be used by multiple threads without locking. A race between
+ * threads updating the same bucket can at worst discard an entry, which
+ * will simply be recalculated the next time it is required.
+ *
+ * Storage is not allocated until the first value is added, so calendars
+ * which are never used for calculations do not pay for an empty cache.
+ *
+ * @param <V> value type
+ */
+public final class CalendarCache<V>
+{
+   /**
+    * Constructor.
+    *
+    * @param capacity maximum number of entries, zero disables the cache
+    */
+   public CalendarCache(int capacity)
+   {
+      if (capacity < 0)
+      {
+         throw new IllegalArgumentException("Cache capacity must not be negative");
+      }
+
+      int size = 0;
+      if (capacity != 0)
+      {
+         size = 2;
+         while (size < capacity)
+         {
+            size <<= 1;
+         }
+      }
+      m_capacity = size;
+   }
+
+   /**
+    * Retrieve the maximum number of entries held by this cache.
+    *
+    * @return capacity
+    */
+   public int getCapacity()
+   {
+      return m_capacity;
+   }
+
+   /**
+    * Retrieve a value from the cache.
+    *
+    * @param key1 first key value
+    * @param key2 second key value
+    * @return cached value, or null if the value is not present
+    */
+   public V get(long key1, long key2)
+   {
+      V result = null;
+      AtomicReferenceArray<Entry<V>> entries = m_entries;
+
+      if (entries != null)
+      {
+         int index = getIndex(key1, key2);
+         Entry<V> entry = entries.get(index);
+         if (entry != null && entry.m_key1 == key1 && entry.m_key2 == key2)
+         {
+            result = entry.m_value;
+         }
+         else
+         {
+            Entry<V> other = entries.get(index + 1);
+            if (other != null && other.m_key1 == key1 && other.m_key2 == key2)
+            {
+               //
+               // Move this entry to the first slot in the bucket,
+               // so the other entry will be replaced first
+               //
+               entries.set(index, other);
+               entries.set(index + 1, entry);
+               result = other.m_value;
+            }
+         }
+      }
+
+      if (result == null)
+      {
+         m_misses.incrementAndGet();
+      }
+      else
+      {
+         m_hits.incrementAndGet();
+      }
+
+      return result;
+   }
+
+   /**
+    * Add a value to the cache.
+    *
+    * @param key1 first key value
+    * @param key2 second key value
+    * @param value value to cache
+    */
+   public void put(long key1, long key2, V value)
+   {
+      if (m_capacity == 0)
+      {
+         return;
+      }
+
+      AtomicReferenceArray<Entry<V>> entries = getEntries();
+      int index = getIndex(key1, key2);
+      Entry<V> entry = entries.get(index);
+      if (entry == null || entry.m_key1 != key1 || entry.m_key2 != key2)
+      {
+         entries.set(index + 1, entry);
+      }
+      entries.set(index, new Entry<V>(key1, key2, value));
+   }
+
+   /**
+    * Remove all entries from the cache. The hit and miss counts are retained.
+    */
+   public void clear()
+   {
+      AtomicReferenceArray<Entry<V>> entries = m_entries;
+      if (entries != null)
+      {
+         for (int index = 0; index < entries.length(); index++)
+         {
+            entries.set(index, null);
+         }
+      }
+   }
+
+   /**
+    * Retrieve the number of lookups which found a cached value.
+    *
+    * @return hit count
+    */
+   public long getHitCount()
+   {
+      return m_hits.get();
+   }
+
+   /**
+    * Retrieve the number of lookups which did not find a cached value.
+    *
+    * @return miss count
+    */
+   public long getMissCount()
+   {
+      return m_misses.get();
+   }
+
+   /**
+    * Retrieve the entry array, allocating it if necessary.
+    *
+    * @return entry array
+    */
+   private AtomicReferenceArray<Entry<V>> getEntries()
+   {
+      AtomicReferenceArray<Entry<V>> entries = m_entries;
+      if (entries == null)
+      {
+         synchronized (this)
+         {
+            entries = m_entries;
+            if (entries == null)
+            {
+               entries = new AtomicReferenceArray<Entry<V>>(m_capacity);
+               m_entries = entries;
+            }
+         }
+      }
+      return entries;
+   }
+
+   /**
+    * Determine the index of the first slot in the bucket for a key.
+    *
+    * @param key1 first key value
+    * @param key2 second key value
+    * @return slot index
+    */
+   private int getIndex(long key1, long key2)
+   {
+      long hash = key1 * 31 + key2;
+      hash ^= (hash >>> 32);
+      hash *= 0x9E3779B97F4A7C15L;
+      return (int) (hash >>> 33) & (m_capacity - 2);
+   }
+
+   /**
+    * Immutable cache entry.
+    *
+    * @param <V> value type
+    */
+   private static final class Entry<V>
+   {
+      /**
+       * Constructor.
+       *
+       * @param key1 first key value
+       * @param key2 second key value
+       * @param value cached value
+       */
+      public Entry(long key1, long key2, V value)
+      {
+         m_key1 = key1;
+         m_key2 = key2;
+         m_value = value;
+      }
+
+      final long m_key1;
+      final long m_key2;
+      final V m_value;
+   }
+
+   private final int m_capacity;
+   private volatile AtomicReferenceArray<Entry<V>> m_entries;
+   private final AtomicLong m_hits = new AtomicLong();
+   private final AtomicLong m_misses = new AtomicLong();
+}
@@ -0,0 +1,475 @@
+/*
+ * file:       ColumnarTable.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+
+/**
+ * Holds the rows read from a database table or file as a set of columns.
+ * The storage used by each column is selected by the type of the first
+ * non-null value it receives: integers are held in an int array, doubles
+ * and dates in a long array, and anything else in an object array. If a
+ * column later receives a value of a different type, it reverts to an
+ * object array. Rows are identified by their index, and columns by their
+ * ordinal position in the table's schema.
+ */
+public final class ColumnarTable
+{
+   /**
+    * Constructor.
+    *
+    * @param schema table schema
+    */
+   public ColumnarTable(TableSchema schema)
+   {
+      int columnCount = schema.getColumnCount();
+      m_schema = schema;
+      m_types = new byte[columnCount];
+      m_data = new Object[columnCount];
+      m_present = new BitSet[columnCount];
+   }
+
+   /**
+    * Retrieve the schema for this table.
+    *
+    * @return table schema
+    */
+   public TableSchema getSchema()
+   {
+      return m_schema;
+   }
+
+   /**
+    * Retrieve the number of rows in this table.
+    *
+    * @return row count
+    */
+   public int getRowCount()
+   {
+      return m_rowCount;
+   }
+
+   /**
+    * Add a new row to the table. All values in the new row are null.
+    *
+    * @return index of the new row
+    */
+   public int addRow()
+   {
+      if (m_rowCount == m_capacity)
+      {
+         grow();
+      }
+      return m_rowCount++;
+   }
+
+   /**
+    * Remove all rows from the table. Storage allocated for each column
+    * is retained, allowing the table to be reused as a buffer when rows
+    * are processed one at a time.
+    */
+   public void clear()
+   {
+      for (int column = 0; column < m_data.length; column++)
+      {
+         switch (m_types[column])
+         {
+            case TYPE_EMPTY:
+            {
+               break;
+            }
+
+            case TYPE_OBJECT:
+            {
+               Arrays.fill((Object[]) m_data[column], 0, m_rowCount, null);
+               break;
+            }
+
+            default:
+            {
+               m_present[column].clear();
+               break;
+            }
+         }
+      }
+      m_rowCount = 0;
+   }
+
+   /**
+    * Set a value.
+    *
+    * @param row row index
+    * @param column column ordinal
+    * @param value column value
+    */
+   public void setValue(int row, int column, Object value)
+   {
+      if (value == null)
+      {
+         clearValue(row, column);
+         return;
+      }
+
+      Class<?> type = value.getClass();
+      if (m_types[column] == TYPE_EMPTY)
+      {
+         allocate(column, type);
+      }
+      else
+      {
+         if (m_types[column] != TYPE_OBJECT && m_types[column] != getType(type))
+         {
+            convertToObject(column);
+         }
+      }
+
+      switch (m_types[column])
+      {
+         case TYPE_INT:
+         {
+            ((int[]) m_data[column])[row] = ((Integer) value).intValue();
+            m_present[column].set(row);
+            break;
+         }
+
+         case TYPE_DOUBLE:
+         {
+            ((long[]) m_data[column])[row] = Double.doubleToRawLongBits(((Double) value).doubleValue());
+            m_present[column].set(row);
+            break;
+         }
+
+         case TYPE_DATE:
+         {
+            ((long[]) m_data[column])[row] = ((Date) value).getTime();
+            m_present[column].set(row);
+            break;
+         }
+
+         default:
+         {
+            ((Object[]) m_data[column])[row] = value;
+            break;
+         }
+      }
+   }
+
+   /**
+    * Retrieve a value.
+    *
+    * @param row row index
+    * @param column column ordinal
+    * @return column value, or null if no value is present
+    */
+   public Object getObject(int row, int column)
+   {
+      Object result;
+
+      switch (m_types[column])
+      {
+         case TYPE_EMPTY:
+         {
+            result = null;
+            break;
+         }
+
+         case TYPE_OBJECT:
+         {
+            result = ((Object[]) m_data[column])[row];
+            break;
+         }
+
+         case TYPE_INT:
+         {
+            result = m_present[column].get(row) ? Integer.valueOf(((int[]) m_data[column])[row]) : null;
+            break;
+         }
+
+         case TYPE_DOUBLE:
+         {
+            result = m_present[column].get(row) ? Double.valueOf(Double.longBitsToDouble(((long[]) m_data[column])[row])) : null;
+            break;
+         }
+
+         default:
+         {
+            result = m_present[column].get(row) ? new Date(((long[]) m_data[column])[row]) : null;
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Retrieve a value as an int, without creating an Integer instance
+    * if the column holds integers.
+    *
+    * @param row row index
+    * @param column column ordinal
+    * @return int value, zero if no value is present
+    */
+   public int getInt(int row, int column)
+   {
+      int result;
+      if (m_types[column] == TYPE_INT)
+      {
+         result = m_present[column].get(row) ? ((int[]) m_data[column])[row] : 0;
+      }
+      else
+      {
+         result = NumberHelper.getInt((Number) getObject(row, column));
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve a value as a double, without creating a Double instance
+    * if the column holds doubles or integers.
+    *
+    * @param row row index
+    * @param column column ordinal
+    * @return double value, zero if no value is present
+    */
+   public double getDouble(int row, int column)
+   {
+      double result;
+      switch (m_types[column])
+      {
+         case TYPE_DOUBLE:
+         {
+            result = m_present[column].get(row) ? Double.longBitsToDouble(((long[]) m_data[column])[row]) : 0;
+            break;
+         }
+
+         case TYPE_INT:
+         {
+            result = m_present[column].get(row) ? ((int[]) m_data[column])[row] : 0;
+            break;
+         }
+
+         default:
+         {
+            result = NumberHelper.getDouble((Number) getObject(row, column));
+            break;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Determine if a value is null.
+    *
+    * @param row row index
+    * @param column column ordinal
+    * @return true if no value is present
+    */
+   public boolean isNull(int row, int column)
+   {
+      boolean result;
+      switch (m_types[column])
+      {
+         case TYPE_EMPTY:
+         {
+            result = true;
+            break;
+         }
+
+         case TYPE_OBJECT:
+         {
+            result = ((Object[]) m_data[column])[row] == null;
+            break;
+         }
+
+         default:
+         {
+            result = !m_present[column].get(row);
+            break;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Set a value to null.
+    *
+    * @param row row index
+    * @param column column ordinal
+    */
+   private void clearValue(int row, int column)
+   {
+      switch (m_types[column])
+      {
+         case TYPE_EMPTY:
+         {
+            break;
+         }
+
+         case TYPE_OBJECT:
+         {
+            ((Object[]) m_data[column])[row] = null;
+            break;
+         }
+
+         default:
+         {
+            m_present[column].clear(row);
+            break;
+         }
+      }
+   }
+
+   /**
+    * Allocate storage for a column on receipt of its first value.
+    *
+    * @param column column ordinal
+    * @param type value type
+    */
+   private void allocate(int column, Class<?> type)
+   {
+      byte columnType = getType(type);
+      m_types[column] = columnType;
+
+      switch (columnType)
+      {
+         case TYPE_INT:
+         {
+            m_data[column] = new int[m_capacity];
+            m_present[column] = new BitSet(m_capacity);
+            break;
+         }
+
+         case TYPE_DOUBLE:
+         case TYPE_DATE:
+         {
+            m_data[column] = new long[m_capacity];
+            m_present[column] = new BitSet(m_capacity);
+            break;
+         }
+
+         default:
+         {
+            m_data[column] = new Object[m_capacity];
+            break;
+         }
+      }
+   }
+
+   /**
+    * Replace the primitive storage for a column with an object array.
+    *
+    * @param column column ordinal
+    */
+   private void convertToObject(int column)
+   {
+      Object[] values = new Object[m_capacity];
+      for (int row = 0; row < m_rowCount; row++)
+      {
+         values[row] = getObject(row, column);
+      }
+      m_types[column] = TYPE_OBJECT;
+      m_data[column] = values;
+      m_present[column] = null;
+   }
+
+   /**
+    * Increase the number of rows which can be held by each column.
+    */
+   private void grow()
+   {
+      m_capacity = m_capacity == 0 ? INITIAL_CAPACITY : m_capacity * 2;
+      for (int column = 0; column < m_data.length; column++)
+      {
+         switch (m_types[column])
+         {
+            case TYPE_EMPTY:
+            {
+               break;
+            }
+
+            case TYPE_INT:
+            {
+               m_data[column] = Arrays.copyOf((int[]) m_data[column], m_capacity);
+               break;
+            }
+
+            case TYPE_OBJECT:
+            {
+               m_data[column] = Arrays.copyOf((Object[]) m_data[column], m_capacity);
+               break;
+            }
+
+            default:
+            {
+               m_data[column] = Arrays.copyOf((long[]) m_data[column], m_capacity);
+               break;
+            }
+         }
+      }
+   }
+
+   /**
+    * Determine the column storage type for a value type.
+    *
+    * @param type value type
+    * @return column storage type
+    */
+   private static byte getType(Class<?> type)
+   {
+      byte result;
+      if (type == Integer.class)
+      {
+         result = TYPE_INT;
+      }
+      else
+      {
+         if (type == Double.class)
+         {
+            result = TYPE_DOUBLE;
+         }
+         else
+         {
+            result = type == Date.class ? TYPE_DATE : TYPE_OBJECT;
+         }
+      }
+      return result;
+   }
+
+   private final TableSchema m_schema;
+   private final byte[] m_types;
+   private final Object[] m_data;
+   private final BitSet[] m_present;
+   private int m_rowCount;
+   private int m_capacity;
+
+   private static final int INITIAL_CAPACITY = 16;
+
+   private static final byte TYPE_EMPTY = 0;
+   private static final byte TYPE_OBJECT = 1;
+   private static final byte TYPE_INT = 2;
+   private static final byte TYPE_DOUBLE = 3;
+   private static final byte TYPE_DATE = 4;
+}
@@ -515,6 +515,11 @@ public final class DateHelper
     */
    public static final Date LAST_DATE = DateHelper.getTimestampFromLong(2524607946000L);
 
+   /**
+    * Value used to represent a missing date expressed in milliseconds.
+    */
+   public static final long NULL_MILLIS = Long.MIN_VALUE;
+
    /**
     * Number of milliseconds per minute.
     */
@@ -23,7 +23,7 @@
 
 package net.sf.mpxj.common;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import net.sf.mpxj.ProjectCalendar;
@@ -45,15 +45,15 @@ public class DefaultTimephasedCostContainer implements TimephasedCostContainer
     */
    public DefaultTimephasedCostContainer(ProjectCalendar calendar, TimephasedCostNormaliser normaliser, List<TimephasedCost> data, boolean raw)
    {
-      if (data instanceof LinkedList<?>)
+      if (raw)
       {
-         m_data = (LinkedList<TimephasedCost>) data;
+         m_raw = new TimephasedCostSeries(data.size());
+         m_raw.addAll(data);
       }
       else
       {
-         m_data = new LinkedList<TimephasedCost>(data);
+         m_series = TimephasedCostSeries.getInstance(data);
       }
-      m_raw = raw;
       m_calendar = calendar;
       m_normaliser = normaliser;
    }
@@ -63,12 +63,18 @@ public class DefaultTimephasedCostContainer implements TimephasedCostContainer
     */
    @Override public List<TimephasedCost> getData()
    {
-      if (m_raw)
+      if (m_series == null)
       {
-         m_normaliser.normalise(m_calendar, m_data);
-         m_raw = false;
+         //
+         // The normaliser adds, removes and updates items,
+         // so expand the raw data into a list of items first
+         //
+         List<TimephasedCost> data = new ArrayList<TimephasedCost>(m_raw);
+         m_normaliser.normalise(m_calendar, data);
+         m_series = TimephasedCostSeries.getInstance(data);
+         m_raw = null;
       }
-      return m_data;
+      return m_series;
    }
 
    /**
@@ -78,11 +84,11 @@ public class DefaultTimephasedCostContainer implements TimephasedCostContainer
     */
    @Override public boolean hasData()
    {
-      return !m_data.isEmpty();
+      return m_series == null ? !m_raw.isEmpty() : !m_series.isEmpty();
    }
 
-   private LinkedList<TimephasedCost> m_data;
-   private boolean m_raw;
+   private TimephasedCostSeries m_raw;
+   private TimephasedCostSeries m_series;
    private TimephasedCostNormaliser m_normaliser;
    private ProjectCalendar m_calendar;
 }
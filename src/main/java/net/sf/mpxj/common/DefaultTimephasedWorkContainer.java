@@ -23,7 +23,7 @@
 
 package net.sf.mpxj.common;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import net.sf.mpxj.ProjectCalendar;
@@ -45,15 +45,15 @@ public class DefaultTimephasedWorkContainer implements TimephasedWorkContainer
     */
    public DefaultTimephasedWorkContainer(ProjectCalendar calendar, TimephasedWorkNormaliser normaliser, List<TimephasedWork> data, boolean raw)
    {
-      if (data instanceof LinkedList<?>)
+      if (raw)
       {
-         m_data = (LinkedList<TimephasedWork>) data;
+         m_raw = new TimephasedWorkSeries(data.size());
+         m_raw.addAll(data);
       }
       else
       {
-         m_data = new LinkedList<TimephasedWork>(data);
+         m_series = TimephasedWorkSeries.getInstance(data);
       }
-      m_raw = raw;
       m_calendar = calendar;
       m_normaliser = normaliser;
    }
@@ -68,14 +68,16 @@ public class DefaultTimephasedWorkContainer implements TimephasedWorkContainer
     */
    public DefaultTimephasedWorkContainer(DefaultTimephasedWorkContainer source, double perDayFactor, double totalFactor)
    {
-      m_data = new LinkedList<TimephasedWork>();
-      m_raw = source.m_raw;
       m_calendar = source.m_calendar;
       m_normaliser = source.m_normaliser;
 
-      for (TimephasedWork sourceItem : source.m_data)
+      if (source.m_series == null)
       {
-         m_data.add(new TimephasedWork(sourceItem, totalFactor, perDayFactor));
+         m_raw = new TimephasedWorkSeries(source.m_raw, totalFactor, perDayFactor);
+      }
+      else
+      {
+         m_series = new TimephasedWorkSeries(source.m_series, totalFactor, perDayFactor);
       }
    }
 
@@ -84,12 +86,18 @@ public class DefaultTimephasedWorkContainer implements TimephasedWorkContainer
     */
    @Override public List<TimephasedWork> getData()
    {
-      if (m_raw)
+      if (m_series == null)
       {
-         m_normaliser.normalise(m_calendar, m_data);
-         m_raw = false;
+         //
+         // The normaliser adds, removes and updates items,
+         // so expand the raw data into a list of items first
+         //
+         List<TimephasedWork> data = new ArrayList<TimephasedWork>(m_raw);
+         m_normaliser.normalise(m_calendar, data);
+         m_series = TimephasedWorkSeries.getInstance(data);
+         m_raw = null;
       }
-      return m_data;
+      return m_series;
    }
 
    /**
@@ -99,11 +107,11 @@ public class DefaultTimephasedWorkContainer implements TimephasedWorkContainer
     */
    @Override public boolean hasData()
    {
-      return !m_data.isEmpty();
+      return m_series == null ? !m_raw.isEmpty() : !m_series.isEmpty();
    }
 
-   private LinkedList<TimephasedWork> m_data;
-   private boolean m_raw;
+   private TimephasedWorkSeries m_raw;
+   private TimephasedWorkSeries m_series;
    private TimephasedWorkNormaliser m_normaliser;
    private ProjectCalendar m_calendar;
 }
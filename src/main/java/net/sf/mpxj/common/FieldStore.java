@@ -0,0 +1,93 @@
+/*
+ * file:       FieldStore.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       01/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Implementations of this interface hold the field values of a
+ * Task, Resource or ResourceAssignment, indexed by the integer
+ * value of the field type.
+ */
+public interface FieldStore
+{
+   /**
+    * Retrieve a field value.
+    *
+    * @param index field index
+    * @return field value, or null if the field is not populated
+    */
+   public Object get(int index);
+
+   /**
+    * Set a field value. Setting a null value clears the field.
+    *
+    * @param index field index
+    * @param value field value
+    */
+   public void set(int index, Object value);
+
+   /**
+    * Retrieve a date field value as milliseconds since the epoch,
+    * without creating a Date instance where possible.
+    *
+    * @param index field index
+    * @param defaultValue value returned if the field is not a populated date
+    * @return date in milliseconds
+    */
+   public long getMillis(int index, long defaultValue);
+
+   /**
+    * Retrieve a numeric field value, or the amount of a duration field,
+    * without creating a Number or Duration instance where possible.
+    *
+    * @param index field index
+    * @param defaultValue value returned if the field is not a populated number or duration
+    * @return numeric value
+    */
+   public double getDouble(int index, double defaultValue);
+
+   /**
+    * Retrieve the units of a duration field value,
+    * without creating a Duration instance where possible.
+    *
+    * @param index field index
+    * @return duration units, or null if the field is not a populated duration
+    */
+   public TimeUnit getUnits(int index);
+
+   /**
+    * Retrieve the number of populated fields.
+    *
+    * @return populated field count
+    */
+   public int size();
+
+   /**
+    * Create any objects which would otherwise be created on demand when
+    * a value is retrieved, so that reading from the store no longer
+    * modifies it. Called when the parent project is frozen.
+    */
+   public void freeze();
+}
@@ -0,0 +1,263 @@
+/*
+ * file:       JAXBPool.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.PropertyException;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Shared JAXB context for a schema package, with pools of Unmarshaller
+ * and Marshaller instances. A single pool is held for each package and
+ * class loader, so readers and writers working with the same schema
+ * share one context.
+ *
+ * Unmarshaller and Marshaller instances are not thread safe, so each
+ * instance taken from the pool must only be used by one thread, and
+ * released back to the pool once the caller has finished with it.
+ * Instances are reset to their default configuration when released.
+ * An instance which has failed part way through an operation should
+ * not be released, it will simply be replaced by a new instance.
+ */
+public final class JAXBPool
+{
+   /**
+    * Constructor.
+    *
+    * @param context JAXB context
+    */
+   private JAXBPool(JAXBContext context)
+   {
+      m_context = context;
+   }
+
+   /**
+    * Retrieve the pool for a schema package, creating the JAXB context
+    * for the package if this is the first time it has been requested
+    * using this class loader.
+    *
+    * @param packageName schema package name
+    * @param classLoader class loader used to load the schema classes
+    * @return JAXBPool instance
+    */
+   public static synchronized JAXBPool getInstance(String packageName, ClassLoader classLoader) throws JAXBException
+   {
+      Map<String, JAXBPool> pools = POOLS.get(classLoader);
+      if (pools == null)
+      {
+         pools = new HashMap<String, JAXBPool>();
+         POOLS.put(classLoader, pools);
+      }
+
+      JAXBPool result = pools.get(packageName);
+      if (result == null)
+      {
+         //
+         // JAXB RI property to speed up construction
+         //
+         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
+
+         result = new JAXBPool(JAXBContext.newInstance(packageName, classLoader));
+         pools.put(packageName, result);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the JAXB context shared by users of this pool.
+    *
+    * @return JAXB context
+    */
+   public JAXBContext getContext()
+   {
+      return m_context;
+   }
+
+   /**
+    * Take an Unmarshaller from the pool, creating a new instance if
+    * the pool is empty.
+    *
+    * @return Unmarshaller instance
+    */
+   public Unmarshaller borrowUnmarshaller() throws JAXBException
+   {
+      Unmarshaller result = m_unmarshallers.poll();
+      if (result == null)
+      {
+         result = m_context.createUnmarshaller();
+      }
+      return result;
+   }
+
+   /**
+    * Release an Unmarshaller back to the pool.
+    *
+    * @param unmarshaller Unmarshaller instance
+    */
+   public void release(Unmarshaller unmarshaller) throws JAXBException
+   {
+      unmarshaller.setEventHandler(null);
+      unmarshaller.setListener(null);
+      unmarshaller.setSchema(null);
+      m_unmarshallers.release(unmarshaller);
+   }
+
+   /**
+    * Take a Marshaller from the pool, creating a new instance if
+    * the pool is empty.
+    *
+    * @return Marshaller instance
+    */
+   public Marshaller borrowMarshaller() throws JAXBException
+   {
+      Marshaller result = m_marshallers.poll();
+      if (result == null)
+      {
+         result = createMarshaller();
+      }
+      return result;
+   }
+
+   /**
+    * Create a new Marshaller. The default values of the properties
+    * which are reset when a Marshaller is released are recorded
+    * when the first instance is created.
+    *
+    * @return Marshaller instance
+    */
+   private Marshaller createMarshaller() throws JAXBException
+   {
+      Marshaller result = m_context.createMarshaller();
+      if (m_marshallerDefaults == null)
+      {
+         Map<String, Object> defaults = new HashMap<String, Object>();
+         for (String name : MARSHALLER_PROPERTIES)
+         {
+            defaults.put(name, result.getProperty(name));
+         }
+         m_marshallerDefaults = defaults;
+      }
+      return result;
+   }
+
+   /**
+    * Release a Marshaller back to the pool. If a property set by the
+    * caller can't be restored to its default value, the Marshaller
+    * is discarded.
+    *
+    * @param marshaller Marshaller instance
+    */
+   public void release(Marshaller marshaller) throws JAXBException
+   {
+      marshaller.setEventHandler(null);
+      marshaller.setListener(null);
+      marshaller.setSchema(null);
+
+      try
+      {
+         for (Map.Entry<String, Object> entry : m_marshallerDefaults.entrySet())
+         {
+            Object value = marshaller.getProperty(entry.getKey());
+            if (value == null ? entry.getValue() != null : !value.equals(entry.getValue()))
+            {
+               marshaller.setProperty(entry.getKey(), entry.getValue());
+            }
+         }
+         m_marshallers.release(marshaller);
+      }
+
+      catch (PropertyException ex)
+      {
+         // Not possible to reset this instance, so we'll discard it
+      }
+   }
+
+   /**
+    * Ensure that the pool holds at least the requested number of idle
+    * Unmarshaller and Marshaller instances. This allows the cost of
+    * creating these instances to be paid when an application starts,
+    * rather than by the first files read or written.
+    *
+    * @param count number of instances to create
+    */
+   public void warmUp(int count) throws JAXBException
+   {
+      int required = Math.min(count, m_unmarshallers.getMaxIdle()) - m_unmarshallers.getIdleCount();
+      for (int index = 0; index < required; index++)
+      {
+         m_unmarshallers.release(m_context.createUnmarshaller());
+      }
+
+      required = Math.min(count, m_marshallers.getMaxIdle()) - m_marshallers.getIdleCount();
+      for (int index = 0; index < required; index++)
+      {
+         m_marshallers.release(createMarshaller());
+      }
+   }
+
+   /**
+    * Retrieve the pool of idle Unmarshaller instances, allowing
+    * pool usage to be monitored.
+    *
+    * @return Unmarshaller pool
+    */
+   public ObjectPool<Unmarshaller> getUnmarshallerPool()
+   {
+      return m_unmarshallers;
+   }
+
+   /**
+    * Retrieve the pool of idle Marshaller instances, allowing
+    * pool usage to be monitored.
+    *
+    * @return Marshaller pool
+    */
+   public ObjectPool<Marshaller> getMarshallerPool()
+   {
+      return m_marshallers;
+   }
+
+   private final JAXBContext m_context;
+   private final ObjectPool<Unmarshaller> m_unmarshallers = new ObjectPool<Unmarshaller>(MAX_IDLE);
+   private final ObjectPool<Marshaller> m_marshallers = new ObjectPool<Marshaller>(MAX_IDLE);
+   private volatile Map<String, Object> m_marshallerDefaults;
+
+   private static final Map<ClassLoader, Map<String, JAXBPool>> POOLS = new HashMap<ClassLoader, Map<String, JAXBPool>>();
+
+   private static final int MAX_IDLE = 16;
+
+   private static final String[] MARSHALLER_PROPERTIES =
+   {
+      Marshaller.JAXB_ENCODING,
+      Marshaller.JAXB_FORMATTED_OUTPUT,
+      Marshaller.JAXB_FRAGMENT,
+      Marshaller.JAXB_SCHEMA_LOCATION,
+      Marshaller.JAXB_NO_NAMESPACE_SCHEMA_LOCATION
+   };
+}
@@ -0,0 +1,150 @@
+/*
+ * file:       ObjectPool.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe pool of idle objects which are expensive to create.
+ * Callers attempt to take an object from the pool, creating a new
+ * object if the pool is empty, and release the object back to the
+ * pool once they have finished with it. The number of idle objects
+ * held is bounded, objects released to a full pool are discarded.
+ *
+ * @param <T> pooled object type
+ */
+public final class ObjectPool<T>
+{
+   /**
+    * Constructor.
+    *
+    * @param maxIdle maximum number of idle objects held by the pool
+    */
+   public ObjectPool(int maxIdle)
+   {
+      if (maxIdle < 0)
+      {
+         throw new IllegalArgumentException("Pool size must not be negative");
+      }
+      m_maxIdle = maxIdle;
+   }
+
+   /**
+    * Take an idle object from the pool.
+    *
+    * @return idle object, or null if the pool is empty
+    */
+   public T poll()
+   {
+      T result = m_idle.poll();
+      if (result == null)
+      {
+         m_misses.incrementAndGet();
+      }
+      else
+      {
+         m_idleCount.decrementAndGet();
+         m_hits.incrementAndGet();
+      }
+      return result;
+   }
+
+   /**
+    * Release an object back to the pool.
+    *
+    * @param value object to release
+    */
+   public void release(T value)
+   {
+      if (m_idleCount.incrementAndGet() > m_maxIdle)
+      {
+         m_idleCount.decrementAndGet();
+         m_discards.incrementAndGet();
+      }
+      else
+      {
+         m_idle.offer(value);
+      }
+   }
+
+   /**
+    * Retrieve the maximum number of idle objects held by this pool.
+    *
+    * @return maximum idle object count
+    */
+   public int getMaxIdle()
+   {
+      return m_maxIdle;
+   }
+
+   /**
+    * Retrieve the number of idle objects currently held by this pool.
+    *
+    * @return idle object count
+    */
+   public int getIdleCount()
+   {
+      return m_idleCount.get();
+   }
+
+   /**
+    * Retrieve the number of requests satisfied by an idle object.
+    *
+    * @return hit count
+    */
+   public long getHitCount()
+   {
+      return m_hits.get();
+   }
+
+   /**
+    * Retrieve the number of requests made when the pool was empty.
+    *
+    * @return miss count
+    */
+   public long getMissCount()
+   {
+      return m_misses.get();
+   }
+
+   /**
+    * Retrieve the number of objects discarded because the pool was full.
+    *
+    * @return discard count
+    */
+   public long getDiscardCount()
+   {
+      return m_discards.get();
+   }
+
+   private final int m_maxIdle;
+   private final Queue<T> m_idle = new ConcurrentLinkedQueue<T>();
+   private final AtomicInteger m_idleCount = new AtomicInteger();
+   private final AtomicLong m_hits = new AtomicLong();
+   private final AtomicLong m_misses = new AtomicLong();
+   private final AtomicLong m_discards = new AtomicLong();
+}
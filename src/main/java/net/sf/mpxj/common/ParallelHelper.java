@@ -0,0 +1,129 @@
+/*
+ * file:       ParallelHelper.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Common helper methods for running tasks using multiple threads.
+ */
+public final class ParallelHelper
+{
+   /**
+    * Constructor.
+    */
+   private ParallelHelper()
+   {
+      // private constructor to prevent instantiation
+   }
+
+   /**
+    * Run a list of tasks using a fixed size pool of threads, and wait
+    * for them all to complete. If the thread count is less than two,
+    * or there is only one task, the tasks are run in the calling thread.
+    *
+    * If a task fails, the exception it raised is thrown by this method.
+    * Runtime exceptions and errors are rethrown as they are, as are
+    * checked exceptions of the expected type. Any other checked exception
+    * is wrapped in a RuntimeException.
+    *
+    * @param tasks tasks to run
+    * @param threadCount number of threads to use
+    * @param exceptionType type of checked exception thrown by the tasks
+    * @throws E if a task throws an exception of the expected type
+    * @throws InterruptedException if the calling thread is interrupted while waiting
+    */
+   public static <E extends Exception> void invokeAll(List<? extends Callable<Void>> tasks, int threadCount, Class<E> exceptionType) throws E, InterruptedException
+   {
+      if (threadCount < 2 || tasks.size() < 2)
+      {
+         for (Callable<Void> task : tasks)
+         {
+            try
+            {
+               task.call();
+            }
+
+            catch (Exception ex)
+            {
+               rethrow(ex, exceptionType);
+            }
+         }
+      }
+      else
+      {
+         ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, tasks.size()));
+         try
+         {
+            List<Future<Void>> futures = executor.invokeAll(tasks);
+            for (Future<Void> future : futures)
+            {
+               future.get();
+            }
+         }
+
+         catch (ExecutionException ex)
+         {
+            rethrow(ex.getCause(), exceptionType);
+         }
+
+         finally
+         {
+            executor.shutdown();
+         }
+      }
+   }
+
+   /**
+    * Rethrow the exception raised by a task.
+    *
+    * @param cause exception raised by the task
+    * @param exceptionType type of checked exception thrown by the tasks
+    * @throws E if the exception is of the expected type
+    */
+   private static <E extends Exception> void rethrow(Throwable cause, Class<E> exceptionType) throws E
+   {
+      if (cause instanceof RuntimeException)
+      {
+         throw (RuntimeException) cause;
+      }
+
+      if (cause instanceof Error)
+      {
+         throw (Error) cause;
+      }
+
+      if (exceptionType.isInstance(cause))
+      {
+         throw exceptionType.cast(cause);
+      }
+
+      throw new RuntimeException(cause);
+   }
+}
@@ -0,0 +1,320 @@
+/*
+ * file:       PrimitiveFieldStore.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       03/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Sparse field store which holds dates, doubles and durations as
+ * primitive values rather than as objects. Dates are held as
+ * milliseconds since the epoch, doubles as their raw bits, and
+ * durations as their amount with the units recorded alongside.
+ * Objects are only created when a value is retrieved using the
+ * {@code get} method, so the primitive accessors are allocation free.
+ * Once created, an object is retained alongside the primitive value
+ * so that subsequent calls to {@code get} return the same instance,
+ * as they would for the other field stores. When the parent project
+ * is frozen, objects are created for all of the values, so that
+ * concurrent calls to {@code get} don't modify the store.
+ */
+public final class PrimitiveFieldStore implements FieldStore
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Object get(int index)
+   {
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      return position < 0 ? null : getValue(position);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void set(int index, Object value)
+   {
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      if (value == null)
+      {
+         if (position >= 0)
+         {
+            remove(position);
+         }
+      }
+      else
+      {
+         if (position < 0)
+         {
+            position = -(position + 1);
+            insert(position, index);
+         }
+
+         Class<?> type = value.getClass();
+         if (type == Date.class)
+         {
+            m_tags[position] = TAG_DATE;
+            m_primitives[position] = ((Date) value).getTime();
+            m_values[position] = null;
+         }
+         else
+         {
+            if (type == Double.class)
+            {
+               m_tags[position] = TAG_DOUBLE;
+               m_primitives[position] = Double.doubleToRawLongBits(((Double) value).doubleValue());
+               m_values[position] = null;
+            }
+            else
+            {
+               if (type == Duration.class)
+               {
+                  Duration duration = (Duration) value;
+                  m_tags[position] = (byte) (TAG_DURATION + duration.getUnits().getValue());
+                  m_primitives[position] = Double.doubleToRawLongBits(duration.getDuration());
+                  m_values[position] = null;
+               }
+               else
+               {
+                  m_tags[position] = TAG_OBJECT;
+                  m_primitives[position] = 0;
+                  m_values[position] = value;
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public long getMillis(int index, long defaultValue)
+   {
+      long result = defaultValue;
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      if (position >= 0)
+      {
+         Object value = m_values[position];
+         if (value == null)
+         {
+            if (m_tags[position] == TAG_DATE)
+            {
+               result = m_primitives[position];
+            }
+         }
+         else
+         {
+            if (value instanceof Date)
+            {
+               result = ((Date) value).getTime();
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public double getDouble(int index, double defaultValue)
+   {
+      double result = defaultValue;
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      if (position >= 0)
+      {
+         int tag = m_tags[position];
+         if (tag == TAG_OBJECT)
+         {
+            Object value = m_values[position];
+            if (value instanceof Number)
+            {
+               result = ((Number) value).doubleValue();
+            }
+            else
+            {
+               if (value instanceof Duration)
+               {
+                  result = ((Duration) value).getDuration();
+               }
+            }
+         }
+         else
+         {
+            if (tag != TAG_DATE)
+            {
+               result = Double.longBitsToDouble(m_primitives[position]);
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public TimeUnit getUnits(int index)
+   {
+      TimeUnit result = null;
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      if (position >= 0)
+      {
+         int tag = m_tags[position];
+         if (tag >= TAG_DURATION)
+         {
+            result = TimeUnit.getInstance(tag - TAG_DURATION);
+         }
+         else
+         {
+            if (tag == TAG_OBJECT && m_values[position] instanceof Duration)
+            {
+               result = ((Duration) m_values[position]).getUnits();
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int size()
+   {
+      return m_size;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void freeze()
+   {
+      for (int position = 0; position < m_size; position++)
+      {
+         getValue(position);
+      }
+   }
+
+   /**
+    * Retrieve the value at the given position, creating and retaining
+    * an object to represent a primitive value if one has not already
+    * been created.
+    *
+    * @param position entry position
+    * @return field value
+    */
+   private Object getValue(int position)
+   {
+      Object result = m_values[position];
+      if (result == null)
+      {
+         int tag = m_tags[position];
+         switch (tag)
+         {
+            case TAG_DATE:
+            {
+               result = new Date(m_primitives[position]);
+               break;
+            }
+
+            case TAG_DOUBLE:
+            {
+               result = NumberHelper.getDouble(Double.longBitsToDouble(m_primitives[position]));
+               break;
+            }
+
+            default:
+            {
+               result = Duration.getInstance(Double.longBitsToDouble(m_primitives[position]), TimeUnit.getInstance(tag - TAG_DURATION));
+               break;
+            }
+         }
+         m_values[position] = result;
+      }
+      return result;
+   }
+
+   /**
+    * Insert a new empty entry at the given position.
+    *
+    * @param position insertion point
+    * @param index field index
+    */
+   private void insert(int position, int index)
+   {
+      if (m_size == m_keys.length)
+      {
+         int capacity = m_size + (m_size >> 1) + 1;
+         m_keys = Arrays.copyOf(m_keys, capacity);
+         m_tags = Arrays.copyOf(m_tags, capacity);
+         m_primitives = Arrays.copyOf(m_primitives, capacity);
+         m_values = Arrays.copyOf(m_values, capacity);
+      }
+
+      int count = m_size - position;
+      if (count > 0)
+      {
+         System.arraycopy(m_keys, position, m_keys, position + 1, count);
+         System.arraycopy(m_tags, position, m_tags, position + 1, count);
+         System.arraycopy(m_primitives, position, m_primitives, position + 1, count);
+         System.arraycopy(m_values, position, m_values, position + 1, count);
+      }
+
+      m_keys[position] = (short) index;
+      ++m_size;
+   }
+
+   /**
+    * Remove the entry at the given position.
+    *
+    * @param position entry position
+    */
+   private void remove(int position)
+   {
+      int count = m_size - position - 1;
+      if (count > 0)
+      {
+         System.arraycopy(m_keys, position + 1, m_keys, position, count);
+         System.arraycopy(m_tags, position + 1, m_tags, position, count);
+         System.arraycopy(m_primitives, position + 1, m_primitives, position, count);
+         System.arraycopy(m_values, position + 1, m_values, position, count);
+      }
+      --m_size;
+      m_values[m_size] = null;
+   }
+
+   private static final int INITIAL_CAPACITY = 16;
+
+   private static final byte TAG_OBJECT = 0;
+   private static final byte TAG_DATE = 1;
+   private static final byte TAG_DOUBLE = 2;
+   private static final byte TAG_DURATION = 3;
+
+   private short[] m_keys = new short[INITIAL_CAPACITY];
+   private byte[] m_tags = new byte[INITIAL_CAPACITY];
+   private long[] m_primitives = new long[INITIAL_CAPACITY];
+   private Object[] m_values = new Object[INITIAL_CAPACITY];
+   private int m_size;
+}
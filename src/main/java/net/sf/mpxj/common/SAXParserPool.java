@@ -0,0 +1,153 @@
+/*
+ * file:       SAXParserPool.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Pool of pre-configured SAXParser instances. Two shared pools are
+ * available: one providing parsers with the default configuration,
+ * and one providing namespace aware parsers which reject DOCTYPE
+ * declarations.
+ *
+ * SAXParser instances are not thread safe, so each instance taken from
+ * the pool must only be used by one thread, and released back to the pool
+ * once the caller has finished with it. Instances are reset when released.
+ * An instance which has failed part way through parsing a document should
+ * not be released, it will simply be replaced by a new instance.
+ */
+public final class SAXParserPool
+{
+   /**
+    * Constructor.
+    *
+    * @param namespaceAware true if parsers are namespace aware and reject DOCTYPE declarations
+    */
+   private SAXParserPool(boolean namespaceAware)
+   {
+      m_namespaceAware = namespaceAware;
+   }
+
+   /**
+    * Take a SAXParser from the pool, creating a new instance if
+    * the pool is empty.
+    *
+    * @return SAXParser instance
+    */
+   public SAXParser borrow() throws ParserConfigurationException, SAXException
+   {
+      SAXParser result = m_parsers.poll();
+      if (result == null)
+      {
+         result = createParser();
+      }
+      return result;
+   }
+
+   /**
+    * Release a SAXParser back to the pool. If the parser can't be
+    * reset, it is discarded.
+    *
+    * @param parser SAXParser instance
+    */
+   public void release(SAXParser parser)
+   {
+      try
+      {
+         parser.reset();
+         m_parsers.release(parser);
+      }
+
+      catch (UnsupportedOperationException ex)
+      {
+         // Not possible to reset this instance, so we'll discard it
+      }
+   }
+
+   /**
+    * Ensure that the pool holds at least the requested number of
+    * idle parsers.
+    *
+    * @param count number of parsers to create
+    */
+   public void warmUp(int count) throws ParserConfigurationException, SAXException
+   {
+      int required = Math.min(count, m_parsers.getMaxIdle()) - m_parsers.getIdleCount();
+      for (int index = 0; index < required; index++)
+      {
+         release(createParser());
+      }
+   }
+
+   /**
+    * Retrieve the pool of idle parsers, allowing pool usage to be monitored.
+    *
+    * @return parser pool
+    */
+   public ObjectPool<SAXParser> getParserPool()
+   {
+      return m_parsers;
+   }
+
+   /**
+    * Create a new parser. SAXParserFactory is not guaranteed to be
+    * thread safe, so access to the factory is synchronized.
+    *
+    * @return new SAXParser instance
+    */
+   private synchronized SAXParser createParser() throws ParserConfigurationException, SAXException
+   {
+      if (m_factory == null)
+      {
+         SAXParserFactory factory = SAXParserFactory.newInstance();
+         if (m_namespaceAware)
+         {
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setNamespaceAware(true);
+         }
+         m_factory = factory;
+      }
+      return m_factory.newSAXParser();
+   }
+
+   /**
+    * Parsers with the default configuration.
+    */
+   public static final SAXParserPool DEFAULT = new SAXParserPool(false);
+
+   /**
+    * Namespace aware parsers which reject DOCTYPE declarations.
+    */
+   public static final SAXParserPool NAMESPACE_AWARE = new SAXParserPool(true);
+
+   private final boolean m_namespaceAware;
+   private final ObjectPool<SAXParser> m_parsers = new ObjectPool<SAXParser>(MAX_IDLE);
+   private SAXParserFactory m_factory;
+
+   private static final int MAX_IDLE = 16;
+}
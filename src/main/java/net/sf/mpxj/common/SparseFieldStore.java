@@ -0,0 +1,130 @@
+/*
+ * file:       SparseFieldStore.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       01/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+
+/**
+ * Field store which only holds populated fields. Field indexes are
+ * held in a sorted array alongside their values, and located using a
+ * binary search. Entities typically populate a few dozen of the
+ * several hundred possible fields, so this uses a fraction of the
+ * memory required by an {@code ArrayFieldStore}.
+ */
+public final class SparseFieldStore extends AbstractFieldStore
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Object get(int index)
+   {
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      return position < 0 ? null : m_values[position];
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void set(int index, Object value)
+   {
+      int position = Arrays.binarySearch(m_keys, 0, m_size, (short) index);
+      if (position >= 0)
+      {
+         if (value == null)
+         {
+            remove(position);
+         }
+         else
+         {
+            m_values[position] = value;
+         }
+      }
+      else
+      {
+         if (value != null)
+         {
+            insert(-(position + 1), index, value);
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int size()
+   {
+      return m_size;
+   }
+
+   /**
+    * Insert a new entry at the given position.
+    *
+    * @param position insertion point
+    * @param index field index
+    * @param value field value
+    */
+   private void insert(int position, int index, Object value)
+   {
+      if (m_size == m_keys.length)
+      {
+         int capacity = m_size + (m_size >> 1) + 1;
+         m_keys = Arrays.copyOf(m_keys, capacity);
+         m_values = Arrays.copyOf(m_values, capacity);
+      }
+
+      int count = m_size - position;
+      if (count > 0)
+      {
+         System.arraycopy(m_keys, position, m_keys, position + 1, count);
+         System.arraycopy(m_values, position, m_values, position + 1, count);
+      }
+
+      m_keys[position] = (short) index;
+      m_values[position] = value;
+      ++m_size;
+   }
+
+   /**
+    * Remove the entry at the given position.
+    *
+    * @param position entry position
+    */
+   private void remove(int position)
+   {
+      int count = m_size - position - 1;
+      if (count > 0)
+      {
+         System.arraycopy(m_keys, position + 1, m_keys, position, count);
+         System.arraycopy(m_values, position + 1, m_values, position, count);
+      }
+      --m_size;
+      m_values[m_size] = null;
+   }
+
+   private static final int INITIAL_CAPACITY = 16;
+
+   private short[] m_keys = new short[INITIAL_CAPACITY];
+   private Object[] m_values = new Object[INITIAL_CAPACITY];
+   private int m_size;
+}
@@ -0,0 +1,96 @@
+/*
+ * file:       TableSchema.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the column names of a table to their ordinal positions.
+ * A single instance is shared by all rows read from the same table.
+ */
+public final class TableSchema
+{
+   /**
+    * Constructor.
+    *
+    * @param names column names, in ordinal order
+    */
+   public TableSchema(String[] names)
+   {
+      m_names = names.clone();
+      m_ordinals = new HashMap<String, Integer>(m_names.length * 2);
+      for (int index = 0; index < m_names.length; index++)
+      {
+         m_ordinals.put(m_names[index], Integer.valueOf(index));
+      }
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param names column names, in ordinal order
+    */
+   public TableSchema(Collection<String> names)
+   {
+      this(names.toArray(new String[names.size()]));
+   }
+
+   /**
+    * Retrieve the ordinal position of a column.
+    *
+    * @param name column name
+    * @return ordinal position, or -1 if the column is not present
+    */
+   public int getOrdinal(String name)
+   {
+      Integer result = m_ordinals.get(name);
+      return result == null ? -1 : result.intValue();
+   }
+
+   /**
+    * Retrieve the name of the column at an ordinal position.
+    *
+    * @param ordinal ordinal position
+    * @return column name
+    */
+   public String getColumnName(int ordinal)
+   {
+      return m_names[ordinal];
+   }
+
+   /**
+    * Retrieve the number of columns in the table.
+    *
+    * @return column count
+    */
+   public int getColumnCount()
+   {
+      return m_names.length;
+   }
+
+   private final String[] m_names;
+   private final Map<String, Integer> m_ordinals;
+}
@@ -0,0 +1,154 @@
+/*
+ * file:       TimephasedCostSeries.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.mpxj.TimephasedCost;
+
+/**
+ * A series of timephased cost items. Amounts are held as double values,
+ * with NaN used to represent a missing amount.
+ */
+public final class TimephasedCostSeries extends AbstractTimephasedSeries<TimephasedCost>
+{
+   /**
+    * Default constructor.
+    */
+   public TimephasedCostSeries()
+   {
+      this(0);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param capacity initial capacity
+    */
+   public TimephasedCostSeries(int capacity)
+   {
+      super(capacity);
+      setCapacity(capacity);
+   }
+
+   /**
+    * Retrieve a list of timephased cost as a series. If the list is
+    * already a series, it is returned unchanged.
+    *
+    * @param list timephased cost
+    * @return timephased cost series, or null if the list is null
+    */
+   public static TimephasedCostSeries getInstance(List<TimephasedCost> list)
+   {
+      TimephasedCostSeries result;
+      if (list == null || list instanceof TimephasedCostSeries)
+      {
+         result = (TimephasedCostSeries) list;
+      }
+      else
+      {
+         result = new TimephasedCostSeries(list.size());
+         result.addAll(list);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the total cost for an item.
+    *
+    * @param index item index
+    * @return total amount
+    */
+   public double getTotalAmountValue(int index)
+   {
+      checkIndex(index);
+      return m_totalAmount[index];
+   }
+
+   /**
+    * Retrieve the cost per day for an item.
+    *
+    * @param index item index
+    * @return amount per day
+    */
+   public double getAmountPerDayValue(int index)
+   {
+      checkIndex(index);
+      return m_amountPerDay[index];
+   }
+
+   @Override protected TimephasedCost createItem(int index)
+   {
+      TimephasedCost item = new TimephasedCost();
+      item.setTotalAmount(getNumber(m_totalAmount[index]));
+      item.setAmountPerDay(getNumber(m_amountPerDay[index]));
+      return item;
+   }
+
+   @Override protected void setAmounts(int index, TimephasedCost item)
+   {
+      m_totalAmount[index] = getDouble(item.getTotalAmount());
+      m_amountPerDay[index] = getDouble(item.getAmountPerDay());
+   }
+
+   @Override protected void setCapacity(int capacity)
+   {
+      if (m_totalAmount == null)
+      {
+         m_totalAmount = new double[capacity];
+         m_amountPerDay = new double[capacity];
+      }
+      else
+      {
+         m_totalAmount = Arrays.copyOf(m_totalAmount, capacity);
+         m_amountPerDay = Arrays.copyOf(m_amountPerDay, capacity);
+      }
+   }
+
+   /**
+    * Convert a stored value to a Number instance.
+    *
+    * @param value stored value
+    * @return Number instance or null
+    */
+   private Number getNumber(double value)
+   {
+      return Double.isNaN(value) ? null : Double.valueOf(value);
+   }
+
+   /**
+    * Convert a Number instance to a stored value.
+    *
+    * @param value Number instance
+    * @return stored value
+    */
+   private double getDouble(Number value)
+   {
+      return value == null ? Double.NaN : value.doubleValue();
+   }
+
+   private double[] m_totalAmount;
+   private double[] m_amountPerDay;
+}
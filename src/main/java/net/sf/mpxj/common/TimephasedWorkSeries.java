@@ -0,0 +1,209 @@
+/*
+ * file:       TimephasedWorkSeries.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedWork;
+
+/**
+ * A series of timephased work items.
+ */
+public final class TimephasedWorkSeries extends AbstractTimephasedSeries<TimephasedWork>
+{
+   /**
+    * Default constructor.
+    */
+   public TimephasedWorkSeries()
+   {
+      this(0);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param capacity initial capacity
+    */
+   public TimephasedWorkSeries(int capacity)
+   {
+      super(capacity);
+      setCapacity(capacity);
+   }
+
+   /**
+    * Copy constructor, allowing scaling.
+    *
+    * @param source series to copy
+    * @param totalFactor total amount factor
+    * @param perDayFactor per day factor
+    */
+   public TimephasedWorkSeries(TimephasedWorkSeries source, double totalFactor, double perDayFactor)
+   {
+      super(source);
+      int size = source.size();
+      m_totalAmount = new double[size];
+      m_totalAmountUnits = Arrays.copyOf(source.m_totalAmountUnits, size);
+      m_amountPerDay = new double[size];
+      m_amountPerDayUnits = Arrays.copyOf(source.m_amountPerDayUnits, size);
+
+      for (int index = 0; index < size; index++)
+      {
+         m_totalAmount[index] = source.m_totalAmount[index] * totalFactor;
+         m_amountPerDay[index] = source.m_amountPerDay[index] * perDayFactor;
+      }
+   }
+
+   /**
+    * Retrieve a list of timephased work as a series. If the list is
+    * already a series, it is returned unchanged.
+    *
+    * @param list timephased work
+    * @return timephased work series, or null if the list is null
+    */
+   public static TimephasedWorkSeries getInstance(List<TimephasedWork> list)
+   {
+      TimephasedWorkSeries result;
+      if (list == null || list instanceof TimephasedWorkSeries)
+      {
+         result = (TimephasedWorkSeries) list;
+      }
+      else
+      {
+         result = new TimephasedWorkSeries(list.size());
+         result.addAll(list);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the total amount of work for an item.
+    *
+    * @param index item index
+    * @return total amount
+    */
+   public double getTotalAmountValue(int index)
+   {
+      checkIndex(index);
+      return m_totalAmount[index];
+   }
+
+   /**
+    * Retrieve the units of the total amount of work for an item.
+    *
+    * @param index item index
+    * @return total amount units
+    */
+   public TimeUnit getTotalAmountUnits(int index)
+   {
+      checkIndex(index);
+      return m_totalAmountUnits[index];
+   }
+
+   /**
+    * Retrieve the amount of work per day for an item.
+    *
+    * @param index item index
+    * @return amount per day
+    */
+   public double getAmountPerDayValue(int index)
+   {
+      checkIndex(index);
+      return m_amountPerDay[index];
+   }
+
+   /**
+    * Retrieve the units of the amount of work per day for an item.
+    *
+    * @param index item index
+    * @return amount per day units
+    */
+   public TimeUnit getAmountPerDayUnits(int index)
+   {
+      checkIndex(index);
+      return m_amountPerDayUnits[index];
+   }
+
+   @Override protected TimephasedWork createItem(int index)
+   {
+      TimephasedWork item = new TimephasedWork();
+      item.setTotalAmount(getDuration(m_totalAmount[index], m_totalAmountUnits[index]));
+      item.setAmountPerDay(getDuration(m_amountPerDay[index], m_amountPerDayUnits[index]));
+      return item;
+   }
+
+   @Override protected void setAmounts(int index, TimephasedWork item)
+   {
+      Duration totalAmount = item.getTotalAmount();
+      if (totalAmount != null)
+      {
+         m_totalAmount[index] = totalAmount.getDuration();
+         m_totalAmountUnits[index] = totalAmount.getUnits();
+      }
+
+      Duration amountPerDay = item.getAmountPerDay();
+      if (amountPerDay != null)
+      {
+         m_amountPerDay[index] = amountPerDay.getDuration();
+         m_amountPerDayUnits[index] = amountPerDay.getUnits();
+      }
+   }
+
+   @Override protected void setCapacity(int capacity)
+   {
+      if (m_totalAmount == null)
+      {
+         m_totalAmount = new double[capacity];
+         m_totalAmountUnits = new TimeUnit[capacity];
+         m_amountPerDay = new double[capacity];
+         m_amountPerDayUnits = new TimeUnit[capacity];
+      }
+      else
+      {
+         m_totalAmount = Arrays.copyOf(m_totalAmount, capacity);
+         m_totalAmountUnits = Arrays.copyOf(m_totalAmountUnits, capacity);
+         m_amountPerDay = Arrays.copyOf(m_amountPerDay, capacity);
+         m_amountPerDayUnits = Arrays.copyOf(m_amountPerDayUnits, capacity);
+      }
+   }
+
+   /**
+    * Create a Duration instance, using null units to represent a null value.
+    *
+    * @param duration duration value
+    * @param units duration units
+    * @return Duration instance or null
+    */
+   private Duration getDuration(double duration, TimeUnit units)
+   {
+      return units == null ? null : Duration.getInstance(duration, units);
+   }
+
+   private double[] m_totalAmount;
+   private TimeUnit[] m_totalAmountUnits;
+   private double[] m_amountPerDay;
+   private TimeUnit[] m_amountPerDayUnits;
+}
@@ -91,6 +91,12 @@ public abstract class Tokenizer
 
             case TT_EOL:
             {
+               if (quoted && m_quotedLineBreaks)
+               {
+                  m_buffer.append((char) c);
+                  break;
+               }
+
                int length = m_buffer.length();
 
                if (length != 0 && m_buffer.charAt(length - 1) == '\r')
@@ -206,12 +212,25 @@ public abstract class Tokenizer
       m_delimiter = delimiter;
    }
 
+   /**
+    * This method is used to determine whether a line break within
+    * quoted text ends the current record, or forms part of the text.
+    * By default a line break always ends the current record.
+    *
+    * @param quotedLineBreaks true if line breaks may appear within quoted text
+    */
+   public void setQuotedLineBreaks(boolean quotedLineBreaks)
+   {
+      m_quotedLineBreaks = quotedLineBreaks;
+   }
+
    public static final int TT_EOL = '\n';
    public static final int TT_EOF = -1;
    public static final int TT_WORD = -3;
 
    private char m_quote = '"';
    private char m_delimiter = ',';
+   private boolean m_quotedLineBreaks;
    private int m_next;
    private int m_type;
    private StringBuilder m_buffer = new StringBuilder();
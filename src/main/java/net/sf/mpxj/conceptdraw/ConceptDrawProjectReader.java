@@ -35,13 +35,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.UnmarshallerHandler;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -66,6 +64,8 @@ import net.sf.mpxj.ResourceAssignment;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.AlphanumComparator;
+import net.sf.mpxj.common.JAXBPool;
+import net.sf.mpxj.common.SAXParserPool;
 import net.sf.mpxj.conceptdraw.schema.Document;
 import net.sf.mpxj.conceptdraw.schema.Document.Calendars.Calendar;
 import net.sf.mpxj.conceptdraw.schema.Document.Calendars.Calendar.ExceptedDays.ExceptedDay;
@@ -100,7 +100,7 @@ public final class ConceptDrawProjectReader extends AbstractProjectReader
    {
       try
       {
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_eventManager = m_projectFile.getEventManager();
          m_calendarMap = new HashMap<Integer, ProjectCalendar>();
          m_taskIdMap = new HashMap<Integer, Task>();
@@ -114,16 +114,15 @@ public final class ConceptDrawProjectReader extends AbstractProjectReader
 
          m_eventManager.addProjectListeners(m_projectListeners);
 
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         SAXParser saxParser = factory.newSAXParser();
+         SAXParser saxParser = SAXParserPool.DEFAULT.borrow();
          XMLReader xmlReader = saxParser.getXMLReader();
 
-         if (CONTEXT == null)
+         if (POOL == null)
          {
-            throw CONTEXT_EXCEPTION;
+            throw POOL_EXCEPTION;
          }
 
-         Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+         Unmarshaller unmarshaller = POOL.borrowUnmarshaller();
 
          XMLFilter filter = new NamespaceFilter();
          filter.setParent(xmlReader);
@@ -131,6 +130,8 @@ public final class ConceptDrawProjectReader extends AbstractProjectReader
          filter.setContentHandler(unmarshallerHandler);
          filter.parse(new InputSource(new InputStreamReader(stream)));
          Document cdp = (Document) unmarshallerHandler.getResult();
+         POOL.release(unmarshaller);
+         SAXParserPool.DEFAULT.release(saxParser);
 
          readProjectProperties(cdp);
          readCalendars(cdp);
@@ -599,34 +600,26 @@ public final class ConceptDrawProjectReader extends AbstractProjectReader
    private static final int MINUTES_PER_DAY = HOURS_PER_DAY * 60;
 
    /**
-    * Cached context to minimise construction cost.
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.conceptdraw.schema", ConceptDrawProjectReader.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.conceptdraw.schema", ConceptDrawProjectReader.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 }
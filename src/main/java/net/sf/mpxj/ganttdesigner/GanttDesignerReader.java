@@ -29,12 +29,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 
 import org.xml.sax.InputSource;
@@ -54,6 +52,8 @@ import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.RelationType;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.common.JAXBPool;
+import net.sf.mpxj.common.SAXParserPool;
 import net.sf.mpxj.ganttdesigner.schema.Gantt;
 import net.sf.mpxj.ganttdesigner.schema.GanttDesignerRemark;
 import net.sf.mpxj.listener.ProjectListener;
@@ -83,7 +83,7 @@ public final class GanttDesignerReader extends AbstractProjectReader
    {
       try
       {
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_eventManager = m_projectFile.getEventManager();
          m_taskMap = new HashMap<String, Task>();
 
@@ -95,19 +95,20 @@ public final class GanttDesignerReader extends AbstractProjectReader
 
          m_eventManager.addProjectListeners(m_projectListeners);
 
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         SAXParser saxParser = factory.newSAXParser();
+         SAXParser saxParser = SAXParserPool.DEFAULT.borrow();
          XMLReader xmlReader = saxParser.getXMLReader();
          SAXSource doc = new SAXSource(xmlReader, new InputSource(stream));
 
-         if (CONTEXT == null)
+         if (POOL == null)
          {
-            throw CONTEXT_EXCEPTION;
+            throw POOL_EXCEPTION;
          }
 
-         Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+         Unmarshaller unmarshaller = POOL.borrowUnmarshaller();
 
          Gantt gantt = (Gantt) unmarshaller.unmarshal(doc);
+         POOL.release(unmarshaller);
+         SAXParserPool.DEFAULT.release(saxParser);
 
          readProjectProperties(gantt);
          readCalendar(gantt);
@@ -350,34 +351,26 @@ public final class GanttDesignerReader extends AbstractProjectReader
    Map<String, Task> m_taskMap;
 
    /**
-    * Cached context to minimise construction cost.
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.ganttdesigner.schema", GanttDesignerReader.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.ganttdesigner.schema", GanttDesignerReader.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 }
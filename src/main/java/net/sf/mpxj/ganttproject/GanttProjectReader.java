@@ -35,12 +35,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 
 import org.xml.sax.InputSource;
@@ -72,9 +70,11 @@ import net.sf.mpxj.ResourceField;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.JAXBPool;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.Pair;
 import net.sf.mpxj.common.ResourceFieldLists;
+import net.sf.mpxj.common.SAXParserPool;
 import net.sf.mpxj.common.TaskFieldLists;
 import net.sf.mpxj.ganttproject.schema.Allocation;
 import net.sf.mpxj.ganttproject.schema.Allocations;
@@ -118,7 +118,7 @@ public final class GanttProjectReader extends AbstractProjectReader
    {
       try
       {
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_eventManager = m_projectFile.getEventManager();
          m_resourcePropertyDefinitions = new HashMap<String, Pair<FieldType, String>>();
          m_taskPropertyDefinitions = new HashMap<String, Pair<FieldType, String>>();
@@ -137,19 +137,20 @@ public final class GanttProjectReader extends AbstractProjectReader
 
          m_eventManager.addProjectListeners(m_projectListeners);
 
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         SAXParser saxParser = factory.newSAXParser();
+         SAXParser saxParser = SAXParserPool.DEFAULT.borrow();
          XMLReader xmlReader = saxParser.getXMLReader();
          SAXSource doc = new SAXSource(xmlReader, new InputSource(stream));
 
-         if (CONTEXT == null)
+         if (POOL == null)
          {
-            throw CONTEXT_EXCEPTION;
+            throw POOL_EXCEPTION;
          }
 
-         Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+         Unmarshaller unmarshaller = POOL.borrowUnmarshaller();
 
          Project ganttProject = (Project) unmarshaller.unmarshal(doc);
+         POOL.release(unmarshaller);
+         SAXParserPool.DEFAULT.release(saxParser);
 
          readProjectProperties(ganttProject);
          readCalendars(ganttProject);
@@ -927,34 +928,26 @@ public final class GanttProjectReader extends AbstractProjectReader
    };
 
    /**
-    * Cached context to minimise construction cost.
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.ganttproject.schema", GanttProjectReader.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.ganttproject.schema", GanttProjectReader.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 }
@@ -0,0 +1,1290 @@
+/*
+ * file:       JsonReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.sf.mpxj.AccrueType;
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.BookingType;
+import net.sf.mpxj.CodePage;
+import net.sf.mpxj.ConstraintType;
+import net.sf.mpxj.CurrencySymbolPosition;
+import net.sf.mpxj.DataType;
+import net.sf.mpxj.DateOrder;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.EarnedValueMethod;
+import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.FileVersion;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectConfig;
+import net.sf.mpxj.ProjectDateFormat;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.ProjectTimeFormat;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.ResourceRequestType;
+import net.sf.mpxj.ResourceType;
+import net.sf.mpxj.ScheduleFrom;
+import net.sf.mpxj.SubProject;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TaskType;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.WorkContour;
+import net.sf.mpxj.WorkGroup;
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.reader.AbstractProjectReader;
+
+/**
+ * This class creates a new ProjectFile instance by reading a JSON file
+ * created by JsonWriter. The file is read as a stream of tokens, each
+ * task, resource and assignment is added to the project as it is read.
+ *
+ * Note that JsonWriter does not write calendars or binary data, and
+ * omits zero, false and empty values. Duration and work values are
+ * written in seconds, and are read as durations in minutes.
+ */
+public final class JsonReader extends AbstractProjectReader
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void addProjectListener(ProjectListener listener)
+   {
+      if (m_projectListeners == null)
+      {
+         m_projectListeners = new LinkedList<ProjectListener>();
+      }
+      m_projectListeners.add(listener);
+   }
+
+   /**
+    * Retrieve the encoding used when reading the JSON file.
+    *
+    * @return encoding
+    */
+   public Charset getEncoding()
+   {
+      return m_encoding;
+   }
+
+   /**
+    * Set the encoding used when reading the JSON file.
+    *
+    * @param encoding encoding to use
+    */
+   public void setEncoding(Charset encoding)
+   {
+      m_encoding = encoding;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(InputStream stream) throws MPXJException
+   {
+      try
+      {
+         m_projectFile = createProjectFile();
+         m_eventManager = m_projectFile.getEventManager();
+         m_reader = new JsonStreamReader(stream, m_encoding);
+         m_types = new HashMap<String, Map<String, DataType>>();
+         m_relations = new ArrayList<RelationData>();
+
+         ProjectConfig config = m_projectFile.getProjectConfig();
+         config.setAutoTaskID(false);
+         config.setAutoTaskUniqueID(false);
+         config.setAutoResourceID(false);
+         config.setAutoResourceUniqueID(false);
+         config.setAutoOutlineLevel(false);
+         config.setAutoOutlineNumber(false);
+         config.setAutoWBS(false);
+         config.setAutoAssignmentUniqueID(false);
+
+         m_eventManager.addProjectListeners(m_projectListeners);
+
+         if (m_reader.nextToken() != JsonStreamReader.START_OBJECT)
+         {
+            throw new MPXJException(MPXJException.INVALID_FILE);
+         }
+
+         while (m_reader.nextToken() == JsonStreamReader.NAME)
+         {
+            readAttribute(m_reader.getText());
+         }
+
+         readRelations();
+
+         //
+         // Ensure that the unique ID counters are correct
+         //
+         config.updateUniqueCounters();
+
+         return m_projectFile;
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      catch (IllegalArgumentException ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_FORMAT, ex);
+      }
+
+      finally
+      {
+         m_projectFile = null;
+         m_eventManager = null;
+         m_reader = null;
+         m_types = null;
+         m_relations = null;
+      }
+   }
+
+   /**
+    * Read a top level attribute from the JSON file.
+    *
+    * @param name attribute name
+    */
+   private void readAttribute(String name) throws IOException
+   {
+      m_reader.nextToken();
+
+      if (name.endsWith("_types"))
+      {
+         m_types.put(name, readAttributeTypes());
+      }
+      else
+      {
+         if (name.equals("custom_fields"))
+         {
+            readCustomFields();
+         }
+         else
+         {
+            if (name.equals("property_values"))
+            {
+               readProperties();
+            }
+            else
+            {
+               if (name.equals("resources"))
+               {
+                  readResources();
+               }
+               else
+               {
+                  if (name.equals("tasks"))
+                  {
+                     readTasks();
+                  }
+                  else
+                  {
+                     if (name.equals("assignments"))
+                     {
+                        readAssignments();
+                     }
+                     else
+                     {
+                        m_reader.skipValue();
+                     }
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Read custom field aliases.
+    */
+   private void readCustomFields() throws IOException
+   {
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         String fieldTypeClass = null;
+         String fieldType = null;
+         String alias = null;
+
+         while (m_reader.nextToken() == JsonStreamReader.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+
+            if (name.equals("field_type_class"))
+            {
+               fieldTypeClass = m_reader.getText();
+            }
+            else
+            {
+               if (name.equals("field_type"))
+               {
+                  fieldType = m_reader.getText();
+               }
+               else
+               {
+                  if (name.equals("field_alias"))
+                  {
+                     alias = m_reader.getText();
+                  }
+               }
+            }
+            m_reader.skipValue();
+         }
+
+         Map<String, FieldType> fields = FIELD_TYPE_CLASS_MAP.get(fieldTypeClass);
+         FieldType field = fields == null ? null : fields.get(fieldType);
+         if (field != null)
+         {
+            m_projectFile.getCustomFields().getCustomField(field).setAlias(alias);
+         }
+      }
+   }
+
+   /**
+    * Read a map of attribute names to data types.
+    *
+    * @return attribute data types
+    */
+   private Map<String, DataType> readAttributeTypes() throws IOException
+   {
+      Map<String, DataType> result = new HashMap<String, DataType>();
+      while (m_reader.nextToken() == JsonStreamReader.NAME)
+      {
+         String name = m_reader.getText();
+         m_reader.nextToken();
+         result.put(name, DataType.getInstance(m_reader.getInt()));
+      }
+      return result;
+   }
+
+   /**
+    * Read project properties. JsonWriter omits zero numeric values, false
+    * boolean values, and time units which match the default duration
+    * units, so these values are applied to any properties which are not
+    * present in the file. Other properties which are not present retain
+    * the default values set when the project was created. JsonWriter
+    * writes an explicit null for any property which has a default value
+    * but was empty when the file was written.
+    */
+   private void readProperties() throws IOException
+   {
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+      readFields(PROJECT_FIELDS, m_types.get("property_types"));
+
+      int defaultDurationUnitsIndex = m_fieldTypes.indexOf(ProjectField.DEFAULT_DURATION_UNITS);
+      TimeUnit defaultDurationUnits = defaultDurationUnitsIndex == -1 ? properties.getDefaultDurationUnits() : (TimeUnit) m_fieldValues.get(defaultDurationUnitsIndex);
+
+      for (ProjectField field : ProjectField.values())
+      {
+         switch (field.getDataType())
+         {
+            case INTEGER:
+            {
+               properties.set(field, ZERO);
+               break;
+            }
+
+            case PERCENTAGE:
+            case CURRENCY:
+            case NUMERIC:
+            case UNITS:
+            {
+               properties.set(field, ZERO_NUMBER);
+               break;
+            }
+
+            case BOOLEAN:
+            {
+               properties.set(field, Boolean.FALSE);
+               break;
+            }
+
+            case TIME_UNITS:
+            {
+               properties.set(field, defaultDurationUnits);
+               break;
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+      }
+
+      for (int index = 0; index < m_fieldTypes.size(); index++)
+      {
+         properties.set(m_fieldTypes.get(index), m_fieldValues.get(index));
+      }
+   }
+
+   /**
+    * Read resources.
+    */
+   private void readResources() throws IOException
+   {
+      Map<String, DataType> types = m_types.get("resource_types");
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         readFields(RESOURCE_FIELDS, types);
+
+         Resource resource = m_projectFile.addResource();
+         resource.disableEvents();
+         setOmittedValues(resource, RESOURCE_OMITTED_VALUES);
+         for (int index = 0; index < m_fieldTypes.size(); index++)
+         {
+            FieldType field = m_fieldTypes.get(index);
+            if (field != ResourceField.UNIQUE_ID && field != ResourceField.ID)
+            {
+               resource.set(field, m_fieldValues.get(index));
+            }
+         }
+         resource.enableEvents();
+
+         resource.setUniqueID(getIdentifier(ResourceField.UNIQUE_ID));
+         resource.setID(getIdentifier(ResourceField.ID));
+
+         m_eventManager.fireResourceReadEvent(resource);
+      }
+   }
+
+   /**
+    * Read tasks. Tasks are written in hierarchical order, so a parent
+    * task will always have been read before its child tasks.
+    */
+   private void readTasks() throws IOException
+   {
+      Map<String, DataType> types = m_types.get("task_types");
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         readFields(TASK_FIELDS, types);
+
+         Task parentTask = m_projectFile.getTaskByUniqueID(getIdentifier(TaskField.PARENT_TASK_UNIQUE_ID));
+         Task task = parentTask == null ? m_projectFile.addTask() : parentTask.addTask();
+
+         task.disableEvents();
+         setOmittedValues(task, TASK_OMITTED_VALUES);
+         for (int index = 0; index < m_fieldTypes.size(); index++)
+         {
+            FieldType field = m_fieldTypes.get(index);
+            Object value = m_fieldValues.get(index);
+
+            switch ((TaskField) field)
+            {
+               case PREDECESSORS:
+               {
+                  @SuppressWarnings("unchecked")
+                  List<RelationData> relations = (List<RelationData>) value;
+                  for (RelationData relation : relations)
+                  {
+                     relation.m_task = task;
+                     m_relations.add(relation);
+                  }
+                  break;
+               }
+
+               case UNIQUE_ID:
+               case ID:
+               case SUCCESSORS:
+               case PARENT_TASK_UNIQUE_ID:
+               {
+                  // Identifiers are set once the task has been populated,
+                  // successors are populated from the predecessors,
+                  // and the parent has been used to position the task
+                  break;
+               }
+
+               default:
+               {
+                  task.set(field, value);
+                  break;
+               }
+            }
+         }
+         task.enableEvents();
+
+         task.setUniqueID(getIdentifier(TaskField.UNIQUE_ID));
+         task.setID(getIdentifier(TaskField.ID));
+
+         m_eventManager.fireTaskReadEvent(task);
+      }
+   }
+
+   /**
+    * Read resource assignments.
+    */
+   private void readAssignments() throws IOException
+   {
+      Map<String, DataType> types = m_types.get("assignment_types");
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         readFields(ASSIGNMENT_FIELDS, types);
+
+         Task task = m_projectFile.getTaskByUniqueID(getIdentifier(AssignmentField.TASK_UNIQUE_ID));
+         if (task == null)
+         {
+            continue;
+         }
+
+         Resource resource = m_projectFile.getResourceByUniqueID(getIdentifier(AssignmentField.RESOURCE_UNIQUE_ID));
+         ResourceAssignment assignment = task.addResourceAssignment(resource);
+
+         assignment.disableEvents();
+         setOmittedValues(assignment, ASSIGNMENT_OMITTED_VALUES);
+         for (int index = 0; index < m_fieldTypes.size(); index++)
+         {
+            assignment.set(m_fieldTypes.get(index), m_fieldValues.get(index));
+         }
+         assignment.enableEvents();
+
+         m_eventManager.fireAssignmentReadEvent(assignment);
+      }
+   }
+
+   /**
+    * Set the values represented by fields omitted from the file, replacing
+    * default values set when the container was created. The values applied
+    * to calculated fields prevent them from being recalculated.
+    *
+    * @param container field container
+    * @param values field values
+    */
+   private void setOmittedValues(FieldContainer container, Map<FieldType, Object> values)
+   {
+      for (Map.Entry<FieldType, Object> entry : values.entrySet())
+      {
+         container.set(entry.getKey(), entry.getValue());
+      }
+   }
+
+   /**
+    * Retrieve an identifier from the most recently read object.
+    * JsonWriter omits zero values, so a missing identifier is zero.
+    *
+    * @param field identifier field
+    * @return identifier value
+    */
+   private Integer getIdentifier(FieldType field)
+   {
+      int index = m_fieldTypes.indexOf(field);
+      return index == -1 ? ZERO : (Integer) m_fieldValues.get(index);
+   }
+
+   /**
+    * Create relations between tasks once all tasks have been read.
+    */
+   private void readRelations()
+   {
+      for (RelationData data : m_relations)
+      {
+         Task predecessor = m_projectFile.getTaskByUniqueID(data.m_predecessorUniqueID);
+         if (predecessor != null)
+         {
+            Relation relation = data.m_task.addPredecessor(predecessor, data.m_type, data.m_lag);
+            m_eventManager.fireRelationReadEvent(relation);
+         }
+      }
+   }
+
+   /**
+    * Read the attributes of an object, populating the field types and
+    * field values lists. The opening brace of the object has already been read.
+    *
+    * @param fields map of attribute names to fields
+    * @param types map of attribute names to data types, may be null
+    */
+   private void readFields(Map<String, FieldType> fields, Map<String, DataType> types) throws IOException
+   {
+      m_fieldTypes.clear();
+      m_fieldValues.clear();
+
+      while (m_reader.nextToken() == JsonStreamReader.NAME)
+      {
+         String name = m_reader.getText();
+         FieldType field = fields.get(name);
+         boolean text = false;
+
+         if (field == null && name.endsWith(TEXT_SUFFIX))
+         {
+            field = fields.get(name.substring(0, name.length() - TEXT_SUFFIX.length()));
+            text = true;
+         }
+
+         if (field == null)
+         {
+            m_reader.skipValue();
+            continue;
+         }
+
+         //
+         // An explicit null clears a field which would otherwise
+         // be populated with a default value
+         //
+         if (m_reader.nextToken() == JsonStreamReader.NULL)
+         {
+            m_fieldTypes.add(field);
+            m_fieldValues.add(null);
+            continue;
+         }
+
+         Object value;
+         if (text)
+         {
+            value = m_reader.getText();
+         }
+         else
+         {
+            DataType type = types == null ? null : types.get(name);
+            value = readValue(field, type == null ? field.getDataType() : type);
+         }
+
+         if (value != null)
+         {
+            m_fieldTypes.add(field);
+            m_fieldValues.add(value);
+         }
+      }
+   }
+
+   /**
+    * Read a field value. The first token of the value has already been read.
+    *
+    * @param field field type
+    * @param type data type
+    * @return field value
+    */
+   private Object readValue(FieldType field, DataType type) throws IOException
+   {
+      Object result;
+
+      switch (type)
+      {
+         case INTEGER:
+         {
+            result = Integer.valueOf(m_reader.getInt());
+            break;
+         }
+
+         case PERCENTAGE:
+         case CURRENCY:
+         case NUMERIC:
+         case UNITS:
+         {
+            result = Double.valueOf(m_reader.getDouble());
+            break;
+         }
+
+         case BOOLEAN:
+         {
+            result = Boolean.valueOf(m_reader.getToken() == JsonStreamReader.TRUE);
+            break;
+         }
+
+         case WORK:
+         case DURATION:
+         {
+            result = getDuration(m_reader.getLong());
+            break;
+         }
+
+         case DATE:
+         {
+            result = parseDate(m_reader.getText());
+            break;
+         }
+
+         case PRIORITY:
+         {
+            result = Priority.getInstance(m_reader.getInt());
+            break;
+         }
+
+         case RELATION_LIST:
+         {
+            result = readRelationList();
+            break;
+         }
+
+         case MAP:
+         {
+            result = readMap();
+            break;
+         }
+
+         case DATE_RANGE_LIST:
+         {
+            result = readDateRangeList();
+            break;
+         }
+
+         case SUBPROJECT:
+         {
+            result = readSubProject();
+            break;
+         }
+
+         case RATE:
+         {
+            String text = m_reader.getText();
+            int index = getUnitsIndex(text);
+            result = new Rate(Double.parseDouble(text.substring(0, index)), getTimeUnit(text.substring(index)));
+            break;
+         }
+
+         case DELAY:
+         {
+            String text = m_reader.getText();
+            int index = getUnitsIndex(text);
+            result = Duration.getInstance(Double.parseDouble(text.substring(0, index)), getTimeUnit(text.substring(index)));
+            break;
+         }
+
+         case GUID:
+         {
+            result = UUID.fromString(m_reader.getText());
+            break;
+         }
+
+         case CHAR:
+         {
+            String text = m_reader.getText();
+            result = text.isEmpty() ? null : Character.valueOf(text.charAt(0));
+            break;
+         }
+
+         case SHORT:
+         {
+            String text = m_reader.getText();
+            if (text.indexOf('.') == -1)
+            {
+               result = Integer.valueOf(text);
+            }
+            else
+            {
+               result = Double.valueOf(text);
+            }
+            break;
+         }
+
+         case BINARY:
+         {
+            m_reader.skipValue();
+            result = null;
+            break;
+         }
+
+         default:
+         {
+            int token = m_reader.getToken();
+            if (token == JsonStreamReader.START_OBJECT || token == JsonStreamReader.START_LIST)
+            {
+               m_reader.skipValue();
+               result = null;
+            }
+            else
+            {
+               Map<String, Object> values = ENUM_VALUES.get(type);
+               if (values == null)
+               {
+                  values = FIELD_ENUM_VALUES.get(field);
+               }
+               result = values == null ? m_reader.getText() : values.get(m_reader.getText());
+            }
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Read a list of relations. The relations are held until all tasks
+    * have been read.
+    *
+    * @return list of relations
+    */
+   private List<RelationData> readRelationList() throws IOException
+   {
+      List<RelationData> result = new ArrayList<RelationData>();
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         RelationData relation = new RelationData();
+         while (m_reader.nextToken() == JsonStreamReader.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+
+            if (name.equals("task_unique_id"))
+            {
+               relation.m_predecessorUniqueID = Integer.valueOf(m_reader.getInt());
+            }
+            else
+            {
+               if (name.equals("lag"))
+               {
+                  relation.m_lag = getDuration(m_reader.getLong());
+               }
+               else
+               {
+                  if (name.equals("type"))
+                  {
+                     relation.m_type = RELATION_TYPES.get(m_reader.getText());
+                  }
+               }
+            }
+            m_reader.skipValue();
+         }
+         result.add(relation);
+      }
+      return result;
+   }
+
+   /**
+    * Read a map of values. The type of each value is inferred from its
+    * JSON representation.
+    *
+    * @return map of values
+    */
+   private Map<String, Object> readMap() throws IOException
+   {
+      Map<String, Object> result = new HashMap<String, Object>();
+      while (m_reader.nextToken() == JsonStreamReader.NAME)
+      {
+         String name = m_reader.getText();
+         Object value;
+
+         switch (m_reader.nextToken())
+         {
+            case JsonStreamReader.TRUE:
+            {
+               value = Boolean.TRUE;
+               break;
+            }
+
+            case JsonStreamReader.FALSE:
+            {
+               value = Boolean.FALSE;
+               break;
+            }
+
+            case JsonStreamReader.NUMBER:
+            {
+               String text = m_reader.getText();
+               if (text.indexOf('.') == -1 && text.indexOf('E') == -1)
+               {
+                  value = Integer.valueOf(m_reader.getInt());
+               }
+               else
+               {
+                  value = Double.valueOf(m_reader.getDouble());
+               }
+               break;
+            }
+
+            case JsonStreamReader.STRING:
+            {
+               String text = m_reader.getText();
+               value = isDate(text) ? parseDate(text) : text;
+               break;
+            }
+
+            default:
+            {
+               m_reader.skipValue();
+               value = null;
+               break;
+            }
+         }
+
+         if (value != null)
+         {
+            result.put(name, value);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read a list of date ranges.
+    *
+    * @return list of date ranges
+    */
+   private List<DateRange> readDateRangeList() throws IOException
+   {
+      List<DateRange> result = new LinkedList<DateRange>();
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         Date start = null;
+         Date end = null;
+         while (m_reader.nextToken() == JsonStreamReader.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+
+            if (name.equals("start"))
+            {
+               start = parseDate(m_reader.getText());
+            }
+            else
+            {
+               if (name.equals("end"))
+               {
+                  end = parseDate(m_reader.getText());
+               }
+            }
+            m_reader.skipValue();
+         }
+         result.add(new DateRange(start, end));
+      }
+      return result;
+   }
+
+   /**
+    * Read a subproject.
+    *
+    * @return SubProject instance
+    */
+   private SubProject readSubProject() throws IOException
+   {
+      SubProject result = new SubProject();
+      while (m_reader.nextToken() == JsonStreamReader.NAME)
+      {
+         String name = m_reader.getText();
+         m_reader.nextToken();
+
+         if (name.equals("dos_file_name"))
+         {
+            result.setDosFileName(m_reader.getText());
+         }
+         else
+         {
+            if (name.equals("dos_full_path"))
+            {
+               result.setDosFullPath(m_reader.getText());
+            }
+            else
+            {
+               if (name.equals("file_name"))
+               {
+                  result.setFileName(m_reader.getText());
+               }
+               else
+               {
+                  if (name.equals("full_path"))
+                  {
+                     result.setFullPath(m_reader.getText());
+                  }
+                  else
+                  {
+                     if (name.equals("task_unique_id"))
+                     {
+                        result.setTaskUniqueID(Integer.valueOf(m_reader.getInt()));
+                     }
+                     else
+                     {
+                        if (name.equals("unique_id_offset"))
+                        {
+                           result.setUniqueIDOffset(Integer.valueOf(m_reader.getInt()));
+                        }
+                        else
+                        {
+                           if (name.equals("all_external_task_unique_ids"))
+                           {
+                              readExternalTaskUniqueIDs(result);
+                           }
+                        }
+                     }
+                  }
+               }
+            }
+         }
+         m_reader.skipValue();
+      }
+      return result;
+   }
+
+   /**
+    * Read the external task unique IDs for a subproject.
+    *
+    * @param subProject parent subproject
+    */
+   private void readExternalTaskUniqueIDs(SubProject subProject) throws IOException
+   {
+      while (m_reader.nextToken() == JsonStreamReader.START_OBJECT)
+      {
+         while (m_reader.nextToken() == JsonStreamReader.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+            if (name.equals("id"))
+            {
+               subProject.addExternalTaskUniqueID(Integer.valueOf(m_reader.getInt()));
+            }
+            m_reader.skipValue();
+         }
+      }
+   }
+
+   /**
+    * Convert a number of seconds to a duration in minutes. JsonWriter
+    * truncates the duration when it converts minutes to seconds, so
+    * the minutes value is adjusted if necessary to ensure that writing
+    * the duration again produces the same number of seconds.
+    *
+    * @param seconds duration in seconds
+    * @return Duration instance
+    */
+   private Duration getDuration(long seconds)
+   {
+      double minutes = seconds / 60.0;
+      if (seconds < 0)
+      {
+         while ((long) (minutes * 60.0) > seconds)
+         {
+            minutes = Math.nextAfter(minutes, Double.NEGATIVE_INFINITY);
+         }
+      }
+      else
+      {
+         while ((long) (minutes * 60.0) < seconds)
+         {
+            minutes = Math.nextUp(minutes);
+         }
+      }
+      return Duration.getInstance(minutes, TimeUnit.MINUTES);
+   }
+
+   /**
+    * Determine if a string has the format used by JsonStreamWriter
+    * to write dates: yyyy-MM-dd'T'HH:mm:ss.S.
+    *
+    * @param text string value
+    * @return true if the string is a date
+    */
+   private boolean isDate(String text)
+   {
+      int length = text.length();
+      if (length < DATE_TEMPLATE.length() || length > DATE_TEMPLATE.length() + 2)
+      {
+         return false;
+      }
+
+      for (int index = 0; index < length; index++)
+      {
+         char c = text.charAt(index);
+         char expected = index < DATE_TEMPLATE.length() ? DATE_TEMPLATE.charAt(index) : '0';
+         if (expected == '0' ? (c < '0' || c > '9') : c != expected)
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * Parse a date. Dates written by JsonStreamWriter are parsed directly,
+    * any other format falls back to a date format.
+    *
+    * @param text date text
+    * @return Date instance
+    */
+   private Date parseDate(String text) throws IOException
+   {
+      Date result;
+      if (isDate(text))
+      {
+         Calendar cal = DateHelper.popCalendar();
+         cal.clear();
+         cal.set(getInt(text, 0, 4), getInt(text, 5, 7) - 1, getInt(text, 8, 10), getInt(text, 11, 13), getInt(text, 14, 16), getInt(text, 17, 19));
+         cal.set(Calendar.MILLISECOND, getInt(text, 20, text.length()));
+         result = cal.getTime();
+         DateHelper.pushCalendar(cal);
+      }
+      else
+      {
+         try
+         {
+            result = m_dateFormat.parse(text);
+         }
+
+         catch (ParseException ex)
+         {
+            throw new IOException("Invalid date: " + text);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Parse an unsigned integer from a range of characters known to be digits.
+    *
+    * @param text source text
+    * @param start start index
+    * @param end end index
+    * @return integer value
+    */
+   private int getInt(String text, int start, int end)
+   {
+      int result = 0;
+      for (int index = start; index < end; index++)
+      {
+         result = (result * 10) + (text.charAt(index) - '0');
+      }
+      return result;
+   }
+
+   /**
+    * Find the index at which the units suffix of a Duration or Rate
+    * string representation starts.
+    *
+    * @param text Duration or Rate as text
+    * @return index of the units suffix
+    */
+   private int getUnitsIndex(String text)
+   {
+      int index = text.length();
+      while (index > 0 && !Character.isDigit(text.charAt(index - 1)))
+      {
+         --index;
+      }
+      return index;
+   }
+
+   /**
+    * Retrieve a TimeUnit instance from its string representation.
+    *
+    * @param text TimeUnit as text
+    * @return TimeUnit instance
+    */
+   private TimeUnit getTimeUnit(String text)
+   {
+      TimeUnit result = (TimeUnit) TIME_UNITS.get(text);
+      if (result == null)
+      {
+         throw new IllegalArgumentException("Invalid time unit: " + text);
+      }
+      return result;
+   }
+
+   /**
+    * Create a map of attribute names to fields.
+    *
+    * @param fields fields
+    * @return map of attribute names to fields
+    */
+   private static Map<String, FieldType> createFieldMap(FieldType[] fields)
+   {
+      Map<String, FieldType> result = new HashMap<String, FieldType>();
+      for (FieldType field : fields)
+      {
+         result.put(field.name().toLowerCase(), field);
+      }
+      return result;
+   }
+
+   /**
+    * Create a map of string representations to values.
+    *
+    * @param values values
+    * @return map of string representations to values
+    */
+   private static Map<String, Object> createValueMap(Object[] values)
+   {
+      Map<String, Object> result = new HashMap<String, Object>();
+      for (Object value : values)
+      {
+         result.put(value.toString(), value);
+      }
+      return result;
+   }
+
+   /**
+    * Relation data held until all tasks have been read.
+    */
+   private static final class RelationData
+   {
+      Task m_task;
+      Integer m_predecessorUniqueID;
+      RelationType m_type;
+      Duration m_lag;
+   }
+
+   private Charset m_encoding = CharsetHelper.UTF8;
+   private ProjectFile m_projectFile;
+   private EventManager m_eventManager;
+   private List<ProjectListener> m_projectListeners;
+   private JsonStreamReader m_reader;
+   private Map<String, Map<String, DataType>> m_types;
+   private List<RelationData> m_relations;
+   private final List<FieldType> m_fieldTypes = new ArrayList<FieldType>();
+   private final List<Object> m_fieldValues = new ArrayList<Object>();
+   private final DateFormat m_dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.S");
+
+   private static final Integer ZERO = Integer.valueOf(0);
+   private static final Double ZERO_NUMBER = Double.valueOf(0);
+   private static final Duration ZERO_DURATION = Duration.getInstance(0, TimeUnit.MINUTES);
+
+   private static final String TEXT_SUFFIX = "_text";
+
+   /**
+    * Layout of a date written by JsonStreamWriter, zeros represent digits.
+    */
+   private static final String DATE_TEMPLATE = "0000-00-00T00:00:00.0";
+
+   private static final Map<String, FieldType> PROJECT_FIELDS = createFieldMap(ProjectField.values());
+   private static final Map<String, FieldType> RESOURCE_FIELDS = createFieldMap(ResourceField.values());
+   private static final Map<String, FieldType> TASK_FIELDS = createFieldMap(TaskField.values());
+   private static final Map<String, FieldType> ASSIGNMENT_FIELDS = createFieldMap(AssignmentField.values());
+
+   private static final Map<String, Map<String, FieldType>> FIELD_TYPE_CLASS_MAP = new HashMap<String, Map<String, FieldType>>();
+   static
+   {
+      FIELD_TYPE_CLASS_MAP.put("project", PROJECT_FIELDS);
+      FIELD_TYPE_CLASS_MAP.put("resource", RESOURCE_FIELDS);
+      FIELD_TYPE_CLASS_MAP.put("task", TASK_FIELDS);
+      FIELD_TYPE_CLASS_MAP.put("assignment", ASSIGNMENT_FIELDS);
+   }
+
+   /**
+    * Values represented by task fields omitted from the file.
+    */
+   private static final Map<FieldType, Object> TASK_OMITTED_VALUES = new HashMap<FieldType, Object>();
+   static
+   {
+      TASK_OMITTED_VALUES.put(TaskField.CONSTRAINT_TYPE, null);
+      TASK_OMITTED_VALUES.put(TaskField.TYPE, null);
+      TASK_OMITTED_VALUES.put(TaskField.ACTIVE, null);
+      TASK_OMITTED_VALUES.put(TaskField.TASK_MODE, null);
+      TASK_OMITTED_VALUES.put(TaskField.CRITICAL, Boolean.FALSE);
+      TASK_OMITTED_VALUES.put(TaskField.START_VARIANCE, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.FINISH_VARIANCE, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.START_SLACK, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.FINISH_SLACK, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.TOTAL_SLACK, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.DURATION_VARIANCE, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.WORK_VARIANCE, ZERO_DURATION);
+      TASK_OMITTED_VALUES.put(TaskField.COST_VARIANCE, ZERO_NUMBER);
+      TASK_OMITTED_VALUES.put(TaskField.CV, ZERO_NUMBER);
+      TASK_OMITTED_VALUES.put(TaskField.SV, ZERO_NUMBER);
+   }
+
+   /**
+    * Values represented by resource fields omitted from the file.
+    */
+   private static final Map<FieldType, Object> RESOURCE_OMITTED_VALUES = new HashMap<FieldType, Object>();
+   static
+   {
+      RESOURCE_OMITTED_VALUES.put(ResourceField.TYPE, null);
+      RESOURCE_OMITTED_VALUES.put(ResourceField.OVERALLOCATED, Boolean.FALSE);
+      RESOURCE_OMITTED_VALUES.put(ResourceField.WORK_VARIANCE, ZERO_DURATION);
+      RESOURCE_OMITTED_VALUES.put(ResourceField.COST_VARIANCE, ZERO_NUMBER);
+      RESOURCE_OMITTED_VALUES.put(ResourceField.CV, ZERO_NUMBER);
+      RESOURCE_OMITTED_VALUES.put(ResourceField.SV, ZERO_NUMBER);
+   }
+
+   /**
+    * Values represented by assignment fields omitted from the file.
+    */
+   private static final Map<FieldType, Object> ASSIGNMENT_OMITTED_VALUES = new HashMap<FieldType, Object>();
+   static
+   {
+      ASSIGNMENT_OMITTED_VALUES.put(AssignmentField.WORK, null);
+      ASSIGNMENT_OMITTED_VALUES.put(AssignmentField.ASSIGNMENT_UNITS, null);
+   }
+
+   private static final Map<String, Object> TIME_UNITS = createValueMap(TimeUnit.values());
+   private static final Map<String, RelationType> RELATION_TYPES = new HashMap<String, RelationType>();
+   static
+   {
+      for (RelationType type : RelationType.values())
+      {
+         RELATION_TYPES.put(type.toString(), type);
+      }
+   }
+
+   private static final Map<DataType, Map<String, Object>> ENUM_VALUES = new EnumMap<DataType, Map<String, Object>>(DataType.class);
+   static
+   {
+      ENUM_VALUES.put(DataType.ACCRUE, createValueMap(AccrueType.values()));
+      ENUM_VALUES.put(DataType.CONSTRAINT, createValueMap(ConstraintType.values()));
+      ENUM_VALUES.put(DataType.TASK_TYPE, createValueMap(TaskType.values()));
+      ENUM_VALUES.put(DataType.RESOURCE_TYPE, createValueMap(ResourceType.values()));
+      ENUM_VALUES.put(DataType.WORKGROUP, createValueMap(WorkGroup.values()));
+      ENUM_VALUES.put(DataType.EARNED_VALUE_METHOD, createValueMap(EarnedValueMethod.values()));
+      ENUM_VALUES.put(DataType.RESOURCE_REQUEST_TYPE, createValueMap(ResourceRequestType.values()));
+      ENUM_VALUES.put(DataType.CURRENCY_SYMBOL_POSITION, createValueMap(CurrencySymbolPosition.values()));
+      ENUM_VALUES.put(DataType.DATE_ORDER, createValueMap(DateOrder.values()));
+      ENUM_VALUES.put(DataType.PROJECT_TIME_FORMAT, createValueMap(ProjectTimeFormat.values()));
+      ENUM_VALUES.put(DataType.PROJECT_DATE_FORMAT, createValueMap(ProjectDateFormat.values()));
+      ENUM_VALUES.put(DataType.SCHEDULE_FROM, createValueMap(ScheduleFrom.values()));
+      ENUM_VALUES.put(DataType.DAY, createValueMap(Day.values()));
+      ENUM_VALUES.put(DataType.MPX_FILE_VERSION, createValueMap(FileVersion.values()));
+      ENUM_VALUES.put(DataType.MPX_CODE_PAGE, createValueMap(CodePage.values()));
+      ENUM_VALUES.put(DataType.BOOKING_TYPE, createValueMap(BookingType.values()));
+      ENUM_VALUES.put(DataType.TIME_UNITS, TIME_UNITS);
+      ENUM_VALUES.put(DataType.RATE_UNITS, TIME_UNITS);
+      ENUM_VALUES.put(DataType.WORK_UNITS, TIME_UNITS);
+   }
+
+   /**
+    * Fields whose data type is STRING, but which hold enumerated values.
+    */
+   private static final Map<FieldType, Map<String, Object>> FIELD_ENUM_VALUES = new HashMap<FieldType, Map<String, Object>>();
+   static
+   {
+      FIELD_ENUM_VALUES.put(AssignmentField.WORK_CONTOUR, createValueMap(WorkContour.values()));
+   }
+}
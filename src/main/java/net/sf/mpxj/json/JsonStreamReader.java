@@ -0,0 +1,537 @@
+/*
+ * file:       JsonStreamReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * Reads JSON data from an input stream as a sequence of tokens.
+ * Object attribute names are returned as NAME tokens, followed by
+ * the tokens representing the attribute's value. The separators
+ * between names and values, and between values, are consumed
+ * by the tokenizer and are not returned to the caller.
+ */
+public class JsonStreamReader
+{
+   /**
+    * Constructor.
+    *
+    * @param stream source input stream
+    * @param encoding source encoding
+    */
+   public JsonStreamReader(InputStream stream, Charset encoding)
+   {
+      m_reader = new InputStreamReader(stream, encoding);
+   }
+
+   /**
+    * Retrieve the next token from the input stream.
+    *
+    * @return token type
+    */
+   public int nextToken() throws IOException
+   {
+      int c = readSignificant();
+      while (c == ',' || c == ':')
+      {
+         c = readSignificant();
+      }
+
+      int result;
+      switch (c)
+      {
+         case -1:
+         {
+            result = END_DOCUMENT;
+            break;
+         }
+
+         case '{':
+         {
+            result = START_OBJECT;
+            break;
+         }
+
+         case '}':
+         {
+            result = END_OBJECT;
+            break;
+         }
+
+         case '[':
+         {
+            result = START_LIST;
+            break;
+         }
+
+         case ']':
+         {
+            result = END_LIST;
+            break;
+         }
+
+         case '"':
+         {
+            readString();
+            result = isNameSeparatorNext() ? NAME : STRING;
+            break;
+         }
+
+         default:
+         {
+            result = readLiteral(c);
+            break;
+         }
+      }
+
+      m_token = result;
+      return result;
+   }
+
+   /**
+    * Retrieve the type of the most recent token.
+    *
+    * @return token type
+    */
+   public int getToken()
+   {
+      return m_token;
+   }
+
+   /**
+    * Retrieve the text of the most recent NAME, STRING or NUMBER token.
+    *
+    * @return token text
+    */
+   public String getText()
+   {
+      return m_buffer.toString();
+   }
+
+   /**
+    * Retrieve the value of the most recent NUMBER token as an int.
+    *
+    * @return int value
+    */
+   public int getInt() throws IOException
+   {
+      return (int) getLong();
+   }
+
+   /**
+    * Retrieve the value of the most recent NUMBER token as a long.
+    * Numbers are parsed directly from the token buffer, falling
+    * back to a double if the number has a fractional part or exponent.
+    *
+    * @return long value
+    */
+   public long getLong() throws IOException
+   {
+      int length = m_buffer.length();
+      int index = 0;
+      boolean negative = false;
+      if (length != 0 && m_buffer.charAt(0) == '-')
+      {
+         negative = true;
+         index = 1;
+      }
+
+      if (index == length || length - index > 18)
+      {
+         return (long) getDouble();
+      }
+
+      long result = 0;
+      while (index < length)
+      {
+         char c = m_buffer.charAt(index++);
+         if (c < '0' || c > '9')
+         {
+            return (long) getDouble();
+         }
+         result = (result * 10) + (c - '0');
+      }
+
+      return negative ? -result : result;
+   }
+
+   /**
+    * Retrieve the value of the most recent NUMBER token as a double.
+    *
+    * @return double value
+    */
+   public double getDouble() throws IOException
+   {
+      try
+      {
+         return Double.parseDouble(getText());
+      }
+
+      catch (NumberFormatException ex)
+      {
+         throw new IOException("Invalid number: " + getText());
+      }
+   }
+
+   /**
+    * Skip the value following a NAME token, or the remainder of an object
+    * or list if the most recent token started an object or list.
+    */
+   public void skipValue() throws IOException
+   {
+      int token = m_token;
+      if (token == NAME)
+      {
+         token = nextToken();
+      }
+
+      if (token == START_OBJECT || token == START_LIST)
+      {
+         int depth = 1;
+         while (depth != 0)
+         {
+            switch (nextToken())
+            {
+               case START_OBJECT:
+               case START_LIST:
+               {
+                  ++depth;
+                  break;
+               }
+
+               case END_OBJECT:
+               case END_LIST:
+               {
+                  --depth;
+                  break;
+               }
+
+               case END_DOCUMENT:
+               {
+                  throw new IOException("Unexpected end of document");
+               }
+
+               default:
+               {
+                  break;
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Read a string value into the token buffer, handling escape sequences.
+    */
+   private void readString() throws IOException
+   {
+      m_buffer.setLength(0);
+      while (true)
+      {
+         int c = read();
+         switch (c)
+         {
+            case -1:
+            {
+               throw new IOException("Unterminated string");
+            }
+
+            case '"':
+            {
+               return;
+            }
+
+            case '\\':
+            {
+               readEscape();
+               break;
+            }
+
+            default:
+            {
+               m_buffer.append((char) c);
+               break;
+            }
+         }
+      }
+   }
+
+   /**
+    * Read an escape sequence, appending the character it represents
+    * to the token buffer.
+    */
+   private void readEscape() throws IOException
+   {
+      int c = read();
+      switch (c)
+      {
+         case 'b':
+         {
+            m_buffer.append('\b');
+            break;
+         }
+
+         case 'f':
+         {
+            m_buffer.append('\f');
+            break;
+         }
+
+         case 'n':
+         {
+            m_buffer.append('\n');
+            break;
+         }
+
+         case 'r':
+         {
+            m_buffer.append('\r');
+            break;
+         }
+
+         case 't':
+         {
+            m_buffer.append('\t');
+            break;
+         }
+
+         case 'u':
+         {
+            int value = 0;
+            for (int index = 0; index < 4; index++)
+            {
+               int digit = Character.digit(read(), 16);
+               if (digit == -1)
+               {
+                  throw new IOException("Invalid unicode escape sequence");
+               }
+               value = (value << 4) + digit;
+            }
+            m_buffer.append((char) value);
+            break;
+         }
+
+         case -1:
+         {
+            throw new IOException("Unterminated string");
+         }
+
+         default:
+         {
+            m_buffer.append((char) c);
+            break;
+         }
+      }
+   }
+
+   /**
+    * Read a number, or one of the literals true, false and null.
+    *
+    * @param first first character of the literal
+    * @return token type
+    */
+   private int readLiteral(int first) throws IOException
+   {
+      m_buffer.setLength(0);
+      m_buffer.append((char) first);
+      while (true)
+      {
+         int c = peek();
+         if (c == -1 || c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c))
+         {
+            break;
+         }
+         m_buffer.append((char) c);
+         ++m_position;
+      }
+
+      int result;
+      if (first == '-' || (first >= '0' && first <= '9'))
+      {
+         result = NUMBER;
+      }
+      else
+      {
+         String text = getText();
+         if (text.equals("true"))
+         {
+            result = TRUE;
+         }
+         else
+         {
+            if (text.equals("false"))
+            {
+               result = FALSE;
+            }
+            else
+            {
+               if (text.equals("null"))
+               {
+                  result = NULL;
+               }
+               else
+               {
+                  throw new IOException("Unexpected token: " + text);
+               }
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Determine if the string just read is an attribute name by looking
+    * for a following colon.
+    *
+    * @return true if the string is followed by a colon
+    */
+   private boolean isNameSeparatorNext() throws IOException
+   {
+      int c = peek();
+      while (c != -1 && Character.isWhitespace(c))
+      {
+         ++m_position;
+         c = peek();
+      }
+      return c == ':';
+   }
+
+   /**
+    * Read the next character which is not whitespace.
+    *
+    * @return character, or -1 at the end of the stream
+    */
+   private int readSignificant() throws IOException
+   {
+      int c = read();
+      while (c != -1 && Character.isWhitespace(c))
+      {
+         c = read();
+      }
+      return c;
+   }
+
+   /**
+    * Read the next character.
+    *
+    * @return character, or -1 at the end of the stream
+    */
+   private int read() throws IOException
+   {
+      int c = peek();
+      if (c != -1)
+      {
+         ++m_position;
+      }
+      return c;
+   }
+
+   /**
+    * Retrieve the next character without consuming it.
+    *
+    * @return character, or -1 at the end of the stream
+    */
+   private int peek() throws IOException
+   {
+      if (m_position == m_length)
+      {
+         m_length = m_reader.read(m_chars);
+         m_position = 0;
+         if (m_length <= 0)
+         {
+            m_length = 0;
+            return -1;
+         }
+      }
+      return m_chars[m_position];
+   }
+
+   /**
+    * End of the input stream.
+    */
+   public static final int END_DOCUMENT = -1;
+
+   /**
+    * Start of an object.
+    */
+   public static final int START_OBJECT = 1;
+
+   /**
+    * End of an object.
+    */
+   public static final int END_OBJECT = 2;
+
+   /**
+    * Start of a list.
+    */
+   public static final int START_LIST = 3;
+
+   /**
+    * End of a list.
+    */
+   public static final int END_LIST = 4;
+
+   /**
+    * Object attribute name.
+    */
+   public static final int NAME = 5;
+
+   /**
+    * String value.
+    */
+   public static final int STRING = 6;
+
+   /**
+    * Numeric value.
+    */
+   public static final int NUMBER = 7;
+
+   /**
+    * Boolean true.
+    */
+   public static final int TRUE = 8;
+
+   /**
+    * Boolean false.
+    */
+   public static final int FALSE = 9;
+
+   /**
+    * Null value.
+    */
+   public static final int NULL = 10;
+
+   private final Reader m_reader;
+   private final char[] m_chars = new char[BUFFER_SIZE];
+   private final StringBuilder m_buffer = new StringBuilder();
+   private int m_position;
+   private int m_length;
+   private int m_token;
+
+   private static final int BUFFER_SIZE = 8192;
+}
@@ -26,15 +26,21 @@ package net.sf.mpxj.json;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
-import java.util.Deque;
-import java.util.LinkedList;
+
+import net.sf.mpxj.common.CharsetHelper;
 
 /**
  * Writes JSON data to an output stream.
+ *
+ * Output is assembled in a reusable character buffer: names, escaped
+ * strings, numbers and dates are written directly into this buffer
+ * without creating intermediate strings. When the target encoding is
+ * UTF-8 the buffer is encoded directly into a reusable byte buffer,
+ * otherwise it is passed to a Writer for the target encoding.
  */
 public class JsonStreamWriter
 {
@@ -46,8 +52,18 @@ public class JsonStreamWriter
     */
    public JsonStreamWriter(OutputStream stream, Charset encoding)
    {
-      m_writer = new OutputStreamWriter(stream, encoding);
-      m_firstNameValuePair.push(Boolean.TRUE);
+      m_stream = stream;
+      if (CharsetHelper.UTF8.equals(encoding))
+      {
+         m_bytes = new byte[(BUFFER_SIZE * 3) + 3];
+         m_writer = null;
+      }
+      else
+      {
+         m_bytes = null;
+         m_writer = new OutputStreamWriter(stream, encoding);
+      }
+      m_firstNameValuePair[0] = true;
    }
 
    /**
@@ -75,7 +91,15 @@ public class JsonStreamWriter
     */
    public void flush() throws IOException
    {
-      m_writer.flush();
+      flushBuffer(true);
+      if (m_writer == null)
+      {
+         m_stream.flush();
+      }
+      else
+      {
+         m_writer.flush();
+      }
    }
 
    /**
@@ -94,7 +118,7 @@ public class JsonStreamWriter
          writeNewLineIndent();
       }
 
-      m_writer.write("{");
+      write('{');
       increaseIndent();
    }
 
@@ -109,7 +133,7 @@ public class JsonStreamWriter
       writeNewLineIndent();
       writeName(name);
       writeNewLineIndent();
-      m_writer.write("[");
+      write('[');
       increaseIndent();
    }
 
@@ -119,7 +143,7 @@ public class JsonStreamWriter
    public void writeEndObject() throws IOException
    {
       decreaseIndent();
-      m_writer.write("}");
+      write('}');
    }
 
    /**
@@ -128,7 +152,7 @@ public class JsonStreamWriter
    public void writeEndList() throws IOException
    {
       decreaseIndent();
-      m_writer.write("]");
+      write(']');
    }
 
    /**
@@ -139,7 +163,8 @@ public class JsonStreamWriter
     */
    public void writeNameValuePair(String name, String value) throws IOException
    {
-      internalWriteNameValuePair(name, escapeString(value));
+      writeNamePrefix(name);
+      writeEscapedString(value);
    }
 
    /**
@@ -150,7 +175,8 @@ public class JsonStreamWriter
     */
    public void writeNameValuePair(String name, int value) throws IOException
    {
-      internalWriteNameValuePair(name, Integer.toString(value));
+      writeNamePrefix(name);
+      writeLong(value);
    }
 
    /**
@@ -161,7 +187,8 @@ public class JsonStreamWriter
     */
    public void writeNameValuePair(String name, long value) throws IOException
    {
-      internalWriteNameValuePair(name, Long.toString(value));
+      writeNamePrefix(name);
+      writeLong(value);
    }
 
    /**
@@ -172,7 +199,8 @@ public class JsonStreamWriter
     */
    public void writeNameValuePair(String name, double value) throws IOException
    {
-      internalWriteNameValuePair(name, Double.toString(value));
+      writeNamePrefix(name);
+      writeDouble(value);
    }
 
    /**
@@ -183,7 +211,8 @@ public class JsonStreamWriter
     */
    public void writeNameValuePair(String name, boolean value) throws IOException
    {
-      internalWriteNameValuePair(name, value ? "true" : "false");
+      writeNamePrefix(name);
+      write(value ? "true" : "false");
    }
 
    /**
@@ -194,16 +223,27 @@ public class JsonStreamWriter
     */
    public void writeNameValuePair(String name, Date value) throws IOException
    {
-      internalWriteNameValuePair(name, m_format.format(value));
+      writeNamePrefix(name);
+      writeDate(value);
    }
 
    /**
-    * Core write attribute implementation.
+    * Write an attribute with a null value.
+    *
+    * @param name attribute name
+    */
+   public void writeNullValue(String name) throws IOException
+   {
+      writeNamePrefix(name);
+      write("null");
+   }
+
+   /**
+    * Write the separator, indent and name which precede an attribute value.
     *
     * @param name attribute name
-    * @param value attribute value
     */
-   private void internalWriteNameValuePair(String name, String value) throws IOException
+   private void writeNamePrefix(String name) throws IOException
    {
       writeComma();
       writeNewLineIndent();
@@ -211,72 +251,69 @@ public class JsonStreamWriter
 
       if (m_pretty)
       {
-         m_writer.write(' ');
+         write(' ');
       }
-
-      m_writer.write(value);
    }
 
    /**
-    * Escape text to ensure valid JSON.
+    * Write a quoted string, escaping it to ensure valid JSON.
     *
     * @param value value
-    * @return escaped value
     */
-   private String escapeString(String value)
+   private void writeEscapedString(String value) throws IOException
    {
-      m_buffer.setLength(0);
-      m_buffer.append('"');
-      for (int index = 0; index < value.length(); index++)
+      write('"');
+      int length = value.length();
+      for (int index = 0; index < length; index++)
       {
          char c = value.charAt(index);
          switch (c)
          {
             case '"':
             {
-               m_buffer.append("\\\"");
+               write('\\', '"');
                break;
             }
 
             case '\\':
             {
-               m_buffer.append("\\\\");
+               write('\\', '\\');
                break;
             }
 
             case '/':
             {
-               m_buffer.append("\\/");
+               write('\\', '/');
                break;
             }
 
             case '\b':
             {
-               m_buffer.append("\\b");
+               write('\\', 'b');
                break;
             }
 
             case '\f':
             {
-               m_buffer.append("\\f");
+               write('\\', 'f');
                break;
             }
 
             case '\n':
             {
-               m_buffer.append("\\n");
+               write('\\', 'n');
                break;
             }
 
             case '\r':
             {
-               m_buffer.append("\\r");
+               write('\\', 'r');
                break;
             }
 
             case '\t':
             {
-               m_buffer.append("\\t");
+               write('\\', 't');
                break;
             }
 
@@ -285,14 +322,113 @@ public class JsonStreamWriter
                // Append if it's not a control character (0x00 to 0x1f)
                if (c > 0x1f)
                {
-                  m_buffer.append(c);
+                  write(c);
                }
                break;
             }
          }
       }
-      m_buffer.append('"');
-      return m_buffer.toString();
+      write('"');
+   }
+
+   /**
+    * Write the decimal representation of a long value.
+    *
+    * @param value value
+    */
+   private void writeLong(long value) throws IOException
+   {
+      if (value == Long.MIN_VALUE)
+      {
+         write(Long.toString(value));
+         return;
+      }
+
+      if (value < 0)
+      {
+         write('-');
+         value = -value;
+      }
+
+      int index = m_digits.length;
+      do
+      {
+         m_digits[--index] = (char) ('0' + (value % 10));
+         value /= 10;
+      }
+      while (value != 0);
+
+      write(m_digits, index, m_digits.length - index);
+   }
+
+   /**
+    * Write the representation of a double value. The output matches
+    * Double.toString: whole numbers small enough to avoid exponent
+    * notation are written directly, other values are formatted
+    * by Double.toString.
+    *
+    * @param value value
+    */
+   private void writeDouble(double value) throws IOException
+   {
+      if (value != 0 && value > -MAX_PLAIN_DOUBLE && value < MAX_PLAIN_DOUBLE && value == (long) value)
+      {
+         writeLong((long) value);
+         write('.', '0');
+      }
+      else
+      {
+         write(Double.toString(value));
+      }
+   }
+
+   /**
+    * Write a quoted date in the format yyyy-MM-dd'T'HH:mm:ss.S,
+    * using the default time zone.
+    *
+    * @param value value
+    */
+   private void writeDate(Date value) throws IOException
+   {
+      Calendar cal = m_calendar;
+      cal.setTime(value);
+
+      write('"');
+      writePadded(cal.get(Calendar.YEAR), 4);
+      write('-');
+      writePadded(cal.get(Calendar.MONTH) + 1, 2);
+      write('-');
+      writePadded(cal.get(Calendar.DAY_OF_MONTH), 2);
+      write('T');
+      writePadded(cal.get(Calendar.HOUR_OF_DAY), 2);
+      write(':');
+      writePadded(cal.get(Calendar.MINUTE), 2);
+      write(':');
+      writePadded(cal.get(Calendar.SECOND), 2);
+      write('.');
+      writeLong(cal.get(Calendar.MILLISECOND));
+      write('"');
+   }
+
+   /**
+    * Write a non-negative number, padded with leading zeros
+    * to the requested width.
+    *
+    * @param value value
+    * @param width minimum number of digits
+    */
+   private void writePadded(int value, int width) throws IOException
+   {
+      int limit = 10;
+      for (int index = 1; index < width; index++)
+      {
+         if (value < limit)
+         {
+            write('0');
+         }
+         limit *= 10;
+      }
+      writeLong(value);
    }
 
    /**
@@ -300,14 +436,13 @@ public class JsonStreamWriter
     */
    private void writeComma() throws IOException
    {
-      if (m_firstNameValuePair.peek().booleanValue())
+      if (m_firstNameValuePair[m_depth])
       {
-         m_firstNameValuePair.pop();
-         m_firstNameValuePair.push(Boolean.FALSE);
+         m_firstNameValuePair[m_depth] = false;
       }
       else
       {
-         m_writer.write(',');
+         write(',');
       }
    }
 
@@ -316,13 +451,23 @@ public class JsonStreamWriter
     */
    private void writeNewLineIndent() throws IOException
    {
-      if (m_pretty)
+      if (m_pretty && m_depth != 0)
       {
-         if (!m_indent.isEmpty())
-         {
-            m_writer.write('\n');
-            m_writer.write(m_indent);
-         }
+         write('\n');
+         writeIndent(m_depth);
+      }
+   }
+
+   /**
+    * Write the indent for a given nesting depth.
+    *
+    * @param depth nesting depth
+    */
+   private void writeIndent(int depth) throws IOException
+   {
+      for (int index = 0; index < depth; index++)
+      {
+         write(INDENT);
       }
    }
 
@@ -333,8 +478,8 @@ public class JsonStreamWriter
     */
    private void writeName(String name) throws IOException
    {
-      m_writer.write(escapeString(name));
-      m_writer.write(":");
+      writeEscapedString(name);
+      write(':');
    }
 
    /**
@@ -342,11 +487,14 @@ public class JsonStreamWriter
     */
    private void increaseIndent()
    {
-      m_firstNameValuePair.push(Boolean.TRUE);
-      if (m_pretty)
+      ++m_depth;
+      if (m_depth == m_firstNameValuePair.length)
       {
-         m_indent += INDENT;
+         boolean[] firstNameValuePair = new boolean[m_firstNameValuePair.length * 2];
+         System.arraycopy(m_firstNameValuePair, 0, firstNameValuePair, 0, m_firstNameValuePair.length);
+         m_firstNameValuePair = firstNameValuePair;
       }
+      m_firstNameValuePair[m_depth] = true;
    }
 
    /**
@@ -356,19 +504,169 @@ public class JsonStreamWriter
    {
       if (m_pretty)
       {
-         m_writer.write('\n');
-         m_indent = m_indent.substring(0, m_indent.length() - INDENT.length());
-         m_writer.write(m_indent);
+         write('\n');
+         writeIndent(m_depth - 1);
+      }
+      --m_depth;
+   }
+
+   /**
+    * Write a single character to the buffer.
+    *
+    * @param c character
+    */
+   private void write(char c) throws IOException
+   {
+      if (m_length == BUFFER_SIZE)
+      {
+         flushBuffer(false);
+      }
+      m_chars[m_length++] = c;
+   }
+
+   /**
+    * Write two characters to the buffer.
+    *
+    * @param c1 first character
+    * @param c2 second character
+    */
+   private void write(char c1, char c2) throws IOException
+   {
+      write(c1);
+      write(c2);
+   }
+
+   /**
+    * Write a string to the buffer.
+    *
+    * @param text string
+    */
+   private void write(String text) throws IOException
+   {
+      int offset = 0;
+      int remaining = text.length();
+      while (remaining != 0)
+      {
+         if (m_length == BUFFER_SIZE)
+         {
+            flushBuffer(false);
+         }
+         int count = Math.min(remaining, BUFFER_SIZE - m_length);
+         text.getChars(offset, offset + count, m_chars, m_length);
+         m_length += count;
+         offset += count;
+         remaining -= count;
+      }
+   }
+
+   /**
+    * Write characters from an array to the buffer.
+    *
+    * @param chars character array
+    * @param offset offset of the first character
+    * @param count number of characters
+    */
+   private void write(char[] chars, int offset, int count) throws IOException
+   {
+      if (BUFFER_SIZE - m_length < count)
+      {
+         flushBuffer(false);
+      }
+      System.arraycopy(chars, offset, m_chars, m_length, count);
+      m_length += count;
+   }
+
+   /**
+    * Write the contents of the character buffer to the output stream.
+    * When encoding as UTF-8, a high surrogate at the end of the buffer
+    * is retained until its matching low surrogate has been written,
+    * unless this is the final flush.
+    *
+    * @param all true if all buffered characters must be written
+    */
+   private void flushBuffer(boolean all) throws IOException
+   {
+      if (m_writer != null)
+      {
+         m_writer.write(m_chars, 0, m_length);
+         m_length = 0;
+         return;
+      }
+
+      int length = m_length;
+      if (!all && length != 0 && Character.isHighSurrogate(m_chars[length - 1]))
+      {
+         --length;
+      }
+
+      byte[] bytes = m_bytes;
+      int count = 0;
+      for (int index = 0; index < length; index++)
+      {
+         char c = m_chars[index];
+         if (c < 0x80)
+         {
+            bytes[count++] = (byte) c;
+         }
+         else
+         {
+            if (c < 0x800)
+            {
+               bytes[count++] = (byte) (0xC0 | (c >> 6));
+               bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else
+            {
+               if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)
+               {
+                  if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(m_chars[index + 1]))
+                  {
+                     int codePoint = Character.toCodePoint(c, m_chars[++index]);
+                     bytes[count++] = (byte) (0xF0 | (codePoint >> 18));
+                     bytes[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                     bytes[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                     bytes[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                  }
+                  else
+                  {
+                     // Unpaired surrogate, replaced as the UTF-8 encoder would
+                     bytes[count++] = '?';
+                  }
+               }
+               else
+               {
+                  bytes[count++] = (byte) (0xE0 | (c >> 12));
+                  bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                  bytes[count++] = (byte) (0x80 | (c & 0x3F));
+               }
+            }
+         }
+      }
+      m_stream.write(bytes, 0, count);
+
+      if (length == m_length)
+      {
+         m_length = 0;
+      }
+      else
+      {
+         m_chars[0] = m_chars[length];
+         m_length = 1;
       }
-      m_firstNameValuePair.pop();
    }
 
-   private final StringBuilder m_buffer = new StringBuilder();
-   private final OutputStreamWriter m_writer;
-   private final Deque<Boolean> m_firstNameValuePair = new LinkedList<Boolean>();
+   private final OutputStream m_stream;
+   private final Writer m_writer;
+   private final byte[] m_bytes;
+   private final char[] m_chars = new char[BUFFER_SIZE];
+   private final char[] m_digits = new char[20];
+   private final Calendar m_calendar = Calendar.getInstance();
+   private boolean[] m_firstNameValuePair = new boolean[16];
+   private int m_depth;
+   private int m_length;
    private boolean m_pretty;
-   private String m_indent = "";
-   private DateFormat m_format = new SimpleDateFormat("\"yyyy-MM-dd'T'HH:mm:ss.S\"");
 
    private static final String INDENT = "  ";
+   private static final int BUFFER_SIZE = 8192;
+   private static final double MAX_PLAIN_DOUBLE = 1.0E7;
 }
@@ -192,8 +192,8 @@ public final class JsonWriter extends AbstractProjectWriter
     */
    private void writeProperties() throws IOException
    {
-      writeAttributeTypes("property_types", ProjectField.values());
-      writeFields("property_values", m_projectFile.getProjectProperties(), ProjectField.values());
+      writeAttributeTypes("property_types", PROJECT_FIELDS, PROJECT_FIELD_NAMES);
+      writeFields("property_values", m_projectFile.getProjectProperties(), new ProjectFile().getProjectProperties(), PROJECT_FIELDS, PROJECT_FIELD_NAMES);
    }
 
    /**
@@ -201,12 +201,12 @@ public final class JsonWriter extends AbstractProjectWriter
     */
    private void writeResources() throws IOException
    {
-      writeAttributeTypes("resource_types", ResourceField.values());
+      writeAttributeTypes("resource_types", RESOURCE_FIELDS, RESOURCE_FIELD_NAMES);
 
       m_writer.writeStartList("resources");
       for (Resource resource : m_projectFile.getResources())
       {
-         writeFields(null, resource, ResourceField.values());
+         writeFields(null, resource, null, RESOURCE_FIELDS, RESOURCE_FIELD_NAMES);
       }
       m_writer.writeEndList();
    }
@@ -217,7 +217,7 @@ public final class JsonWriter extends AbstractProjectWriter
     */
    private void writeTasks() throws IOException
    {
-      writeAttributeTypes("task_types", TaskField.values());
+      writeAttributeTypes("task_types", TASK_FIELDS, TASK_FIELD_NAMES);
 
       m_writer.writeStartList("tasks");
       for (Task task : m_projectFile.getChildTasks())
@@ -235,7 +235,7 @@ public final class JsonWriter extends AbstractProjectWriter
     */
    private void writeTask(Task task) throws IOException
    {
-      writeFields(null, task, TaskField.values());
+      writeFields(null, task, null, TASK_FIELDS, TASK_FIELD_NAMES);
       for (Task child : task.getChildTasks())
       {
          writeTask(child);
@@ -247,12 +247,12 @@ public final class JsonWriter extends AbstractProjectWriter
     */
    private void writeAssignments() throws IOException
    {
-      writeAttributeTypes("assignment_types", AssignmentField.values());
+      writeAttributeTypes("assignment_types", ASSIGNMENT_FIELDS, ASSIGNMENT_FIELD_NAMES);
 
       m_writer.writeStartList("assignments");
       for (ResourceAssignment assignment : m_projectFile.getResourceAssignments())
       {
-         writeFields(null, assignment, AssignmentField.values());
+         writeFields(null, assignment, null, ASSIGNMENT_FIELDS, ASSIGNMENT_FIELD_NAMES);
       }
       m_writer.writeEndList();
 
@@ -263,47 +263,66 @@ public final class JsonWriter extends AbstractProjectWriter
     *
     * @param name name of the map
     * @param types types to write
+    * @param names attribute names for each type
     */
-   private void writeAttributeTypes(String name, FieldType[] types) throws IOException
+   private void writeAttributeTypes(String name, FieldType[] types, String[] names) throws IOException
    {
       m_writer.writeStartObject(name);
-      for (FieldType field : types)
+      for (int index = 0; index < types.length; index++)
       {
-         m_writer.writeNameValuePair(field.name().toLowerCase(), field.getDataType().getValue());
+         m_writer.writeNameValuePair(names[index], types[index].getDataType().getValue());
       }
       m_writer.writeEndObject();
    }
 
    /**
     * Write a set of fields from a field container to a JSON file.
+    * Where defaults are supplied, an empty field which is populated by
+    * default when a container is created is written as an explicit null,
+    * so that it is not given its default value when the file is read.
+    *
     * @param objectName name of the object, or null if no name required
     * @param container field container
+    * @param defaults container holding default values, may be null
     * @param fields fields to write
+    * @param names attribute names for each field
     */
-   private void writeFields(String objectName, FieldContainer container, FieldType[] fields) throws IOException
+   private void writeFields(String objectName, FieldContainer container, FieldContainer defaults, FieldType[] fields, String[] names) throws IOException
    {
       m_writer.writeStartObject(objectName);
-      for (FieldType field : fields)
+      for (int index = 0; index < fields.length; index++)
       {
+         FieldType field = fields[index];
          Object value = container.getCurrentValue(field);
-         if (value != null)
+         if (value == null || (value instanceof String && ((String) value).isEmpty()))
+         {
+            if (defaults != null && defaults.getCurrentValue(field) != null)
+            {
+               m_writer.writeNullValue(names[index]);
+            }
+         }
+         else
          {
-            writeField(field, value);
+            writeField(names[index], field.getDataType(), value);
          }
       }
       m_writer.writeEndObject();
    }
 
    /**
-    * Write the appropriate data for a field to the JSON file based on its type.
+    * Create the attribute names used to represent an array of fields.
     *
-    * @param field field type
-    * @param value field value
+    * @param fields fields
+    * @return attribute names
     */
-   private void writeField(FieldType field, Object value) throws IOException
+   private static String[] getFieldNames(FieldType[] fields)
    {
-      String fieldName = field.name().toLowerCase();
-      writeField(fieldName, field.getDataType(), value);
+      String[] names = new String[fields.length];
+      for (int index = 0; index < fields.length; index++)
+      {
+         names[index] = fields[index].name().toLowerCase();
+      }
+      return names;
    }
 
    /**
@@ -476,7 +495,10 @@ public final class JsonWriter extends AbstractProjectWriter
             {
                Duration minutes = val.convertUnits(TimeUnit.MINUTES, m_projectFile.getProjectProperties());
                long seconds = (long) (minutes.getDuration() * 60.0);
-               m_writer.writeNameValuePair(fieldName, seconds);
+               if (seconds != 0)
+               {
+                  m_writer.writeNameValuePair(fieldName, seconds);
+               }
             }
          }
       }
@@ -505,7 +527,9 @@ public final class JsonWriter extends AbstractProjectWriter
    }
 
    /**
-    * Write a time units field to the JSON file.
+    * Write a time units field to the JSON file. Time units which match
+    * the default duration units are omitted, apart from the default
+    * duration units themselves, which are required to read the file.
     *
     * @param fieldName field name
     * @param value field value
@@ -515,7 +539,7 @@ public final class JsonWriter extends AbstractProjectWriter
       if (value != null)
       {
          TimeUnit val = (TimeUnit) value;
-         if (val != m_projectFile.getProjectProperties().getDefaultDurationUnits())
+         if (val != m_projectFile.getProjectProperties().getDefaultDurationUnits() || fieldName.equals(DEFAULT_DURATION_UNITS_NAME))
          {
             m_writer.writeNameValuePair(fieldName, val.toString());
          }
@@ -665,6 +689,17 @@ public final class JsonWriter extends AbstractProjectWriter
 
    private static final Charset DEFAULT_ENCODING = CharsetHelper.UTF8;
 
+   private static final FieldType[] PROJECT_FIELDS = ProjectField.values();
+   private static final FieldType[] RESOURCE_FIELDS = ResourceField.values();
+   private static final FieldType[] TASK_FIELDS = TaskField.values();
+   private static final FieldType[] ASSIGNMENT_FIELDS = AssignmentField.values();
+
+   private static final String[] PROJECT_FIELD_NAMES = getFieldNames(PROJECT_FIELDS);
+   private static final String[] RESOURCE_FIELD_NAMES = getFieldNames(RESOURCE_FIELDS);
+   private static final String[] TASK_FIELD_NAMES = getFieldNames(TASK_FIELDS);
+   private static final String[] ASSIGNMENT_FIELD_NAMES = getFieldNames(ASSIGNMENT_FIELDS);
+   private static final String DEFAULT_DURATION_UNITS_NAME = ProjectField.DEFAULT_DURATION_UNITS.name().toLowerCase();
+
    private static Map<String, DataType> TYPE_MAP = new HashMap<String, DataType>();
    static
    {
@@ -0,0 +1,75 @@
+/*
+ * file:       ProjectStreamListener.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       05/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.listener;
+
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+
+/**
+ * Classes implementing this interface receive entities as they are
+ * decoded by a StreamingProjectReader. Each method returns a flag
+ * indicating whether the entity should be retained in the project
+ * being read. Entities which are not retained are discarded immediately,
+ * so a listener which extracts the data it needs and discards everything
+ * else allows large files to be processed without holding the complete
+ * project in memory.
+ */
+public interface ProjectStreamListener
+{
+   /**
+    * Called when a task has been read.
+    *
+    * @param task task instance
+    * @return true if the task should be retained
+    */
+   public boolean taskRead(Task task);
+
+   /**
+    * Called when a resource has been read.
+    *
+    * @param resource resource instance
+    * @return true if the resource should be retained
+    */
+   public boolean resourceRead(Resource resource);
+
+   /**
+    * Called when a resource assignment has been read. Assignments are
+    * only read for tasks and resources which have been retained.
+    *
+    * @param assignment resource assignment instance
+    * @return true if the assignment should be retained
+    */
+   public boolean assignmentRead(ResourceAssignment assignment);
+
+   /**
+    * Called when a relation has been read. Relations are only read
+    * where both tasks have been retained.
+    *
+    * @param relation relation instance
+    * @return true if the relation should be retained
+    */
+   public boolean relationRead(Relation relation);
+}
@@ -1,5 +1,5 @@
 /*
- * file:       MapRow.java
+ * file:       ColumnarRow.java
  * author:     Jon Iles
  * copyright:  (c) Packwood Software 2016
  * date:       17/11/2016
@@ -25,7 +25,6 @@ package net.sf.mpxj.merlin;
 
 import java.util.Calendar;
 import java.util.Date;
-import java.util.Map;
 import java.util.UUID;
 
 import net.sf.mpxj.Day;
@@ -34,22 +33,25 @@ import net.sf.mpxj.RelationType;
 import net.sf.mpxj.ResourceType;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.BooleanHelper;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.DateHelper;
-import net.sf.mpxj.common.NumberHelper;
 
 /**
- * Implementation of the Row interface, wrapping a Map.
+ * Implementation of the Row interface which represents a single row
+ * held in a ColumnarTable.
  */
-class MapRow implements Row
+class ColumnarRow implements Row
 {
    /**
     * Constructor.
     *
-    * @param map map to be wrapped by this instance
+    * @param table parent table
+    * @param row row index
     */
-   public MapRow(Map<String, Object> map)
+   public ColumnarRow(ColumnarTable table, int row)
    {
-      m_map = map;
+      m_table = table;
+      m_row = row;
    }
 
    /**
@@ -148,7 +150,8 @@ class MapRow implements Row
     */
    @Override public int getInt(String name)
    {
-      return (NumberHelper.getInt((Number) getObject(name)));
+      int column = m_table.getSchema().getOrdinal(name);
+      return (column == -1 ? 0 : m_table.getInt(m_row, column));
    }
 
    /**
@@ -226,15 +229,15 @@ class MapRow implements Row
    }
 
    /**
-    * Retrieve a value from the map.
+    * Retrieve a value from the table.
     *
     * @param name column name
     * @return column value
     */
    public Object getObject(String name)
    {
-      Object result = m_map.get(name);
-      return (result);
+      int column = m_table.getSchema().getOrdinal(name);
+      return (column == -1 ? null : m_table.getObject(m_row, column));
    }
 
    /**
@@ -327,16 +330,6 @@ class MapRow implements Row
       return result;
    }
 
-   /**
-    * Retrieve the internal Map instance used to hold row data.
-    *
-    * @return Map instance
-    */
-   public Map<String, Object> getMap()
-   {
-      return m_map;
-   }
-
    /**
     * Convert the string representation of a duration to a Duration instance.
     *
@@ -443,7 +436,8 @@ class MapRow implements Row
       return result;
    }
 
-   protected Map<String, Object> m_map;
+   protected final ColumnarTable m_table;
+   protected final int m_row;
 
    /**
     * 01/01/2001 00:00.
@@ -74,6 +74,7 @@ import net.sf.mpxj.ResourceType;
 import net.sf.mpxj.ScheduleFrom;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.FileHelper;
 import net.sf.mpxj.common.InputStreamHelper;
@@ -629,9 +630,10 @@ public final class MerlinReader implements ProjectReader
       }
       m_rs = m_ps.executeQuery();
       populateMetaData();
+      ColumnarTable table = SqliteResultSetRow.createTable(m_meta);
       while (m_rs.next())
       {
-         result.add(new SqliteResultSetRow(m_rs, m_meta));
+         result.add(new SqliteResultSetRow(m_rs, m_meta, table));
       }
 
       return (result);
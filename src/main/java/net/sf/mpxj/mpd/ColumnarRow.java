@@ -1,5 +1,5 @@
 /*
- * file:       MapRow.java
+ * file:       ColumnarRow.java
  * author:     Jon Iles
  * copyright:  (c) Packwood Software 2007
  * date:       08-Feb-2006
@@ -24,26 +24,29 @@
 package net.sf.mpxj.mpd;
 
 import java.util.Date;
-import java.util.Map;
 
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.BooleanHelper;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
 
 /**
- * Implementation of the Row interface, wrapping a Map.
+ * Implementation of the Row interface which represents a single row
+ * held in a ColumnarTable.
  */
-class MapRow implements Row
+class ColumnarRow implements Row
 {
    /**
     * Constructor.
     *
-    * @param map map to be wrapped by this instance
+    * @param table parent table
+    * @param row row index
     */
-   public MapRow(Map<String, Object> map)
+   public ColumnarRow(ColumnarTable table, int row)
    {
-      m_map = map;
+      m_table = table;
+      m_row = row;
    }
 
    /**
@@ -135,7 +138,7 @@ class MapRow implements Row
     */
    @Override public final int getInt(String name)
    {
-      return (NumberHelper.getInt((Number) getObject(name)));
+      return (m_table.getInt(m_row, getColumn(name)));
    }
 
    /**
@@ -155,23 +158,33 @@ class MapRow implements Row
    }
 
    /**
-    * Retrieve a value from the map, ensuring that a key exists in the map
-    * with the specified name.
+    * Retrieve a value from the table.
     *
     * @param name column name
     * @return column value
     */
    private final Object getObject(String name)
    {
-      if (m_map.containsKey(name) == false)
+      return (m_table.getObject(m_row, getColumn(name)));
+   }
+
+   /**
+    * Retrieve the ordinal position of a column, ensuring that a column
+    * exists with the specified name.
+    *
+    * @param name column name
+    * @return column ordinal
+    */
+   private final int getColumn(String name)
+   {
+      int result = m_table.getSchema().getOrdinal(name);
+      if (result == -1)
       {
          throw new IllegalArgumentException("Invalid column name " + name);
       }
-
-      Object result = m_map.get(name);
-
       return (result);
    }
 
-   protected Map<String, Object> m_map;
+   protected final ColumnarTable m_table;
+   protected final int m_row;
 }
@@ -44,6 +44,7 @@ import net.sf.mpxj.ProjectConfig;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.SubProject;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.listener.ProjectListener;
 
@@ -484,9 +485,10 @@ public final class MPD9DatabaseReader extends MPD9AbstractReader
          m_ps = m_connection.prepareStatement(sql);
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = ResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new ResultSetRow(m_rs, m_meta));
+            result.add(new ResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
@@ -519,9 +521,10 @@ public final class MPD9DatabaseReader extends MPD9AbstractReader
          m_ps.setInt(1, NumberHelper.getInt(var));
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = ResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new ResultSetRow(m_rs, m_meta));
+            result.add(new ResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
@@ -556,9 +559,10 @@ public final class MPD9DatabaseReader extends MPD9AbstractReader
          m_ps.setInt(2, NumberHelper.getInt(var2));
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = ResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new ResultSetRow(m_rs, m_meta));
+            result.add(new ResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
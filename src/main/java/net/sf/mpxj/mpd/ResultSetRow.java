@@ -28,32 +28,36 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TableSchema;
 
 /**
- * Implementation of the Row interface, wrapping a Map.
+ * Implementation of the Row interface, populated from the current
+ * row of a result set. The values are held in a table shared by all
+ * rows read from the same result set.
  */
-final class ResultSetRow extends MapRow
+final class ResultSetRow extends ColumnarRow
 {
    /**
     * Constructor.
     *
     * @param rs result set from which data is drawn
     * @param meta result set meta data
+    * @param table table to which this row is added
     */
-   public ResultSetRow(ResultSet rs, Map<String, Integer> meta)
+   public ResultSetRow(ResultSet rs, Map<String, Integer> meta, ColumnarTable table)
       throws SQLException
    {
-      super(new HashMap<String, Object>());
+      super(table, table.addRow());
 
-      for (Entry<String, Integer> entry : meta.entrySet())
+      TableSchema schema = table.getSchema();
+      for (int column = 0; column < schema.getColumnCount(); column++)
       {
-         String name = entry.getKey();
-         int type = (entry.getValue()).intValue();
+         String name = schema.getColumnName(column);
+         int type = meta.get(name).intValue();
          Object value;
 
          switch (type)
@@ -141,7 +145,18 @@ final class ResultSetRow extends MapRow
             value = null;
          }
 
-         m_map.put(name, value);
+         table.setValue(m_row, column, value);
       }
    }
+
+   /**
+    * Create a table to hold the rows read from a result set.
+    *
+    * @param meta result set meta data
+    * @return new table
+    */
+   public static ColumnarTable createTable(Map<String, Integer> meta)
+   {
+      return new ColumnarTable(new TableSchema(meta.keySet()));
+   }
 }
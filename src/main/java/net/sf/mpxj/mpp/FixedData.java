@@ -27,8 +27,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Arrays;
 
 import net.sf.mpxj.common.ByteArrayHelper;
+import net.sf.mpxj.common.StreamHelper;
 
 /**
  * This class is used to represent the "FixedData" file entries that are
@@ -46,12 +48,10 @@ final class FixedData extends MPPComponent
     * makes use of the meta data regarding this data block that has
     * already been read in from the MPP file.
     *
-    * Note that we actually read in the entire data block in one go.
-    * This is due to the fact that MS Project sometimes describes data
-    * using offsets that are out of sequence, and items that may overlap.
-    * Ideally this data would be read directly from the input stream, but
-    * this was problematic, so this less than ideal solution has been
-    * adopted.
+    * Note that MS Project sometimes describes data using offsets that
+    * are out of sequence, and items that may overlap. Where this is the
+    * case we read in the entire data block in one go, otherwise
+    * each item is read directly from the input stream.
     *
     * @param meta meta data about the contents of this fixed data block
     * @param is input stream from which the data is read
@@ -98,11 +98,10 @@ final class FixedData extends MPPComponent
    FixedData(FixedMeta meta, InputStream is, int maxExpectedSize, int minSize)
       throws IOException
    {
-      byte[] buffer = new byte[is.available()];
-      is.read(buffer);
-
+      int length = is.available();
       int itemCount = meta.getAdjustedItemCount();
-      m_array = new Object[itemCount];
+      int[] itemSizes = new int[itemCount];
+      Arrays.fill(itemSizes, -1);
       m_offset = new int[itemCount];
 
       int available;
@@ -112,7 +111,7 @@ final class FixedData extends MPPComponent
          byte[] metaData = meta.getByteArrayValue(loop);
          int itemOffset = MPPUtility.getInt(metaData, 4);
 
-         if (itemOffset < 0 || itemOffset > buffer.length)
+         if (itemOffset < 0 || itemOffset > length)
          {
             continue;
          }
@@ -120,7 +119,7 @@ final class FixedData extends MPPComponent
          int itemSize;
          if (loop + 1 == itemCount)
          {
-            itemSize = buffer.length - itemOffset;
+            itemSize = length - itemOffset;
          }
          else
          {
@@ -134,7 +133,7 @@ final class FixedData extends MPPComponent
             itemSize = minSize;
          }
 
-         available = buffer.length - itemOffset;
+         available = length - itemOffset;
 
          if (itemSize < 0 || itemSize > available)
          {
@@ -162,10 +161,12 @@ final class FixedData extends MPPComponent
 
          if (itemSize > 0)
          {
-            m_array[loop] = MPPUtility.cloneSubArray(buffer, itemOffset, itemSize);
+            itemSizes[loop] = itemSize;
             m_offset[loop] = itemOffset;
          }
       }
+
+      readItems(is, length, itemSizes);
    }
 
    /**
@@ -181,11 +182,10 @@ final class FixedData extends MPPComponent
    FixedData(FixedMeta meta, int itemSize, InputStream is)
       throws IOException
    {
-      byte[] buffer = new byte[is.available()];
-      is.read(buffer);
-
+      int length = is.available();
       int itemCount = meta.getAdjustedItemCount();
-      m_array = new Object[itemCount];
+      int[] itemSizes = new int[itemCount];
+      Arrays.fill(itemSizes, -1);
       m_offset = new int[itemCount];
 
       byte[] metaData;
@@ -197,12 +197,12 @@ final class FixedData extends MPPComponent
          metaData = meta.getByteArrayValue(loop);
          itemOffset = MPPUtility.getInt(metaData, 4);
 
-         if (itemOffset < 0 || itemOffset > buffer.length)
+         if (itemOffset < 0 || itemOffset > length)
          {
             continue;
          }
 
-         available = buffer.length - itemOffset;
+         available = length - itemOffset;
 
          if (itemSize < 0)
          {
@@ -216,9 +216,11 @@ final class FixedData extends MPPComponent
             }
          }
 
-         m_array[loop] = MPPUtility.cloneSubArray(buffer, itemOffset, itemSize);
+         itemSizes[loop] = itemSize;
          m_offset[loop] = itemOffset;
       }
+
+      readItems(is, length, itemSizes);
    }
 
    /**
@@ -277,6 +279,71 @@ final class FixedData extends MPPComponent
       }
    }
 
+   /**
+    * Read the items described by the m_offset array and the supplied item
+    * sizes. Where the items appear in the stream in ascending order without
+    * overlapping, each item is read directly from the stream into its own
+    * array. Otherwise the whole block is read, and each item is copied from it.
+    *
+    * @param is input stream from which the data is read
+    * @param length number of bytes available in the stream
+    * @param itemSizes item sizes, -1 for items which are not present
+    * @throws IOException on file read failure
+    */
+   private void readItems(InputStream is, int length, int[] itemSizes) throws IOException
+   {
+      m_array = new Object[itemSizes.length];
+
+      boolean sequential = true;
+      int position = 0;
+      for (int loop = 0; loop < itemSizes.length; loop++)
+      {
+         if (itemSizes[loop] != -1)
+         {
+            if (m_offset[loop] < position)
+            {
+               sequential = false;
+               break;
+            }
+            position = m_offset[loop] + itemSizes[loop];
+         }
+      }
+
+      if (sequential)
+      {
+         position = 0;
+         for (int loop = 0; loop < itemSizes.length; loop++)
+         {
+            if (itemSizes[loop] == 0)
+            {
+               m_array[loop] = new byte[0];
+            }
+            else
+            {
+               if (itemSizes[loop] != -1)
+               {
+                  StreamHelper.skip(is, m_offset[loop] - position);
+                  m_array[loop] = readByteArray(is, itemSizes[loop]);
+                  position = m_offset[loop] + itemSizes[loop];
+               }
+            }
+         }
+      }
+      else
+      {
+         byte[] buffer = new byte[length];
+         is.read(buffer);
+
+         for (int loop = 0; loop < itemSizes.length; loop++)
+         {
+            if (itemSizes[loop] != -1)
+            {
+               m_array[loop] = MPPUtility.cloneSubArray(buffer, m_offset[loop], itemSizes[loop]);
+            }
+         }
+      }
+   }
+
    /**
     * This method retrieves a byte array containing the data at the
     * given index in the block. If no data is found at the given index
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.TreeMap;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
@@ -1011,6 +1012,44 @@ final class MPP14Reader implements MPPVariantReader
          metaData2BitFlags = PROJECT2010_TASK_META_DATA2_BIT_FLAGS;
       }
 
+      //
+      // If we have been asked to, decode the field values for
+      // all tasks concurrently before we create the tasks.
+      //
+      ParallelFieldDecoder decoder = null;
+      if (m_reader.getParallelism() > 1)
+      {
+         decoder = new ParallelFieldDecoder(m_reader.getParallelism());
+         for (Entry<Integer, Integer> entry : taskMap.entrySet())
+         {
+            offset = entry.getValue();
+            if (taskFixedData.isValidOffset(offset) == false)
+            {
+               continue;
+            }
+
+            data = taskFixedData.getByteArrayValue(offset.intValue());
+            if (data.length == NULL_TASK_BLOCK_SIZE)
+            {
+               continue;
+            }
+
+            if (data.length < fieldMap.getMaxFixedDataSize(0))
+            {
+               byte[] newData = new byte[fieldMap.getMaxFixedDataSize(0) + 8];
+               System.arraycopy(data, 0, newData, 0, data.length);
+               data = newData;
+            }
+
+            decoder.add(entry.getKey(), entry.getKey(), new byte[][]
+            {
+               data,
+               taskFixed2Data.getByteArrayValue(offset.intValue())
+            });
+         }
+         decoder.decode(TaskField.class, fieldMap, enterpriseCustomFieldMap, taskVarData);
+      }
+
       for (int loop = 0; loop < uniqueIdArray.length; loop++)
       {
          Integer uniqueID = (Integer) uniqueIdArray[loop];
@@ -1081,13 +1120,16 @@ final class MPP14Reader implements MPPVariantReader
 
          task.disableEvents();
 
-         fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+         if (decoder == null || !decoder.populateContainer(uniqueID, task))
          {
-            data,
-            data2
-         }, taskVarData);
+            fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+            {
+               data,
+               data2
+            }, taskVarData);
 
-         enterpriseCustomFieldMap.populateContainer(TaskField.class, task, uniqueID, null, taskVarData);
+            enterpriseCustomFieldMap.populateContainer(TaskField.class, task, uniqueID, null, taskVarData);
+         }
 
          task.enableEvents();
 
@@ -1639,6 +1681,29 @@ final class MPP14Reader implements MPPVariantReader
          metaData2BitFlags = PROJECT2010_RESOURCE_META_DATA2_BIT_FLAGS;
       }
 
+      //
+      // If we have been asked to, decode the field values for
+      // all resources concurrently before we create the resources.
+      //
+      ParallelFieldDecoder decoder = null;
+      if (m_reader.getParallelism() > 1)
+      {
+         decoder = new ParallelFieldDecoder(m_reader.getParallelism());
+         for (Integer uniqueID : uniqueid)
+         {
+            offset = resourceMap.get(uniqueID);
+            if (offset != null)
+            {
+               decoder.add(uniqueID, uniqueID, new byte[][]
+               {
+                  rscFixedData.getByteArrayValue(offset.intValue()),
+                  rscFixed2Data.getByteArrayValue(offset.intValue())
+               });
+            }
+         }
+         decoder.decode(ResourceField.class, fieldMap, enterpriseCustomFieldMap, rscVarData);
+      }
+
       for (int loop = 0; loop < uniqueid.length; loop++)
       {
          id = uniqueid[loop];
@@ -1660,13 +1725,16 @@ final class MPP14Reader implements MPPVariantReader
 
          resource.disableEvents();
 
-         fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+         if (decoder == null || !decoder.populateContainer(id, resource))
          {
-            data,
-            data2
-         }, rscVarData);
+            fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+            {
+               data,
+               data2
+            }, rscVarData);
 
-         enterpriseCustomFieldMap.populateContainer(ResourceField.class, resource, id, null, rscVarData);
+            enterpriseCustomFieldMap.populateContainer(ResourceField.class, resource, id, null, rscVarData);
+         }
 
          resource.enableEvents();
 
@@ -1771,6 +1839,7 @@ final class MPP14Reader implements MPPVariantReader
       //Props props = new Props14(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("Props"))));
 
       ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
+      factory.setParallelism(m_reader.getParallelism());
       factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getItemCount());
    }
 
@@ -23,8 +23,9 @@
 
 package net.sf.mpxj.mpp;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.LinkedList;
+import java.util.List;
 
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectCalendar;
@@ -47,7 +48,7 @@ public abstract class MPPAbstractTimephasedWorkNormaliser extends AbstractTimeph
     * @param calendar current calendar
     * @param list list of assignment data
     */
-   @Override public void normalise(ProjectCalendar calendar, LinkedList<TimephasedWork> list)
+   @Override public void normalise(ProjectCalendar calendar, List<TimephasedWork> list)
    {
       if (!list.isEmpty())
       {
@@ -69,9 +70,9 @@ public abstract class MPPAbstractTimephasedWorkNormaliser extends AbstractTimeph
     * @param calendar current project calendar
     * @param list list of assignment data
     */
-   private void splitDays(ProjectCalendar calendar, LinkedList<TimephasedWork> list)
+   private void splitDays(ProjectCalendar calendar, List<TimephasedWork> list)
    {
-      LinkedList<TimephasedWork> result = new LinkedList<TimephasedWork>();
+      List<TimephasedWork> result = new ArrayList<TimephasedWork>();
       boolean remainderInserted = false;
       
       for (TimephasedWork assignment : list)
@@ -248,7 +249,7 @@ public abstract class MPPAbstractTimephasedWorkNormaliser extends AbstractTimeph
     * @param calendar current calendar
     * @param list assignment data
     */
-   protected abstract void mergeSameDay(ProjectCalendar calendar, LinkedList<TimephasedWork> list);
+   protected abstract void mergeSameDay(ProjectCalendar calendar, List<TimephasedWork> list);
 
    /**
     * Retrieves the pro-rata work carried out on a given day.
@@ -277,7 +278,7 @@ public abstract class MPPAbstractTimephasedWorkNormaliser extends AbstractTimeph
    }
 
    /*
-      private void dumpList(LinkedList<TimephasedWork> list)
+      private void dumpList(List<TimephasedWork> list)
       {
          System.out.println();
          for (TimephasedWork assignment : list)
@@ -23,6 +23,7 @@
 
 package net.sf.mpxj.mpp;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -43,6 +44,7 @@ import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.Relation;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.common.StreamHelper;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.AbstractProjectReader;
 
@@ -88,6 +90,46 @@ public final class MPPReader extends AbstractProjectReader
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(String fileName) throws MPXJException
+   {
+      return read(new File(fileName));
+   }
+
+   /**
+    * Read an MPP file directly from the file system. Rather than copying
+    * the entire file into memory, as happens when reading from a stream,
+    * the file system blocks are read on demand from the file itself.
+    *
+    * @param file MPP file
+    * @return ProjectFile instance
+    */
+   @Override public ProjectFile read(File file) throws MPXJException
+   {
+      POIFSFileSystem fs = null;
+
+      try
+      {
+         fs = new POIFSFileSystem(file, true);
+         ProjectFile projectFile = read(fs);
+         fs.close();
+         fs = null;
+         return projectFile;
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         StreamHelper.closeQuietly(fs);
+      }
+   }
+
    /**
     * This method allows us to peek into the OLE compound document to extract the file format.
     * This allows the UniversalProjectReader to determine if this is an MPP file, or if
@@ -121,7 +163,7 @@ public final class MPPReader extends AbstractProjectReader
    {
       try
       {
-         ProjectFile projectFile = new ProjectFile();
+         ProjectFile projectFile = createProjectFile();
          ProjectConfig config = projectFile.getProjectConfig();
 
          config.setAutoTaskID(false);
@@ -343,6 +385,34 @@ public final class MPPReader extends AbstractProjectReader
       m_readPropertiesOnly = readPropertiesOnly;
    }
 
+   /**
+    * Retrieve the number of threads used to decode task, resource
+    * and resource assignment data.
+    *
+    * @return number of threads
+    */
+   public int getParallelism()
+   {
+      return m_parallelism;
+   }
+
+   /**
+    * Set the number of threads used to decode task, resource and
+    * resource assignment data. The default value of 1 decodes all
+    * data on the calling thread. Larger values allow large files to
+    * be read more quickly on multi-core machines. Task and resource
+    * data is decoded concurrently for MPP14 files, and assignment
+    * data for MPP9, MPP12 and MPP14 files. Entities are still created
+    * and linked together on the calling thread, so the resulting
+    * project is identical whatever value is used.
+    *
+    * @param parallelism number of threads
+    */
+   public void setParallelism(int parallelism)
+   {
+      m_parallelism = parallelism;
+   }
+
    /**
     * Set the read password for this Project file. This is needed in order to
     * be allowed to read a read-protected Project file.
@@ -384,6 +454,7 @@ public final class MPPReader extends AbstractProjectReader
     */
    private boolean m_readPresentationData = true;
    private boolean m_readPropertiesOnly;
+   private int m_parallelism = 1;
 
    private String m_readPassword;
    private List<ProjectListener> m_projectListeners;
@@ -0,0 +1,249 @@
+/*
+ * file:       ParallelFieldDecoder.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       07/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.common.ParallelHelper;
+import net.sf.mpxj.listener.FieldListener;
+
+/**
+ * Decodes the field values for a set of rows using multiple threads.
+ * Once fixed data and var data blocks have been loaded, each row can be
+ * decoded independently. Rows are added to the decoder in the order
+ * they will be read, the row index range is split between a pool of
+ * threads, and the decoded values are then applied to each entity
+ * by the reader in a single thread. This ensures that the resulting
+ * project is identical to one read using a single thread.
+ */
+final class ParallelFieldDecoder
+{
+   /**
+    * Constructor.
+    *
+    * @param parallelism number of threads to use
+    */
+   public ParallelFieldDecoder(int parallelism)
+   {
+      m_parallelism = parallelism;
+   }
+
+   /**
+    * Add a row to be decoded.
+    *
+    * @param key key used to retrieve the decoded values
+    * @param id var data ID of the row
+    * @param fixedData fixed data blocks for the row
+    */
+   public void add(Integer key, Integer id, byte[][] fixedData)
+   {
+      m_keys.add(key);
+      m_ids.add(id);
+      m_fixedData.add(fixedData);
+   }
+
+   /**
+    * Decode the field values for all of the rows which have been added.
+    *
+    * @param type field type class
+    * @param fieldMap field map
+    * @param enterpriseCustomFieldMap enterprise custom field map, may be null
+    * @param varData var data block
+    */
+   public void decode(final Class<? extends FieldType> type, final FieldMap fieldMap, final FieldMap enterpriseCustomFieldMap, final Var2Data varData) throws IOException
+   {
+      final int rowCount = m_keys.size();
+      final DecodedFields[] results = new DecodedFields[rowCount];
+      int threadCount = Math.min(m_parallelism, rowCount / MIN_ROWS_PER_THREAD);
+
+      if (threadCount < 2)
+      {
+         decodeRange(type, fieldMap, enterpriseCustomFieldMap, varData, results, 0, rowCount);
+      }
+      else
+      {
+         List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threadCount);
+         int rowsPerThread = (rowCount + threadCount - 1) / threadCount;
+         for (int start = 0; start < rowCount; start += rowsPerThread)
+         {
+            final int rangeStart = start;
+            final int rangeEnd = Math.min(start + rowsPerThread, rowCount);
+            tasks.add(new Callable<Void>()
+            {
+               @Override public Void call()
+               {
+                  decodeRange(type, fieldMap, enterpriseCustomFieldMap, varData, results, rangeStart, rangeEnd);
+                  return null;
+               }
+            });
+         }
+
+         try
+         {
+            ParallelHelper.invokeAll(tasks, threadCount, IOException.class);
+         }
+
+         catch (InterruptedException ex)
+         {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding field data", ex);
+         }
+      }
+
+      m_results = new HashMap<Integer, DecodedFields>(rowCount * 2);
+      for (int index = 0; index < rowCount; index++)
+      {
+         m_results.put(m_keys.get(index), results[index]);
+      }
+
+      m_keys.clear();
+      m_ids.clear();
+      m_fixedData.clear();
+   }
+
+   /**
+    * Populate a container with the decoded values for a row.
+    *
+    * @param key row key
+    * @param container target container
+    * @return true if decoded values were found for this row
+    */
+   public boolean populateContainer(Integer key, FieldContainer container)
+   {
+      DecodedFields fields = m_results == null ? null : m_results.get(key);
+      if (fields != null)
+      {
+         fields.populateContainer(container);
+      }
+      return fields != null;
+   }
+
+   /**
+    * Decode a range of rows.
+    *
+    * @param type field type class
+    * @param fieldMap field map
+    * @param enterpriseCustomFieldMap enterprise custom field map, may be null
+    * @param varData var data block
+    * @param results array to receive decoded values
+    * @param start first row index
+    * @param end last row index (exclusive)
+    */
+   private void decodeRange(Class<? extends FieldType> type, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, Var2Data varData, DecodedFields[] results, int start, int end)
+   {
+      for (int index = start; index < end; index++)
+      {
+         Integer id = m_ids.get(index);
+         DecodedFields fields = new DecodedFields();
+         fieldMap.populateContainer(type, fields, id, m_fixedData.get(index), varData);
+         if (enterpriseCustomFieldMap != null)
+         {
+            enterpriseCustomFieldMap.populateContainer(type, fields, id, null, varData);
+         }
+         results[index] = fields;
+      }
+   }
+
+   /**
+    * Holds the field values decoded for a single row, in the order
+    * in which they were read.
+    */
+   private static final class DecodedFields implements FieldContainer
+   {
+      @Override public void set(FieldType field, Object value)
+      {
+         if (m_size == m_types.length)
+         {
+            int capacity = m_size * 2;
+            m_types = Arrays.copyOf(m_types, capacity);
+            m_values = Arrays.copyOf(m_values, capacity);
+         }
+         m_types[m_size] = field;
+         m_values[m_size] = value;
+         ++m_size;
+      }
+
+      @Override public Object getCachedValue(FieldType field)
+      {
+         Object result = null;
+         for (int index = m_size - 1; index >= 0; index--)
+         {
+            if (m_types[index] == field)
+            {
+               result = m_values[index];
+               break;
+            }
+         }
+         return result;
+      }
+
+      @Override public Object getCurrentValue(FieldType field)
+      {
+         return getCachedValue(field);
+      }
+
+      @Override public void addFieldListener(FieldListener listener)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override public void removeFieldListener(FieldListener listener)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      /**
+       * Apply the decoded values to a container.
+       *
+       * @param container target container
+       */
+      public void populateContainer(FieldContainer container)
+      {
+         for (int index = 0; index < m_size; index++)
+         {
+            container.set(m_types[index], m_values[index]);
+         }
+      }
+
+      private FieldType[] m_types = new FieldType[64];
+      private Object[] m_values = new Object[64];
+      private int m_size;
+   }
+
+   private static final int MIN_ROWS_PER_THREAD = 16;
+
+   private final int m_parallelism;
+   private final List<Integer> m_keys = new ArrayList<Integer>();
+   private final List<Integer> m_ids = new ArrayList<Integer>();
+   private final List<byte[][]> m_fixedData = new ArrayList<byte[][]>();
+   private Map<Integer, DecodedFields> m_results;
+}
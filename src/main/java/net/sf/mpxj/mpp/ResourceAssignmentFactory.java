@@ -23,6 +23,7 @@
 
 package net.sf.mpxj.mpp;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -51,6 +52,17 @@ import net.sf.mpxj.common.TimephasedWorkNormaliser;
  */
 public class ResourceAssignmentFactory
 {
+   /**
+    * Set the number of threads used to decode assignment field values.
+    * The default value of 1 decodes all values on the calling thread.
+    *
+    * @param parallelism number of threads
+    */
+   public void setParallelism(int parallelism)
+   {
+      m_parallelism = parallelism;
+   }
+
    /**
     * Main entry point when called to process assignment data.
     *
@@ -66,7 +78,7 @@ public class ResourceAssignmentFactory
     * @param assnFixedData2 fixed data
     * @param count expected number of assignments
     */
-   public void process(ProjectFile file, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, boolean useRawTimephasedData, boolean preserveNoteFormatting, VarMeta assnVarMeta, Var2Data assnVarData, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int count)
+   public void process(ProjectFile file, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, boolean useRawTimephasedData, boolean preserveNoteFormatting, VarMeta assnVarMeta, Var2Data assnVarData, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int count) throws IOException
    {
       Set<Integer> set = assnVarMeta.getUniqueIdentifierSet();
       TimephasedDataFactory timephasedFactory = new TimephasedDataFactory();
@@ -99,28 +111,37 @@ public class ResourceAssignmentFactory
       }
 
       Set<Task> processedSplits = new HashSet<Task>();
-      
-      for (int loop = 0; loop < count; loop++)
+
+      ParallelFieldDecoder decoder = null;
+      if (m_parallelism > 1)
       {
-         byte[] meta = assnFixedMeta.getByteArrayValue(loop);
-         if (meta == null || meta[0] != 0)
+         decoder = new ParallelFieldDecoder(m_parallelism);
+         for (int loop = 0; loop < count; loop++)
          {
-            continue;
+            byte[][] fixedData = getFixedData(fieldMap, assnFixedMeta, assnFixedData, assnFixedData2, loop);
+            if (fixedData != null)
+            {
+               Integer varDataId = Integer.valueOf(MPPUtility.getInt(fixedData[0], fieldMap.getFixedDataOffset(AssignmentField.UNIQUE_ID)));
+               if (set.contains(varDataId))
+               {
+                  decoder.add(Integer.valueOf(loop), varDataId, fixedData);
+               }
+            }
          }
+         decoder.decode(AssignmentField.class, fieldMap, enterpriseCustomFieldMap, assnVarData);
+      }
 
-         int offset = MPPUtility.getInt(meta, 4);
-         byte[] data = assnFixedData.getByteArrayValue(assnFixedData.getIndexFromOffset(offset));
-         if (data == null)
+      for (int loop = 0; loop < count; loop++)
+      {
+         byte[][] fixedData = getFixedData(fieldMap, assnFixedMeta, assnFixedData, assnFixedData2, loop);
+         if (fixedData == null)
          {
             continue;
          }
 
-         if (data.length < fieldMap.getMaxFixedDataSize(0))
-         {
-            byte[] newData = new byte[fieldMap.getMaxFixedDataSize(0)];
-            System.arraycopy(data, 0, newData, 0, data.length);
-            data = newData;
-         }
+         byte[] meta = assnFixedMeta.getByteArrayValue(loop);
+         byte[] data = fixedData[0];
+         byte[] data2 = fixedData[1];
 
          int id = MPPUtility.getInt(data, fieldMap.getFixedDataOffset(AssignmentField.UNIQUE_ID));
          final Integer varDataId = Integer.valueOf(id);
@@ -129,25 +150,18 @@ public class ResourceAssignmentFactory
             continue;
          }
 
-         byte[] data2 = null;
-         if (assnFixedData2 != null)
-         {
-            data2 = assnFixedData2.getByteArrayValue(loop);
-         }
-
          ResourceAssignment assignment = new ResourceAssignment(file, null);
 
          assignment.disableEvents();
 
-         fieldMap.populateContainer(AssignmentField.class, assignment, varDataId, new byte[][]
+         if (decoder == null || !decoder.populateContainer(Integer.valueOf(loop), assignment))
          {
-            data,
-            data2
-         }, assnVarData);
+            fieldMap.populateContainer(AssignmentField.class, assignment, varDataId, fixedData, assnVarData);
 
-         if (enterpriseCustomFieldMap != null)
-         {
-            enterpriseCustomFieldMap.populateContainer(AssignmentField.class, assignment, varDataId, null, assnVarData);
+            if (enterpriseCustomFieldMap != null)
+            {
+               enterpriseCustomFieldMap.populateContainer(AssignmentField.class, assignment, varDataId, null, assnVarData);
+            }
          }
 
          assignment.enableEvents();
@@ -272,6 +286,51 @@ public class ResourceAssignmentFactory
       }
    }
 
+   /**
+    * Retrieve the fixed data blocks for an assignment.
+    *
+    * @param fieldMap assignment field map
+    * @param assnFixedMeta fixed meta
+    * @param assnFixedData fixed data
+    * @param assnFixedData2 fixed data
+    * @param index assignment index
+    * @return fixed data blocks, or null if this is not a valid assignment
+    */
+   private byte[][] getFixedData(FieldMap fieldMap, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int index)
+   {
+      byte[] meta = assnFixedMeta.getByteArrayValue(index);
+      if (meta == null || meta[0] != 0)
+      {
+         return null;
+      }
+
+      int offset = MPPUtility.getInt(meta, 4);
+      byte[] data = assnFixedData.getByteArrayValue(assnFixedData.getIndexFromOffset(offset));
+      if (data == null)
+      {
+         return null;
+      }
+
+      if (data.length < fieldMap.getMaxFixedDataSize(0))
+      {
+         byte[] newData = new byte[fieldMap.getMaxFixedDataSize(0)];
+         System.arraycopy(data, 0, newData, 0, data.length);
+         data = newData;
+      }
+
+      byte[] data2 = null;
+      if (assnFixedData2 != null)
+      {
+         data2 = assnFixedData2.getByteArrayValue(index);
+      }
+
+      return new byte[][]
+      {
+         data,
+         data2
+      };
+   }
+
    /**
     * Extract assignment hyperlink data.
     *
@@ -370,6 +429,8 @@ public class ResourceAssignmentFactory
 
    private static final Integer MPP9_CREATION_DATA = Integer.valueOf(138);
 
+   private int m_parallelism = 1;
+
    private static final MppBitFlag[] ASSIGNMENT_META_DATA_BIT_FLAGS =
    {
       new MppBitFlag(AssignmentField.FLAG1, 28, 0x00000080, Boolean.FALSE, Boolean.TRUE),
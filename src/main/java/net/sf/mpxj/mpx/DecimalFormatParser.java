@@ -0,0 +1,364 @@
+/*
+ * file:       DecimalFormatParser.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpx;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Parses numbers written using a DecimalFormat pattern directly from a range
+ * of characters, producing the same result as DecimalFormat.parse. Only the
+ * plain numbers found in MPX files are handled: anything which DecimalFormat
+ * might interpret differently, for example grouping separators, exponents,
+ * non-ASCII digits or very long numbers, is reported as UNKNOWN so that the
+ * caller can fall back to using the DecimalFormat itself.
+ */
+final class DecimalFormatParser
+{
+   /**
+    * Constructor.
+    *
+    * @param format format to emulate
+    */
+   public DecimalFormatParser(DecimalFormat format)
+   {
+      DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+      m_positivePrefix = format.getPositivePrefix();
+      m_negativePrefix = format.getNegativePrefix();
+      m_positiveSuffix = format.getPositiveSuffix();
+      m_negativeSuffix = format.getNegativeSuffix();
+      m_decimal = symbols.getDecimalSeparator();
+      m_grouping = format.isGroupingUsed() ? symbols.getGroupingSeparator() : -1;
+      m_nan = symbols.getNaN();
+      m_infinity = symbols.getInfinity();
+      m_exponent = symbols.getExponentSeparator();
+
+      m_supported = format.getMultiplier() == 1 && !format.isParseBigDecimal() && !format.isParseIntegerOnly() && symbols.getZeroDigit() == '0' && format.toPattern().indexOf(CURRENCY_SIGN) == -1 && !isDigit(m_decimal) && !m_nan.isEmpty() && !m_infinity.isEmpty() && !m_exponent.isEmpty();
+   }
+
+   /**
+    * Parse a number from a range of characters. The range is expected
+    * to have been trimmed, and the number must start at the beginning
+    * of the range. As with DecimalFormat, the number does not need to
+    * extend to the end of the range.
+    *
+    * @param text source text
+    * @param start start of the range
+    * @param end end of the range
+    * @return MATCH, NO_MATCH, or UNKNOWN
+    */
+   public int parse(String text, int start, int end)
+   {
+      if (!m_supported || regionMatches(text, start, end, m_nan))
+      {
+         return UNKNOWN;
+      }
+
+      boolean gotPositive = regionMatches(text, start, end, m_positivePrefix);
+      boolean gotNegative = regionMatches(text, start, end, m_negativePrefix);
+      if (gotPositive && gotNegative)
+      {
+         if (m_positivePrefix.length() > m_negativePrefix.length())
+         {
+            gotNegative = false;
+         }
+         else
+         {
+            if (m_positivePrefix.length() < m_negativePrefix.length())
+            {
+               gotPositive = false;
+            }
+         }
+      }
+
+      int position;
+      if (gotPositive)
+      {
+         position = start + m_positivePrefix.length();
+      }
+      else
+      {
+         if (gotNegative)
+         {
+            position = start + m_negativePrefix.length();
+         }
+         else
+         {
+            return NO_MATCH;
+         }
+      }
+
+      if (regionMatches(text, position, end, m_infinity))
+      {
+         return UNKNOWN;
+      }
+
+      //
+      // Collect the digits in the same way as DigitList: leading zeros are
+      // not stored, and decimalAt marks the position of the decimal point
+      // relative to the stored digits.
+      //
+      long digits = 0;
+      int count = 0;
+      int decimalAt = 0;
+      boolean sawDigit = false;
+      boolean sawDecimal = false;
+
+      for (; position < end; position++)
+      {
+         char c = text.charAt(position);
+         if (isDigit(c))
+         {
+            sawDigit = true;
+            if (c == '0' && count == 0)
+            {
+               if (sawDecimal)
+               {
+                  --decimalAt;
+               }
+               continue;
+            }
+
+            if (count == MAX_DIGITS)
+            {
+               return UNKNOWN;
+            }
+            digits = (digits * 10) + (c - '0');
+            ++count;
+            continue;
+         }
+
+         if (Character.digit(c, 10) != -1)
+         {
+            return UNKNOWN;
+         }
+
+         if (c == m_decimal)
+         {
+            if (sawDecimal)
+            {
+               break;
+            }
+            decimalAt += count;
+            sawDecimal = true;
+            continue;
+         }
+
+         if (c == m_grouping || regionMatches(text, position, end, m_exponent))
+         {
+            return UNKNOWN;
+         }
+
+         break;
+      }
+
+      if (!sawDecimal)
+      {
+         decimalAt = count;
+      }
+
+      if (!sawDigit)
+      {
+         return NO_MATCH;
+      }
+
+      if (gotPositive)
+      {
+         gotPositive = regionMatches(text, position, end, m_positiveSuffix);
+      }
+
+      if (gotNegative)
+      {
+         gotNegative = regionMatches(text, position, end, m_negativeSuffix);
+      }
+
+      if (gotPositive && gotNegative)
+      {
+         if (m_positiveSuffix.length() > m_negativeSuffix.length())
+         {
+            gotNegative = false;
+         }
+         else
+         {
+            if (m_positiveSuffix.length() < m_negativeSuffix.length())
+            {
+               gotPositive = false;
+            }
+         }
+      }
+
+      if (gotPositive == gotNegative)
+      {
+         return NO_MATCH;
+      }
+
+      m_index = position + (gotPositive ? m_positiveSuffix.length() : m_negativeSuffix.length());
+
+      while (count > 0 && digits % 10 == 0)
+      {
+         digits /= 10;
+         --count;
+      }
+
+      //
+      // DecimalFormat returns a Long if the value is an integer which
+      // fits into a long, otherwise a Double. Negative zero is a Double.
+      //
+      if (count == 0)
+      {
+         m_result = gotPositive ? (Number) Long.valueOf(0) : (Number) Double.valueOf(-0.0);
+         return MATCH;
+      }
+
+      if (decimalAt >= count)
+      {
+         if (decimalAt > MAX_DIGITS)
+         {
+            return UNKNOWN;
+         }
+         long value = digits * POWERS_OF_TEN[decimalAt - count];
+         m_result = Long.valueOf(gotPositive ? value : -value);
+         return MATCH;
+      }
+
+      //
+      // Both the digits and the power of ten are exactly representable
+      // as doubles, so a single division gives the correctly rounded
+      // result, matching Double.parseDouble.
+      //
+      int scale = count - decimalAt;
+      if (digits > MAX_EXACT_DOUBLE || scale >= DOUBLE_POWERS_OF_TEN.length)
+      {
+         return UNKNOWN;
+      }
+
+      double value = digits / DOUBLE_POWERS_OF_TEN[scale];
+      m_result = Double.valueOf(gotPositive ? value : -value);
+      return MATCH;
+   }
+
+   /**
+    * Retrieve the number produced by the most recent successful parse.
+    *
+    * @return parsed number
+    */
+   public Number getResult()
+   {
+      return m_result;
+   }
+
+   /**
+    * Retrieve the position following the number produced by the most
+    * recent successful parse.
+    *
+    * @return position after the parsed number
+    */
+   public int getIndex()
+   {
+      return m_index;
+   }
+
+   /**
+    * Determine if text appears at a given position in a range.
+    *
+    * @param text source text
+    * @param position position at which to test
+    * @param end end of the range
+    * @param value text to find
+    * @return true if the text is found
+    */
+   private boolean regionMatches(String text, int position, int end, String value)
+   {
+      return end - position >= value.length() && text.regionMatches(position, value, 0, value.length());
+   }
+
+   /**
+    * Determine if a character is an ASCII digit.
+    *
+    * @param c character
+    * @return true if this is an ASCII digit
+    */
+   private static boolean isDigit(char c)
+   {
+      return c >= '0' && c <= '9';
+   }
+
+   private final String m_positivePrefix;
+   private final String m_negativePrefix;
+   private final String m_positiveSuffix;
+   private final String m_negativeSuffix;
+   private final char m_decimal;
+   private final int m_grouping;
+   private final String m_nan;
+   private final String m_infinity;
+   private final String m_exponent;
+   private final boolean m_supported;
+   private Number m_result;
+   private int m_index;
+
+   public static final int MATCH = 0;
+   public static final int NO_MATCH = 1;
+   public static final int UNKNOWN = 2;
+
+   private static final char CURRENCY_SIGN = '\u00A4';
+   private static final int MAX_DIGITS = 18;
+   private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+   private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+   static
+   {
+      POWERS_OF_TEN[0] = 1;
+      for (int index = 1; index < POWERS_OF_TEN.length; index++)
+      {
+         POWERS_OF_TEN[index] = POWERS_OF_TEN[index - 1] * 10;
+      }
+   }
+
+   private static final double[] DOUBLE_POWERS_OF_TEN =
+   {
+      1e0,
+      1e1,
+      1e2,
+      1e3,
+      1e4,
+      1e5,
+      1e6,
+      1e7,
+      1e8,
+      1e9,
+      1e10,
+      1e11,
+      1e12,
+      1e13,
+      1e14,
+      1e15,
+      1e16,
+      1e17,
+      1e18,
+      1e19,
+      1e20,
+      1e21,
+      1e22
+   };
+}
@@ -56,15 +56,31 @@ final class DurationUtility
     * @throws MPXJException
     */
    public static Duration getInstance(String dur, NumberFormat format, Locale locale) throws MPXJException
+   {
+      return getInstance(dur, 0, dur.length(), format, locale);
+   }
+
+   /**
+    * Retrieve an Duration instance from a range of characters.
+    *
+    * @param text text containing the duration
+    * @param start start of the duration
+    * @param end end of the duration
+    * @param format number format
+    * @param locale target locale
+    * @return Duration instance
+    * @throws MPXJException
+    */
+   public static Duration getInstance(String text, int start, int end, NumberFormat format, Locale locale) throws MPXJException
    {
       try
       {
-         int lastIndex = dur.length() - 1;
+         int lastIndex = end - 1;
          int index = lastIndex;
          double duration;
          TimeUnit units;
 
-         while ((index > 0) && (Character.isDigit(dur.charAt(index)) == false))
+         while ((index > start) && (Character.isDigit(text.charAt(index)) == false))
          {
             --index;
          }
@@ -74,18 +90,18 @@ final class DurationUtility
          //
          if (index == lastIndex)
          {
-            duration = format.parse(dur).doubleValue();
+            duration = parse(text, start, end, format).doubleValue();
             units = TimeUnit.DAYS;
          }
          else
          {
             ++index;
-            duration = format.parse(dur.substring(0, index)).doubleValue();
-            while ((index < lastIndex) && (Character.isWhitespace(dur.charAt(index))))
+            duration = parse(text, start, index, format).doubleValue();
+            while ((index < lastIndex) && (Character.isWhitespace(text.charAt(index))))
             {
                ++index;
             }
-            units = TimeUnitUtility.getInstance(dur.substring(index), locale);
+            units = TimeUnitUtility.getInstance(text.substring(index, end), locale);
          }
 
          return (Duration.getInstance(duration, units));
@@ -96,4 +112,28 @@ final class DurationUtility
          throw new MPXJException("Failed to parse duration", ex);
       }
    }
+
+   /**
+    * Parse a number from a range of characters.
+    *
+    * @param text source text
+    * @param start start of the range
+    * @param end end of the range
+    * @param format number format
+    * @return parsed number
+    * @throws ParseException
+    */
+   private static Number parse(String text, int start, int end, NumberFormat format) throws ParseException
+   {
+      Number result;
+      if (format instanceof MPXJNumberFormat)
+      {
+         result = ((MPXJNumberFormat) format).parse(text, start, end);
+      }
+      else
+      {
+         result = format.parse(text.substring(start, end));
+      }
+      return result;
+   }
 }
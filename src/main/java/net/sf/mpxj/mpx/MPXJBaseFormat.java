@@ -24,6 +24,7 @@
 package net.sf.mpxj.mpx;
 
 import java.text.DateFormatSymbols;
+import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -59,6 +60,7 @@ abstract class MPXJBaseFormat extends MultiDateFormat
       {
          m_formats[index] = new SimpleDateFormat(patterns[index]);
       }
+      m_parsers = null;
    }
 
    /**
@@ -79,6 +81,42 @@ abstract class MPXJBaseFormat extends MultiDateFormat
          });
          format.setDateFormatSymbols(symbols);
       }
+      m_parsers = null;
+   }
+
+   /**
+    * Parse a date from a range of characters. This produces the same
+    * result as calling parse with the equivalent substring, but avoids
+    * creating the substring for the common cases found in MPX files.
+    *
+    * @param text source text
+    * @param start start of the range
+    * @param end end of the range
+    * @return parsed date, or null if the range is blank or contains the null text
+    * @throws ParseException if the text cannot be parsed
+    */
+   public Date parse(String text, int start, int end) throws ParseException
+   {
+      if (isBlank(text, start, end) || (m_null != null && end - start == m_null.length() && text.startsWith(m_null, start)))
+      {
+         return null;
+      }
+
+      for (SimpleDateFormatParser parser : getParsers())
+      {
+         int status = parser.parse(text, start, end);
+         if (status == SimpleDateFormatParser.MATCH)
+         {
+            return parser.getResult();
+         }
+
+         if (status == SimpleDateFormatParser.UNKNOWN)
+         {
+            break;
+         }
+      }
+
+      return parse(text.substring(start, end));
    }
 
    /**
@@ -99,5 +137,47 @@ abstract class MPXJBaseFormat extends MultiDateFormat
       return result;
    }
 
+   /**
+    * Retrieve parsers for each of the formats, in the order in which
+    * they are tried.
+    *
+    * @return array of parsers
+    */
+   private SimpleDateFormatParser[] getParsers()
+   {
+      if (m_parsers == null)
+      {
+         SimpleDateFormatParser[] parsers = new SimpleDateFormatParser[m_formats.length];
+         for (int index = 0; index < m_formats.length; index++)
+         {
+            parsers[index] = new SimpleDateFormatParser(m_formats[index]);
+         }
+         m_parsers = parsers;
+      }
+      return m_parsers;
+   }
+
+   /**
+    * Determine if a range of characters contains only whitespace,
+    * using the same definition of whitespace as String.trim.
+    *
+    * @param text source text
+    * @param start start of the range
+    * @param end end of the range
+    * @return true if the range is blank
+    */
+   private boolean isBlank(String text, int start, int end)
+   {
+      for (int index = start; index < end; index++)
+      {
+         if (text.charAt(index) > ' ')
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
    protected String m_null = "NA";
+   protected SimpleDateFormatParser[] m_parsers;
 }
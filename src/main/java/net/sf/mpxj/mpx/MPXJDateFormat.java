@@ -69,5 +69,6 @@ public final class MPXJDateFormat extends MPXJBaseFormat
       }
 
       m_formats = formats.toArray(new SimpleDateFormat[formats.size()]);
+      m_parsers = null;
    }
 }
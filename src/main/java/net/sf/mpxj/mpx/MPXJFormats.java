@@ -23,8 +23,6 @@
 
 package net.sf.mpxj.mpx;
 
-import java.text.DateFormat;
-import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -728,7 +726,7 @@ public final class MPXJFormats
     *
     * @return units decimal format
     */
-   public NumberFormat getUnitsDecimalFormat()
+   public MPXJNumberFormat getUnitsDecimalFormat()
    {
       return (m_unitsDecimalFormat);
    }
@@ -738,7 +736,7 @@ public final class MPXJFormats
     *
     * @return decimal format
     */
-   public NumberFormat getDecimalFormat()
+   public MPXJNumberFormat getDecimalFormat()
    {
       return (m_decimalFormat);
    }
@@ -748,7 +746,7 @@ public final class MPXJFormats
     *
     * @return currency format
     */
-   public NumberFormat getCurrencyFormat()
+   public MPXJNumberFormat getCurrencyFormat()
    {
       return (m_currencyFormat);
    }
@@ -758,7 +756,7 @@ public final class MPXJFormats
     *
     * @return duration decimal format
     */
-   public NumberFormat getDurationDecimalFormat()
+   public MPXJNumberFormat getDurationDecimalFormat()
    {
       return (m_durationDecimalFormat);
    }
@@ -768,7 +766,7 @@ public final class MPXJFormats
     *
     * @return percentage decimal format
     */
-   public NumberFormat getPercentageDecimalFormat()
+   public MPXJNumberFormat getPercentageDecimalFormat()
    {
       return (m_percentageDecimalFormat);
    }
@@ -778,7 +776,7 @@ public final class MPXJFormats
     *
     * @return date time format
     */
-   public DateFormat getDateTimeFormat()
+   public MPXJDateFormat getDateTimeFormat()
    {
       return (m_dateTimeFormat);
    }
@@ -788,7 +786,7 @@ public final class MPXJFormats
     *
     * @return date format
     */
-   public DateFormat getDateFormat()
+   public MPXJDateFormat getDateFormat()
    {
       return (m_dateFormat);
    }
@@ -798,7 +796,7 @@ public final class MPXJFormats
     *
     * @return time format
     */
-   public DateFormat getTimeFormat()
+   public MPXJTimeFormat getTimeFormat()
    {
       return (m_timeFormat);
    }
@@ -26,8 +26,10 @@ package net.sf.mpxj.mpx;
 
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
 import java.text.ParsePosition;
 import java.util.Arrays;
+import java.util.Currency;
 
 /**
  * This class extends the functionality of the DecimalFormat class
@@ -70,6 +72,53 @@ public final class MPXJNumberFormat extends DecimalFormat
             m_alternativeFormats[loop].applyPattern(alternativePatterns[loop]);
          }
       }
+
+      m_parsers = null;
+   }
+
+   /**
+    * Parse a number from a range of characters. This produces the same
+    * result as calling parse with the equivalent substring, but avoids
+    * creating the substring for the common cases found in MPX files.
+    *
+    * @param text source text
+    * @param start start of the range
+    * @param end end of the range
+    * @return parsed number, or null if the range is blank
+    * @throws ParseException if the text cannot be parsed
+    */
+   public Number parse(String text, int start, int end) throws ParseException
+   {
+      while (start < end && text.charAt(start) <= ' ')
+      {
+         ++start;
+      }
+
+      while (end > start && text.charAt(end - 1) <= ' ')
+      {
+         --end;
+      }
+
+      if (start == end)
+      {
+         return null;
+      }
+
+      for (DecimalFormatParser parser : getParsers())
+      {
+         int status = parser.parse(text, start, end);
+         if (status == DecimalFormatParser.MATCH)
+         {
+            return parser.getResult();
+         }
+
+         if (status == DecimalFormatParser.UNKNOWN)
+         {
+            break;
+         }
+      }
+
+      return parse(text.substring(start, end));
    }
 
    /**
@@ -121,6 +170,146 @@ public final class MPXJNumberFormat extends DecimalFormat
       return (result);
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Object clone()
+   {
+      MPXJNumberFormat result = (MPXJNumberFormat) super.clone();
+      result.m_parsers = null;
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void applyPattern(String pattern)
+   {
+      super.applyPattern(pattern);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void applyLocalizedPattern(String pattern)
+   {
+      super.applyLocalizedPattern(pattern);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setDecimalFormatSymbols(DecimalFormatSymbols newSymbols)
+   {
+      super.setDecimalFormatSymbols(newSymbols);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setGroupingUsed(boolean newValue)
+   {
+      super.setGroupingUsed(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setPositivePrefix(String newValue)
+   {
+      super.setPositivePrefix(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setNegativePrefix(String newValue)
+   {
+      super.setNegativePrefix(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setPositiveSuffix(String newValue)
+   {
+      super.setPositiveSuffix(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setNegativeSuffix(String newValue)
+   {
+      super.setNegativeSuffix(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setMultiplier(int newValue)
+   {
+      super.setMultiplier(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setParseBigDecimal(boolean newValue)
+   {
+      super.setParseBigDecimal(newValue);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setParseIntegerOnly(boolean value)
+   {
+      super.setParseIntegerOnly(value);
+      m_parsers = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setCurrency(Currency currency)
+   {
+      super.setCurrency(currency);
+      m_parsers = null;
+   }
+
+   /**
+    * Retrieve parsers for the primary and alternative formats, in the
+    * order in which they are tried.
+    *
+    * @return array of parsers
+    */
+   private DecimalFormatParser[] getParsers()
+   {
+      if (m_parsers == null)
+      {
+         int count = m_alternativeFormats == null ? 0 : m_alternativeFormats.length;
+         DecimalFormatParser[] parsers = new DecimalFormatParser[count + 1];
+         parsers[0] = new DecimalFormatParser(this);
+         for (int loop = 0; loop < count; loop++)
+         {
+            parsers[loop + 1] = new DecimalFormatParser(m_alternativeFormats[loop]);
+         }
+         m_parsers = parsers;
+      }
+      return m_parsers;
+   }
+
    @Override public int hashCode()
    {
       final int prime = 31;
@@ -176,4 +365,11 @@ public final class MPXJNumberFormat extends DecimalFormat
     */
    private DecimalFormatSymbols m_symbols = new DecimalFormatSymbols();
    private DecimalFormat[] m_alternativeFormats;
+
+   /**
+    * Parsers used by parse(String, int, int). These are discarded when
+    * any setting which affects parsing is changed, and are recreated
+    * when next required.
+    */
+   private DecimalFormatParser[] m_parsers;
 }
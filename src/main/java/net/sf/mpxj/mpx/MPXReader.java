@@ -26,7 +26,6 @@ package net.sf.mpxj.mpx;
 import java.io.BufferedInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.LinkedList;
@@ -61,7 +60,6 @@ import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.InputStreamTokenizer;
 import net.sf.mpxj.common.NumberHelper;
-import net.sf.mpxj.common.ReaderTokenizer;
 import net.sf.mpxj.common.Tokenizer;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.AbstractProjectReader;
@@ -112,7 +110,7 @@ public final class MPXReader extends AbstractProjectReader
             throw new MPXJException(MPXJException.INVALID_FILE);
          }
 
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_eventManager = m_projectFile.getEventManager();
 
          m_projectConfig = m_projectFile.getProjectConfig();
@@ -161,18 +159,17 @@ public final class MPXReader extends AbstractProjectReader
          // file creation record we have access to the field which specifies the
          // codepage used to encode the character set in this file. We set up
          // an input stream reader using the appropriate character set, and
-         // create a new tokenizer to read from this Reader instance.
+         // create a record tokenizer to read from this Reader instance.
          //
          InputStreamReader reader = new InputStreamReader(bis, m_projectFile.getProjectProperties().getMpxCodePage().getCharset());
-         tk = new ReaderTokenizer(reader);
-         tk.setDelimiter(m_delimiter);
+         RecordTokenizer rtk = new RecordTokenizer(reader, m_delimiter);
 
          //
          // Read the remainder of the records
          //
-         while (tk.getType() != Tokenizer.TT_EOF)
+         while (!rtk.isEOF())
          {
-            Record record = new Record(m_locale, tk, m_formats);
+            Record record = new Record(m_locale, rtk, m_formats);
             Integer number = record.getRecordNumber();
 
             if (number != null)
@@ -758,9 +755,7 @@ public final class MPXReader extends AbstractProjectReader
             break;
          }
 
-         String field = record.getString(i);
-
-         if (field == null || field.length() == 0)
+         if (record.isEmpty(i))
          {
             continue;
          }
@@ -843,7 +838,7 @@ public final class MPXReader extends AbstractProjectReader
 
             default:
             {
-               resource.set(resourceField, field);
+               resource.set(resourceField, record.getString(i));
                break;
             }
          }
@@ -1044,7 +1039,6 @@ public final class MPXReader extends AbstractProjectReader
       String falseText = LocaleData.getString(m_locale, LocaleData.NO);
 
       int mpxFieldID = 0;
-      String field;
 
       int i = 0;
       int length = record.getLength();
@@ -1059,9 +1053,9 @@ public final class MPXReader extends AbstractProjectReader
             break;
          }
 
-         field = record.getString(i++);
+         int index = i++;
 
-         if ((field == null) || (field.length() == 0))
+         if (record.isEmpty(index))
          {
             continue;
          }
@@ -1078,22 +1072,14 @@ public final class MPXReader extends AbstractProjectReader
             case PREDECESSORS:
             case UNIQUE_ID_PREDECESSORS:
             {
-               populateRelationList(task, taskField, field);
+               populateRelationList(task, taskField, record.getString(index));
                break;
             }
 
             case PERCENT_COMPLETE:
             case PERCENT_WORK_COMPLETE:
             {
-               try
-               {
-                  task.set(taskField, m_formats.getPercentageDecimalFormat().parse(field));
-               }
-
-               catch (ParseException ex)
-               {
-                  throw new MPXJException("Failed to parse percentage", ex);
-               }
+               task.set(taskField, record.getPercentage(index));
                break;
             }
 
@@ -1111,15 +1097,7 @@ public final class MPXReader extends AbstractProjectReader
             case REMAINING_COST:
             case SV:
             {
-               try
-               {
-                  task.set(taskField, m_formats.getCurrencyFormat().parse(field));
-               }
-
-               catch (ParseException ex)
-               {
-                  throw new MPXJException("Failed to parse currency", ex);
-               }
+               task.set(taskField, record.getCurrency(index));
                break;
             }
 
@@ -1142,7 +1120,7 @@ public final class MPXReader extends AbstractProjectReader
             case WORK_VARIANCE:
             case LEVELING_DELAY:
             {
-               task.set(taskField, DurationUtility.getInstance(field, m_formats.getDurationDecimalFormat(), m_locale));
+               task.set(taskField, record.getDuration(index));
                break;
             }
 
@@ -1171,15 +1149,7 @@ public final class MPXReader extends AbstractProjectReader
             case START5:
             case STOP:
             {
-               try
-               {
-                  task.set(taskField, m_formats.getDateTimeFormat().parse(field));
-               }
-
-               catch (ParseException ex)
-               {
-                  throw new MPXJException("Failed to parse date time", ex);
-               }
+               task.set(taskField, record.getDateTime(index));
                break;
             }
 
@@ -1203,32 +1173,32 @@ public final class MPXReader extends AbstractProjectReader
             case SUMMARY:
             case UPDATE_NEEDED:
             {
-               task.set(taskField, ((field.equalsIgnoreCase(falseText) == true) ? Boolean.FALSE : Boolean.TRUE));
+               task.set(taskField, record.getBoolean(index, falseText));
                break;
             }
 
             case CONSTRAINT_TYPE:
             {
-               task.set(taskField, ConstraintTypeUtility.getInstance(m_locale, field));
+               task.set(taskField, ConstraintTypeUtility.getInstance(m_locale, record.getString(index)));
                break;
             }
 
             case OBJECTS:
             case OUTLINE_LEVEL:
             {
-               task.set(taskField, Integer.valueOf(field));
+               task.set(taskField, record.getInteger(index));
                break;
             }
 
             case ID:
             {
-               task.setID(Integer.valueOf(field));
+               task.setID(record.getInteger(index));
                break;
             }
 
             case UNIQUE_ID:
             {
-               task.setUniqueID(Integer.valueOf(field));
+               task.setUniqueID(record.getInteger(index));
                break;
             }
 
@@ -1238,35 +1208,26 @@ public final class MPXReader extends AbstractProjectReader
             case NUMBER4:
             case NUMBER5:
             {
-               try
-               {
-                  task.set(taskField, m_formats.getDecimalFormat().parse(field));
-               }
-
-               catch (ParseException ex)
-               {
-                  throw new MPXJException("Failed to parse number", ex);
-               }
-
+               task.set(taskField, record.getFloat(index));
                break;
             }
 
             case PRIORITY:
             {
-               task.set(taskField, PriorityUtility.getInstance(m_locale, field));
+               task.set(taskField, PriorityUtility.getInstance(m_locale, record.getString(index)));
                break;
             }
 
             case TYPE:
             {
-               boolean fixed = !field.equalsIgnoreCase(falseText);
+               boolean fixed = record.getBoolean(index, falseText).booleanValue();
                task.setType(fixed ? TaskType.FIXED_DURATION : TaskType.FIXED_UNITS);
                break;
             }
 
             default:
             {
-               task.set(taskField, field);
+               task.set(taskField, record.getString(index));
                break;
             }
          }
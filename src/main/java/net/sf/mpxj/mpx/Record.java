@@ -27,7 +27,6 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.Locale;
 
 import net.sf.mpxj.AccrueType;
@@ -66,18 +65,21 @@ final class Record
 
          m_formats = formats;
 
-         LinkedList<String> list = new LinkedList<String>();
+         StringBuilder data = new StringBuilder();
+         int[] fieldEnds = new int[16];
+         int fieldCount = 0;
 
          while (tk.nextToken() == Tokenizer.TT_WORD)
          {
-            list.add(tk.getToken());
+            data.append(tk.getToken());
+            if (fieldCount == fieldEnds.length)
+            {
+               fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+            }
+            fieldEnds[fieldCount++] = data.length();
          }
 
-         if (list.size() > 0)
-         {
-            setRecordNumber(list);
-            m_fields = list.toArray(new String[list.size()]);
-         }
+         setFields(data.toString(), Arrays.copyOf(fieldEnds, fieldCount));
       }
 
       catch (IOException ex)
@@ -87,23 +89,55 @@ final class Record
    }
 
    /**
-    * Pop the record number from the front of the list, and parse it to ensure that
-    * it is a valid integer.
+    * This constructor reads the next record from a RecordTokenizer.
     *
-    * @param list MPX record
+    * @param locale target locale
+    * @param tk tokenizer providing the records
+    * @param formats formats used when parsing data
+    * @throws MPXJException normally thrown when parsing fails
     */
-   private void setRecordNumber(LinkedList<String> list)
+   Record(Locale locale, RecordTokenizer tk, MPXJFormats formats)
+      throws MPXJException
    {
       try
       {
-         String number = list.remove(0);
-         m_recordNumber = Integer.valueOf(number);
+         m_locale = locale;
+         m_formats = formats;
+         tk.nextRecord();
+         setFields(tk.getData(), tk.getFieldEnds());
       }
-      catch (NumberFormatException ex)
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_RECORD, ex);
+      }
+   }
+
+   /**
+    * Set the text of the fields in this record. The first field is the
+    * record number, which is parsed to ensure that it is a valid integer.
+    *
+    * @param data text of all fields
+    * @param fieldEnds offset at which each field ends
+    */
+   private void setFields(String data, int[] fieldEnds)
+   {
+      m_data = data;
+      m_fieldEnds = fieldEnds;
+
+      if (fieldEnds.length > 0)
       {
-         // Malformed MPX file: the record number isn't a valid integer
-         // Catch the exception here, leaving m_recordNumber as null
-         // so we will skip this record entirely.
+         try
+         {
+            m_recordNumber = Integer.valueOf(parseInt(0, fieldEnds[0]));
+         }
+
+         catch (NumberFormatException ex)
+         {
+            // Malformed MPX file: the record number isn't a valid integer
+            // Catch the exception here, leaving m_recordNumber as null
+            // so we will skip this record entirely.
+         }
       }
    }
 
@@ -117,6 +151,17 @@ final class Record
       return (m_recordNumber);
    }
 
+   /**
+    * Determine if a field is missing from this record, or is empty.
+    *
+    * @param field the index number of the field to be tested
+    * @return true if the field is missing or empty
+    */
+   public boolean isEmpty(int field)
+   {
+      return field >= getLength() || getStart(field) == getEnd(field);
+   }
+
    /**
     * Accessor method used to retrieve a String object representing the
     * contents of an individual field. If the field does not exist in the
@@ -129,14 +174,10 @@ final class Record
    {
       String result;
 
-      if (field < m_fields.length)
+      if (field < getLength())
       {
-         result = m_fields[field];
-
-         if (result != null)
-         {
-            result = result.replace(MPXConstants.EOL_PLACEHOLDER, '\n');
-         }
+         result = m_data.substring(getStart(field), getEnd(field));
+         result = result.replace(MPXConstants.EOL_PLACEHOLDER, '\n');
       }
       else
       {
@@ -158,9 +199,9 @@ final class Record
    {
       Character result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = Character.valueOf(m_fields[field].charAt(0));
+         result = Character.valueOf(m_data.charAt(getStart(field)));
       }
       else
       {
@@ -184,9 +225,9 @@ final class Record
       {
          Number result;
 
-         if ((field < m_fields.length) && (m_fields[field].length() != 0))
+         if (!isEmpty(field))
          {
-            result = m_formats.getDecimalFormat().parse(m_fields[field]);
+            result = m_formats.getDecimalFormat().parse(m_data, getStart(field), getEnd(field));
          }
          else
          {
@@ -214,9 +255,9 @@ final class Record
    {
       Integer result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = Integer.valueOf(m_fields[field]);
+         result = Integer.valueOf(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -239,11 +280,14 @@ final class Record
    {
       Date result = null;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
+         int start = getStart(field);
+         int end = getEnd(field);
+
          try
          {
-            result = m_formats.getDateTimeFormat().parse(m_fields[field]);
+            result = m_formats.getDateTimeFormat().parse(m_data, start, end);
          }
 
          catch (ParseException ex)
@@ -258,7 +302,7 @@ final class Record
          {
             try
             {
-               result = m_formats.getDateFormat().parse(m_fields[field]);
+               result = m_formats.getDateFormat().parse(m_data, start, end);
             }
 
             catch (ParseException ex)
@@ -286,9 +330,9 @@ final class Record
       {
          Date result;
 
-         if ((field < m_fields.length) && (m_fields[field].length() != 0))
+         if (!isEmpty(field))
          {
-            result = m_formats.getDateFormat().parse(m_fields[field]);
+            result = m_formats.getDateFormat().parse(m_data, getStart(field), getEnd(field));
          }
          else
          {
@@ -319,9 +363,9 @@ final class Record
       {
          Date result;
 
-         if ((field < m_fields.length) && (m_fields[field].length() != 0))
+         if (!isEmpty(field))
          {
-            result = m_formats.getTimeFormat().parse(m_fields[field]);
+            result = m_formats.getTimeFormat().parse(m_data, getStart(field), getEnd(field));
          }
          else
          {
@@ -349,9 +393,9 @@ final class Record
    {
       boolean result = false;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = Integer.parseInt(m_fields[field]) == 1;
+         result = parseInt(getStart(field), getEnd(field)) == 1;
       }
 
       return (result);
@@ -370,24 +414,25 @@ final class Record
    {
       Rate result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
          try
          {
-            String rate = m_fields[field];
-            int index = rate.indexOf('/');
+            int start = getStart(field);
+            int end = getEnd(field);
+            int index = m_data.indexOf('/', start);
             double amount;
             TimeUnit units;
 
-            if (index == -1)
+            if (index == -1 || index >= end)
             {
-               amount = m_formats.getCurrencyFormat().parse(rate).doubleValue();
+               amount = m_formats.getCurrencyFormat().parse(m_data, start, end).doubleValue();
                units = TimeUnit.HOURS;
             }
             else
             {
-               amount = m_formats.getCurrencyFormat().parse(rate.substring(0, index)).doubleValue();
-               units = TimeUnitUtility.getInstance(rate.substring(index + 1), m_locale);
+               amount = m_formats.getCurrencyFormat().parse(m_data, start, index).doubleValue();
+               units = TimeUnitUtility.getInstance(m_data.substring(index + 1, end), m_locale);
             }
 
             result = new Rate(amount, units);
@@ -419,11 +464,11 @@ final class Record
    {
       Number result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
          try
          {
-            result = m_formats.getCurrencyFormat().parse(m_fields[field]);
+            result = m_formats.getCurrencyFormat().parse(m_data, getStart(field), getEnd(field));
          }
 
          catch (ParseException ex)
@@ -452,11 +497,11 @@ final class Record
    {
       Number result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
          try
          {
-            result = m_formats.getPercentageDecimalFormat().parse(m_fields[field]);
+            result = m_formats.getPercentageDecimalFormat().parse(m_data, getStart(field), getEnd(field));
          }
 
          catch (ParseException ex)
@@ -485,9 +530,9 @@ final class Record
    {
       Duration result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = DurationUtility.getInstance(m_fields[field], m_formats.getDurationDecimalFormat(), m_locale);
+         result = DurationUtility.getInstance(m_data, getStart(field), getEnd(field), m_formats.getDurationDecimalFormat(), m_locale);
       }
       else
       {
@@ -510,11 +555,11 @@ final class Record
    {
       Number result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
          try
          {
-            result = Double.valueOf(m_formats.getUnitsDecimalFormat().parse(m_fields[field]).doubleValue() * 100);
+            result = Double.valueOf(m_formats.getUnitsDecimalFormat().parse(m_data, getStart(field), getEnd(field)).doubleValue() * 100);
          }
 
          catch (ParseException ex)
@@ -542,9 +587,9 @@ final class Record
    {
       TimeUnit result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = TimeUnit.getInstance(Integer.parseInt(m_fields[field]));
+         result = TimeUnit.getInstance(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -566,9 +611,9 @@ final class Record
    {
       ProjectTimeFormat result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = ProjectTimeFormat.getInstance(Integer.parseInt(m_fields[field]));
+         result = ProjectTimeFormat.getInstance(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -590,9 +635,9 @@ final class Record
    {
       ScheduleFrom result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = ScheduleFrom.getInstance(Integer.parseInt(m_fields[field]));
+         result = ScheduleFrom.getInstance(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -614,9 +659,9 @@ final class Record
    {
       DateOrder result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = DateOrder.getInstance(Integer.parseInt(m_fields[field]));
+         result = DateOrder.getInstance(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -638,9 +683,9 @@ final class Record
    {
       CurrencySymbolPosition result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = CurrencySymbolPosition.getInstance(Integer.parseInt(m_fields[field]));
+         result = CurrencySymbolPosition.getInstance(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -662,9 +707,9 @@ final class Record
    {
       ProjectDateFormat result = null;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = ProjectDateFormat.getInstance(Integer.parseInt(m_fields[field]));
+         result = ProjectDateFormat.getInstance(parseInt(getStart(field), getEnd(field)));
       }
       else
       {
@@ -684,9 +729,9 @@ final class Record
    {
       CodePage result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = CodePage.getInstance(m_fields[field]);
+         result = CodePage.getInstance(m_data.substring(getStart(field), getEnd(field)));
       }
       else
       {
@@ -706,9 +751,9 @@ final class Record
    {
       AccrueType result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = AccrueTypeUtility.getInstance(m_fields[field], m_locale);
+         result = AccrueTypeUtility.getInstance(m_data.substring(getStart(field), getEnd(field)), m_locale);
       }
       else
       {
@@ -729,9 +774,11 @@ final class Record
    {
       Boolean result;
 
-      if ((field < m_fields.length) && (m_fields[field].length() != 0))
+      if (!isEmpty(field))
       {
-         result = ((m_fields[field].equalsIgnoreCase(falseText) == true) ? Boolean.FALSE : Boolean.TRUE);
+         int start = getStart(field);
+         int length = getEnd(field) - start;
+         result = ((length == falseText.length() && m_data.regionMatches(true, start, falseText, 0, length)) ? Boolean.FALSE : Boolean.TRUE);
       }
       else
       {
@@ -748,7 +795,7 @@ final class Record
     */
    public int getLength()
    {
-      return (m_fields.length);
+      return (m_fieldEnds.length == 0 ? 0 : m_fieldEnds.length - 1);
    }
 
    /**
@@ -756,7 +803,71 @@ final class Record
     */
    @Override public String toString()
    {
-      return (Arrays.toString(m_fields));
+      String[] fields = new String[getLength()];
+      for (int index = 0; index < fields.length; index++)
+      {
+         fields[index] = m_data.substring(getStart(index), getEnd(index));
+      }
+      return (Arrays.toString(fields));
+   }
+
+   /**
+    * Retrieve the offset within the record text at which a field starts.
+    *
+    * @param field the index number of the field
+    * @return start offset
+    */
+   private int getStart(int field)
+   {
+      return m_fieldEnds[field];
+   }
+
+   /**
+    * Retrieve the offset within the record text at which a field ends.
+    *
+    * @param field the index number of the field
+    * @return end offset
+    */
+   private int getEnd(int field)
+   {
+      return m_fieldEnds[field + 1];
+   }
+
+   /**
+    * Parse an integer from the record text, following the same rules as
+    * Integer.parseInt. Short runs of digits are handled directly, anything
+    * else is passed to Integer.parseInt.
+    *
+    * @param start start offset
+    * @param end end offset
+    * @return int value
+    */
+   private int parseInt(int start, int end)
+   {
+      int index = start;
+      boolean negative = index < end && m_data.charAt(index) == '-';
+      if (negative)
+      {
+         ++index;
+      }
+
+      if (index == end || end - index > MAX_SIMPLE_INT_DIGITS)
+      {
+         return Integer.parseInt(m_data.substring(start, end));
+      }
+
+      int result = 0;
+      while (index < end)
+      {
+         char c = m_data.charAt(index++);
+         if (c < '0' || c > '9')
+         {
+            return Integer.parseInt(m_data.substring(start, end));
+         }
+         result = (result * 10) + (c - '0');
+      }
+
+      return negative ? -result : result;
    }
 
    /**
@@ -770,9 +881,20 @@ final class Record
    private Integer m_recordNumber;
 
    /**
-    * Array of field data.
+    * Text of all fields in this record, including the record number.
     */
-   private String[] m_fields;
+   private String m_data;
+
+   /**
+    * Offset at which each field ends. The first entry is the
+    * end of the record number.
+    */
+   private int[] m_fieldEnds;
 
    private MPXJFormats m_formats;
+
+   /**
+    * Number of digits which cannot overflow an int.
+    */
+   private static final int MAX_SIMPLE_INT_DIGITS = 9;
 }
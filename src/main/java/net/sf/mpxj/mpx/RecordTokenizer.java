@@ -0,0 +1,261 @@
+/*
+ * file:       RecordTokenizer.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * This class splits the text of an MPX file into records. It follows the
+ * same rules as the Tokenizer class, but reads characters in blocks, and
+ * rather than creating a string for each field it collects the text of
+ * all of the fields in a record into a single buffer, recording the
+ * offset at which each field ends.
+ */
+final class RecordTokenizer
+{
+   /**
+    * Constructor.
+    *
+    * @param reader source of the MPX data
+    * @param delimiter field delimiter
+    */
+   public RecordTokenizer(Reader reader, char delimiter)
+   {
+      m_reader = reader;
+      m_delimiter = delimiter;
+   }
+
+   /**
+    * Read the next record. Once this method has been called, the text
+    * of the record's fields is available from getData and getFieldEnd.
+    */
+   public void nextRecord() throws IOException
+   {
+      m_data.setLength(0);
+      m_fieldCount = 0;
+
+      int fieldStart = 0;
+      boolean quoted = false;
+      int next = NONE;
+
+      while (true)
+      {
+         int c;
+         if (next == NONE)
+         {
+            //
+            // Copy runs of characters without special meaning
+            // directly into the record buffer.
+            //
+            if (m_position < m_length)
+            {
+               int start = m_position;
+               while (m_position < m_length && !isSpecial(m_buffer[m_position], quoted))
+               {
+                  ++m_position;
+               }
+
+               if (m_position != start)
+               {
+                  m_data.append(m_buffer, start, m_position - start);
+               }
+            }
+            c = read();
+         }
+         else
+         {
+            c = next;
+            next = NONE;
+         }
+
+         if (c == EOF)
+         {
+            if (m_data.length() != fieldStart)
+            {
+               addField();
+            }
+            m_eof = true;
+            break;
+         }
+
+         if (c == '\n')
+         {
+            int length = m_data.length();
+            if (length != fieldStart && m_data.charAt(length - 1) == '\r')
+            {
+               --length;
+               m_data.setLength(length);
+            }
+
+            if (length != fieldStart)
+            {
+               addField();
+            }
+            break;
+         }
+
+         if (c == QUOTE)
+         {
+            if (quoted == false && m_data.length() == fieldStart)
+            {
+               quoted = true;
+            }
+            else
+            {
+               if (quoted == false)
+               {
+                  m_data.append((char) c);
+               }
+               else
+               {
+                  next = read();
+                  if (next == QUOTE)
+                  {
+                     m_data.append((char) c);
+                     next = NONE;
+                  }
+                  else
+                  {
+                     quoted = false;
+                  }
+               }
+            }
+         }
+         else
+         {
+            if (c == m_delimiter && quoted == false)
+            {
+               addField();
+               fieldStart = m_data.length();
+            }
+            else
+            {
+               m_data.append((char) c);
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns true once the end of the data has been reached.
+    *
+    * @return true if there are no more records
+    */
+   public boolean isEOF()
+   {
+      return m_eof;
+   }
+
+   /**
+    * Retrieve the number of fields in the current record.
+    *
+    * @return field count
+    */
+   public int getFieldCount()
+   {
+      return m_fieldCount;
+   }
+
+   /**
+    * Retrieve the text of all of the fields in the current record.
+    *
+    * @return record text
+    */
+   public String getData()
+   {
+      return m_data.toString();
+   }
+
+   /**
+    * Retrieve the offsets within the record text at which each
+    * field ends. Each field starts where the previous field ends.
+    *
+    * @return field end offsets
+    */
+   public int[] getFieldEnds()
+   {
+      return Arrays.copyOf(m_fieldEnds, m_fieldCount);
+   }
+
+   /**
+    * Determine if a character needs to be handled individually.
+    *
+    * @param c character
+    * @param quoted true if we are within a quoted field
+    * @return true if this character needs to be handled individually
+    */
+   private boolean isSpecial(char c, boolean quoted)
+   {
+      return c == '\n' || c == QUOTE || (c == m_delimiter && quoted == false);
+   }
+
+   /**
+    * Record the end of a field.
+    */
+   private void addField()
+   {
+      if (m_fieldCount == m_fieldEnds.length)
+      {
+         m_fieldEnds = Arrays.copyOf(m_fieldEnds, m_fieldEnds.length * 2);
+      }
+      m_fieldEnds[m_fieldCount++] = m_data.length();
+   }
+
+   /**
+    * Read the next character.
+    *
+    * @return next character, or EOF
+    */
+   private int read() throws IOException
+   {
+      if (m_position == m_length)
+      {
+         m_length = m_reader.read(m_buffer);
+         m_position = 0;
+         if (m_length <= 0)
+         {
+            m_length = 0;
+            return EOF;
+         }
+      }
+      return m_buffer[m_position++];
+   }
+
+   private final Reader m_reader;
+   private final char m_delimiter;
+   private final char[] m_buffer = new char[BUFFER_SIZE];
+   private final StringBuilder m_data = new StringBuilder();
+   private int[] m_fieldEnds = new int[64];
+   private int m_fieldCount;
+   private int m_position;
+   private int m_length;
+   private boolean m_eof;
+
+   private static final int BUFFER_SIZE = 8192;
+   private static final int EOF = -1;
+   private static final int NONE = -2;
+   private static final char QUOTE = '"';
+}
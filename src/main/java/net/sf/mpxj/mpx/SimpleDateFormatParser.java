@@ -0,0 +1,662 @@
+/*
+ * file:       SimpleDateFormatParser.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpx;
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * Parses dates written using a SimpleDateFormat pattern directly from a
+ * range of characters, producing the same result as SimpleDateFormat.parse.
+ * The patterns generated by MPXJFormats are supported, apart from those
+ * using week numbers. The text is matched against the pattern here, and
+ * the parsed fields are passed to a Calendar in the same order as
+ * SimpleDateFormat would, so the same date is produced. Anything which
+ * SimpleDateFormat might interpret differently, for example leading
+ * whitespace or signed numbers, is reported as UNKNOWN so that the caller
+ * can fall back to using the SimpleDateFormat itself.
+ */
+final class SimpleDateFormatParser
+{
+   /**
+    * Constructor.
+    *
+    * @param format format to emulate
+    */
+   public SimpleDateFormatParser(SimpleDateFormat format)
+   {
+      m_calendar = (Calendar) format.getCalendar().clone();
+      m_elements = compile(format.toPattern());
+      m_supported = m_elements != null && m_calendar instanceof GregorianCalendar && format.isLenient() && isSupported(format.getNumberFormat());
+
+      DateFormatSymbols symbols = format.getDateFormatSymbols();
+      m_months = symbols.getMonths();
+      m_shortMonths = symbols.getShortMonths();
+      m_weekdays = symbols.getWeekdays();
+      m_shortWeekdays = symbols.getShortWeekdays();
+      m_amPmStrings = symbols.getAmPmStrings();
+
+      m_defaultCenturyStart = format.get2DigitYearStart();
+      m_calendar.setTime(m_defaultCenturyStart);
+      m_defaultCenturyStartYear = m_calendar.get(Calendar.YEAR);
+
+      int size = m_elements == null ? 0 : m_elements.length;
+      m_fields = new int[size];
+      m_values = new int[size];
+   }
+
+   /**
+    * Parse a date from a range of characters. As with SimpleDateFormat,
+    * the date must start at the beginning of the range, but does not
+    * need to extend to the end of the range.
+    *
+    * @param text source text
+    * @param start start of the range
+    * @param end end of the range
+    * @return MATCH, NO_MATCH, or UNKNOWN
+    */
+   public int parse(String text, int start, int end)
+   {
+      if (!m_supported)
+      {
+         return UNKNOWN;
+      }
+
+      int position = start;
+      int fieldCount = 0;
+      boolean ambiguousYear = false;
+
+      for (int index = 0; index < m_elements.length; index++)
+      {
+         Element element = m_elements[index];
+
+         if (element.m_literal != null)
+         {
+            String literal = element.m_literal;
+            if (end - position < literal.length() || !text.regionMatches(position, literal, 0, literal.length()))
+            {
+               return NO_MATCH;
+            }
+            position += literal.length();
+            continue;
+         }
+
+         //
+         // SimpleDateFormat skips whitespace before each field, and fails
+         // if it reaches the end of the text.
+         //
+         int fieldStart = position;
+         while (fieldStart < end && isWhitespace(text.charAt(fieldStart)))
+         {
+            ++fieldStart;
+         }
+
+         if (fieldStart == end)
+         {
+            return NO_MATCH;
+         }
+
+         int field;
+         int value;
+
+         switch (element.m_type)
+         {
+            case 'M':
+            {
+               if (element.m_count <= 2)
+               {
+                  int next = parseNumber(text, position, end, element.m_count, index);
+                  if (next < 0)
+                  {
+                     return -next;
+                  }
+                  field = Calendar.MONTH;
+                  value = m_number - 1;
+                  position = next;
+               }
+               else
+               {
+                  field = Calendar.MONTH;
+                  value = matchString(text, position, end, m_months, 0);
+                  if (value == -1)
+                  {
+                     value = matchString(text, position, end, m_shortMonths, 0);
+                     if (value == -1)
+                     {
+                        return NO_MATCH;
+                     }
+                     position += m_shortMonths[value].length();
+                  }
+                  else
+                  {
+                     position += m_months[value].length();
+                  }
+               }
+               break;
+            }
+
+            case 'E':
+            {
+               field = Calendar.DAY_OF_WEEK;
+               value = matchString(text, position, end, m_weekdays, 1);
+               if (value == -1)
+               {
+                  value = matchString(text, position, end, m_shortWeekdays, 1);
+                  if (value == -1)
+                  {
+                     return NO_MATCH;
+                  }
+                  position += m_shortWeekdays[value].length();
+               }
+               else
+               {
+                  position += m_weekdays[value].length();
+               }
+               break;
+            }
+
+            case 'a':
+            {
+               field = Calendar.AM_PM;
+               value = matchString(text, position, end, m_amPmStrings, 0);
+               if (value == -1)
+               {
+                  return NO_MATCH;
+               }
+               position += m_amPmStrings[value].length();
+               break;
+            }
+
+            case 'y':
+            {
+               int next = parseNumber(text, position, end, element.m_count, index);
+               if (next < 0)
+               {
+                  return -next;
+               }
+
+               field = Calendar.YEAR;
+               value = m_number;
+
+               //
+               // Two digit years are placed in the century starting
+               // at the default century start date.
+               //
+               if (element.m_count <= 2 && next - position == 2)
+               {
+                  int ambiguousTwoDigitYear = m_defaultCenturyStartYear % 100;
+                  ambiguousYear = value == ambiguousTwoDigitYear;
+                  value += (m_defaultCenturyStartYear / 100) * 100 + (value < ambiguousTwoDigitYear ? 100 : 0);
+               }
+               position = next;
+               break;
+            }
+
+            default:
+            {
+               int next = parseNumber(text, position, end, element.m_count, index);
+               if (next < 0)
+               {
+                  return -next;
+               }
+
+               field = element.m_field;
+               value = m_number;
+               if (element.m_type == 'h' && value == m_calendar.getLeastMaximum(Calendar.HOUR) + 1)
+               {
+                  value = 0;
+               }
+               position = next;
+               break;
+            }
+         }
+
+         m_fields[fieldCount] = field;
+         m_values[fieldCount] = value;
+         ++fieldCount;
+      }
+
+      Date result = getDate(fieldCount, 0);
+      if (ambiguousYear && result.before(m_defaultCenturyStart))
+      {
+         result = getDate(fieldCount, 100);
+      }
+
+      m_result = result;
+      m_index = position;
+
+      return MATCH;
+   }
+
+   /**
+    * Retrieve the date produced by the most recent successful parse.
+    *
+    * @return parsed date
+    */
+   public Date getResult()
+   {
+      return m_result;
+   }
+
+   /**
+    * Retrieve the position following the date produced by the most
+    * recent successful parse.
+    *
+    * @return position after the parsed date
+    */
+   public int getIndex()
+   {
+      return m_index;
+   }
+
+   /**
+    * Parse a number for a numeric field. The result is placed in
+    * m_number. Unlike SimpleDateFormat, this method expects the number
+    * to be made up of ASCII digits, with no leading whitespace or sign.
+    *
+    * @param text source text
+    * @param position position at which the field starts
+    * @param end end of the range
+    * @param count number of pattern characters for this field
+    * @param index index of this field in the compiled pattern
+    * @return position after the number, or the negated parse status
+    */
+   private int parseNumber(String text, int position, int end, int count, int index)
+   {
+      //
+      // A numeric field which is immediately followed by another numeric
+      // field reads only as many characters as appear in the pattern.
+      // Before Java 9, SimpleDateFormat did the same when the following
+      // field was text, for example an am/pm marker. As the result then
+      // depends on the Java version, a longer number is left for
+      // SimpleDateFormat to parse.
+      //
+      int limit = end;
+      boolean textFollows = false;
+      if (index + 1 < m_elements.length && m_elements[index + 1].m_literal == null)
+      {
+         if (m_elements[index + 1].isNumeric())
+         {
+            limit = position + count;
+            if (limit > end)
+            {
+               return -NO_MATCH;
+            }
+         }
+         else
+         {
+            textFollows = true;
+         }
+      }
+
+      int next = position;
+      int value = 0;
+      while (next < limit && isDigit(text.charAt(next)))
+      {
+         if (next - position == MAX_DIGITS)
+         {
+            return -UNKNOWN;
+         }
+         value = (value * 10) + (text.charAt(next) - '0');
+         ++next;
+      }
+
+      if (next == position || (textFollows && next - position > count))
+      {
+         return -UNKNOWN;
+      }
+
+      if (next < limit)
+      {
+         char c = text.charAt(next);
+         if (Character.digit(c, 10) != -1 || (end - next >= m_exponent.length() && text.regionMatches(next, m_exponent, 0, m_exponent.length())))
+         {
+            return -UNKNOWN;
+         }
+      }
+
+      m_number = value;
+      return next;
+   }
+
+   /**
+    * Find the longest string from an array which matches the text at
+    * the given position, ignoring case.
+    *
+    * @param text source text
+    * @param position position at which to match
+    * @param end end of the range
+    * @param data candidate strings
+    * @param first index of the first candidate
+    * @return index of the matching string, or -1 if there is no match
+    */
+   private int matchString(String text, int position, int end, String[] data, int first)
+   {
+      int bestMatchLength = 0;
+      int bestMatch = -1;
+      for (int index = first; index < data.length; index++)
+      {
+         int length = data[index].length();
+         if (length > bestMatchLength && end - position >= length && text.regionMatches(true, position, data[index], 0, length))
+         {
+            bestMatch = index;
+            bestMatchLength = length;
+         }
+      }
+      return bestMatch;
+   }
+
+   /**
+    * Pass the parsed fields to the calendar in the order in which they
+    * were parsed, and retrieve the resulting date.
+    *
+    * @param fieldCount number of parsed fields
+    * @param yearAdjustment amount to add to the year
+    * @return date
+    */
+   private Date getDate(int fieldCount, int yearAdjustment)
+   {
+      m_calendar.clear();
+      for (int index = 0; index < fieldCount; index++)
+      {
+         int value = m_values[index];
+         if (m_fields[index] == Calendar.YEAR)
+         {
+            value += yearAdjustment;
+         }
+         m_calendar.set(m_fields[index], value);
+      }
+      return m_calendar.getTime();
+   }
+
+   /**
+    * Split a pattern into literal text and fields. Returns null if the
+    * pattern contains something which is not supported.
+    *
+    * @param pattern SimpleDateFormat pattern
+    * @return pattern elements
+    */
+   private Element[] compile(String pattern)
+   {
+      List<Element> elements = new ArrayList<Element>();
+      StringBuilder literal = new StringBuilder();
+      boolean quoted = false;
+      int length = pattern.length();
+
+      for (int index = 0; index < length; index++)
+      {
+         char c = pattern.charAt(index);
+         if (c == '\'')
+         {
+            if (index + 1 < length && pattern.charAt(index + 1) == '\'')
+            {
+               literal.append(c);
+               ++index;
+            }
+            else
+            {
+               quoted = !quoted;
+            }
+            continue;
+         }
+
+         if (quoted || !((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')))
+         {
+            literal.append(c);
+            continue;
+         }
+
+         int calendarField = getCalendarField(c);
+         if (calendarField == -1)
+         {
+            return null;
+         }
+
+         int count = 1;
+         while (index + 1 < length && pattern.charAt(index + 1) == c)
+         {
+            ++count;
+            ++index;
+         }
+
+         if (literal.length() != 0)
+         {
+            elements.add(new Element(literal.toString()));
+            literal.setLength(0);
+         }
+         elements.add(new Element(c, count, calendarField));
+      }
+
+      if (literal.length() != 0)
+      {
+         elements.add(new Element(literal.toString()));
+      }
+
+      return elements.isEmpty() ? null : elements.toArray(new Element[elements.size()]);
+   }
+
+   /**
+    * Determine if the number format used by a SimpleDateFormat will parse
+    * plain ASCII digits in the way this class expects.
+    *
+    * @param format number format
+    * @return true if the number format is supported
+    */
+   private boolean isSupported(NumberFormat format)
+   {
+      if (!(format instanceof DecimalFormat))
+      {
+         return false;
+      }
+
+      DecimalFormat decimalFormat = (DecimalFormat) format;
+      DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+      m_exponent = symbols.getExponentSeparator();
+
+      return decimalFormat.isParseIntegerOnly() && !decimalFormat.isGroupingUsed() && !decimalFormat.isParseBigDecimal() && decimalFormat.getMultiplier() == 1 && symbols.getZeroDigit() == '0' && !m_exponent.isEmpty() && decimalFormat.getPositivePrefix().isEmpty() && decimalFormat.getPositiveSuffix().isEmpty() && !startsWithDigit(decimalFormat.getNegativePrefix()) && !startsWithDigit(symbols.getNaN()) && !startsWithDigit(symbols.getInfinity());
+   }
+
+   /**
+    * Map a pattern character to the Calendar field it represents.
+    *
+    * @param c pattern character
+    * @return Calendar field, or -1 if this pattern character is not supported
+    */
+   private static int getCalendarField(char c)
+   {
+      int result;
+
+      switch (c)
+      {
+         case 'd':
+         {
+            result = Calendar.DAY_OF_MONTH;
+            break;
+         }
+
+         case 'M':
+         {
+            result = Calendar.MONTH;
+            break;
+         }
+
+         case 'y':
+         {
+            result = Calendar.YEAR;
+            break;
+         }
+
+         case 'E':
+         {
+            result = Calendar.DAY_OF_WEEK;
+            break;
+         }
+
+         case 'a':
+         {
+            result = Calendar.AM_PM;
+            break;
+         }
+
+         case 'h':
+         {
+            result = Calendar.HOUR;
+            break;
+         }
+
+         case 'H':
+         {
+            result = Calendar.HOUR_OF_DAY;
+            break;
+         }
+
+         case 'm':
+         {
+            result = Calendar.MINUTE;
+            break;
+         }
+
+         default:
+         {
+            result = -1;
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Determine if a string starts with an ASCII digit.
+    *
+    * @param value string to test
+    * @return true if the string starts with a digit
+    */
+   private static boolean startsWithDigit(String value)
+   {
+      return value.isEmpty() || isDigit(value.charAt(0));
+   }
+
+   /**
+    * Determine if a character is an ASCII digit.
+    *
+    * @param c character
+    * @return true if this is an ASCII digit
+    */
+   private static boolean isDigit(char c)
+   {
+      return c >= '0' && c <= '9';
+   }
+
+   /**
+    * Determine if a character is skipped by SimpleDateFormat before a field.
+    *
+    * @param c character
+    * @return true if this character is skipped
+    */
+   private static boolean isWhitespace(char c)
+   {
+      return c == ' ' || c == '\t';
+   }
+
+   /**
+    * Part of a compiled pattern: either literal text or a field.
+    */
+   private static final class Element
+   {
+      /**
+       * Constructor for literal text.
+       *
+       * @param literal literal text
+       */
+      public Element(String literal)
+      {
+         m_literal = literal;
+         m_type = 0;
+         m_count = 0;
+         m_field = -1;
+      }
+
+      /**
+       * Constructor for a field.
+       *
+       * @param type pattern character
+       * @param count number of pattern characters
+       * @param field Calendar field
+       */
+      public Element(char type, int count, int field)
+      {
+         m_literal = null;
+         m_type = type;
+         m_count = count;
+         m_field = field;
+      }
+
+      /**
+       * Determine if this element is a field which is parsed as a number.
+       *
+       * @return true if this is a numeric field
+       */
+      public boolean isNumeric()
+      {
+         return m_literal == null && m_type != 'E' && m_type != 'a' && !(m_type == 'M' && m_count > 2);
+      }
+
+      final String m_literal;
+      final char m_type;
+      final int m_count;
+      final int m_field;
+   }
+
+   private final Calendar m_calendar;
+   private final Element[] m_elements;
+   private final boolean m_supported;
+   private final String[] m_months;
+   private final String[] m_shortMonths;
+   private final String[] m_weekdays;
+   private final String[] m_shortWeekdays;
+   private final String[] m_amPmStrings;
+   private final Date m_defaultCenturyStart;
+   private final int m_defaultCenturyStartYear;
+   private final int[] m_fields;
+   private final int[] m_values;
+   private String m_exponent;
+   private int m_number;
+   private Date m_result;
+   private int m_index;
+
+   public static final int MATCH = 0;
+   public static final int NO_MATCH = 1;
+   public static final int UNKNOWN = 2;
+
+   private static final int MAX_DIGITS = 9;
+}
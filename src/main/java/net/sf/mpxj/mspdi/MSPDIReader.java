@@ -26,8 +26,11 @@ package net.sf.mpxj.mspdi;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -36,7 +39,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.UnmarshallerHandler;
@@ -44,7 +46,12 @@ import javax.xml.bind.ValidationEvent;
 import javax.xml.bind.ValidationEventHandler;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -91,14 +98,17 @@ import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
 import net.sf.mpxj.common.FieldTypeHelper;
+import net.sf.mpxj.common.JAXBPool;
 import net.sf.mpxj.common.MPPAssignmentField;
 import net.sf.mpxj.common.MPPResourceField;
 import net.sf.mpxj.common.MPPTaskField;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.Pair;
+import net.sf.mpxj.common.SAXParserPool;
 import net.sf.mpxj.common.SplitTaskFactory;
 import net.sf.mpxj.common.TimephasedWorkNormaliser;
 import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.listener.ProjectStreamListener;
 import net.sf.mpxj.mspdi.schema.Project;
 import net.sf.mpxj.mspdi.schema.Project.Calendars.Calendar.WorkWeeks;
 import net.sf.mpxj.mspdi.schema.Project.Calendars.Calendar.WorkWeeks.WorkWeek;
@@ -109,11 +119,12 @@ import net.sf.mpxj.mspdi.schema.Project.Resources.Resource.AvailabilityPeriods.A
 import net.sf.mpxj.mspdi.schema.Project.Resources.Resource.Rates;
 import net.sf.mpxj.mspdi.schema.TimephasedDataType;
 import net.sf.mpxj.reader.AbstractProjectReader;
+import net.sf.mpxj.reader.StreamingProjectReader;
 
 /**
  * This class creates a new ProjectFile instance by reading an MSPDI file.
  */
-public final class MSPDIReader extends AbstractProjectReader
+public final class MSPDIReader extends AbstractProjectReader implements StreamingProjectReader
 {
    /**
     * Sets the character encoding used when reading an MSPDI file.
@@ -168,52 +179,19 @@ public final class MSPDIReader extends AbstractProjectReader
     */
    @Override public ProjectFile read(InputStream stream) throws MPXJException
    {
-      try
+      if (m_streamingInput)
       {
-         m_projectFile = new ProjectFile();
-         m_eventManager = m_projectFile.getEventManager();
-
-         ProjectConfig config = m_projectFile.getProjectConfig();
-         config.setAutoTaskID(false);
-         config.setAutoTaskUniqueID(false);
-         config.setAutoResourceID(false);
-         config.setAutoResourceUniqueID(false);
-         config.setAutoOutlineLevel(false);
-         config.setAutoOutlineNumber(false);
-         config.setAutoWBS(false);
-         config.setAutoCalendarUniqueID(false);
-         config.setAutoAssignmentUniqueID(false);
-
-         m_eventManager.addProjectListeners(m_projectListeners);
-
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-         factory.setNamespaceAware(true);
-         SAXParser saxParser = factory.newSAXParser();
-         XMLReader xmlReader = saxParser.getXMLReader();
+         return read(stream, null);
+      }
 
-         if (CONTEXT == null)
-         {
-            throw CONTEXT_EXCEPTION;
-         }
+      try
+      {
+         ProjectConfig config = initialiseProjectFile();
 
-         DatatypeConverter.setParentFile(m_projectFile);
-         Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+         SAXParser saxParser = SAXParserPool.NAMESPACE_AWARE.borrow();
+         XMLReader xmlReader = saxParser.getXMLReader();
 
-         //
-         // If we are matching the behaviour of MS project, then we need to
-         // ignore validation warnings.
-         //
-         if (m_compatibleInput == true)
-         {
-            unmarshaller.setEventHandler(new ValidationEventHandler()
-            {
-               @Override public boolean handleEvent(ValidationEvent event)
-               {
-                  return (true);
-               }
-            });
-         }
+         Unmarshaller unmarshaller = createUnmarshaller();
 
          XMLFilter filter = new NamespaceFilter();
          filter.setParent(xmlReader);
@@ -221,6 +199,8 @@ public final class MSPDIReader extends AbstractProjectReader
          filter.setContentHandler(unmarshallerHandler);
          filter.parse(new InputSource(new InputStreamReader(stream, getCharset())));
          Project project = (Project) unmarshallerHandler.getResult();
+         POOL.release(unmarshaller);
+         SAXParserPool.NAMESPACE_AWARE.release(saxParser);
 
          HashMap<BigInteger, ProjectCalendar> calendarMap = new HashMap<BigInteger, ProjectCalendar>();
 
@@ -274,6 +254,379 @@ public final class MSPDIReader extends AbstractProjectReader
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(InputStream stream, ProjectStreamListener listener) throws MPXJException
+   {
+      try
+      {
+         ProjectConfig config = initialiseProjectFile();
+         m_eventManager.setProjectStreamListener(listener);
+         Unmarshaller unmarshaller = createUnmarshaller();
+
+         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+         inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+         inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+         XMLStreamReader reader = new NamespaceStreamReader(inputFactory.createXMLStreamReader(new InputStreamReader(stream, getCharset())));
+
+         //
+         // Elements preceding the tasks, resources and assignments
+         // are small, so we buffer them and read them using JAXB as normal.
+         //
+         StringWriter headerBuffer = new StringWriter();
+         XMLStreamWriter headerWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(headerBuffer);
+         headerWriter.writeStartElement("Project");
+
+         HashMap<BigInteger, ProjectCalendar> calendarMap = new HashMap<BigInteger, ProjectCalendar>();
+         Project project = null;
+         boolean structureUpdated = false;
+
+         nextTag(reader);
+         reader.next();
+         while (nextTag(reader) == XMLStreamConstants.START_ELEMENT)
+         {
+            String name = reader.getLocalName();
+            if (name.equals("Tasks") || name.equals("Resources") || name.equals("Assignments"))
+            {
+               if (project == null)
+               {
+                  project = readHeader(inputFactory, unmarshaller, headerWriter, headerBuffer, calendarMap);
+               }
+
+               if (name.equals("Tasks"))
+               {
+                  streamTasks(reader, unmarshaller);
+                  structureUpdated = true;
+               }
+               else
+               {
+                  if (name.equals("Resources"))
+                  {
+                     streamResources(reader, unmarshaller, calendarMap);
+                  }
+                  else
+                  {
+                     if (!structureUpdated)
+                     {
+                        m_projectFile.updateStructure();
+                        structureUpdated = true;
+                     }
+                     streamAssignments(reader, unmarshaller);
+                  }
+               }
+            }
+            else
+            {
+               copyElement(reader, headerWriter);
+            }
+         }
+
+         if (project == null)
+         {
+            project = readHeader(inputFactory, unmarshaller, headerWriter, headerBuffer, calendarMap);
+         }
+         POOL.release(unmarshaller);
+
+         if (!structureUpdated)
+         {
+            m_projectFile.updateStructure();
+         }
+
+         config.updateUniqueCounters();
+
+         ProjectCalendar defaultCalendar = calendarMap.get(project.getCalendarUID());
+         if (defaultCalendar != null)
+         {
+            m_projectFile.getProjectProperties().setDefaultCalendarName(defaultCalendar.getName());
+         }
+
+         return (m_projectFile);
+      }
+
+      catch (JAXBException ex)
+      {
+         throw new MPXJException("Failed to parse file", ex);
+      }
+
+      catch (XMLStreamException ex)
+      {
+         throw new MPXJException("Failed to parse file", ex);
+      }
+
+      finally
+      {
+         if (m_projectFile != null)
+         {
+            m_eventManager.setProjectStreamListener(null);
+         }
+         m_projectFile = null;
+      }
+   }
+
+   /**
+    * Create and configure the ProjectFile instance which will
+    * be populated by this reader.
+    *
+    * @return project configuration
+    */
+   private ProjectConfig initialiseProjectFile()
+   {
+      m_projectFile = createProjectFile();
+      m_eventManager = m_projectFile.getEventManager();
+
+      ProjectConfig config = m_projectFile.getProjectConfig();
+      config.setAutoTaskID(false);
+      config.setAutoTaskUniqueID(false);
+      config.setAutoResourceID(false);
+      config.setAutoResourceUniqueID(false);
+      config.setAutoOutlineLevel(false);
+      config.setAutoOutlineNumber(false);
+      config.setAutoWBS(false);
+      config.setAutoCalendarUniqueID(false);
+      config.setAutoAssignmentUniqueID(false);
+
+      m_eventManager.addProjectListeners(m_projectListeners);
+
+      return config;
+   }
+
+   /**
+    * Retrieve an Unmarshaller instance from the pool and configure it.
+    *
+    * @return Unmarshaller instance
+    */
+   private Unmarshaller createUnmarshaller() throws JAXBException
+   {
+      if (POOL == null)
+      {
+         throw POOL_EXCEPTION;
+      }
+
+      DatatypeConverter.setParentFile(m_projectFile);
+      Unmarshaller unmarshaller = POOL.borrowUnmarshaller();
+
+      //
+      // If we are matching the behaviour of MS project, then we need to
+      // ignore validation warnings.
+      //
+      if (m_compatibleInput == true)
+      {
+         unmarshaller.setEventHandler(new ValidationEventHandler()
+         {
+            @Override public boolean handleEvent(ValidationEvent event)
+            {
+               return (true);
+            }
+         });
+      }
+
+      return unmarshaller;
+   }
+
+   /**
+    * Read the buffered project header elements, and populate the
+    * project properties, custom field definitions and calendars.
+    *
+    * @param inputFactory XML input factory
+    * @param unmarshaller Unmarshaller instance
+    * @param headerWriter writer used to buffer the header elements
+    * @param headerBuffer buffered header elements
+    * @param calendarMap map of calendar UIDs to calendars
+    * @return Project instance containing the header elements
+    */
+   private Project readHeader(XMLInputFactory inputFactory, Unmarshaller unmarshaller, XMLStreamWriter headerWriter, StringWriter headerBuffer, HashMap<BigInteger, ProjectCalendar> calendarMap) throws XMLStreamException, JAXBException
+   {
+      headerWriter.writeEndElement();
+      headerWriter.close();
+
+      XMLStreamReader headerReader = new NamespaceStreamReader(inputFactory.createXMLStreamReader(new StringReader(headerBuffer.toString())));
+      Project project = unmarshaller.unmarshal(headerReader, Project.class).getValue();
+      headerReader.close();
+
+      readProjectProperties(project);
+      readProjectExtendedAttributes(project);
+      readCalendars(project, calendarMap);
+
+      return project;
+   }
+
+   /**
+    * Read each task in turn, passing it to the stream listener.
+    *
+    * @param reader XML reader positioned at the Tasks element
+    * @param unmarshaller Unmarshaller instance
+    */
+   private void streamTasks(XMLStreamReader reader, Unmarshaller unmarshaller) throws XMLStreamException, JAXBException
+   {
+      int taskCount = 0;
+      int tasksWithoutIDCount = 0;
+      List<Pair<Task, List<Project.Tasks.Task.PredecessorLink>>> predecessors = new ArrayList<Pair<Task, List<Project.Tasks.Task.PredecessorLink>>>();
+
+      reader.next();
+      while (nextTag(reader) == XMLStreamConstants.START_ELEMENT)
+      {
+         Project.Tasks.Task xml = unmarshaller.unmarshal(reader, Project.Tasks.Task.class).getValue();
+         Task task = readTask(xml);
+         ++taskCount;
+         if (task.getID() == null)
+         {
+            ++tasksWithoutIDCount;
+         }
+
+         if (m_eventManager.fireTaskStreamEvent(task))
+         {
+            if (!xml.getPredecessorLink().isEmpty())
+            {
+               predecessors.add(new Pair<Task, List<Project.Tasks.Task.PredecessorLink>>(task, xml.getPredecessorLink()));
+            }
+         }
+         else
+         {
+            m_projectFile.removeTask(task);
+         }
+      }
+      reader.next();
+
+      for (Pair<Task, List<Project.Tasks.Task.PredecessorLink>> pair : predecessors)
+      {
+         for (Project.Tasks.Task.PredecessorLink link : pair.getSecond())
+         {
+            readPredecessor(pair.getFirst(), link);
+         }
+      }
+
+      if (tasksWithoutIDCount == taskCount)
+      {
+         m_projectFile.getTasks().renumberIDs();
+      }
+
+      m_projectFile.updateStructure();
+   }
+
+   /**
+    * Read each resource in turn, passing it to the stream listener.
+    *
+    * @param reader XML reader positioned at the Resources element
+    * @param unmarshaller Unmarshaller instance
+    * @param calendarMap map of calendar UIDs to calendars
+    */
+   private void streamResources(XMLStreamReader reader, Unmarshaller unmarshaller, HashMap<BigInteger, ProjectCalendar> calendarMap) throws XMLStreamException, JAXBException
+   {
+      reader.next();
+      while (nextTag(reader) == XMLStreamConstants.START_ELEMENT)
+      {
+         Project.Resources.Resource xml = unmarshaller.unmarshal(reader, Project.Resources.Resource.class).getValue();
+         Resource resource = readResource(xml, calendarMap);
+         if (!m_eventManager.fireResourceStreamEvent(resource))
+         {
+            m_projectFile.removeResource(resource);
+            m_droppedResources.add(resource.getUniqueID());
+         }
+      }
+      reader.next();
+   }
+
+   /**
+    * Read each assignment in turn, passing it to the stream listener.
+    * Assignments are ignored if their resource has been discarded.
+    *
+    * @param reader XML reader positioned at the Assignments element
+    * @param unmarshaller Unmarshaller instance
+    */
+   private void streamAssignments(XMLStreamReader reader, Unmarshaller unmarshaller) throws XMLStreamException, JAXBException
+   {
+      SplitTaskFactory splitFactory = new SplitTaskFactory();
+      TimephasedWorkNormaliser normaliser = new MSPDITimephasedWorkNormaliser();
+      TimephasedDataStreamReader timephasedReader = new TimephasedDataStreamReader(reader);
+
+      reader.next();
+      while (nextTag(reader) == XMLStreamConstants.START_ELEMENT)
+      {
+         Project.Assignments.Assignment xml = unmarshaller.unmarshal(timephasedReader, Project.Assignments.Assignment.class).getValue();
+         xml.getTimephasedData().addAll(timephasedReader.getTimephasedData());
+         BigInteger resourceUID = xml.getResourceUID();
+         if (resourceUID != null && m_droppedResources.contains(Integer.valueOf(resourceUID.intValue())))
+         {
+            continue;
+         }
+
+         ResourceAssignment assignment = readAssignment(xml, splitFactory, normaliser);
+         if (assignment != null && !m_eventManager.fireAssignmentStreamEvent(assignment))
+         {
+            assignment.remove();
+         }
+      }
+      reader.next();
+      m_droppedResources.clear();
+   }
+
+   /**
+    * Skip any content which is not a start or end element.
+    *
+    * @param reader XML reader
+    * @return current event type
+    */
+   private int nextTag(XMLStreamReader reader) throws XMLStreamException
+   {
+      int event = reader.getEventType();
+      while (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT && event != XMLStreamConstants.END_DOCUMENT)
+      {
+         event = reader.next();
+      }
+      return event;
+   }
+
+   /**
+    * Copy the current element and its content to the writer,
+    * leaving the reader positioned after the end of the element.
+    *
+    * @param reader XML reader positioned at a start element
+    * @param writer XML writer
+    */
+   private void copyElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException
+   {
+      int depth = 0;
+      do
+      {
+         switch (reader.getEventType())
+         {
+            case XMLStreamConstants.START_ELEMENT:
+            {
+               writer.writeStartElement(reader.getLocalName());
+               for (int index = 0; index < reader.getAttributeCount(); index++)
+               {
+                  writer.writeAttribute(reader.getAttributeLocalName(index), reader.getAttributeValue(index));
+               }
+               ++depth;
+               break;
+            }
+
+            case XMLStreamConstants.END_ELEMENT:
+            {
+               writer.writeEndElement();
+               --depth;
+               break;
+            }
+
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+            {
+               writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+               break;
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+         reader.next();
+      }
+      while (depth != 0);
+   }
+
    /**
     * This method extracts project properties from an MSPDI file.
     *
@@ -875,8 +1228,9 @@ public final class MSPDIReader extends AbstractProjectReader
     *
     * @param xml Resource data
     * @param calendarMap Map of calendar UIDs to names
+    * @return Resource instance
     */
-   private void readResource(Project.Resources.Resource xml, HashMap<BigInteger, ProjectCalendar> calendarMap)
+   private Resource readResource(Project.Resources.Resource xml, HashMap<BigInteger, ProjectCalendar> calendarMap)
    {
       Resource mpx = m_projectFile.addResource();
 
@@ -967,6 +1321,8 @@ public final class MSPDIReader extends AbstractProjectReader
       readAvailabilityTable(mpx, xml.getAvailabilityPeriods());
 
       m_eventManager.fireResourceReadEvent(mpx);
+
+      return mpx;
    }
 
    /**
@@ -1547,6 +1903,10 @@ public final class MSPDIReader extends AbstractProjectReader
 
             Relation relation = currTask.addPredecessor(prevTask, type, lagDuration);
             m_eventManager.fireRelationReadEvent(relation);
+            if (!m_eventManager.fireRelationStreamEvent(relation))
+            {
+               currTask.removePredecessor(prevTask, type, lagDuration);
+            }
          }
       }
    }
@@ -1576,9 +1936,11 @@ public final class MSPDIReader extends AbstractProjectReader
     * @param assignment Assignment data
     * @param splitFactory split task handling
     * @param normaliser timephased resource assignment normaliser
+    * @return ResourceAssignment instance, or null if no assignment was created
     */
-   private void readAssignment(Project.Assignments.Assignment assignment, SplitTaskFactory splitFactory, TimephasedWorkNormaliser normaliser)
+   private ResourceAssignment readAssignment(Project.Assignments.Assignment assignment, SplitTaskFactory splitFactory, TimephasedWorkNormaliser normaliser)
    {
+      ResourceAssignment result = null;
       BigInteger taskUID = assignment.getTaskUID();
       BigInteger resourceUID = assignment.getResourceUID();
       if (taskUID != null && resourceUID != null)
@@ -1676,8 +2038,10 @@ public final class MSPDIReader extends AbstractProjectReader
             mpx.setFinishVariance(DatatypeConverter.parseDurationInTenthsOfMinutes(m_projectFile.getProjectProperties(), assignment.getFinishVariance(), TimeUnit.DAYS));
 
             m_eventManager.fireAssignmentReadEvent(mpx);
+            result = mpx;
          }
       }
+      return result;
    }
 
    /**
@@ -1837,43 +2201,63 @@ public final class MSPDIReader extends AbstractProjectReader
    }
 
    /**
-    * Cached context to minimise construction cost.
+    * Sets a flag indicating that the file will be read using a StAX
+    * parser, with tasks, resources and assignments unmarshalled and
+    * converted one at a time, rather than unmarshalling the whole
+    * document before it is converted. Timephased data is read directly
+    * from the stream without using JAXB. This significantly reduces
+    * the memory required to read large files.
+    *
+    * @param flag streaming input flag
+    */
+   public void setStreamingInput(boolean flag)
+   {
+      m_streamingInput = flag;
+   }
+
+   /**
+    * Retrieves a flag indicating that the file will be read using
+    * a StAX parser.
+    *
+    * @return streaming input flag
+    */
+   public boolean getStreamingInput()
+   {
+      return m_streamingInput;
+   }
+
+   /**
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.mspdi.schema", MSPDIReader.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.mspdi.schema", MSPDIReader.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 
    private boolean m_compatibleInput = true;
+   private boolean m_streamingInput;
    private String m_encoding;
    private Charset m_charset;
    private ProjectFile m_projectFile;
    private EventManager m_eventManager;
    private List<ProjectListener> m_projectListeners;
+   private final Set<Integer> m_droppedResources = new HashSet<Integer>();
 
    private static final RecurrenceType[] RECURRENCE_TYPES =
    {
@@ -37,9 +37,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import net.sf.mpxj.AccrueType;
 import net.sf.mpxj.AssignmentField;
@@ -77,6 +81,7 @@ import net.sf.mpxj.TimephasedWork;
 import net.sf.mpxj.common.AssignmentFieldLists;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.FieldTypeHelper;
+import net.sf.mpxj.common.JAXBPool;
 import net.sf.mpxj.common.MPPAssignmentField;
 import net.sf.mpxj.common.MPPResourceField;
 import net.sf.mpxj.common.MPPTaskField;
@@ -165,6 +170,32 @@ public final class MSPDIWriter extends AbstractProjectWriter
       return m_saveVersion;
    }
 
+   /**
+    * Sets a flag indicating that the file will be written using a StAX
+    * writer, with tasks, resources and assignments converted and written
+    * one at a time, rather than building the complete document before
+    * it is written. This significantly reduces the memory required to
+    * write large projects. Note that the output is not indented when
+    * this option is used.
+    *
+    * @param flag streaming output flag
+    */
+   public void setStreamingOutput(boolean flag)
+   {
+      m_streamingOutput = flag;
+   }
+
+   /**
+    * Retrieves a flag indicating that the file will be written using
+    * a StAX writer.
+    *
+    * @return streaming output flag
+    */
+   public boolean getStreamingOutput()
+   {
+      return m_streamingOutput;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -172,9 +203,9 @@ public final class MSPDIWriter extends AbstractProjectWriter
    {
       try
       {
-         if (CONTEXT == null)
+         if (POOL == null)
          {
-            throw CONTEXT_EXCEPTION;
+            throw POOL_EXCEPTION;
          }
 
          m_projectFile = projectFile;
@@ -182,8 +213,7 @@ public final class MSPDIWriter extends AbstractProjectWriter
          m_eventManager = m_projectFile.getEventManager();
          DatatypeConverter.setParentFile(m_projectFile);
 
-         Marshaller marshaller = CONTEXT.createMarshaller();
-         marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+         Marshaller marshaller = POOL.borrowMarshaller();
 
          m_extendedAttributesInUse = new HashSet<FieldType>();
 
@@ -192,12 +222,23 @@ public final class MSPDIWriter extends AbstractProjectWriter
 
          writeProjectProperties(project);
          writeCalendars(project);
-         writeResources(project);
-         writeTasks(project);
-         writeAssignments(project);
-         writeProjectExtendedAttributes(project);
 
-         marshaller.marshal(project, stream);
+         if (m_streamingOutput)
+         {
+            streamProject(project, marshaller, stream);
+         }
+         else
+         {
+            writeResources(project);
+            writeTasks(project);
+            writeAssignments(project);
+            writeProjectExtendedAttributes(project);
+
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.marshal(project, stream);
+         }
+
+         POOL.release(marshaller);
       }
 
       catch (JAXBException ex)
@@ -205,6 +246,11 @@ public final class MSPDIWriter extends AbstractProjectWriter
          throw new IOException(ex.toString());
       }
 
+      catch (XMLStreamException ex)
+      {
+         throw new IOException(ex.toString());
+      }
+
       finally
       {
          m_projectFile = null;
@@ -213,6 +259,104 @@ public final class MSPDIWriter extends AbstractProjectWriter
       }
    }
 
+   /**
+    * Write the project using a StAX writer. The header elements are
+    * written by JAXB as normal, then each task, resource and assignment
+    * is converted and written in turn.
+    *
+    * @param project Root node of the MSPDI file, populated with the header elements
+    * @param marshaller Marshaller instance
+    * @param stream output stream
+    */
+   private void streamProject(Project project, Marshaller marshaller, OutputStream stream) throws JAXBException, XMLStreamException
+   {
+      //
+      // The extended attribute definitions precede the tasks, resources
+      // and assignments, so we need to know which attributes are in use
+      // before we write anything.
+      //
+      findExtendedAttributesInUse();
+      writeProjectExtendedAttributes(project);
+
+      marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(stream, "UTF-8");
+      writer.writeStartDocument("UTF-8", "1.0");
+      marshaller.marshal(project, new ProjectHeaderStreamWriter(writer));
+
+      writer.writeStartElement("Tasks");
+      for (Task task : m_projectFile.getTasks())
+      {
+         marshaller.marshal(new JAXBElement<Project.Tasks.Task>(TASK_NAME, Project.Tasks.Task.class, writeTask(task)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeStartElement("Resources");
+      for (Resource resource : m_projectFile.getResources())
+      {
+         marshaller.marshal(new JAXBElement<Project.Resources.Resource>(RESOURCE_NAME, Project.Resources.Resource.class, writeResource(resource)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeStartElement("Assignments");
+      for (ResourceAssignment assignment : m_projectFile.getResourceAssignments())
+      {
+         marshaller.marshal(new JAXBElement<Project.Assignments.Assignment>(ASSIGNMENT_NAME, Project.Assignments.Assignment.class, writeAssignment(assignment)), writer);
+      }
+
+      for (ResourceAssignment assignment : createDummyAssignments())
+      {
+         marshaller.marshal(new JAXBElement<Project.Assignments.Assignment>(ASSIGNMENT_NAME, Project.Assignments.Assignment.class, writeAssignment(assignment)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.close();
+   }
+
+   /**
+    * Populate the set of extended attributes in use by tasks,
+    * resources and assignments.
+    */
+   private void findExtendedAttributesInUse()
+   {
+      List<TaskField> taskFields = getAllTaskExtendedAttributes();
+      for (Task task : m_projectFile.getTasks())
+      {
+         for (TaskField field : taskFields)
+         {
+            if (FieldTypeHelper.valueIsNotDefault(field, task.getCachedValue(field)))
+            {
+               m_extendedAttributesInUse.add(field);
+            }
+         }
+      }
+
+      List<ResourceField> resourceFields = getAllResourceExtendedAttributes();
+      for (Resource resource : m_projectFile.getResources())
+      {
+         for (ResourceField field : resourceFields)
+         {
+            if (FieldTypeHelper.valueIsNotDefault(field, resource.getCachedValue(field)))
+            {
+               m_extendedAttributesInUse.add(field);
+            }
+         }
+      }
+
+      List<AssignmentField> assignmentFields = getAllAssignmentExtendedAttributes();
+      for (ResourceAssignment assignment : m_projectFile.getResourceAssignments())
+      {
+         for (AssignmentField field : assignmentFields)
+         {
+            if (FieldTypeHelper.valueIsNotDefault(field, assignment.getCachedValue(field)))
+            {
+               m_extendedAttributesInUse.add(field);
+            }
+         }
+      }
+   }
+
    /**
     * This method writes project properties to an MSPDI file.
     *
@@ -1460,6 +1604,22 @@ public final class MSPDIWriter extends AbstractProjectWriter
          list.add(writeAssignment(assignment));
       }
 
+      for (ResourceAssignment assignment : createDummyAssignments())
+      {
+         list.add(writeAssignment(assignment));
+      }
+   }
+
+   /**
+    * Create the dummy resource assignments required by tasks with a
+    * percent complete value but no resource assignments.
+    *
+    * @return list of dummy resource assignments
+    */
+   private List<ResourceAssignment> createDummyAssignments()
+   {
+      List<ResourceAssignment> result = new ArrayList<ResourceAssignment>();
+
       //
       // Check to see if we have any tasks that have a percent complete value
       // but do not have resource assignments. If any exist, then we must
@@ -1500,11 +1660,13 @@ public final class MSPDIWriter extends AbstractProjectWriter
                dummy.setActualFinish(task.getActualStart());
             }
             
-            list.add(writeAssignment(dummy));
+            result.add(dummy);
          }
       }
 
       config.setAutoAssignmentUniqueID(autoUniqueID);
+
+      return result;
    }
 
    /**
@@ -2021,34 +2183,26 @@ public final class MSPDIWriter extends AbstractProjectWriter
    }
 
    /**
-    * Cached context to minimise construction cost.
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.mspdi.schema", MSPDIWriter.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.mspdi.schema", MSPDIWriter.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 
@@ -2079,9 +2233,19 @@ public final class MSPDIWriter extends AbstractProjectWriter
 
    private SaveVersion m_saveVersion = SaveVersion.Project2016;
 
+   private boolean m_streamingOutput;
+
    private static final BigInteger BIGINTEGER_ZERO = BigInteger.valueOf(0);
 
    private static final Integer NULL_RESOURCE_ID = Integer.valueOf(-65535);
 
    private static final BigInteger NULL_CALENDAR_ID = BigInteger.valueOf(-1);
+
+   private static final String NAMESPACE = "http://schemas.microsoft.com/project";
+
+   private static final QName TASK_NAME = new QName(NAMESPACE, "Task");
+
+   private static final QName RESOURCE_NAME = new QName(NAMESPACE, "Resource");
+
+   private static final QName ASSIGNMENT_NAME = new QName(NAMESPACE, "Assignment");
 }
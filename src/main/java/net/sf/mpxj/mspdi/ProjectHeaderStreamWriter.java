@@ -0,0 +1,217 @@
+/*
+ * file:       ProjectHeaderStreamWriter.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mspdi;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * This class passes calls through to another XMLStreamWriter instance,
+ * except for those which would close the root element or end the document.
+ * This allows JAXB to write the project header elements, leaving the
+ * Project element open so that tasks, resources and assignments can be
+ * written to it one at a time.
+ */
+class ProjectHeaderStreamWriter implements XMLStreamWriter
+{
+   /**
+    * Constructor.
+    *
+    * @param writer writer to wrap
+    */
+   public ProjectHeaderStreamWriter(XMLStreamWriter writer)
+   {
+      m_writer = writer;
+   }
+
+   @Override public void writeStartElement(String localName) throws XMLStreamException
+   {
+      ++m_depth;
+      m_writer.writeStartElement(localName);
+   }
+
+   @Override public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException
+   {
+      ++m_depth;
+      m_writer.writeStartElement(namespaceURI, localName);
+   }
+
+   @Override public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException
+   {
+      ++m_depth;
+      m_writer.writeStartElement(prefix, localName, namespaceURI);
+   }
+
+   @Override public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException
+   {
+      m_writer.writeEmptyElement(namespaceURI, localName);
+   }
+
+   @Override public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException
+   {
+      m_writer.writeEmptyElement(prefix, localName, namespaceURI);
+   }
+
+   @Override public void writeEmptyElement(String localName) throws XMLStreamException
+   {
+      m_writer.writeEmptyElement(localName);
+   }
+
+   @Override public void writeEndElement() throws XMLStreamException
+   {
+      if (--m_depth != 0)
+      {
+         m_writer.writeEndElement();
+      }
+   }
+
+   @Override public void writeEndDocument()
+   {
+      // The document is ended by the caller
+   }
+
+   @Override public void close()
+   {
+      // The underlying writer is closed by the caller
+   }
+
+   @Override public void flush() throws XMLStreamException
+   {
+      m_writer.flush();
+   }
+
+   @Override public void writeAttribute(String localName, String value) throws XMLStreamException
+   {
+      m_writer.writeAttribute(localName, value);
+   }
+
+   @Override public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException
+   {
+      m_writer.writeAttribute(prefix, namespaceURI, localName, value);
+   }
+
+   @Override public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException
+   {
+      m_writer.writeAttribute(namespaceURI, localName, value);
+   }
+
+   @Override public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException
+   {
+      m_writer.writeNamespace(prefix, namespaceURI);
+   }
+
+   @Override public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException
+   {
+      m_writer.writeDefaultNamespace(namespaceURI);
+   }
+
+   @Override public void writeComment(String data) throws XMLStreamException
+   {
+      m_writer.writeComment(data);
+   }
+
+   @Override public void writeProcessingInstruction(String target) throws XMLStreamException
+   {
+      m_writer.writeProcessingInstruction(target);
+   }
+
+   @Override public void writeProcessingInstruction(String target, String data) throws XMLStreamException
+   {
+      m_writer.writeProcessingInstruction(target, data);
+   }
+
+   @Override public void writeCData(String data) throws XMLStreamException
+   {
+      m_writer.writeCData(data);
+   }
+
+   @Override public void writeDTD(String dtd) throws XMLStreamException
+   {
+      m_writer.writeDTD(dtd);
+   }
+
+   @Override public void writeEntityRef(String name) throws XMLStreamException
+   {
+      m_writer.writeEntityRef(name);
+   }
+
+   @Override public void writeStartDocument() throws XMLStreamException
+   {
+      m_writer.writeStartDocument();
+   }
+
+   @Override public void writeStartDocument(String version) throws XMLStreamException
+   {
+      m_writer.writeStartDocument(version);
+   }
+
+   @Override public void writeStartDocument(String encoding, String version) throws XMLStreamException
+   {
+      m_writer.writeStartDocument(encoding, version);
+   }
+
+   @Override public void writeCharacters(String text) throws XMLStreamException
+   {
+      m_writer.writeCharacters(text);
+   }
+
+   @Override public void writeCharacters(char[] text, int start, int len) throws XMLStreamException
+   {
+      m_writer.writeCharacters(text, start, len);
+   }
+
+   @Override public String getPrefix(String uri) throws XMLStreamException
+   {
+      return m_writer.getPrefix(uri);
+   }
+
+   @Override public void setPrefix(String prefix, String uri) throws XMLStreamException
+   {
+      m_writer.setPrefix(prefix, uri);
+   }
+
+   @Override public void setDefaultNamespace(String uri) throws XMLStreamException
+   {
+      m_writer.setDefaultNamespace(uri);
+   }
+
+   @Override public void setNamespaceContext(NamespaceContext context) throws XMLStreamException
+   {
+      m_writer.setNamespaceContext(context);
+   }
+
+   @Override public NamespaceContext getNamespaceContext()
+   {
+      return m_writer.getNamespaceContext();
+   }
+
+   @Override public Object getProperty(String name)
+   {
+      return m_writer.getProperty(name);
+   }
+
+   private final XMLStreamWriter m_writer;
+   private int m_depth;
+}
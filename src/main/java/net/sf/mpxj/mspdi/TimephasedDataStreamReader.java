@@ -0,0 +1,205 @@
+/*
+ * file:       TimephasedDataStreamReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mspdi;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import net.sf.mpxj.mspdi.schema.TimephasedDataType;
+
+/**
+ * Timephased data typically makes up the bulk of a large MSPDI file.
+ * This class reads TimephasedData elements directly from the underlying
+ * stream, hiding them from JAXB, so that the cost of unmarshalling
+ * each of these small elements is avoided. The elements read are
+ * retained until they are retrieved by the caller.
+ */
+class TimephasedDataStreamReader extends StreamReaderDelegate
+{
+   /**
+    * Constructor.
+    *
+    * @param reader reader to wrap
+    */
+   public TimephasedDataStreamReader(XMLStreamReader reader)
+   {
+      super(reader);
+   }
+
+   @Override public int next() throws XMLStreamException
+   {
+      int event = super.next();
+      while (event == XMLStreamConstants.START_ELEMENT && getLocalName().equals(TIMEPHASED_DATA))
+      {
+         readTimephasedData();
+         event = super.next();
+      }
+      return event;
+   }
+
+   /**
+    * Retrieve the timephased data read since this method was last called.
+    *
+    * @return list of timephased data
+    */
+   public List<TimephasedDataType> getTimephasedData()
+   {
+      List<TimephasedDataType> result = m_timephasedData;
+      m_timephasedData = new ArrayList<TimephasedDataType>();
+      return result;
+   }
+
+   /**
+    * Read a single TimephasedData element, leaving the reader
+    * positioned at its end element.
+    */
+   private void readTimephasedData() throws XMLStreamException
+   {
+      TimephasedDataType item = new TimephasedDataType();
+
+      while (nextElement() == XMLStreamConstants.START_ELEMENT)
+      {
+         String name = getLocalName();
+         if (name.equals("Type"))
+         {
+            item.setType(parseInteger(getElementText()));
+         }
+         else
+         {
+            if (name.equals("UID"))
+            {
+               item.setUID(parseInteger(getElementText()));
+            }
+            else
+            {
+               if (name.equals("Start"))
+               {
+                  item.setStart(DatatypeConverter.parseDateTime(getElementText()));
+               }
+               else
+               {
+                  if (name.equals("Finish"))
+                  {
+                     item.setFinish(DatatypeConverter.parseDateTime(getElementText()));
+                  }
+                  else
+                  {
+                     if (name.equals("Unit"))
+                     {
+                        item.setUnit(parseInteger(getElementText()));
+                     }
+                     else
+                     {
+                        if (name.equals("Value"))
+                        {
+                           item.setValue(getElementText());
+                        }
+                        else
+                        {
+                           skipElement();
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+
+      m_timephasedData.add(item);
+   }
+
+   /**
+    * Move to the next start or end element.
+    *
+    * @return current event type
+    */
+   private int nextElement() throws XMLStreamException
+   {
+      int event = super.next();
+      while (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT)
+      {
+         event = super.next();
+      }
+      return event;
+   }
+
+   /**
+    * Skip an element we're not interested in, leaving the reader
+    * positioned at its end element.
+    */
+   private void skipElement() throws XMLStreamException
+   {
+      int depth = 1;
+      while (depth != 0)
+      {
+         if (nextElement() == XMLStreamConstants.START_ELEMENT)
+         {
+            ++depth;
+         }
+         else
+         {
+            --depth;
+         }
+      }
+   }
+
+   /**
+    * Parse an integer value in the same way as JAXB,
+    * an invalid value is ignored.
+    *
+    * @param value string value
+    * @return BigInteger instance or null
+    */
+   private BigInteger parseInteger(String value)
+   {
+      BigInteger result = null;
+      String text = value.trim();
+      if (text.startsWith("+"))
+      {
+         text = text.substring(1);
+      }
+
+      try
+      {
+         result = new BigInteger(text);
+      }
+
+      catch (NumberFormatException ex)
+      {
+         // Ignore invalid values
+      }
+
+      return result;
+   }
+
+   private List<TimephasedDataType> m_timephasedData = new ArrayList<TimephasedDataType>();
+
+   private static final String TIMEPHASED_DATA = "TimephasedData";
+}
@@ -34,12 +34,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
 
 import org.xml.sax.InputSource;
@@ -65,7 +63,9 @@ import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.AlphanumComparator;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.JAXBPool;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.SAXParserPool;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.phoenix.schema.Project;
 import net.sf.mpxj.phoenix.schema.Project.Layouts.Layout;
@@ -108,7 +108,7 @@ public final class PhoenixReader extends AbstractProjectReader
    {
       try
       {
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_activityMap = new HashMap<String, Task>();
          m_activityCodeValues = new HashMap<UUID, String>();
          m_activityCodeSequence = new HashMap<UUID, Integer>();
@@ -130,19 +130,21 @@ public final class PhoenixReader extends AbstractProjectReader
 
          m_eventManager.addProjectListeners(m_projectListeners);
 
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         SAXParser saxParser = factory.newSAXParser();
+         SAXParser saxParser = SAXParserPool.DEFAULT.borrow();
          XMLReader xmlReader = saxParser.getXMLReader();
          SAXSource doc = new SAXSource(xmlReader, new InputSource(new SkipNulInputStream(stream)));
 
-         if (CONTEXT == null)
+         if (POOL == null)
          {
-            throw CONTEXT_EXCEPTION;
+            throw POOL_EXCEPTION;
          }
 
-         Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+         Unmarshaller unmarshaller = POOL.borrowUnmarshaller();
 
          Project phoenixProject = (Project) unmarshaller.unmarshal(doc);
+         POOL.release(unmarshaller);
+         SAXParserPool.DEFAULT.release(saxParser);
+
          Storepoint storepoint = getCurrentStorepoint(phoenixProject);
          readProjectProperties(phoenixProject.getSettings(), storepoint);
          readCalendars(storepoint);
@@ -822,34 +824,26 @@ public final class PhoenixReader extends AbstractProjectReader
    List<UUID> m_codeSequence;
 
    /**
-    * Cached context to minimise construction cost.
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.phoenix.schema", PhoenixReader.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.phoenix.schema", PhoenixReader.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 }
@@ -0,0 +1,287 @@
+/*
+ * file:       AbstractRow.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       08/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.primavera;
+
+import java.util.Date;
+import java.util.UUID;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.BooleanHelper;
+import net.sf.mpxj.common.NumberHelper;
+
+/**
+ * Implementation of the typed accessors defined by the Row interface.
+ * Sub classes determine how the underlying values are stored.
+ */
+abstract class AbstractRow implements Row
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final String getString(String name)
+   {
+      return asString(getObject(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final String getString(int ordinal)
+   {
+      return asString(getObject(ordinal));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Integer getInteger(String name)
+   {
+      return asInteger(getObject(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Integer getInteger(int ordinal)
+   {
+      return asInteger(getObject(ordinal));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Double getDouble(String name)
+   {
+      return asDouble(getObject(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Double getDouble(int ordinal)
+   {
+      return asDouble(getObject(ordinal));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final boolean getBoolean(String name)
+   {
+      return asBoolean(getObject(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final boolean getBoolean(int ordinal)
+   {
+      return asBoolean(getObject(ordinal));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int getInt(String name)
+   {
+      return (NumberHelper.getInt((Number) getObject(name)));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int getInt(int ordinal)
+   {
+      return (NumberHelper.getInt((Number) getObject(ordinal)));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Date getDate(String name)
+   {
+      return ((Date) getObject(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Date getDate(int ordinal)
+   {
+      return ((Date) getObject(ordinal));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Duration getDuration(String name)
+   {
+      return (Duration.getInstance(NumberHelper.getDouble(getDouble(name)), TimeUnit.HOURS));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final Duration getDuration(int ordinal)
+   {
+      return (Duration.getInstance(NumberHelper.getDouble(getDouble(ordinal)), TimeUnit.HOURS));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final UUID getUUID(String name)
+   {
+      return DatatypeConverter.parseUUID(getString(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final UUID getUUID(int ordinal)
+   {
+      return DatatypeConverter.parseUUID(getString(ordinal));
+   }
+
+   /**
+    * Retrieve a value from the row.
+    *
+    * @param name column name
+    * @return column value
+    */
+   protected abstract Object getObject(String name);
+
+   /**
+    * Retrieve a value from the row.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return column value
+    */
+   protected abstract Object getObject(int ordinal);
+
+   /**
+    * Convert a column value to a String.
+    *
+    * @param value column value
+    * @return String value
+    */
+   private final String asString(Object value)
+   {
+      String result;
+      if (value instanceof byte[])
+      {
+         result = new String((byte[]) value);
+      }
+      else
+      {
+         result = (String) value;
+      }
+      return (result);
+   }
+
+   /**
+    * Convert a column value to an Integer.
+    *
+    * @param value column value
+    * @return Integer value
+    */
+   private final Integer asInteger(Object value)
+   {
+      Object result = value;
+      if (result != null)
+      {
+         if (result instanceof Integer == false)
+         {
+            result = Integer.valueOf(((Number) result).intValue());
+         }
+      }
+      return ((Integer) result);
+   }
+
+   /**
+    * Convert a column value to a Double.
+    *
+    * @param value column value
+    * @return Double value
+    */
+   private final Double asDouble(Object value)
+   {
+      Object result = value;
+      if (result != null)
+      {
+         if (result instanceof Double == false)
+         {
+            result = Double.valueOf(((Number) result).doubleValue());
+         }
+      }
+      return ((Double) result);
+   }
+
+   /**
+    * Convert a column value to a boolean.
+    *
+    * @param value column value
+    * @return boolean value
+    */
+   private final boolean asBoolean(Object value)
+   {
+      boolean result = false;
+      if (value != null)
+      {
+         if (value instanceof Boolean)
+         {
+            result = BooleanHelper.getBoolean((Boolean) value);
+         }
+         else
+         {
+            if (value instanceof Number)
+            {
+               // generally all non-zero numbers are treated as truthy
+               result = ((Number) value).doubleValue() != 0.0;
+            }
+            else
+            {
+               if (value instanceof String)
+               {
+                  result = parseBoolean((String) value);
+               }
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Parse a string representation of a Boolean value.
+    * XER files sometimes have "N" and "Y" to indicate boolean
+    *
+    * @param value string representation
+    * @return Boolean value
+    */
+   private final boolean parseBoolean(String value)
+   {
+      return value != null && (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("y") || value.equalsIgnoreCase("yes"));
+   }
+}
@@ -0,0 +1,89 @@
+/*
+ * file:       ColumnarRow.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.primavera;
+
+import net.sf.mpxj.common.ColumnarTable;
+import net.sf.mpxj.common.TableSchema;
+
+/**
+ * Implementation of the Row interface which represents a single row
+ * held in a ColumnarTable.
+ */
+class ColumnarRow extends AbstractRow
+{
+   /**
+    * Constructor.
+    *
+    * @param table parent table
+    * @param row row index
+    */
+   public ColumnarRow(ColumnarTable table, int row)
+   {
+      m_table = table;
+      m_row = row;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final TableSchema getSchema()
+   {
+      return m_table.getSchema();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final int getInt(String name)
+   {
+      return getInt(m_table.getSchema().getOrdinal(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public final int getInt(int ordinal)
+   {
+      return ordinal == -1 ? 0 : m_table.getInt(m_row, ordinal);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected final Object getObject(String name)
+   {
+      return getObject(m_table.getSchema().getOrdinal(name));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override protected final Object getObject(int ordinal)
+   {
+      return ordinal == -1 ? null : m_table.getObject(m_row, ordinal);
+   }
+
+   protected final ColumnarTable m_table;
+   protected final int m_row;
+}
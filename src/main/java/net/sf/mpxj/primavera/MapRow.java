@@ -23,19 +23,14 @@
 
 package net.sf.mpxj.primavera;
 
-import java.util.Date;
 import java.util.Map;
-import java.util.UUID;
 
-import net.sf.mpxj.Duration;
-import net.sf.mpxj.TimeUnit;
-import net.sf.mpxj.common.BooleanHelper;
-import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TableSchema;
 
 /**
  * Implementation of the Row interface, wrapping a Map.
  */
-class MapRow implements Row
+class MapRow extends AbstractRow
 {
    /**
     * Constructor.
@@ -50,140 +45,31 @@ class MapRow implements Row
    /**
     * {@inheritDoc}
     */
-   @Override public final String getString(String name)
+   @Override protected final Object getObject(String name)
    {
-      Object value = getObject(name);
-      String result;
-      if (value instanceof byte[])
-      {
-         result = new String((byte[]) value);
-      }
-      else
-      {
-         result = (String) value;
-      }
-      return (result);
+      return m_map.get(name);
    }
 
    /**
     * {@inheritDoc}
     */
-   @Override public final Integer getInteger(String name)
+   @Override public final TableSchema getSchema()
    {
-      Object result = getObject(name);
-      if (result != null)
+      if (m_schema == null)
       {
-         if (result instanceof Integer == false)
-         {
-            result = Integer.valueOf(((Number) result).intValue());
-         }
+         m_schema = new TableSchema(m_map.keySet());
       }
-      return ((Integer) result);
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public final Double getDouble(String name)
-   {
-      Object result = getObject(name);
-      if (result != null)
-      {
-         if (result instanceof Double == false)
-         {
-            result = Double.valueOf(((Number) result).doubleValue());
-         }
-      }
-      return ((Double) result);
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public final boolean getBoolean(String name)
-   {
-      boolean result = false;
-      Object value = getObject(name);
-      if (value != null)
-      {
-         if (value instanceof Boolean)
-         {
-            result = BooleanHelper.getBoolean((Boolean) value);
-         }
-         else
-         {
-            if (value instanceof Number)
-            {
-               // generally all non-zero numbers are treated as truthy
-               result = ((Number) value).doubleValue() != 0.0;
-            }
-            else
-            {
-               if (value instanceof String)
-               {
-                  result = parseBoolean((String) value);
-               }
-            }
-         }
-      }
-      return result;
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public final int getInt(String name)
-   {
-      return (NumberHelper.getInt((Number) getObject(name)));
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public final Date getDate(String name)
-   {
-      return ((Date) getObject(name));
-   }
-
-   /**
-    * {@inheritDoc}
-    */
-   @Override public final Duration getDuration(String name)
-   {
-      return (Duration.getInstance(NumberHelper.getDouble(getDouble(name)), TimeUnit.HOURS));
+      return m_schema;
    }
 
    /**
     * {@inheritDoc}
     */
-   @Override public final UUID getUUID(String name)
-   {
-      return DatatypeConverter.parseUUID(getString(name));
-   }
-
-   /**
-    * Retrieve a value from the map.
-    *
-    * @param name column name
-    * @return column value
-    */
-   private final Object getObject(String name)
-   {
-      Object result = m_map.get(name);
-      return (result);
-   }
-
-   /**
-    * Parse a string representation of a Boolean value.
-    * XER files sometimes have "N" and "Y" to indicate boolean
-    *
-    * @param value string representation
-    * @return Boolean value
-    */
-   private final boolean parseBoolean(String value)
+   @Override protected final Object getObject(int ordinal)
    {
-      return value != null && (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("y") || value.equalsIgnoreCase("yes"));
+      return ordinal == -1 ? null : m_map.get(getSchema().getColumnName(ordinal));
    }
 
    protected Map<String, Object> m_map;
+   private TableSchema m_schema;
 }
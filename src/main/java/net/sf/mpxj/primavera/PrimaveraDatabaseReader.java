@@ -32,19 +32,30 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
 import net.sf.mpxj.Day;
+import net.sf.mpxj.FieldStorageType;
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.ParallelHelper;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.ProjectReader;
 
@@ -103,11 +114,181 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     * @throws MPXJException
     */
    public ProjectFile read() throws MPXJException
+   {
+      try
+      {
+         return readProject();
+      }
+
+      finally
+      {
+         closeConnection();
+      }
+   }
+
+   /**
+    * Convenience method which allows all projects in the database to
+    * be read in a single operation. A single connection is used to read
+    * all of the projects, and the prepared statements used to read the
+    * first project are reused for each subsequent project.
+    *
+    * @return list of ProjectFile instances
+    * @throws MPXJException
+    */
+   public List<ProjectFile> readAll() throws MPXJException
+   {
+      try
+      {
+         m_statements = new HashMap<String, PreparedStatement>();
+         Map<Integer, String> projects = listProjects();
+         List<ProjectFile> result = new ArrayList<ProjectFile>(projects.keySet().size());
+         for (Integer id : projects.keySet())
+         {
+            setProjectID(id.intValue());
+            result.add(readProject());
+         }
+         return result;
+      }
+
+      finally
+      {
+         closeStatements();
+         closeConnection();
+      }
+   }
+
+   /**
+    * Reads all projects in the database using multiple threads. Each
+    * thread allocates its own connection from the supplied data source,
+    * and reads projects using its own PrimaveraReader instance. Data which
+    * is common to all projects (preferences, the default currency, user
+    * defined field definitions and activity code types) is read once
+    * before any projects are read, and shared between the threads.
+    * Projects are returned in ascending order of project ID, regardless
+    * of the order in which the threads complete their work.
+    *
+    * Any project listeners registered with this reader may be called
+    * from multiple threads at the same time, and so must be thread safe.
+    * The field maps and aliases configured for this reader must not be
+    * modified while the projects are being read.
+    *
+    * @param dataSource data source used to allocate connections
+    * @param parallelism maximum number of projects to read at the same time
+    * @return list of ProjectFile instances
+    * @throws MPXJException
+    */
+   public List<ProjectFile> readAll(DataSource dataSource, int parallelism) throws MPXJException
+   {
+      final Integer[] projectIDs;
+      final SharedData sharedData;
+      PrimaveraDatabaseReader reader = createWorker(dataSource, null);
+
+      try
+      {
+         projectIDs = reader.listProjects().keySet().toArray(new Integer[0]);
+         sharedData = reader.readSharedData();
+      }
+
+      catch (SQLException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         reader.closeConnection();
+      }
+
+      Arrays.sort(projectIDs);
+
+      final ProjectFile[] result = new ProjectFile[projectIDs.length];
+      final AtomicInteger nextIndex = new AtomicInteger();
+      final AtomicBoolean failed = new AtomicBoolean();
+      int threadCount = Math.max(1, Math.min(parallelism, projectIDs.length));
+
+      List<ProjectReaderTask> tasks = new ArrayList<ProjectReaderTask>(threadCount);
+      for (int index = 0; index < threadCount; index++)
+      {
+         tasks.add(new ProjectReaderTask(createWorker(dataSource, sharedData), projectIDs, result, nextIndex, failed));
+      }
+
+      try
+      {
+         ParallelHelper.invokeAll(tasks, threadCount, MPXJException.class);
+      }
+
+      catch (InterruptedException ex)
+      {
+         failed.set(true);
+         Thread.currentThread().interrupt();
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      return Arrays.asList(result);
+   }
+
+   /**
+    * Create a reader with the same configuration as this reader,
+    * used to read projects on behalf of this reader.
+    *
+    * @param dataSource data source used to allocate connections
+    * @param sharedData data common to all projects, may be null
+    * @return PrimaveraDatabaseReader instance
+    */
+   private PrimaveraDatabaseReader createWorker(DataSource dataSource, SharedData sharedData)
+   {
+      PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+      reader.m_dataSource = dataSource;
+      reader.m_sharedData = sharedData;
+      reader.m_schema = m_schema;
+      reader.m_fetchSize = m_fetchSize;
+      reader.m_matchPrimaveraWBS = m_matchPrimaveraWBS;
+      reader.m_fieldStorageType = m_fieldStorageType;
+      reader.m_projectListeners = m_projectListeners;
+      reader.m_taskUdfCounters = new UserFieldCounters(m_taskUdfCounters);
+      reader.m_resourceUdfCounters = new UserFieldCounters(m_resourceUdfCounters);
+      reader.m_assignmentUdfCounters = new UserFieldCounters(m_assignmentUdfCounters);
+      reader.m_resourceFields = m_resourceFields;
+      reader.m_wbsFields = m_wbsFields;
+      reader.m_taskFields = m_taskFields;
+      reader.m_assignmentFields = m_assignmentFields;
+      reader.m_aliases = m_aliases;
+      return reader;
+   }
+
+   /**
+    * Read the data which is common to all projects in the database.
+    *
+    * @return SharedData instance
+    * @throws SQLException
+    */
+   private SharedData readSharedData() throws SQLException
+   {
+      SharedData data = new SharedData();
+      data.m_preferences = getRows("select * from " + m_schema + "prefer where prefer.delete_date is null");
+      if (!data.m_preferences.isEmpty())
+      {
+         List<Row> rows = getRows("select * from " + m_schema + "currtype where curr_id=?", data.m_preferences.get(0).getInteger("curr_id"));
+         data.m_currency = rows.isEmpty() ? null : rows.get(0);
+      }
+      data.m_userDefinedFields = getRows("select * from " + m_schema + "udftype");
+      data.m_activityCodeTypes = getRows("select * from " + m_schema + "actvtype");
+      return data;
+   }
+
+   /**
+    * Read the current project using the current connection.
+    *
+    * @return ProjectFile instance
+    * @throws MPXJException
+    */
+   private ProjectFile readProject() throws MPXJException
    {
       try
       {
          m_reader = new PrimaveraReader(m_taskUdfCounters, m_resourceUdfCounters, m_assignmentUdfCounters, m_resourceFields, m_wbsFields, m_taskFields, m_assignmentFields, m_aliases, m_matchPrimaveraWBS);
          ProjectFile project = m_reader.getProject();
+         project.getProjectConfig().setFieldStorageType(m_fieldStorageType);
          project.getEventManager().addProjectListeners(m_projectListeners);
 
          processAnalytics();
@@ -121,7 +302,6 @@ public final class PrimaveraDatabaseReader implements ProjectReader
          processPredecessors();
          processAssignments();
 
-         m_reader = null;
          project.updateStructure();
 
          return (project);
@@ -134,40 +314,8 @@ public final class PrimaveraDatabaseReader implements ProjectReader
 
       finally
       {
-         if (m_allocatedConnection && m_connection != null)
-         {
-            try
-            {
-               m_connection.close();
-            }
-
-            catch (SQLException ex)
-            {
-               // silently ignore errors on close
-            }
-
-            m_connection = null;
-         }
-      }
-   }
-
-   /**
-    * Convenience method which allows all projects in the database to
-    * be read in a single operation.
-    *
-    * @return list of ProjectFile instances
-    * @throws MPXJException
-    */
-   public List<ProjectFile> readAll() throws MPXJException
-   {
-      Map<Integer, String> projects = listProjects();
-      List<ProjectFile> result = new ArrayList<ProjectFile>(projects.keySet().size());
-      for (Integer id : projects.keySet())
-      {
-         setProjectID(id.intValue());
-         result.add(read());
+         m_reader = null;
       }
-      return result;
    }
 
    /**
@@ -217,7 +365,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       //
       // Process PMDB-specific attributes
       //
-      rows = getRows("select * from " + m_schema + "prefer where prefer.delete_date is null");
+      rows = m_sharedData == null ? getRows("select * from " + m_schema + "prefer where prefer.delete_date is null") : m_sharedData.m_preferences;
       if (!rows.isEmpty())
       {
          Row row = rows.get(0);
@@ -239,9 +387,32 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processActivityCodes() throws SQLException
    {
-      List<Row> types = getRows("select * from " + m_schema + "actvtype where actv_code_type_id in (select distinct actv_code_type_id from taskactv where proj_id=?)", m_projectID);
       List<Row> typeValues = getRows("select * from " + m_schema + "actvcode where actv_code_id in (select distinct actv_code_id from taskactv where proj_id=?)", m_projectID);
       List<Row> assignments = getRows("select * from " + m_schema + "taskactv where proj_id=?", m_projectID);
+      List<Row> types;
+
+      if (m_sharedData == null)
+      {
+         types = getRows("select * from " + m_schema + "actvtype where actv_code_type_id in (select distinct actv_code_type_id from taskactv where proj_id=?)", m_projectID);
+      }
+      else
+      {
+         Set<Integer> typeIDs = new HashSet<Integer>();
+         for (Row row : assignments)
+         {
+            typeIDs.add(row.getInteger("actv_code_type_id"));
+         }
+
+         types = new ArrayList<Row>();
+         for (Row row : m_sharedData.m_activityCodeTypes)
+         {
+            if (typeIDs.contains(row.getInteger("actv_code_type_id")))
+            {
+               types.add(row);
+            }
+         }
+      }
+
       m_reader.processActivityCodes(types, typeValues, assignments);
    }
 
@@ -250,7 +421,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processUserDefinedFields() throws SQLException
    {
-      List<Row> fields = getRows("select * from " + m_schema + "udftype");
+      List<Row> fields = m_sharedData == null ? getRows("select * from " + m_schema + "udftype") : m_sharedData.m_userDefinedFields;
       List<Row> values = getRows("select * from " + m_schema + "udfvalue where proj_id=? or proj_id is null", m_projectID);
       m_reader.processUserDefinedFields(fields, values);
    }
@@ -292,11 +463,21 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processDefaultCurrency(Integer currencyID) throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "currtype where curr_id=?", currencyID);
-      if (!rows.isEmpty())
+      if (m_sharedData == null)
       {
-         Row row = rows.get(0);
-         m_reader.processDefaultCurrency(row);
+         List<Row> rows = getRows("select * from " + m_schema + "currtype where curr_id=?", currencyID);
+         if (!rows.isEmpty())
+         {
+            Row row = rows.get(0);
+            m_reader.processDefaultCurrency(row);
+         }
+      }
+      else
+      {
+         if (m_sharedData.m_currency != null)
+         {
+            m_reader.processDefaultCurrency(m_sharedData.m_currency);
+         }
       }
    }
 
@@ -330,8 +511,22 @@ public final class PrimaveraDatabaseReader implements ProjectReader
    private void processTasks() throws SQLException
    {
       List<Row> wbs = getRows("select * from " + m_schema + "projwbs where proj_id=? and delete_date is null order by parent_wbs_id,seq_num", m_projectID);
-      List<Row> tasks = getRows("select * from " + m_schema + "task where proj_id=? and delete_date is null", m_projectID);
-      m_reader.processTasks(wbs, tasks);
+      StreamingRows tasks = getStreamingRows("select * from " + m_schema + "task where proj_id=? and delete_date is null", m_projectID);
+
+      try
+      {
+         m_reader.processTasks(wbs, tasks);
+      }
+
+      catch (StreamingException ex)
+      {
+         throw ex.getSQLException();
+      }
+
+      finally
+      {
+         releaseConnection();
+      }
    }
 
    /**
@@ -341,8 +536,22 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processPredecessors() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "taskpred where proj_id=? and delete_date is null", m_projectID);
-      m_reader.processPredecessors(rows);
+      StreamingRows rows = getStreamingRows("select * from " + m_schema + "taskpred where proj_id=? and delete_date is null", m_projectID);
+
+      try
+      {
+         m_reader.processPredecessors(rows);
+      }
+
+      catch (StreamingException ex)
+      {
+         throw ex.getSQLException();
+      }
+
+      finally
+      {
+         releaseConnection();
+      }
    }
 
    /**
@@ -363,8 +572,22 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    private void processAssignments() throws SQLException
    {
-      List<Row> rows = getRows("select * from " + m_schema + "taskrsrc where proj_id=? and delete_date is null", m_projectID);
-      m_reader.processAssignments(rows);
+      StreamingRows rows = getStreamingRows("select * from " + m_schema + "taskrsrc where proj_id=? and delete_date is null", m_projectID);
+
+      try
+      {
+         m_reader.processAssignments(rows);
+      }
+
+      catch (StreamingException ex)
+      {
+         throw ex.getSQLException();
+      }
+
+      finally
+      {
+         releaseConnection();
+      }
    }
 
    /**
@@ -436,14 +659,15 @@ public final class PrimaveraDatabaseReader implements ProjectReader
 
       try
       {
-         List<Row> result = new LinkedList<Row>();
+         List<Row> result = new ArrayList<Row>();
 
-         m_ps = m_connection.prepareStatement(sql);
+         m_ps = prepareStatement(sql);
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = ResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new ResultSetRow(m_rs, m_meta));
+            result.add(new ResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
@@ -470,15 +694,16 @@ public final class PrimaveraDatabaseReader implements ProjectReader
 
       try
       {
-         List<Row> result = new LinkedList<Row>();
+         List<Row> result = new ArrayList<Row>();
 
-         m_ps = m_connection.prepareStatement(sql);
+         m_ps = prepareStatement(sql);
          m_ps.setInt(1, NumberHelper.getInt(var));
          m_rs = m_ps.executeQuery();
          populateMetaData();
+         ColumnarTable table = ResultSetRow.createTable(m_meta);
          while (m_rs.next())
          {
-            result.add(new ResultSetRow(m_rs, m_meta));
+            result.add(new ResultSetRow(m_rs, m_meta, table));
          }
 
          return (result);
@@ -490,6 +715,65 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       }
    }
 
+   /**
+    * Execute a query which takes a single parameter. Rather than
+    * reading all of the rows into memory, the rows are retrieved from
+    * the result set one at a time as the caller iterates over them.
+    * The caller is responsible for calling releaseConnection once
+    * the rows have been processed.
+    *
+    * @param sql query statement
+    * @param var bind variable value
+    * @return rows
+    * @throws SQLException
+    */
+   private StreamingRows getStreamingRows(String sql, Integer var) throws SQLException
+   {
+      allocateConnection();
+
+      try
+      {
+         m_ps = prepareStatement(sql);
+         m_ps.setInt(1, NumberHelper.getInt(var));
+         m_rs = m_ps.executeQuery();
+         populateMetaData();
+         return new StreamingRows(ResultSetRow.createTable(m_meta));
+      }
+
+      catch (SQLException ex)
+      {
+         releaseConnection();
+         throw ex;
+      }
+   }
+
+   /**
+    * Retrieve a prepared statement for the supplied query. When reading
+    * all projects, statements are retained and reused for each project.
+    *
+    * @param sql query statement
+    * @return prepared statement
+    * @throws SQLException
+    */
+   private PreparedStatement prepareStatement(String sql) throws SQLException
+   {
+      PreparedStatement result = m_statements == null ? null : m_statements.get(sql);
+      if (result == null)
+      {
+         result = m_connection.prepareStatement(sql);
+         if (m_fetchSize > 0)
+         {
+            result.setFetchSize(m_fetchSize);
+         }
+
+         if (m_statements != null)
+         {
+            m_statements.put(sql, result);
+         }
+      }
+      return result;
+   }
+
    /**
     * Allocates a database connection.
     *
@@ -526,10 +810,57 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       }
 
       if (m_ps != null)
+      {
+         if (m_statements == null)
+         {
+            try
+            {
+               m_ps.close();
+            }
+
+            catch (SQLException ex)
+            {
+               // silently ignore errors on close
+            }
+         }
+
+         m_ps = null;
+      }
+   }
+
+   /**
+    * Closes any prepared statements retained for reuse.
+    */
+   private void closeStatements()
+   {
+      if (m_statements != null)
+      {
+         for (PreparedStatement ps : m_statements.values())
+         {
+            try
+            {
+               ps.close();
+            }
+
+            catch (SQLException ex)
+            {
+               // silently ignore errors on close
+            }
+         }
+         m_statements = null;
+      }
+   }
+
+   /**
+    * Closes the database connection if it was allocated by this class.
+    */
+   private void closeConnection()
+   {
+      if (m_allocatedConnection && m_connection != null)
       {
          try
          {
-            m_ps.close();
+            m_connection.close();
          }
 
          catch (SQLException ex)
@@ -537,7 +868,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
             // silently ignore errors on close
          }
 
-         m_ps = null;
+         m_connection = null;
       }
    }
 
@@ -674,6 +1005,35 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       return m_aliases;
    }
 
+   /**
+    * Retrieve the number of rows the JDBC driver is asked to fetch
+    * from the database at a time. Zero indicates that the driver's
+    * default is used.
+    *
+    * @return fetch size
+    */
+   public int getFetchSize()
+   {
+      return m_fetchSize;
+   }
+
+   /**
+    * Set the number of rows the JDBC driver is asked to fetch from the
+    * database at a time. Tasks, relationships and assignments are
+    * processed as they are fetched rather than being read into memory
+    * first, so a modest fetch size allows large projects to be read
+    * without holding the complete result set in memory. Note that some
+    * drivers, for example PostgreSQL, only honour this setting when
+    * auto commit is disabled. Defaults to zero, which uses the driver's
+    * default.
+    *
+    * @param fetchSize fetch size
+    */
+   public void setFetchSize(int fetchSize)
+   {
+      m_fetchSize = fetchSize;
+   }
+
    /**
     * If set to true, the WBS for each task read from Primavera will exactly match the WBS value shown in Primavera.
     * If set to false, each task will be given a unique WBS based on the WBS present in Primavera.
@@ -698,7 +1058,216 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       m_matchPrimaveraWBS = matchPrimaveraWBS;
    }
 
+   /**
+    * Set the storage type used to hold field values for the tasks,
+    * resources and resource assignments read by this reader.
+    * Defaults to DENSE.
+    *
+    * @param type field storage type
+    */
+   public void setFieldStorageType(FieldStorageType type)
+   {
+      m_fieldStorageType = type;
+   }
+
+   /**
+    * Presents the rows of the current result set to the caller one at a
+    * time. A single row is buffered, so each row is only valid until the
+    * next row is retrieved.
+    */
+   private final class StreamingRows implements Iterable<Row>, Iterator<Row>
+   {
+      /**
+       * Constructor.
+       *
+       * @param table table used to buffer the current row
+       */
+      public StreamingRows(ColumnarTable table)
+      {
+         m_table = table;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public Iterator<Row> iterator()
+      {
+         if (m_iteratorCreated)
+         {
+            throw new IllegalStateException("Rows can only be iterated once");
+         }
+         m_iteratorCreated = true;
+         return this;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public boolean hasNext()
+      {
+         if (!m_rowFetched)
+         {
+            try
+            {
+               m_hasNext = m_rs.next();
+            }
+
+            catch (SQLException ex)
+            {
+               throw new StreamingException(ex);
+            }
+            m_rowFetched = true;
+         }
+         return m_hasNext;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public Row next()
+      {
+         if (!hasNext())
+         {
+            throw new NoSuchElementException();
+         }
+         m_rowFetched = false;
+
+         try
+         {
+            m_table.clear();
+            return new ResultSetRow(m_rs, m_meta, m_table);
+         }
+
+         catch (SQLException ex)
+         {
+            throw new StreamingException(ex);
+         }
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public void remove()
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      private final ColumnarTable m_table;
+      private boolean m_iteratorCreated;
+      private boolean m_rowFetched;
+      private boolean m_hasNext;
+   }
+
+   /**
+    * Used to pass an SQLException raised while iterating over
+    * streamed rows back to the code which requested the rows.
+    */
+   private static final class StreamingException extends RuntimeException
+   {
+      /**
+       * Constructor.
+       *
+       * @param cause underlying exception
+       */
+      public StreamingException(SQLException cause)
+      {
+         super(cause);
+      }
+
+      /**
+       * Retrieve the underlying exception.
+       *
+       * @return SQLException instance
+       */
+      public SQLException getSQLException()
+      {
+         return (SQLException) getCause();
+      }
+
+      private static final long serialVersionUID = 1L;
+   }
+
+   /**
+    * Reads projects on behalf of a parent reader. Each task is run
+    * in its own thread, and takes the next unread project from the
+    * list of project IDs until all projects have been read. Each project
+    * is stored at the same index in the result array as its ID in the
+    * list of project IDs, so the order of the results does not depend
+    * on the order in which the projects are read.
+    */
+   private static final class ProjectReaderTask implements Callable<Void>
+   {
+      /**
+       * Constructor.
+       *
+       * @param reader reader used by this task
+       * @param projectIDs IDs of the projects to read
+       * @param result array to receive the projects read
+       * @param nextIndex index of the next project to read
+       * @param failed flag set if any task fails
+       */
+      public ProjectReaderTask(PrimaveraDatabaseReader reader, Integer[] projectIDs, ProjectFile[] result, AtomicInteger nextIndex, AtomicBoolean failed)
+      {
+         m_reader = reader;
+         m_projectIDs = projectIDs;
+         m_result = result;
+         m_nextIndex = nextIndex;
+         m_failed = failed;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override public Void call() throws MPXJException
+      {
+         boolean success = false;
+         m_reader.m_statements = new HashMap<String, PreparedStatement>();
+
+         try
+         {
+            int index;
+            while (!m_failed.get() && (index = m_nextIndex.getAndIncrement()) < m_projectIDs.length)
+            {
+               m_reader.setProjectID(m_projectIDs[index].intValue());
+               m_result[index] = m_reader.readProject();
+            }
+            success = true;
+         }
+
+         finally
+         {
+            if (!success)
+            {
+               m_failed.set(true);
+            }
+            m_reader.closeStatements();
+            m_reader.closeConnection();
+         }
+
+         return null;
+      }
+
+      private final PrimaveraDatabaseReader m_reader;
+      private final Integer[] m_projectIDs;
+      private final ProjectFile[] m_result;
+      private final AtomicInteger m_nextIndex;
+      private final AtomicBoolean m_failed;
+   }
+
+   /**
+    * Data common to all projects, read once and shared between the
+    * readers used to read projects concurrently.
+    */
+   private static final class SharedData
+   {
+      List<Row> m_preferences;
+      Row m_currency;
+      List<Row> m_userDefinedFields;
+      List<Row> m_activityCodeTypes;
+   }
+
    private PrimaveraReader m_reader;
+   private SharedData m_sharedData;
    private Integer m_projectID;
    private String m_schema = "";
    private DataSource m_dataSource;
@@ -706,12 +1275,15 @@ public final class PrimaveraDatabaseReader implements ProjectReader
    private boolean m_allocatedConnection;
    private PreparedStatement m_ps;
    private ResultSet m_rs;
+   private Map<String, PreparedStatement> m_statements;
+   private int m_fetchSize;
    private Map<String, Integer> m_meta = new HashMap<String, Integer>();
    private List<ProjectListener> m_projectListeners;
    private UserFieldCounters m_taskUdfCounters = new UserFieldCounters();
    private UserFieldCounters m_resourceUdfCounters = new UserFieldCounters();
    private UserFieldCounters m_assignmentUdfCounters = new UserFieldCounters();
    private boolean m_matchPrimaveraWBS = true;
+   private FieldStorageType m_fieldStorageType = FieldStorageType.DENSE;
 
    private Map<FieldType, String> m_resourceFields = PrimaveraReader.getDefaultResourceFieldMap();
    private Map<FieldType, String> m_wbsFields = PrimaveraReader.getDefaultWbsFieldMap();
@@ -35,13 +35,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.UnmarshallerHandler;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -80,7 +78,9 @@ import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.JAXBPool;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.SAXParserPool;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.primavera.schema.APIBusinessObjects;
 import net.sf.mpxj.primavera.schema.ActivityCodeType;
@@ -128,7 +128,7 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
    {
       try
       {
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_eventManager = m_projectFile.getEventManager();
 
          ProjectConfig config = m_projectFile.getProjectConfig();
@@ -149,24 +149,23 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
                   
          m_eventManager.addProjectListeners(m_projectListeners);
 
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-         factory.setNamespaceAware(true);
-         SAXParser saxParser = factory.newSAXParser();
+         SAXParser saxParser = SAXParserPool.NAMESPACE_AWARE.borrow();
          XMLReader xmlReader = saxParser.getXMLReader();
 
-         if (CONTEXT == null)
+         if (POOL == null)
          {
-            throw CONTEXT_EXCEPTION;
+            throw POOL_EXCEPTION;
          }
 
-         Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+         Unmarshaller unmarshaller = POOL.borrowUnmarshaller();
          XMLFilter filter = new NamespaceFilter();
          filter.setParent(xmlReader);
          UnmarshallerHandler unmarshallerHandler = unmarshaller.getUnmarshallerHandler();
          filter.setContentHandler(unmarshallerHandler);
          filter.parse(new InputSource(stream));
          APIBusinessObjects apibo = (APIBusinessObjects) unmarshallerHandler.getResult();
+         POOL.release(unmarshaller);
+         SAXParserPool.NAMESPACE_AWARE.release(saxParser);
 
          List<ProjectType> projects = apibo.getProject();
          ProjectType project = null;
@@ -1159,34 +1158,26 @@ public final class PrimaveraPMFileReader extends AbstractProjectReader
    }
 
    /**
-    * Cached context to minimise construction cost.
+    * Shared JAXB context and Unmarshaller/Marshaller instances.
     */
-   private static JAXBContext CONTEXT;
+   private static JAXBPool POOL;
 
    /**
     * Note any error occurring during context construction.
     */
-   private static JAXBException CONTEXT_EXCEPTION;
+   private static JAXBException POOL_EXCEPTION;
 
    static
    {
       try
       {
-         //
-         // JAXB RI property to speed up construction
-         //
-         System.setProperty("com.sun.xml.bind.v2.runtime.JAXBContextImpl.fastBoot", "true");
-
-         //
-         // Construct the context
-         //
-         CONTEXT = JAXBContext.newInstance("net.sf.mpxj.primavera.schema", PrimaveraPMFileReader.class.getClassLoader());
+         POOL = JAXBPool.getInstance("net.sf.mpxj.primavera.schema", PrimaveraPMFileReader.class.getClassLoader());
       }
 
       catch (JAXBException ex)
       {
-         CONTEXT_EXCEPTION = ex;
-         CONTEXT = null;
+         POOL_EXCEPTION = ex;
+         POOL = null;
       }
    }
 
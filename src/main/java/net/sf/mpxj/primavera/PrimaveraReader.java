@@ -32,6 +32,7 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +80,7 @@ import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.BooleanHelper;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TableSchema;
 
 /**
  * This class provides a generic front end to read project data from
@@ -526,6 +528,10 @@ final class PrimaveraReader
          populateUserDefinedFieldValues("RSRC", FieldTypeClass.RESOURCE, resource, resource.getUniqueID());
 
          m_eventManager.fireResourceReadEvent(resource);
+         if (!m_eventManager.fireResourceStreamEvent(resource))
+         {
+            m_project.removeResource(resource);
+         }
       }
    }
 
@@ -656,14 +662,15 @@ final class PrimaveraReader
     * Process tasks.
     *
     * @param wbs WBS task data
-    * @param tasks task data
+    * @param tasks task data, each row is only read once
     */
-   public void processTasks(List<Row> wbs, List<Row> tasks)
+   public void processTasks(List<Row> wbs, Iterable<Row> tasks)
    {
       ProjectProperties projectProperties = m_project.getProjectProperties();
       String projectName = projectProperties.getName();
       Set<Integer> uniqueIDs = new HashSet<Integer>();
       Set<Task> wbsTasks = new HashSet<Task>();
+      Set<Task> droppedWbsTasks = new HashSet<Task>();
 
       //
       // We set the project name when we read the project properties, but that's just
@@ -692,6 +699,10 @@ final class PrimaveraReader
          uniqueIDs.add(task.getUniqueID());
          wbsTasks.add(task);
          m_eventManager.fireTaskReadEvent(task);
+         if (!m_eventManager.fireTaskStreamEvent(task))
+         {
+            droppedWbsTasks.add(task);
+         }
       }
 
       //
@@ -724,6 +735,7 @@ final class PrimaveraReader
       //
       int nextID = 1;
       m_clashMap.clear();
+      m_droppedTaskIDs.clear();
       for (Row row : tasks)
       {
          Task task;
@@ -786,6 +798,17 @@ final class PrimaveraReader
          task.setWork(work);
 
          m_eventManager.fireTaskReadEvent(task);
+         if (!m_eventManager.fireTaskStreamEvent(task))
+         {
+            m_droppedTaskIDs.add(uniqueID);
+            m_project.removeTask(task);
+         }
+      }
+
+      if (!droppedWbsTasks.isEmpty())
+      {
+         removeWbsTasks(wbs, droppedWbsTasks);
+         wbsTasks.removeAll(droppedWbsTasks);
       }
 
       new ActivitySorter(TaskField.TEXT1, wbsTasks).sort(m_project);
@@ -795,6 +818,39 @@ final class PrimaveraReader
       updateWork();
    }
 
+   /**
+    * Remove WBS entries which have been discarded by a stream listener.
+    * The children of each discarded entry are promoted to take its place
+    * in the hierarchy. The rows are processed in reverse order so that
+    * nested entries are promoted correctly.
+    *
+    * @param wbs WBS task data
+    * @param droppedWbsTasks WBS tasks to remove
+    */
+   private void removeWbsTasks(List<Row> wbs, Set<Task> droppedWbsTasks)
+   {
+      for (int index = wbs.size() - 1; index >= 0; index--)
+      {
+         Row row = wbs.get(index);
+         Task task = m_project.getTaskByUniqueID(row.getInteger("wbs_id"));
+         if (task == null || !droppedWbsTasks.contains(task))
+         {
+            continue;
+         }
+
+         Task parentTask = m_project.getTaskByUniqueID(row.getInteger("parent_wbs_id"));
+         List<Task> siblings = parentTask == null ? m_project.getChildTasks() : parentTask.getChildTasks();
+         int position = siblings.indexOf(task);
+         if (position != -1)
+         {
+            siblings.remove(position);
+            siblings.addAll(position, task.getChildTasks());
+         }
+         task.clearChildTasks();
+         m_project.removeTask(task);
+      }
+   }
+
    /**
     * Read details of any activity codes assigned to this task.
     *
@@ -1240,9 +1296,9 @@ final class PrimaveraReader
    /**
     * Processes predecessor data.
     *
-    * @param rows predecessor data
+    * @param rows predecessor data, each row is only read once
     */
-   public void processPredecessors(List<Row> rows)
+   public void processPredecessors(Iterable<Row> rows)
    {
       for (Row row : rows)
       {
@@ -1260,9 +1316,19 @@ final class PrimaveraReader
                Relation relation = currentTask.addPredecessor(predecessorTask, type, lag);
                relation.setUniqueID(uniqueID);
                m_eventManager.fireRelationReadEvent(relation);
+               if (!m_eventManager.fireRelationStreamEvent(relation))
+               {
+                  currentTask.removePredecessor(predecessorTask, type, lag);
+               }
             }
             else
             {
+               if (m_droppedTaskIDs.contains(predecessorID))
+               {
+                  // the predecessor has been discarded by a stream listener
+                  continue;
+               }
+
                // if we can't find the predecessor, it must lie outside the project
                ExternalPredecessorRelation relation = new ExternalPredecessorRelation(predecessorID, currentTask, type, lag);
                m_externalPredecessors.add(relation);
@@ -1275,9 +1341,9 @@ final class PrimaveraReader
    /**
     * Process assignment data.
     *
-    * @param rows assignment data
+    * @param rows assignment data, each row is only read once
     */
-   public void processAssignments(List<Row> rows)
+   public void processAssignments(Iterable<Row> rows)
    {
       for (Row row : rows)
       {
@@ -1324,6 +1390,10 @@ final class PrimaveraReader
             populateUserDefinedFieldValues("TASKRSRC", FieldTypeClass.ASSIGNMENT, assignment, assignment.getUniqueID());
 
             m_eventManager.fireAssignmentReadEvent(assignment);
+            if (!m_eventManager.fireAssignmentStreamEvent(assignment))
+            {
+               assignment.remove();
+            }
          }
       }
 
@@ -1399,6 +1469,8 @@ final class PrimaveraReader
 
    /**
     * Generic method to extract Primavera fields and assign to MPXJ fields.
+    * The column ordinal for each field is resolved once per table, and
+    * reused for each row in the table.
     *
     * @param map map of MPXJ field types and Primavera field names
     * @param row Primavera data container
@@ -1406,29 +1478,40 @@ final class PrimaveraReader
     */
    private void processFields(Map<FieldType, String> map, Row row, FieldContainer container)
    {
-      for (Map.Entry<FieldType, String> entry : map.entrySet())
+      TableSchema schema = row.getSchema();
+      ResolvedFields resolved = m_resolvedFields.get(map);
+      if (resolved == null || resolved.m_schema != schema)
+      {
+         resolved = new ResolvedFields(map, schema);
+         m_resolvedFields.put(map, resolved);
+      }
+
+      FieldType[] fields = resolved.m_fields;
+      int[] ordinals = resolved.m_ordinals;
+
+      for (int index = 0; index < fields.length; index++)
       {
-         FieldType field = entry.getKey();
-         String name = entry.getValue();
+         FieldType field = fields[index];
+         int ordinal = ordinals[index];
 
          Object value;
          switch (field.getDataType())
          {
             case INTEGER:
             {
-               value = row.getInteger(name);
+               value = row.getInteger(ordinal);
                break;
             }
 
             case BOOLEAN:
             {
-               value = Boolean.valueOf(row.getBoolean(name));
+               value = Boolean.valueOf(row.getBoolean(ordinal));
                break;
             }
 
             case DATE:
             {
-               value = row.getDate(name);
+               value = row.getDate(ordinal);
                break;
             }
 
@@ -1436,7 +1519,7 @@ final class PrimaveraReader
             case NUMERIC:
             case PERCENTAGE:
             {
-               value = row.getDouble(name);
+               value = row.getDouble(ordinal);
                break;
             }
 
@@ -1444,43 +1527,43 @@ final class PrimaveraReader
             case WORK:
             case DURATION:
             {
-               value = row.getDuration(name);
+               value = row.getDuration(ordinal);
                break;
             }
 
             case RESOURCE_TYPE:
             {
-               value = RESOURCE_TYPE_MAP.get(row.getString(name));
+               value = RESOURCE_TYPE_MAP.get(row.getString(ordinal));
                break;
             }
 
             case TASK_TYPE:
             {
-               value = TASK_TYPE_MAP.get(row.getString(name));
+               value = TASK_TYPE_MAP.get(row.getString(ordinal));
                break;
             }
 
             case CONSTRAINT:
             {
-               value = CONSTRAINT_TYPE_MAP.get(row.getString(name));
+               value = CONSTRAINT_TYPE_MAP.get(row.getString(ordinal));
                break;
             }
 
             case PRIORITY:
             {
-               value = PRIORITY_MAP.get(row.getString(name));
+               value = PRIORITY_MAP.get(row.getString(ordinal));
                break;
             }
 
             case GUID:
             {
-               value = row.getUUID(name);
+               value = row.getUUID(ordinal);
                break;
             }
 
             default:
             {
-               value = row.getString(name);
+               value = row.getString(ordinal);
                break;
             }
          }
@@ -1760,9 +1843,42 @@ final class PrimaveraReader
       return map;
    }
 
+   /**
+    * The fields populated from a table, with the ordinal position
+    * of the column holding each field's value.
+    */
+   private static final class ResolvedFields
+   {
+      /**
+       * Constructor.
+       *
+       * @param map map of MPXJ field types and Primavera field names
+       * @param schema table schema
+       */
+      public ResolvedFields(Map<FieldType, String> map, TableSchema schema)
+      {
+         m_schema = schema;
+         m_fields = new FieldType[map.size()];
+         m_ordinals = new int[map.size()];
+
+         int index = 0;
+         for (Map.Entry<FieldType, String> entry : map.entrySet())
+         {
+            m_fields[index] = entry.getKey();
+            m_ordinals[index] = schema.getOrdinal(entry.getValue());
+            ++index;
+         }
+      }
+
+      final TableSchema m_schema;
+      final FieldType[] m_fields;
+      final int[] m_ordinals;
+   }
+
    private ProjectFile m_project;
    private EventManager m_eventManager;
    private Map<Integer, Integer> m_clashMap = new HashMap<Integer, Integer>();
+   private Set<Integer> m_droppedTaskIDs = new HashSet<Integer>();
    private DateFormat m_calendarTimeFormat = new SimpleDateFormat("HH:mm");
    private Integer m_defaultCalendarID;
 
@@ -1773,6 +1889,7 @@ final class PrimaveraReader
    private Map<FieldType, String> m_wbsFields;
    private Map<FieldType, String> m_taskFields;
    private Map<FieldType, String> m_assignmentFields;
+   private final Map<Map<FieldType, String>, ResolvedFields> m_resolvedFields = new IdentityHashMap<Map<FieldType, String>, ResolvedFields>();
    private List<ExternalPredecessorRelation> m_externalPredecessors = new ArrayList<ExternalPredecessorRelation>();
    private final boolean m_matchPrimaveraWBS;
 
@@ -24,9 +24,14 @@
 package net.sf.mpxj.primavera;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
 import java.nio.charset.Charset;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
@@ -47,17 +52,22 @@ import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.Relation;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.MultiDateFormat;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.ReaderTokenizer;
+import net.sf.mpxj.common.StreamHelper;
+import net.sf.mpxj.common.TableSchema;
 import net.sf.mpxj.common.Tokenizer;
 import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.listener.ProjectStreamListener;
 import net.sf.mpxj.reader.AbstractProjectReader;
+import net.sf.mpxj.reader.StreamingProjectReader;
 
 /**
  * This class creates a new ProjectFile instance by reading a Primavera XER file.
  */
-public final class PrimaveraXERFileReader extends AbstractProjectReader
+public final class PrimaveraXERFileReader extends AbstractProjectReader implements StreamingProjectReader
 {
    /**
     * {@inheritDoc}
@@ -110,6 +120,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       try
       {
          m_tables = new HashMap<String, List<Row>>();
+         m_indexes = new HashMap<String, Map<Integer, List<Row>>>();
          m_numberFormat = new DecimalFormat();
 
          processFile(is);
@@ -121,11 +132,54 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       finally
       {
          m_tables = null;
+         m_indexes = null;
          m_numberFormat = null;
          m_reader = null;
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(String fileName) throws MPXJException
+   {
+      return read(new File(fileName));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(File file) throws MPXJException
+   {
+      ProjectFile result;
+      if (m_lazyProjectLoading)
+      {
+         result = readLazy(file);
+      }
+      else
+      {
+         result = super.read(file);
+      }
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(InputStream is, ProjectStreamListener listener) throws MPXJException
+   {
+      try
+      {
+         m_streamListener = listener;
+         return read(is);
+      }
+
+      finally
+      {
+         m_streamListener = null;
+      }
+   }
+
    /**
     * This is a convenience method which allows all projects in an
     * XER file to be read in a single pass. External relationships
@@ -154,6 +208,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       try
       {
          m_tables = new HashMap<String, List<Row>>();
+         m_indexes = new HashMap<String, Map<Integer, List<Row>>>();
          m_numberFormat = new DecimalFormat();
 
          processFile(is);
@@ -198,6 +253,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       finally
       {
          m_tables = null;
+         m_indexes = null;
          m_numberFormat = null;
          m_reader = null;
       }
@@ -213,9 +269,11 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       try
       {
          ProjectFile project = m_reader.getProject();
+         project.getProjectConfig().setFieldStorageType(getFieldStorageType());
          project.getProjectProperties().setFileApplication("Primavera");
          project.getProjectProperties().setFileType("XER");
          project.getEventManager().addProjectListeners(m_projectListeners);
+         project.getEventManager().setProjectStreamListener(m_streamListener);
 
          processProjectID();
          processProjectProperties();
@@ -237,7 +295,9 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       {
          m_currentTableName = null;
          m_currentTable = null;
+         m_currentIndex = null;
          m_currentFieldNames = null;
+         m_currentColumns = null;
          m_defaultCurrencyName = null;
          m_currencyMap.clear();
          m_numberFormat = null;
@@ -280,6 +340,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          InputStreamReader reader = new InputStreamReader(bis, getCharset());
          Tokenizer tk = new ReaderTokenizer(reader);
          tk.setDelimiter('\t');
+         tk.setQuotedLineBreaks(true);
          List<String> record = new ArrayList<String>();
 
          while (tk.getType() != Tokenizer.TT_EOF)
@@ -371,6 +432,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       try
       {
          m_tables = new HashMap<String, List<Row>>();
+         m_indexes = new HashMap<String, Map<Integer, List<Row>>>();
          processFile(is);
 
          Map<Integer, String> result = new HashMap<Integer, String>();
@@ -389,11 +451,248 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       finally
       {
          m_tables = null;
+         m_indexes = null;
          m_currentTable = null;
+         m_currentIndex = null;
          m_currentFieldNames = null;
+         m_currentColumns = null;
       }
    }
 
+   /**
+    * Populates a Map instance representing the IDs and names of
+    * projects available in the current file. If lazy project loading
+    * is enabled, only the project table is read from the file.
+    *
+    * @param file XER file
+    * @return Map instance containing ID and name pairs
+    * @throws MPXJException
+    */
+   public Map<Integer, String> listProjects(File file) throws MPXJException
+   {
+      Map<Integer, String> result;
+
+      if (m_lazyProjectLoading)
+      {
+         try
+         {
+            m_tables = new HashMap<String, List<Row>>();
+            m_indexes = new HashMap<String, Map<Integer, List<Row>>>();
+            processIndexedFile(file, Collections.singleton("project"));
+
+            result = new HashMap<Integer, String>();
+            for (Row row : getRows("project", null, null))
+            {
+               result.put(row.getInteger("proj_id"), row.getString("proj_short_name"));
+            }
+         }
+
+         finally
+         {
+            m_tables = null;
+            m_indexes = null;
+            m_currentTable = null;
+            m_currentIndex = null;
+            m_currentFieldNames = null;
+            m_currentColumns = null;
+         }
+      }
+      else
+      {
+         InputStream is = null;
+         try
+         {
+            is = new FileInputStream(file);
+            result = listProjects(is);
+         }
+
+         catch (IOException ex)
+         {
+            throw new MPXJException(MPXJException.READ_ERROR, ex);
+         }
+
+         finally
+         {
+            StreamHelper.closeQuietly(is);
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Reads a single project from a file, using the file index to
+    * decode only those rows which belong to the project.
+    *
+    * @param file XER file
+    * @return ProjectFile instance
+    * @throws MPXJException
+    */
+   private ProjectFile readLazy(File file) throws MPXJException
+   {
+      try
+      {
+         m_tables = new HashMap<String, List<Row>>();
+         m_indexes = new HashMap<String, Map<Integer, List<Row>>>();
+         m_numberFormat = new DecimalFormat();
+
+         processIndexedFile(file, null);
+         m_reader = new PrimaveraReader(m_taskUdfCounters, m_resourceUdfCounters, m_assignmentUdfCounters, m_resourceFields, m_wbsFields, m_taskFields, m_assignmentFields, m_aliases, m_matchPrimaveraWBS);
+         ProjectFile project = readProject();
+         return (project);
+      }
+
+      finally
+      {
+         m_tables = null;
+         m_indexes = null;
+         m_numberFormat = null;
+         m_reader = null;
+      }
+   }
+
+   /**
+    * Reads the XER file table and row structure using the file index.
+    * Tables holding project specific data are populated only with
+    * rows for the selected project, and all other tables are read in full.
+    *
+    * @param file XER file
+    * @param tables names of the tables to read, or null to read all required tables
+    * @throws MPXJException
+    */
+   private void processIndexedFile(File file, Set<String> tables) throws MPXJException
+   {
+      RandomAccessFile raf = null;
+
+      try
+      {
+         XerFileIndex index = getIndex(file);
+         Charset charset = getCharset();
+         List<String> record = new ArrayList<String>();
+
+         if (m_projectID == null && tables == null)
+         {
+            List<Integer> projectIDs = index.getProjectIDs();
+            if (!projectIDs.isEmpty())
+            {
+               m_projectID = projectIDs.get(0);
+            }
+         }
+
+         raf = new RandomAccessFile(file, "r");
+         tokenize(XerFileIndex.readLine(raf, 0, charset), record);
+         if (record.isEmpty() || !record.get(0).equals("ERMHDR"))
+         {
+            throw new MPXJException(MPXJException.INVALID_FILE);
+         }
+         processRecord(record);
+
+         for (XerFileIndex.TableIndex table : index.getTables())
+         {
+            if (tables != null && !tables.contains(table.getName()))
+            {
+               continue;
+            }
+
+            record.clear();
+            record.add("%T");
+            record.add(table.getName());
+            processRecord(record);
+
+            if (table.getFieldsOffset() == -1)
+            {
+               continue;
+            }
+
+            tokenize(XerFileIndex.readLine(raf, table.getFieldsOffset(), charset), record);
+            processRecord(record);
+
+            if (tables == null && LAZY_TABLES.contains(table.getName()) && table.getIndexedByProject())
+            {
+               for (long offset : table.getRowOffsets(m_projectID))
+               {
+                  tokenize(XerFileIndex.readLine(raf, offset, charset), record);
+                  processRecord(record);
+               }
+            }
+            else
+            {
+               byte[] data = new byte[(int) (table.getDataEnd() - table.getDataStart())];
+               raf.seek(table.getDataStart());
+               raf.readFully(data);
+
+               Tokenizer tk = new ReaderTokenizer(new InputStreamReader(new ByteArrayInputStream(data), charset));
+               tk.setDelimiter('\t');
+               tk.setQuotedLineBreaks(true);
+               for (int rowIndex = 0; rowIndex < table.getRowCount() && tk.getType() != Tokenizer.TT_EOF;)
+               {
+                  readRecord(tk, record);
+                  if (!record.isEmpty())
+                  {
+                     processRecord(record);
+                     ++rowIndex;
+                  }
+               }
+            }
+         }
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         if (raf != null)
+         {
+            try
+            {
+               raf.close();
+            }
+
+            catch (IOException ex)
+            {
+               // Ignore errors on close
+            }
+         }
+      }
+   }
+
+   /**
+    * Retrieve the index for a file. The index is retained by the reader
+    * and reused while the file is unchanged, so selecting several projects
+    * from the same file only requires a single pass to build the index.
+    *
+    * @param file XER file
+    * @return file index
+    * @throws IOException
+    */
+   private XerFileIndex getIndex(File file) throws IOException
+   {
+      if (m_fileIndex == null || !m_fileIndex.isValidFor(file))
+      {
+         m_fileIndex = null;
+         m_fileIndex = new XerFileIndex(file, REQUIRED_TABLES, INDEXED_TABLES);
+      }
+      return m_fileIndex;
+   }
+
+   /**
+    * Split a single line from an XER file into its tokens.
+    *
+    * @param line line text
+    * @param record list of tokens
+    * @throws IOException
+    */
+   private void tokenize(String line, List<String> record) throws IOException
+   {
+      Tokenizer tk = new ReaderTokenizer(new StringReader(line));
+      tk.setDelimiter('\t');
+      tk.setQuotedLineBreaks(true);
+      readRecord(tk, record);
+   }
+
    /**
     * Process project properties.
     */
@@ -561,13 +860,14 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          {
             m_currentTableName = record.get(1).toLowerCase();
             m_skipTable = !REQUIRED_TABLES.contains(m_currentTableName);
+            m_currentIndex = null;
             if (m_skipTable)
             {
                m_currentTable = null;
             }
             else
             {
-               m_currentTable = new LinkedList<Row>();
+               m_currentTable = new ArrayList<Row>();
                m_tables.put(m_currentTableName, m_currentTable);
             }
             break;
@@ -585,7 +885,14 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
                for (int loop = 0; loop < m_currentFieldNames.length; loop++)
                {
                   m_currentFieldNames[loop] = m_currentFieldNames[loop].toLowerCase();
+                  if (m_currentFieldNames[loop].equals(INDEX_COLUMN))
+                  {
+                     m_currentIndex = new HashMap<Integer, List<Row>>();
+                     m_currentIndexColumn = loop;
+                     m_indexes.put(m_currentTableName, m_currentIndex);
+                  }
                }
+               m_currentColumns = new ColumnarTable(new TableSchema(m_currentFieldNames));
             }
             break;
          }
@@ -594,7 +901,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          {
             if (!m_skipTable)
             {
-               Map<String, Object> map = new HashMap<String, Object>();
+               int rowIndex = m_currentColumns.addRow();
                for (int loop = 1; loop < record.size(); loop++)
                {
                   String fieldName = m_currentFieldNames[loop];
@@ -659,12 +966,29 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
                      }
                   }
 
-                  map.put(fieldName, objectValue);
+                  m_currentColumns.setValue(rowIndex, loop, objectValue);
                }
 
-               Row currentRow = new MapRow(map);
+               Row currentRow = new ColumnarRow(m_currentColumns, rowIndex);
                m_currentTable.add(currentRow);
 
+               //
+               // Index the rows by project ID as we read them so that
+               // we can retrieve the rows for a project without
+               // scanning the whole table.
+               //
+               if (m_currentIndex != null)
+               {
+                  Integer projectID = (Integer) m_currentColumns.getObject(rowIndex, m_currentIndexColumn);
+                  List<Row> rows = m_currentIndex.get(projectID);
+                  if (rows == null)
+                  {
+                     rows = new ArrayList<Row>();
+                     m_currentIndex.put(projectID, rows);
+                  }
+                  rows.add(currentRow);
+               }
+
                //
                // Special case - we need to know the default currency format
                // ahead of time, so process each row as we get it so that
@@ -789,7 +1113,11 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    /**
     * Filters a list of rows from the named table. If a column name and a value
     * are supplied, then use this to filter the rows. If no column name is
-    * supplied, then return all rows.
+    * supplied, then return all rows. Tables containing a project ID column
+    * are indexed as they are read, so filtering by project ID does not
+    * require a scan of the table. As with a scan, the caller receives its
+    * own copy of the filtered rows, so the index is not affected if the
+    * list is modified.
     *
     * @param tableName table name
     * @param columnName filter column name
@@ -812,12 +1140,21 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          }
          else
          {
-            result = new LinkedList<Row>();
-            for (Row row : table)
+            Map<Integer, List<Row>> index = m_indexes.get(tableName);
+            if (index != null && columnName.equals(INDEX_COLUMN))
+            {
+               List<Row> rows = index.get(id);
+               result = rows == null ? new ArrayList<Row>() : new ArrayList<Row>(rows);
+            }
+            else
             {
-               if (NumberHelper.equals(id, row.getInteger(columnName)))
+               result = new LinkedList<Row>();
+               for (Row row : table)
                {
-                  result.add(row);
+                  if (NumberHelper.equals(id, row.getInteger(columnName)))
+                  {
+                     result.add(row);
+                  }
                }
             }
          }
@@ -849,6 +1186,34 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       m_matchPrimaveraWBS = matchPrimaveraWBS;
    }
 
+   /**
+    * If set to true, reading a project from a File will first build an
+    * index of the file recording the location of each project's rows.
+    * Only the rows for the selected project are then decoded. The index
+    * is retained and reused when further projects are read from the same
+    * file. Defaults to false.
+    *
+    * @return flag value
+    */
+   public boolean getLazyProjectLoading()
+   {
+      return m_lazyProjectLoading;
+   }
+
+   /**
+    * If set to true, reading a project from a File will first build an
+    * index of the file recording the location of each project's rows.
+    * Only the rows for the selected project are then decoded. The index
+    * is retained and reused when further projects are read from the same
+    * file. Defaults to false.
+    *
+    * @param lazyProjectLoading flag value
+    */
+   public void setLazyProjectLoading(boolean lazyProjectLoading)
+   {
+      m_lazyProjectLoading = lazyProjectLoading;
+   }
+
    private String m_encoding;
    private Charset m_charset;
    private PrimaveraReader m_reader;
@@ -857,13 +1222,18 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private Map<String, List<Row>> m_tables;
    private String m_currentTableName;
    private List<Row> m_currentTable;
+   private Map<String, Map<Integer, List<Row>>> m_indexes;
+   private Map<Integer, List<Row>> m_currentIndex;
    private String[] m_currentFieldNames;
+   private ColumnarTable m_currentColumns;
+   private int m_currentIndexColumn;
    private String m_defaultCurrencyName;
    private Map<String, DecimalFormat> m_currencyMap = new HashMap<String, DecimalFormat>();
    private DecimalFormat m_numberFormat;
    private Row m_defaultCurrencyData;
    private DateFormat m_df = new MultiDateFormat("yyyy-MM-dd HH:mm", "yyyy-MM-dd");
    private List<ProjectListener> m_projectListeners;
+   private ProjectStreamListener m_streamListener;
    private UserFieldCounters m_taskUdfCounters = new UserFieldCounters();
    private UserFieldCounters m_resourceUdfCounters = new UserFieldCounters();
    private UserFieldCounters m_assignmentUdfCounters = new UserFieldCounters();
@@ -873,6 +1243,8 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private Map<FieldType, String> m_assignmentFields = PrimaveraReader.getDefaultAssignmentFieldMap();
    private Map<FieldType, String> m_aliases = PrimaveraReader.getDefaultAliases();
    private boolean m_matchPrimaveraWBS = true;
+   private boolean m_lazyProjectLoading;
+   private XerFileIndex m_fileIndex;
 
    /**
     * Represents expected record types.
@@ -906,6 +1278,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    static
    {
       RECORD_TYPE_MAP.put("RMHDR", XerRecordType.HEADER);
+      RECORD_TYPE_MAP.put("ERMHDR", XerRecordType.HEADER);
       RECORD_TYPE_MAP.put("%T", XerRecordType.TABLE);
       RECORD_TYPE_MAP.put("%F", XerRecordType.FIELDS);
       RECORD_TYPE_MAP.put("%R", XerRecordType.DATA);
@@ -1026,6 +1399,11 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       FIELD_TYPE_MAP.put("cstr_date2", XerFieldType.DATE);      
    }
 
+   /**
+    * Column used to index table rows.
+    */
+   private static final String INDEX_COLUMN = "proj_id";
+
    private static final Set<String> REQUIRED_TABLES = new HashSet<String>();
    static
    {
@@ -1046,5 +1424,27 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       REQUIRED_TABLES.add("taskactv");
    }
 
+   /**
+    * Tables whose rows are indexed by project ID when building a file index.
+    */
+   private static final Set<String> INDEXED_TABLES = new HashSet<String>();
+
+   /**
+    * Tables from which only the selected project's rows are read when
+    * lazy project loading is enabled.
+    */
+   private static final Set<String> LAZY_TABLES = new HashSet<String>();
+   static
+   {
+      LAZY_TABLES.add("projwbs");
+      LAZY_TABLES.add("task");
+      LAZY_TABLES.add("taskpred");
+      LAZY_TABLES.add("taskrsrc");
+      LAZY_TABLES.add("schedoptions");
+
+      INDEXED_TABLES.addAll(LAZY_TABLES);
+      INDEXED_TABLES.add("project");
+   }
+
    private static final WbsRowComparatorXER WBS_ROW_COMPARATOR = new WbsRowComparatorXER();
 }
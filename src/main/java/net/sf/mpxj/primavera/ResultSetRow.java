@@ -28,16 +28,18 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
+import net.sf.mpxj.common.ColumnarTable;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TableSchema;
 
 /**
- * Implementation of the Row interface, wrapping a Map.
+ * Implementation of the Row interface, populated from the current
+ * row of a result set. The values are held in a table shared by all
+ * rows read from the same result set.
  */
-final class ResultSetRow extends MapRow
+final class ResultSetRow extends ColumnarRow
 {
    /**
     * Constructor.
@@ -46,16 +48,19 @@ final class ResultSetRow extends MapRow
     *            result set from which data is drawn
     * @param meta
     *            result set meta data
+    * @param table
+    *            table to which this row is added
     */
-   public ResultSetRow(ResultSet rs, Map<String, Integer> meta)
+   public ResultSetRow(ResultSet rs, Map<String, Integer> meta, ColumnarTable table)
       throws SQLException
    {
-      super(new HashMap<String, Object>());
+      super(table, table.addRow());
 
-      for (Entry<String, Integer> entry : meta.entrySet())
+      TableSchema schema = table.getSchema();
+      for (int column = 0; column < schema.getColumnCount(); column++)
       {
-         String name = entry.getKey();
-         int type = (entry.getValue()).intValue();
+         String name = schema.getColumnName(column);
+         int type = meta.get(name).intValue();
          Object value;
 
          switch (type)
@@ -146,10 +151,21 @@ final class ResultSetRow extends MapRow
             value = null;
          }
 
-         m_map.put(name, value);
+         table.setValue(m_row, column, value);
       }
    }
 
+   /**
+    * Create a table to hold the rows read from a result set.
+    *
+    * @param meta result set meta data
+    * @return new table
+    */
+   public static ColumnarTable createTable(Map<String, Integer> meta)
+   {
+      return new ColumnarTable(new TableSchema(meta.keySet()));
+   }
+
    // https://stackoverflow.com/questions/45377247/microsoft-sql-jdbc-driver-v6-2-returning-incorrect-sql-type-code-for-datetime-fi
    private static final int SQL_SERVER_TIMESTAMP = -151;
 }
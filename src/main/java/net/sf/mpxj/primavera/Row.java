@@ -27,6 +27,7 @@ import java.util.Date;
 import java.util.UUID;
 
 import net.sf.mpxj.Duration;
+import net.sf.mpxj.common.TableSchema;
 
 /**
  * This interface represents a row in a database table. It is envisaged that
@@ -101,4 +102,78 @@ interface Row
     * @return attribute value
     */
    public UUID getUUID(String name);
+
+   /**
+    * Retrieve the schema describing the columns of this row. Rows read
+    * from the same table share a schema, so the ordinal position of each
+    * column can be determined once, then used to retrieve values from
+    * every row in the table.
+    *
+    * @return table schema
+    */
+   public TableSchema getSchema();
+
+   /**
+    * Retrieve a string attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public String getString(int ordinal);
+
+   /**
+    * Retrieve an Integer attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public Integer getInteger(int ordinal);
+
+   /**
+    * Retrieve a Double attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public Double getDouble(int ordinal);
+
+   /**
+    * Retrieve a boolean attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public boolean getBoolean(int ordinal);
+
+   /**
+    * Retrieve an int attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public int getInt(int ordinal);
+
+   /**
+    * Retrieve a date attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public Date getDate(int ordinal);
+
+   /**
+    * Retrieve a duration attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public Duration getDuration(int ordinal);
+
+   /**
+    * Retrieve a UUID attribute.
+    *
+    * @param ordinal column ordinal position, or -1 if the column is not present
+    * @return attribute value
+    */
+   public UUID getUUID(int ordinal);
 }
@@ -47,6 +47,17 @@ class UserFieldCounters
       }
    }
 
+   /**
+    * Copy constructor. The field names configured for each type are
+    * copied, the counters are not.
+    *
+    * @param source counters to copy
+    */
+   public UserFieldCounters(UserFieldCounters source)
+   {
+      System.arraycopy(source.m_names, 0, m_names, 0, m_names.length);
+   }
+
    /**
     * Allow the caller to override the default field name assigned
     * to a user defined data type.
@@ -0,0 +1,586 @@
+/*
+ * file:       XerFileIndex.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       08/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.primavera;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the location of tables and rows within an XER file, using a
+ * single pass over the raw bytes of the file. No rows are decoded when
+ * the index is built. For selected tables the location of each row is
+ * recorded against its project ID, allowing the rows for a single
+ * project to be read without decoding the rest of the file.
+ */
+final class XerFileIndex
+{
+   /**
+    * Constructor.
+    *
+    * @param file XER file
+    * @param requiredTables tables to index
+    * @param projectTables tables whose rows are indexed by project ID
+    */
+   public XerFileIndex(File file, Set<String> requiredTables, Set<String> projectTables) throws IOException
+   {
+      m_file = file;
+      m_length = file.length();
+      m_lastModified = file.lastModified();
+
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         index(is, requiredTables, projectTables);
+      }
+
+      finally
+      {
+         is.close();
+      }
+   }
+
+   /**
+    * Determine if this index is still valid for the supplied file.
+    *
+    * @param file XER file
+    * @return true if the index can be used to read this file
+    */
+   public boolean isValidFor(File file)
+   {
+      return m_file.getAbsoluteFile().equals(file.getAbsoluteFile()) && m_length == file.length() && m_lastModified == file.lastModified();
+   }
+
+   /**
+    * Retrieve the indexed tables, in the order they appear in the file.
+    *
+    * @return list of tables
+    */
+   public List<TableIndex> getTables()
+   {
+      return m_tables;
+   }
+
+   /**
+    * Retrieve the ID of each project in the file, in file order.
+    *
+    * @return project IDs
+    */
+   public List<Integer> getProjectIDs()
+   {
+      TableIndex table = m_tableMap.get("project");
+      return table == null || table.m_rows == null ? new ArrayList<Integer>() : new ArrayList<Integer>(table.m_rows.keySet());
+   }
+
+   /**
+    * Read a single line from the file. Line breaks within quoted
+    * values form part of the line.
+    *
+    * @param file open file
+    * @param offset offset of the start of the line
+    * @param charset character set used to decode the line
+    * @return line text
+    */
+   public static String readLine(RandomAccessFile file, long offset, Charset charset) throws IOException
+   {
+      file.seek(offset);
+      LineEndDetector detector = new LineEndDetector();
+      byte[] buffer = new byte[512];
+      int length = 0;
+      while (true)
+      {
+         if (length == buffer.length)
+         {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+         }
+
+         int count = file.read(buffer, length, buffer.length - length);
+         if (count == -1)
+         {
+            break;
+         }
+
+         int end = length + count;
+         int newline = -1;
+         for (int index = length; index < end; index++)
+         {
+            if (detector.isLineEnd(buffer[index]))
+            {
+               newline = index;
+               break;
+            }
+         }
+
+         if (newline != -1)
+         {
+            length = newline;
+            break;
+         }
+         length = end;
+      }
+
+      if (length > 0 && buffer[length - 1] == '\r')
+      {
+         --length;
+      }
+
+      return new String(buffer, 0, length, charset);
+   }
+
+   /**
+    * Make a single pass over the file recording table and row locations.
+    * Line breaks within quoted values do not end a row.
+    *
+    * @param is input stream
+    * @param requiredTables tables to index
+    * @param projectTables tables whose rows are indexed by project ID
+    */
+   private void index(InputStream is, Set<String> requiredTables, Set<String> projectTables) throws IOException
+   {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      byte[] line = new byte[256];
+      int lineLength = 0;
+      long lineStart = 0;
+      long position = 0;
+      TableIndex currentTable = null;
+      LineEndDetector detector = new LineEndDetector();
+      boolean done = false;
+
+      int count;
+      while (!done && (count = is.read(buffer)) != -1)
+      {
+         for (int index = 0; index < count; index++)
+         {
+            byte b = buffer[index];
+            ++position;
+
+            if (!detector.isLineEnd(b))
+            {
+               if (lineLength == line.length)
+               {
+                  line = Arrays.copyOf(line, line.length * 2);
+               }
+               line[lineLength++] = b;
+               continue;
+            }
+
+            if (lineLength > 0 && line[lineLength - 1] == '\r')
+            {
+               --lineLength;
+            }
+
+            if (lineLength > 1 && line[0] == '%')
+            {
+               switch (line[1])
+               {
+                  case 'T':
+                  {
+                     closeTable(currentTable, lineStart);
+                     String name = new String(line, 2, lineLength - 2, ASCII).trim().toLowerCase();
+                     if (requiredTables.contains(name))
+                     {
+                        currentTable = new TableIndex(name);
+                        m_tables.add(currentTable);
+                        m_tableMap.put(name, currentTable);
+                     }
+                     else
+                     {
+                        currentTable = null;
+                     }
+                     break;
+                  }
+
+                  case 'F':
+                  {
+                     if (currentTable != null)
+                     {
+                        currentTable.m_fieldsOffset = lineStart;
+                        currentTable.m_dataStart = position;
+                        if (projectTables.contains(currentTable.m_name))
+                        {
+                           String[] names = new String(line, 0, lineLength, ASCII).split("\t");
+                           for (int nameIndex = 1; nameIndex < names.length; nameIndex++)
+                           {
+                              if (names[nameIndex].trim().equalsIgnoreCase(PROJECT_ID_COLUMN))
+                              {
+                                 currentTable.m_projectIDColumn = nameIndex;
+                                 currentTable.m_rows = new LinkedHashMap<Integer, OffsetList>();
+                                 break;
+                              }
+                           }
+                        }
+                     }
+                     break;
+                  }
+
+                  case 'R':
+                  {
+                     if (currentTable != null)
+                     {
+                        ++currentTable.m_rowCount;
+                        if (currentTable.m_rows != null)
+                        {
+                           Integer projectID = getInteger(line, lineLength, currentTable.m_projectIDColumn);
+                           if (projectID != null)
+                           {
+                              OffsetList offsets = currentTable.m_rows.get(projectID);
+                              if (offsets == null)
+                              {
+                                 offsets = new OffsetList();
+                                 currentTable.m_rows.put(projectID, offsets);
+                              }
+                              offsets.add(lineStart);
+                           }
+                        }
+                     }
+                     break;
+                  }
+
+                  case 'E':
+                  {
+                     closeTable(currentTable, lineStart);
+                     currentTable = null;
+                     done = true;
+                     break;
+                  }
+
+                  default:
+                  {
+                     break;
+                  }
+               }
+            }
+
+            if (done)
+            {
+               break;
+            }
+
+            lineLength = 0;
+            lineStart = position;
+         }
+      }
+
+      closeTable(currentTable, position);
+   }
+
+   /**
+    * Record the end of the current table.
+    *
+    * @param table current table, may be null
+    * @param offset offset of the end of the table
+    */
+   private void closeTable(TableIndex table, long offset)
+   {
+      if (table != null && table.m_dataEnd == 0)
+      {
+         table.m_dataEnd = offset;
+      }
+   }
+
+   /**
+    * Extract an integer value from a tab separated row. Quoted values are
+    * handled in the same way as the tokenizer used to read the file.
+    *
+    * @param line row data
+    * @param length row length
+    * @param column column index
+    * @return integer value, or null if the value is empty or not a number
+    */
+   private Integer getInteger(byte[] line, int length, int column)
+   {
+      int currentColumn = 0;
+      int index = 0;
+
+      while (currentColumn < column && index < length)
+      {
+         if (line[index] == '"')
+         {
+            ++index;
+            while (index < length)
+            {
+               if (line[index] == '"')
+               {
+                  if (index + 1 < length && line[index + 1] == '"')
+                  {
+                     index += 2;
+                     continue;
+                  }
+                  ++index;
+                  break;
+               }
+               ++index;
+            }
+         }
+
+         while (index < length && line[index] != '\t')
+         {
+            ++index;
+         }
+
+         ++index;
+         ++currentColumn;
+      }
+
+      Integer result = null;
+      if (currentColumn == column && index <= length)
+      {
+         long value = 0;
+         boolean digits = false;
+         while (index < length && line[index] != '\t')
+         {
+            byte b = line[index++];
+            if (b >= '0' && b <= '9')
+            {
+               value = (value * 10) + (b - '0');
+               digits = true;
+            }
+            else
+            {
+               if (b != ' ')
+               {
+                  digits = false;
+                  break;
+               }
+            }
+         }
+
+         if (digits && value <= Integer.MAX_VALUE)
+         {
+            result = Integer.valueOf((int) value);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Identifies the line breaks which end a line, ignoring those which
+    * appear within quoted values. Quoted values are recognised in the
+    * same way as the tokenizer used to read the file: a value is quoted
+    * if it starts with a quote character, and a pair of quote characters
+    * within a quoted value represents a single quote character.
+    */
+   private static final class LineEndDetector
+   {
+      /**
+       * Process the next byte from the file.
+       *
+       * @param b next byte
+       * @return true if this byte ends the current line
+       */
+      public boolean isLineEnd(byte b)
+      {
+         boolean result = false;
+
+         if (m_closingQuote && b == '"')
+         {
+            //
+            // A pair of quote characters within a quoted value
+            //
+            m_quoted = true;
+            m_closingQuote = false;
+         }
+         else
+         {
+            m_closingQuote = false;
+            if (m_quoted)
+            {
+               if (b == '"')
+               {
+                  m_quoted = false;
+                  m_closingQuote = true;
+               }
+            }
+            else
+            {
+               if (b == '"')
+               {
+                  m_quoted = m_fieldStart;
+               }
+               else
+               {
+                  result = b == '\n';
+               }
+            }
+         }
+
+         m_fieldStart = !m_quoted && (b == '\t' || b == '\n');
+         return result;
+      }
+
+      private boolean m_quoted;
+      private boolean m_closingQuote;
+      private boolean m_fieldStart = true;
+   }
+
+   /**
+    * Location of a table within the file.
+    */
+   static final class TableIndex
+   {
+      /**
+       * Constructor.
+       *
+       * @param name table name
+       */
+      TableIndex(String name)
+      {
+         m_name = name;
+      }
+
+      /**
+       * Retrieve the table name.
+       *
+       * @return table name
+       */
+      public String getName()
+      {
+         return m_name;
+      }
+
+      /**
+       * Retrieve the offset of the field names record.
+       *
+       * @return offset, or -1 if the table has no field names record
+       */
+      public long getFieldsOffset()
+      {
+         return m_fieldsOffset;
+      }
+
+      /**
+       * Retrieve the offset of the first data record.
+       *
+       * @return offset
+       */
+      public long getDataStart()
+      {
+         return m_dataStart;
+      }
+
+      /**
+       * Retrieve the offset immediately following the last data record.
+       *
+       * @return offset
+       */
+      public long getDataEnd()
+      {
+         return m_dataEnd;
+      }
+
+      /**
+       * Retrieve the number of data records in the table.
+       *
+       * @return row count
+       */
+      public int getRowCount()
+      {
+         return m_rowCount;
+      }
+
+      /**
+       * Determine if the rows in this table are indexed by project ID.
+       *
+       * @return true if the rows are indexed by project ID
+       */
+      public boolean getIndexedByProject()
+      {
+         return m_rows != null;
+      }
+
+      /**
+       * Retrieve the offsets of the rows belonging to a project.
+       *
+       * @param projectID project ID
+       * @return row offsets
+       */
+      public long[] getRowOffsets(Integer projectID)
+      {
+         OffsetList offsets = m_rows == null ? null : m_rows.get(projectID);
+         return offsets == null ? EMPTY_OFFSETS : offsets.toArray();
+      }
+
+      final String m_name;
+      long m_fieldsOffset = -1;
+      long m_dataStart;
+      long m_dataEnd;
+      int m_rowCount;
+      int m_projectIDColumn;
+      Map<Integer, OffsetList> m_rows;
+   }
+
+   /**
+    * Growable list of file offsets.
+    */
+   private static final class OffsetList
+   {
+      /**
+       * Add an offset to the list.
+       *
+       * @param offset file offset
+       */
+      public void add(long offset)
+      {
+         if (m_size == m_offsets.length)
+         {
+            m_offsets = Arrays.copyOf(m_offsets, m_size * 2);
+         }
+         m_offsets[m_size++] = offset;
+      }
+
+      /**
+       * Retrieve the offsets as an array.
+       *
+       * @return array of offsets
+       */
+      public long[] toArray()
+      {
+         return Arrays.copyOf(m_offsets, m_size);
+      }
+
+      private long[] m_offsets = new long[8];
+      private int m_size;
+   }
+
+   private final File m_file;
+   private final long m_length;
+   private final long m_lastModified;
+   private final List<TableIndex> m_tables = new ArrayList<TableIndex>();
+   private final Map<String, TableIndex> m_tableMap = new HashMap<String, TableIndex>();
+
+   private static final String PROJECT_ID_COLUMN = "proj_id";
+   private static final int BUFFER_SIZE = 65536;
+   private static final Charset ASCII = Charset.forName("US-ASCII");
+   private static final long[] EMPTY_OFFSETS = new long[0];
+}
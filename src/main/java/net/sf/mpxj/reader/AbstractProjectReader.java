@@ -27,6 +27,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 
+import net.sf.mpxj.FieldStorageType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.common.StreamHelper;
@@ -89,4 +90,40 @@ public abstract class AbstractProjectReader implements ProjectReader
          StreamHelper.closeQuietly(fis);
       }
    }
+
+   /**
+    * Set the storage type used to hold field values for the tasks,
+    * resources and resource assignments read by this reader.
+    *
+    * @param type field storage type
+    */
+   public void setFieldStorageType(FieldStorageType type)
+   {
+      m_fieldStorageType = type;
+   }
+
+   /**
+    * Retrieve the storage type used to hold field values for the tasks,
+    * resources and resource assignments read by this reader.
+    *
+    * @return field storage type, default is DENSE
+    */
+   public FieldStorageType getFieldStorageType()
+   {
+      return m_fieldStorageType;
+   }
+
+   /**
+    * Create a new project file, configured using the settings held by this reader.
+    *
+    * @return ProjectFile instance
+    */
+   protected ProjectFile createProjectFile()
+   {
+      ProjectFile projectFile = new ProjectFile();
+      projectFile.getProjectConfig().setFieldStorageType(m_fieldStorageType);
+      return projectFile;
+   }
+
+   private FieldStorageType m_fieldStorageType = FieldStorageType.DENSE;
 }
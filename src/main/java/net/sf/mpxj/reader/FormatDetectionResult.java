@@ -0,0 +1,152 @@
+/*
+ * file:       FormatDetectionResult.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of examining the header of a file with FormatDetector.
+ * Every format whose fingerprint matched is available, in the order in which
+ * the fingerprints were registered with the detector. The first of these
+ * is the format UniversalProjectReader would use to read the file.
+ */
+public final class FormatDetectionResult
+{
+   /**
+    * Constructor.
+    *
+    * @param formats matching formats, in priority order
+    * @param confidence confidence for each matching format
+    * @param charset charset indicated by a byte order mark, or null
+    * @param byteOrderMarkLength length of the byte order mark, or zero
+    * @param headerLength number of header bytes examined
+    */
+   FormatDetectionResult(List<ProjectFileFormat> formats, double[] confidence, Charset charset, int byteOrderMarkLength, int headerLength)
+   {
+      m_formats = Collections.unmodifiableList(formats);
+      m_confidence = confidence;
+      m_charset = charset;
+      m_byteOrderMarkLength = byteOrderMarkLength;
+      m_headerLength = headerLength;
+   }
+
+   /**
+    * Retrieve the detected format.
+    *
+    * @return detected format, or null if no fingerprint matched
+    */
+   public ProjectFileFormat getFormat()
+   {
+      return m_formats.isEmpty() ? null : m_formats.get(0);
+   }
+
+   /**
+    * Retrieve the confidence in the detected format, between zero and one.
+    *
+    * @return confidence, or zero if no fingerprint matched
+    */
+   public double getConfidence()
+   {
+      return m_formats.isEmpty() ? 0 : m_confidence[0];
+   }
+
+   /**
+    * Retrieve all of the formats whose fingerprints matched, in priority order.
+    *
+    * @return list of formats
+    */
+   public List<ProjectFileFormat> getFormats()
+   {
+      return m_formats;
+   }
+
+   /**
+    * Retrieve the confidence in a format, between zero and one.
+    *
+    * @param format file format
+    * @return confidence, or zero if the fingerprint for this format did not match
+    */
+   public double getConfidence(ProjectFileFormat format)
+   {
+      int index = m_formats.indexOf(format);
+      return index == -1 ? 0 : m_confidence[index];
+   }
+
+   /**
+    * Determine if the fingerprint for a format matched.
+    *
+    * @param format file format
+    * @return true if the fingerprint matched
+    */
+   public boolean matches(ProjectFileFormat format)
+   {
+      return m_formats.contains(format);
+   }
+
+   /**
+    * Retrieve the charset indicated by a byte order mark.
+    *
+    * @return charset, or null if there is no byte order mark
+    */
+   public Charset getCharset()
+   {
+      return m_charset;
+   }
+
+   /**
+    * Retrieve the length of the byte order mark. The fingerprints are
+    * matched against the header following the byte order mark.
+    *
+    * @return byte order mark length, or zero if there is no byte order mark
+    */
+   public int getByteOrderMarkLength()
+   {
+      return m_byteOrderMarkLength;
+   }
+
+   /**
+    * Retrieve the number of header bytes examined, including any
+    * byte order mark. This will be less than the header size used
+    * by the detector if the file is smaller than the header.
+    *
+    * @return number of bytes
+    */
+   public int getHeaderLength()
+   {
+      return m_headerLength;
+   }
+
+   @Override public String toString()
+   {
+      return "[FormatDetectionResult format=" + getFormat() + " confidence=" + getConfidence() + " formats=" + m_formats + "]";
+   }
+
+   private final List<ProjectFileFormat> m_formats;
+   private final double[] m_confidence;
+   private final Charset m_charset;
+   private final int m_byteOrderMarkLength;
+   private final int m_headerLength;
+}
@@ -0,0 +1,792 @@
+/*
+ * file:       FormatDetector.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.ParallelHelper;
+
+/**
+ * Determines the format of a file by examining its header, without reading
+ * the file. All of the byte fingerprints are matched in a single pass over the
+ * header using a prefix tree, and the header is converted to text once
+ * for any regular expression fingerprints.
+ *
+ * Fingerprints are held in priority order: where more than one fingerprint
+ * matches, the format registered first is reported as the detected format.
+ * The default fingerprints are those used by UniversalProjectReader, and
+ * additional fingerprints can be registered using the addFingerprint methods.
+ * Once configured, a detector can be used by multiple threads.
+ */
+public final class FormatDetector
+{
+   /**
+    * Constructor. Registers the default fingerprints.
+    */
+   public FormatDetector()
+   {
+      addFingerprint(ProjectFileFormat.BINARY_PLIST, BINARY_PLIST_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.OLE_COMPOUND_DOCUMENT, OLE_COMPOUND_DOC_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.MSPDI, MSPDI_FINGERPRINT_1);
+      addFingerprint(ProjectFileFormat.MSPDI, MSPDI_FINGERPRINT_2);
+      addFingerprint(ProjectFileFormat.ASTA_PP, PP_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.SNAPSHOT, SNAPSHOT_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.MPX, MPX_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.PRIMAVERA_XER, XER_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.PLANNER, PLANNER_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.PRIMAVERA_PMXML, PMXML_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.MDB, MDB_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.SQLITE, SQLITE_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.ZIP, ZIP_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.PHOENIX, PHOENIX_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.PHOENIX_XML, PHOENIX_XML_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.FASTTRACK, FASTTRACK_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.PROJECTLIBRE, PROJECTLIBRE_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.GANTTPROJECT, GANTTPROJECT_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.TURBOPROJECT, TURBOPROJECT_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.DOS_EXE, DOS_EXE_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.CONCEPT_DRAW, CONCEPT_DRAW_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.SYNCHRO, SYNCHRO_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.GANTT_DESIGNER, GANTT_DESIGNER_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.SDEF, SDEF_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.JSON, JSON_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.P3_DATABASE, BTRIEVE_FINGERPRINT);
+      addFingerprint(ProjectFileFormat.SURETRAK_DATABASE, STW_FINGERPRINT);
+   }
+
+   /**
+    * Register a fingerprint which matches the bytes at the start of the header.
+    * The confidence in this fingerprint is based on its length, rising to
+    * one for fingerprints of eight bytes or more.
+    *
+    * @param format file format
+    * @param fingerprint fingerprint bytes
+    */
+   public void addFingerprint(ProjectFileFormat format, byte[] fingerprint)
+   {
+      addFingerprint(format, fingerprint, Math.min(1.0, fingerprint.length / 8.0));
+   }
+
+   /**
+    * Register a fingerprint which matches the bytes at the start of the header.
+    *
+    * @param format file format
+    * @param fingerprint fingerprint bytes
+    * @param confidence confidence in the fingerprint, between zero and one
+    */
+   public void addFingerprint(ProjectFileFormat format, byte[] fingerprint, double confidence)
+   {
+      if (fingerprint.length == 0)
+      {
+         throw new IllegalArgumentException("Empty fingerprint");
+      }
+
+      PrefixNode node = m_root;
+      for (byte value : fingerprint)
+      {
+         node = node.addChild(value);
+      }
+      node.addFingerprint(addFingerprint(format, confidence));
+   }
+
+   /**
+    * Register a fingerprint which is a regular expression. The expression
+    * will be found if it occurs anywhere within the header text.
+    * The confidence in this fingerprint is one half.
+    *
+    * @param format file format
+    * @param fingerprint fingerprint regular expression
+    */
+   public void addFingerprint(ProjectFileFormat format, Pattern fingerprint)
+   {
+      addFingerprint(format, fingerprint, 0.5);
+   }
+
+   /**
+    * Register a fingerprint which is a regular expression. The expression
+    * will be found if it occurs anywhere within the header text.
+    *
+    * @param format file format
+    * @param fingerprint fingerprint regular expression
+    * @param confidence confidence in the fingerprint, between zero and one
+    */
+   public void addFingerprint(ProjectFileFormat format, Pattern fingerprint, double confidence)
+   {
+      m_patternIndexes.add(Integer.valueOf(addFingerprint(format, confidence)));
+      m_patterns.add(fingerprint);
+   }
+
+   /**
+    * Retrieve the number of bytes read from the start of a file or stream
+    * when detecting its format.
+    *
+    * @return header size
+    */
+   public int getHeaderSize()
+   {
+      return HEADER_SIZE;
+   }
+
+   /**
+    * Determine the format of a file header.
+    *
+    * @param buffer header bytes
+    * @return detection result
+    */
+   public FormatDetectionResult detect(byte[] buffer)
+   {
+      return detect(buffer, buffer.length, null);
+   }
+
+   /**
+    * Determine the format of a file header.
+    *
+    * @param buffer header bytes
+    * @param length number of bytes in the buffer to examine
+    * @param charset charset used to convert the header to text if there is no byte order mark, null for the default
+    * @return detection result
+    */
+   public FormatDetectionResult detect(byte[] buffer, int length, Charset charset)
+   {
+      //
+      // Skip any byte order mark
+      //
+      int offset = 0;
+      Charset textCharset = charset;
+      Charset byteOrderMarkCharset = null;
+      for (int index = 0; index < BOM_FINGERPRINTS.length; index++)
+      {
+         if (startsWith(buffer, length, BOM_FINGERPRINTS[index]))
+         {
+            offset = BOM_FINGERPRINTS[index].length;
+            byteOrderMarkCharset = BOM_CHARSETS[index];
+            textCharset = byteOrderMarkCharset;
+            break;
+         }
+      }
+
+      //
+      // Match the byte fingerprints in a single pass
+      //
+      boolean[] matched = new boolean[m_formats.size()];
+      PrefixNode node = m_root;
+      for (int index = offset; index < length; index++)
+      {
+         node = node.getChild(buffer[index]);
+         if (node == null)
+         {
+            break;
+         }
+
+         for (int fingerprint : node.getFingerprints())
+         {
+            matched[fingerprint] = true;
+         }
+      }
+
+      //
+      // Match the regular expression fingerprints against the header text
+      //
+      if (!m_patterns.isEmpty())
+      {
+         String text = textCharset == null ? new String(buffer, offset, length - offset) : new String(buffer, offset, length - offset, textCharset);
+         for (int index = 0; index < m_patterns.size(); index++)
+         {
+            int fingerprint = m_patternIndexes.get(index).intValue();
+            if (!matched[fingerprint] && m_patterns.get(index).matcher(text).find())
+            {
+               matched[fingerprint] = true;
+            }
+         }
+      }
+
+      List<ProjectFileFormat> formats = new ArrayList<ProjectFileFormat>();
+      double[] confidence = new double[matched.length];
+      for (int index = 0; index < matched.length; index++)
+      {
+         if (matched[index])
+         {
+            ProjectFileFormat format = m_formats.get(index);
+            if (!formats.contains(format))
+            {
+               confidence[formats.size()] = m_confidence.get(index).doubleValue();
+               formats.add(format);
+            }
+         }
+      }
+
+      return new FormatDetectionResult(formats, confidence, byteOrderMarkCharset, offset, length);
+   }
+
+   /**
+    * Determine the format of a stream by reading its header. The caller
+    * is responsible for marking and resetting the stream if required.
+    *
+    * @param stream input stream
+    * @return detection result
+    */
+   public FormatDetectionResult detect(InputStream stream) throws IOException
+   {
+      byte[] buffer = new byte[HEADER_SIZE];
+      int length = 0;
+      while (length < HEADER_SIZE)
+      {
+         int count = stream.read(buffer, length, HEADER_SIZE - length);
+         if (count == -1)
+         {
+            break;
+         }
+         length += count;
+      }
+      return detect(buffer, length, null);
+   }
+
+   /**
+    * Determine the format of a file by reading its header. Results are cached,
+    * and are reused until the length or modification time of the file changes.
+    *
+    * @param file file to examine
+    * @return detection result
+    */
+   public FormatDetectionResult detect(File file) throws IOException
+   {
+      File key = file.getAbsoluteFile();
+      long length = key.length();
+      long lastModified = key.lastModified();
+
+      CacheEntry entry = m_cache.get(key);
+      if (entry != null && entry.m_length == length && entry.m_lastModified == lastModified)
+      {
+         return entry.m_result;
+      }
+
+      FormatDetectionResult result;
+      InputStream is = new FileInputStream(key);
+
+      try
+      {
+         result = detect(is);
+      }
+
+      finally
+      {
+         is.close();
+      }
+
+      m_cache.put(key, new CacheEntry(length, lastModified, result));
+      return result;
+   }
+
+   /**
+    * Determine the format of every file in a directory and its subdirectories.
+    * The results are returned in the order UniversalProjectReader examines
+    * a directory: the files in each directory, followed by its subdirectories.
+    *
+    * @param directory directory to examine
+    * @param parallelism maximum number of threads to use
+    * @return map of files to detection results
+    */
+   public Map<File, FormatDetectionResult> detectDirectory(File directory, int parallelism) throws IOException
+   {
+      final List<File> files = new ArrayList<File>();
+      addFiles(files, directory);
+
+      final FormatDetectionResult[] results = new FormatDetectionResult[files.size()];
+      int fileCount = files.size();
+      int threadCount = Math.min(parallelism, fileCount / MIN_FILES_PER_THREAD);
+
+      if (threadCount < 2)
+      {
+         detect(files, results, 0, fileCount);
+      }
+      else
+      {
+         List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threadCount);
+         int filesPerThread = (fileCount + threadCount - 1) / threadCount;
+         for (int start = 0; start < fileCount; start += filesPerThread)
+         {
+            final int rangeStart = start;
+            final int rangeEnd = Math.min(start + filesPerThread, fileCount);
+            tasks.add(new Callable<Void>()
+            {
+               @Override public Void call() throws IOException
+               {
+                  detect(files, results, rangeStart, rangeEnd);
+                  return null;
+               }
+            });
+         }
+
+         try
+         {
+            ParallelHelper.invokeAll(tasks, threadCount, IOException.class);
+         }
+
+         catch (InterruptedException ex)
+         {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while detecting file formats");
+         }
+      }
+
+      Map<File, FormatDetectionResult> map = new LinkedHashMap<File, FormatDetectionResult>();
+      for (int index = 0; index < fileCount; index++)
+      {
+         map.put(files.get(index), results[index]);
+      }
+      return map;
+   }
+
+   /**
+    * Discard any cached results.
+    */
+   public void clearCache()
+   {
+      m_cache.clear();
+   }
+
+   /**
+    * Record the format and confidence for a new fingerprint.
+    *
+    * @param format file format
+    * @param confidence confidence in the fingerprint
+    * @return fingerprint index
+    */
+   private int addFingerprint(ProjectFileFormat format, double confidence)
+   {
+      if (confidence < 0 || confidence > 1)
+      {
+         throw new IllegalArgumentException("Confidence must be between zero and one: " + confidence);
+      }
+
+      m_formats.add(format);
+      m_confidence.add(Double.valueOf(confidence));
+      return m_formats.size() - 1;
+   }
+
+   /**
+    * Determine the format of a range of files.
+    *
+    * @param files files to examine
+    * @param results array to populate with the results
+    * @param start index of the first file
+    * @param end index after the last file
+    */
+   private void detect(List<File> files, FormatDetectionResult[] results, int start, int end) throws IOException
+   {
+      for (int index = start; index < end; index++)
+      {
+         results[index] = detect(files.get(index));
+      }
+   }
+
+   /**
+    * Add the files in a directory to a list, followed by the files in each subdirectory.
+    *
+    * @param files list of files
+    * @param directory directory to examine
+    */
+   private void addFiles(List<File> files, File directory)
+   {
+      File[] list = directory.listFiles();
+      if (list != null)
+      {
+         List<File> directories = new ArrayList<File>();
+         for (File file : list)
+         {
+            if (file.isDirectory())
+            {
+               directories.add(file);
+            }
+            else
+            {
+               files.add(file);
+            }
+         }
+
+         for (File file : directories)
+         {
+            addFiles(files, file);
+         }
+      }
+   }
+
+   /**
+    * Determine if a buffer starts with a fingerprint.
+    *
+    * @param buffer header bytes
+    * @param length number of bytes in the buffer
+    * @param fingerprint fingerprint bytes
+    * @return true if the buffer starts with the fingerprint
+    */
+   private boolean startsWith(byte[] buffer, int length, byte[] fingerprint)
+   {
+      if (length < fingerprint.length)
+      {
+         return false;
+      }
+
+      for (int index = 0; index < fingerprint.length; index++)
+      {
+         if (buffer[index] != fingerprint[index])
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * A node in the prefix tree used to match byte fingerprints.
+    */
+   private static final class PrefixNode
+   {
+      /**
+       * Retrieve the child node for the next byte.
+       *
+       * @param value byte value
+       * @return child node, or null if no fingerprint continues with this byte
+       */
+      public PrefixNode getChild(byte value)
+      {
+         return m_children == null ? null : m_children[value & 0xFF];
+      }
+
+      /**
+       * Retrieve the child node for the next byte, creating it if necessary.
+       *
+       * @param value byte value
+       * @return child node
+       */
+      public PrefixNode addChild(byte value)
+      {
+         if (m_children == null)
+         {
+            m_children = new PrefixNode[256];
+         }
+
+         PrefixNode child = m_children[value & 0xFF];
+         if (child == null)
+         {
+            child = new PrefixNode();
+            m_children[value & 0xFF] = child;
+         }
+         return child;
+      }
+
+      /**
+       * Retrieve the indexes of the fingerprints which end at this node.
+       *
+       * @return fingerprint indexes
+       */
+      public int[] getFingerprints()
+      {
+         return m_fingerprints;
+      }
+
+      /**
+       * Record a fingerprint which ends at this node.
+       *
+       * @param index fingerprint index
+       */
+      public void addFingerprint(int index)
+      {
+         int[] fingerprints = new int[m_fingerprints.length + 1];
+         System.arraycopy(m_fingerprints, 0, fingerprints, 0, m_fingerprints.length);
+         fingerprints[m_fingerprints.length] = index;
+         m_fingerprints = fingerprints;
+      }
+
+      private PrefixNode[] m_children;
+      private int[] m_fingerprints = new int[0];
+   }
+
+   /**
+    * A cached detection result, along with the file attributes used to
+    * determine if it is still valid.
+    */
+   private static final class CacheEntry
+   {
+      /**
+       * Constructor.
+       *
+       * @param length file length
+       * @param lastModified file modification time
+       * @param result detection result
+       */
+      public CacheEntry(long length, long lastModified, FormatDetectionResult result)
+      {
+         m_length = length;
+         m_lastModified = lastModified;
+         m_result = result;
+      }
+
+      final long m_length;
+      final long m_lastModified;
+      final FormatDetectionResult m_result;
+   }
+
+   private final PrefixNode m_root = new PrefixNode();
+   private final List<ProjectFileFormat> m_formats = new ArrayList<ProjectFileFormat>();
+   private final List<Double> m_confidence = new ArrayList<Double>();
+   private final List<Integer> m_patternIndexes = new ArrayList<Integer>();
+   private final List<Pattern> m_patterns = new ArrayList<Pattern>();
+   private final Map<File, CacheEntry> m_cache = new ConcurrentHashMap<File, CacheEntry>();
+
+   private static final int HEADER_SIZE = 512;
+
+   private static final int MIN_FILES_PER_THREAD = 8;
+
+   private static final byte[] OLE_COMPOUND_DOC_FINGERPRINT =
+   {
+      (byte) 0xD0,
+      (byte) 0xCF,
+      (byte) 0x11,
+      (byte) 0xE0,
+      (byte) 0xA1,
+      (byte) 0xB1,
+      (byte) 0x1A,
+      (byte) 0xE1
+   };
+
+   private static final byte[] PP_FINGERPRINT =
+   {
+      (byte) 0x00,
+      (byte) 0x00,
+      (byte) 0x30,
+      (byte) 0x30,
+      (byte) 0x30,
+      (byte) 0x30,
+      (byte) 0x30,
+      (byte) 0x30
+   };
+
+   private static final byte[] MPX_FINGERPRINT =
+   {
+      (byte) 'M',
+      (byte) 'P',
+      (byte) 'X'
+   };
+
+   private static final byte[] MDB_FINGERPRINT =
+   {
+      (byte) 0x00,
+      (byte) 0x01,
+      (byte) 0x00,
+      (byte) 0x00,
+      (byte) 'S',
+      (byte) 't',
+      (byte) 'a',
+      (byte) 'n',
+      (byte) 'd',
+      (byte) 'a',
+      (byte) 'r',
+      (byte) 'd',
+      (byte) ' ',
+      (byte) 'J',
+      (byte) 'e',
+      (byte) 't',
+      (byte) ' ',
+      (byte) 'D',
+      (byte) 'B',
+   };
+
+   private static final byte[] SQLITE_FINGERPRINT =
+   {
+      (byte) 'S',
+      (byte) 'Q',
+      (byte) 'L',
+      (byte) 'i',
+      (byte) 't',
+      (byte) 'e',
+      (byte) ' ',
+      (byte) 'f',
+      (byte) 'o',
+      (byte) 'r',
+      (byte) 'm',
+      (byte) 'a',
+      (byte) 't'
+   };
+
+   private static final byte[] XER_FINGERPRINT =
+   {
+      (byte) 'E',
+      (byte) 'R',
+      (byte) 'M',
+      (byte) 'H',
+      (byte) 'D',
+      (byte) 'R'
+   };
+
+   private static final byte[] ZIP_FINGERPRINT =
+   {
+      (byte) 'P',
+      (byte) 'K'
+   };
+
+   private static final byte[] PHOENIX_FINGERPRINT =
+   {
+      (byte) 'P',
+      (byte) 'P',
+      (byte) 'X',
+      (byte) '!',
+      (byte) '!',
+      (byte) '!',
+      (byte) '!'
+   };
+
+   private static final byte[] BINARY_PLIST_FINGERPRINT =
+   {
+      (byte) 'b',
+      (byte) 'p',
+      (byte) 'l',
+      (byte) 'i',
+      (byte) 's',
+      (byte) 't'
+   };
+
+   private static final byte[] FASTTRACK_FINGERPRINT =
+   {
+      (byte) 0x1C,
+      (byte) 0x00,
+      (byte) 0x00,
+      (byte) 0x00,
+      (byte) 0x8B,
+      (byte) 0x00,
+      (byte) 0x00,
+      (byte) 0x00
+   };
+
+   private static final byte[] PROJECTLIBRE_FINGERPRINT =
+   {
+      (byte) 0xAC,
+      (byte) 0xED,
+      (byte) 0x00,
+      (byte) 0x05
+   };
+
+   private static final byte[] BTRIEVE_FINGERPRINT =
+   {
+      (byte) 0x46,
+      (byte) 0x43,
+      (byte) 0x00,
+      (byte) 0x00
+   };
+
+   private static final byte[] STW_FINGERPRINT =
+   {
+      (byte) 0x53,
+      (byte) 0x54,
+      (byte) 0x57
+   };
+
+   private static final byte[] DOS_EXE_FINGERPRINT =
+   {
+      (byte) 0x4D,
+      (byte) 0x5A
+   };
+
+   private static final byte[] SYNCHRO_FINGERPRINT =
+   {
+      (byte) 0xB6,
+      (byte) 0x17
+   };
+
+   private static final byte[] SDEF_FINGERPRINT =
+   {
+      (byte) 'V',
+      (byte) 'O',
+      (byte) 'L',
+      (byte) 'M'
+   };
+
+   private static final byte[] SNAPSHOT_FINGERPRINT =
+   {
+      (byte) 'M',
+      (byte) 'P',
+      (byte) 'X',
+      (byte) 'J',
+      (byte) 'S',
+      (byte) 'N',
+      (byte) 'A',
+      (byte) 'P'
+   };
+
+   private static final byte[][] BOM_FINGERPRINTS =
+   {
+      {
+         (byte) 0xEF,
+         (byte) 0xBB,
+         (byte) 0xBF
+      },
+      {
+         (byte) 0xFE,
+         (byte) 0xFF
+      },
+      {
+         (byte) 0xFF,
+         (byte) 0xFE
+      }
+   };
+
+   private static final Charset[] BOM_CHARSETS =
+   {
+      CharsetHelper.UTF8,
+      CharsetHelper.UTF16,
+      CharsetHelper.UTF16LE
+   };
+
+   private static final Pattern PLANNER_FINGERPRINT = Pattern.compile("<project.*mrproject-version", Pattern.DOTALL);
+
+   private static final Pattern PMXML_FINGERPRINT = Pattern.compile("<BusinessObjects|APIBusinessObjects");
+
+   private static final Pattern MSPDI_FINGERPRINT_1 = Pattern.compile("xmlns=\"http://schemas\\.microsoft\\.com/project");
+
+   private static final Pattern MSPDI_FINGERPRINT_2 = Pattern.compile("<Project.*<SaveVersion>", Pattern.DOTALL);
+
+   private static final Pattern PHOENIX_XML_FINGERPRINT = Pattern.compile("<project.*version=\"(\\d+|\\d+\\.\\d+)\".*update_mode=\"(true|false)\".*>", Pattern.DOTALL);
+
+   private static final Pattern GANTTPROJECT_FINGERPRINT = Pattern.compile("<project.*webLink", Pattern.DOTALL);
+
+   private static final Pattern TURBOPROJECT_FINGERPRINT = Pattern.compile("dWBSTAB");
+
+   private static final Pattern CONCEPT_DRAW_FINGERPRINT = Pattern.compile("Application=\"CDProject\"");
+
+   private static final Pattern GANTT_DESIGNER_FINGERPRINT = Pattern.compile("<Gantt Version=");
+
+   private static final Pattern JSON_FINGERPRINT = Pattern.compile("^\\s*\\{\\s*\"custom_fields\"\\s*:");
+}
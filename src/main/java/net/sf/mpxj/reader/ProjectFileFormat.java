@@ -0,0 +1,59 @@
+/*
+ * file:       ProjectFileFormat.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+/**
+ * File formats recognised by FormatDetector. Some of these represent
+ * containers (for example OLE compound documents, databases and zip files)
+ * whose content must be examined further to determine which reader to use.
+ */
+public enum ProjectFileFormat
+{
+   BINARY_PLIST,
+   OLE_COMPOUND_DOCUMENT,
+   MSPDI,
+   ASTA_PP,
+   SNAPSHOT,
+   MPX,
+   PRIMAVERA_XER,
+   PLANNER,
+   PRIMAVERA_PMXML,
+   MDB,
+   SQLITE,
+   ZIP,
+   PHOENIX,
+   PHOENIX_XML,
+   FASTTRACK,
+   PROJECTLIBRE,
+   GANTTPROJECT,
+   TURBOPROJECT,
+   DOS_EXE,
+   CONCEPT_DRAW,
+   SYNCHRO,
+   GANTT_DESIGNER,
+   SDEF,
+   JSON,
+   P3_DATABASE,
+   SURETRAK_DATABASE
+}
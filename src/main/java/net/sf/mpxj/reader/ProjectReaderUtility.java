@@ -31,6 +31,7 @@ import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.asta.AstaFileReader;
 import net.sf.mpxj.fasttrack.FastTrackReader;
 import net.sf.mpxj.ganttproject.GanttProjectReader;
+import net.sf.mpxj.json.JsonReader;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
 import net.sf.mpxj.mpp.MPPReader;
 import net.sf.mpxj.mpx.MPXReader;
@@ -40,6 +41,7 @@ import net.sf.mpxj.planner.PlannerReader;
 import net.sf.mpxj.primavera.PrimaveraPMFileReader;
 import net.sf.mpxj.primavera.PrimaveraXERFileReader;
 import net.sf.mpxj.projectlibre.ProjectLibreReader;
+import net.sf.mpxj.snapshot.SnapshotReader;
 
 /**
  * This class contains utility methods for working with ProjectReaders.
@@ -118,5 +120,7 @@ public final class ProjectReaderUtility
       READER_MAP.put("FTS", FastTrackReader.class);
       READER_MAP.put("POD", ProjectLibreReader.class);
       READER_MAP.put("GAN", GanttProjectReader.class);
+      READER_MAP.put("JSON", JsonReader.class);
+      READER_MAP.put("SNAPSHOT", SnapshotReader.class);
    }
 }
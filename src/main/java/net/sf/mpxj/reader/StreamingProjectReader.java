@@ -0,0 +1,51 @@
+/*
+ * file:       StreamingProjectReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       05/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+import java.io.InputStream;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.listener.ProjectStreamListener;
+
+/**
+ * This interface is implemented by readers which can pass tasks, resources,
+ * assignments and relations to a listener as they are decoded, allowing the
+ * listener to decide which entities are retained.
+ */
+public interface StreamingProjectReader extends ProjectReader
+{
+   /**
+    * Read a project, passing each entity to the listener as it is decoded.
+    * The returned ProjectFile contains the project properties, calendars
+    * and custom field definitions, along with any entities the listener
+    * chose to retain.
+    *
+    * @param inputStream InputStream instance
+    * @param listener stream listener
+    * @return ProjectFile instance
+    * @throws MPXJException
+    */
+   public ProjectFile read(InputStream inputStream, ProjectStreamListener listener) throws MPXJException;
+}
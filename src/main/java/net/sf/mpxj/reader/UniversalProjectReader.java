@@ -26,6 +26,7 @@ package net.sf.mpxj.reader;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.sql.Connection;
@@ -35,21 +36,29 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 
+import net.sf.mpxj.FieldStorageType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.asta.AstaDatabaseFileReader;
 import net.sf.mpxj.asta.AstaDatabaseReader;
 import net.sf.mpxj.asta.AstaFileReader;
-import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.FileHelper;
 import net.sf.mpxj.common.InputStreamHelper;
 import net.sf.mpxj.common.StreamHelper;
@@ -57,6 +66,7 @@ import net.sf.mpxj.conceptdraw.ConceptDrawProjectReader;
 import net.sf.mpxj.fasttrack.FastTrackReader;
 import net.sf.mpxj.ganttdesigner.GanttDesignerReader;
 import net.sf.mpxj.ganttproject.GanttProjectReader;
+import net.sf.mpxj.json.JsonReader;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.merlin.MerlinReader;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
@@ -75,6 +85,7 @@ import net.sf.mpxj.primavera.suretrak.SureTrakDatabaseReader;
 import net.sf.mpxj.primavera.suretrak.SureTrakSTXFileReader;
 import net.sf.mpxj.projectlibre.ProjectLibreReader;
 import net.sf.mpxj.sdef.SDEFReader;
+import net.sf.mpxj.snapshot.SnapshotReader;
 import net.sf.mpxj.synchro.SynchroReader;
 import net.sf.mpxj.turboproject.TurboProjectReader;
 
@@ -97,6 +108,18 @@ public final class UniversalProjectReader implements ProjectReader
       m_projectListeners.add(listener);
    }
 
+   /**
+    * Set the storage type used to hold field values for the tasks,
+    * resources and resource assignments read by this reader.
+    * Defaults to DENSE.
+    *
+    * @param type field storage type
+    */
+   public void setFieldStorageType(FieldStorageType type)
+   {
+      m_fieldStorageType = type;
+   }
+
    /**
     * Package private method used when handling byte order mark.
     * Tells the reader to skip a number of bytes before starting to read from the stream.
@@ -128,30 +151,70 @@ public final class UniversalProjectReader implements ProjectReader
    {
       try
       {
-         ProjectFile result;
          if (file.isDirectory())
          {
-            result = handleDirectory(file);
+            return handleDirectory(file);
          }
-         else
-         {
-            FileInputStream fis = null;
 
-            try
+         //
+         // Formats which are read from a file are handled directly,
+         // rather than copying the data to a temporary file.
+         //
+         if (m_skipBytes == 0)
+         {
+            byte[] buffer = readHeader(file);
+            if (buffer != null)
             {
-               fis = new FileInputStream(file);
-               ProjectFile projectFile = read(fis);
-               fis.close();
-               return (projectFile);
+               FormatDetectionResult detection = DETECTOR.detect(buffer, BUFFER_SIZE, m_charset);
+               if (detection.getByteOrderMarkLength() == 0 && detection.getFormat() != null)
+               {
+                  switch (detection.getFormat())
+                  {
+                     case OLE_COMPOUND_DOCUMENT:
+                     {
+                        return handleOleCompoundDocument(file);
+                     }
+
+                     case MDB:
+                     {
+                        return handleMDBFile(file);
+                     }
+
+                     case SQLITE:
+                     {
+                        return handleSQLiteFile(file);
+                     }
+
+                     case ZIP:
+                     {
+                        return handleZipFile(file);
+                     }
+
+                     default:
+                     {
+                        break;
+                     }
+                  }
+               }
             }
+         }
 
-            finally
-            {
-               StreamHelper.closeQuietly(fis);
-            }
+         FileInputStream fis = null;
+
+         try
+         {
+            fis = new FileInputStream(file);
+            ProjectFile projectFile = read(fis);
+            fis.close();
+            return (projectFile);
+         }
+
+         finally
+         {
+            StreamHelper.closeQuietly(fis);
          }
-         return result;
       }
+
       catch (Exception ex)
       {
          throw new MPXJException(MPXJException.INVALID_FILE, ex);
@@ -184,139 +247,151 @@ public final class UniversalProjectReader implements ProjectReader
          }
 
          //
-         // Always check for BOM first. Regex-based fingerprints may ignore these otherwise.
+         // Match all of the file fingerprints in a single pass. If there is a byte
+         // order mark, skip this and try again to read the file.
          //
-         if (matchesFingerprint(buffer, UTF8_BOM_FINGERPRINT))
+         FormatDetectionResult detection = DETECTOR.detect(buffer, BUFFER_SIZE, m_charset);
+         if (detection.getByteOrderMarkLength() != 0)
          {
-            return handleByteOrderMark(bis, UTF8_BOM_FINGERPRINT.length, CharsetHelper.UTF8);
+            return handleByteOrderMark(bis, detection.getByteOrderMarkLength(), detection.getCharset());
          }
 
-         if (matchesFingerprint(buffer, UTF16_BOM_FINGERPRINT))
+         ProjectFileFormat format = detection.getFormat();
+         if (format == null)
          {
-            return handleByteOrderMark(bis, UTF16_BOM_FINGERPRINT.length, CharsetHelper.UTF16);
+            return null;
          }
 
-         if (matchesFingerprint(buffer, UTF16LE_BOM_FINGERPRINT))
+         switch (format)
          {
-            return handleByteOrderMark(bis, UTF16LE_BOM_FINGERPRINT.length, CharsetHelper.UTF16LE);
-         }
+            case BINARY_PLIST:
+            {
+               return handleBinaryPropertyList(bis);
+            }
 
-         //
-         // Now check for file fingerprints
-         //
-         if (matchesFingerprint(buffer, BINARY_PLIST))
-         {
-            return handleBinaryPropertyList(bis);
-         }
+            case OLE_COMPOUND_DOCUMENT:
+            {
+               return handleOleCompoundDocument(bis);
+            }
 
-         if (matchesFingerprint(buffer, OLE_COMPOUND_DOC_FINGERPRINT))
-         {
-            return handleOleCompoundDocument(bis);
-         }
+            case MSPDI:
+            {
+               MSPDIReader reader = new MSPDIReader();
+               reader.setCharset(m_charset);
+               reader.setFieldStorageType(m_fieldStorageType);
+               return reader.read(bis);
+            }
 
-         if (matchesFingerprint(buffer, MSPDI_FINGERPRINT_1) || matchesFingerprint(buffer, MSPDI_FINGERPRINT_2))
-         {
-            MSPDIReader reader = new MSPDIReader();
-            reader.setCharset(m_charset);
-            return reader.read(bis);
-         }
+            case ASTA_PP:
+            {
+               return readProjectFile(new AstaFileReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, PP_FINGERPRINT))
-         {
-            return readProjectFile(new AstaFileReader(), bis);
-         }
+            case SNAPSHOT:
+            {
+               return readProjectFile(new SnapshotReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, MPX_FINGERPRINT))
-         {
-            return readProjectFile(new MPXReader(), bis);
-         }
+            case MPX:
+            {
+               return readProjectFile(new MPXReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, XER_FINGERPRINT))
-         {
-            return handleXerFile(bis);
-         }
+            case PRIMAVERA_XER:
+            {
+               return handleXerFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, PLANNER_FINGERPRINT))
-         {
-            return readProjectFile(new PlannerReader(), bis);
-         }
+            case PLANNER:
+            {
+               return readProjectFile(new PlannerReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, PMXML_FINGERPRINT))
-         {
-            return readProjectFile(new PrimaveraPMFileReader(), bis);
-         }
+            case PRIMAVERA_PMXML:
+            {
+               return readProjectFile(new PrimaveraPMFileReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, MDB_FINGERPRINT))
-         {
-            return handleMDBFile(bis);
-         }
+            case MDB:
+            {
+               return handleMDBFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, SQLITE_FINGERPRINT))
-         {
-            return handleSQLiteFile(bis);
-         }
+            case SQLITE:
+            {
+               return handleSQLiteFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, ZIP_FINGERPRINT))
-         {
-            return handleZipFile(bis);
-         }
+            case ZIP:
+            {
+               return handleZipFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, PHOENIX_FINGERPRINT))
-         {
-            return readProjectFile(new PhoenixReader(), new PhoenixInputStream(bis));
-         }
+            case PHOENIX:
+            {
+               return readProjectFile(new PhoenixReader(), new PhoenixInputStream(bis));
+            }
 
-         if (matchesFingerprint(buffer, PHOENIX_XML_FINGERPRINT))
-         {
-            return readProjectFile(new PhoenixReader(), bis);
-         }
+            case PHOENIX_XML:
+            {
+               return readProjectFile(new PhoenixReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, FASTTRACK_FINGERPRINT))
-         {
-            return readProjectFile(new FastTrackReader(), bis);
-         }
+            case FASTTRACK:
+            {
+               return readProjectFile(new FastTrackReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, PROJECTLIBRE_FINGERPRINT))
-         {
-            return readProjectFile(new ProjectLibreReader(), bis);
-         }
+            case PROJECTLIBRE:
+            {
+               return readProjectFile(new ProjectLibreReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, GANTTPROJECT_FINGERPRINT))
-         {
-            return readProjectFile(new GanttProjectReader(), bis);
-         }
+            case GANTTPROJECT:
+            {
+               return readProjectFile(new GanttProjectReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, TURBOPROJECT_FINGERPRINT))
-         {
-            return readProjectFile(new TurboProjectReader(), bis);
-         }
+            case TURBOPROJECT:
+            {
+               return readProjectFile(new TurboProjectReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, DOS_EXE_FINGERPRINT))
-         {
-            return handleDosExeFile(bis);
-         }
+            case DOS_EXE:
+            {
+               return handleDosExeFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, CONCEPT_DRAW_FINGERPRINT))
-         {
-            return readProjectFile(new ConceptDrawProjectReader(), bis);
-         }
+            case CONCEPT_DRAW:
+            {
+               return readProjectFile(new ConceptDrawProjectReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, SYNCHRO_FINGERPRINT))
-         {
-            return readProjectFile(new SynchroReader(), bis);
-         }
+            case SYNCHRO:
+            {
+               return readProjectFile(new SynchroReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, GANTT_DESIGNER_FINGERPRINT))
-         {
-            return readProjectFile(new GanttDesignerReader(), bis);
-         }
+            case GANTT_DESIGNER:
+            {
+               return readProjectFile(new GanttDesignerReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, SDEF_FINGERPRINT))
-         {
-            return readProjectFile(new SDEFReader(), bis);
-         }
+            case SDEF:
+            {
+               return readProjectFile(new SDEFReader(), bis);
+            }
 
-         return null;
+            case JSON:
+            {
+               return readProjectFile(new JsonReader(), bis);
+            }
+
+            default:
+            {
+               return null;
+            }
+         }
       }
 
       catch (Exception ex)
@@ -394,6 +469,79 @@ public final class UniversalProjectReader implements ProjectReader
       return null;
    }
 
+   /**
+    * Read the header from a file.
+    *
+    * @param file file to read
+    * @return header bytes, or null if the file is smaller than the header
+    */
+   private byte[] readHeader(File file) throws IOException
+   {
+      InputStream is = new FileInputStream(file);
+
+      try
+      {
+         return readHeader(is);
+      }
+
+      finally
+      {
+         is.close();
+      }
+   }
+
+   /**
+    * Read the header from a stream.
+    *
+    * @param stream stream to read
+    * @return header bytes, or null if the stream is smaller than the header
+    */
+   private byte[] readHeader(InputStream stream) throws IOException
+   {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int bytesRead = 0;
+      while (bytesRead < BUFFER_SIZE)
+      {
+         int count = stream.read(buffer, bytesRead, BUFFER_SIZE - bytesRead);
+         if (count == -1)
+         {
+            break;
+         }
+         bytesRead += count;
+      }
+      return bytesRead == BUFFER_SIZE ? buffer : null;
+   }
+
+   /**
+    * We have an OLE compound document on the file system... but is it an MPP
+    * file? The document is opened directly from the file, so that blocks are
+    * read on demand rather than the whole file being copied into memory first.
+    *
+    * @param file OLE compound document file
+    * @return ProjectFile instance
+    */
+   private ProjectFile handleOleCompoundDocument(File file) throws Exception
+   {
+      POIFSFileSystem fs = new POIFSFileSystem(file, true);
+
+      try
+      {
+         String fileFormat = MPPReader.getFileFormat(fs);
+         if (fileFormat != null && fileFormat.startsWith("MSProject"))
+         {
+            MPPReader reader = new MPPReader();
+            addListeners(reader);
+            return reader.read(fs);
+         }
+         return null;
+      }
+
+      finally
+      {
+         StreamHelper.closeQuietly(fs);
+      }
+   }
+
    /**
     * We have a binary property list.
     *
@@ -413,9 +561,8 @@ public final class UniversalProjectReader implements ProjectReader
    }
 
    /**
-    * We have identified that we have an MDB file. This could be a Microsoft Project database
-    * or an Asta database. Open the database and use the table names present to determine
-    * which type this is.
+    * We have identified that we have an MDB file in a stream. Copy the data
+    * to a temporary file so that the database can be opened.
     *
     * @param stream schedule data
     * @return ProjectFile instance
@@ -426,21 +573,7 @@ public final class UniversalProjectReader implements ProjectReader
 
       try
       {
-         Class.forName("sun.jdbc.odbc.JdbcOdbcDriver");
-         String url = "jdbc:odbc:DRIVER=Microsoft Access Driver (*.mdb);DBQ=" + file.getCanonicalPath();
-         Set<String> tableNames = populateTableNames(url);
-
-         if (tableNames.contains("MSP_PROJECTS"))
-         {
-            return readProjectFile(new MPDDatabaseReader(), file);
-         }
-
-         if (tableNames.contains("EXCEPTIONN"))
-         {
-            return readProjectFile(new AstaDatabaseReader(), file);
-         }
-
-         return null;
+         return handleMDBFile(file);
       }
 
       finally
@@ -450,10 +583,36 @@ public final class UniversalProjectReader implements ProjectReader
    }
 
    /**
-    * We have identified that we have a SQLite file. This could be a Primavera Project database
+    * We have identified that we have an MDB file. This could be a Microsoft Project database
     * or an Asta database. Open the database and use the table names present to determine
     * which type this is.
     *
+    * @param file schedule data
+    * @return ProjectFile instance
+    */
+   private ProjectFile handleMDBFile(File file) throws Exception
+   {
+      Class.forName("sun.jdbc.odbc.JdbcOdbcDriver");
+      String url = "jdbc:odbc:DRIVER=Microsoft Access Driver (*.mdb);DBQ=" + file.getCanonicalPath();
+      Set<String> tableNames = populateTableNames(url);
+
+      if (tableNames.contains("MSP_PROJECTS"))
+      {
+         return readProjectFile(new MPDDatabaseReader(), file);
+      }
+
+      if (tableNames.contains("EXCEPTIONN"))
+      {
+         return readProjectFile(new AstaDatabaseReader(), file);
+      }
+
+      return null;
+   }
+
+   /**
+    * We have identified that we have a SQLite file in a stream. Copy the data
+    * to a temporary file so that the database can be opened.
+    *
     * @param stream schedule data
     * @return ProjectFile instance
     */
@@ -463,49 +622,63 @@ public final class UniversalProjectReader implements ProjectReader
 
       try
       {
-         Class.forName("org.sqlite.JDBC");
-         String url = "jdbc:sqlite:" + file.getCanonicalPath();
-         Set<String> tableNames = populateTableNames(url);
+         return handleSQLiteFile(file);
+      }
+
+      finally
+      {
+         FileHelper.deleteQuietly(file);
+      }
+   }
+
+   /**
+    * We have identified that we have a SQLite file. This could be a Primavera Project database
+    * or an Asta database. Open the database and use the table names present to determine
+    * which type this is.
+    *
+    * @param file schedule data
+    * @return ProjectFile instance
+    */
+   private ProjectFile handleSQLiteFile(File file) throws Exception
+   {
+      Class.forName("org.sqlite.JDBC");
+      String url = "jdbc:sqlite:" + file.getCanonicalPath();
+      Set<String> tableNames = populateTableNames(url);
+
+      if (tableNames.contains("EXCEPTIONN"))
+      {
+         return readProjectFile(new AstaDatabaseFileReader(), file);
+      }
 
-         if (tableNames.contains("EXCEPTIONN"))
+      if (tableNames.contains("PROJWBS"))
+      {
+         Connection connection = null;
+         try
          {
-            return readProjectFile(new AstaDatabaseFileReader(), file);
+            Properties props = new Properties();
+            props.setProperty("date_string_format", "yyyy-MM-dd HH:mm:ss");
+            connection = DriverManager.getConnection(url, props);
+            PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+            reader.setConnection(connection);
+            reader.setFieldStorageType(m_fieldStorageType);
+            addListeners(reader);
+            return reader.read();
          }
-
-         if (tableNames.contains("PROJWBS"))
+         finally
          {
-            Connection connection = null;
-            try
+            if (connection != null)
             {
-               Properties props = new Properties();
-               props.setProperty("date_string_format", "yyyy-MM-dd HH:mm:ss");
-               connection = DriverManager.getConnection(url, props);
-               PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
-               reader.setConnection(connection);
-               addListeners(reader);
-               return reader.read();
-            }
-            finally
-            {
-               if (connection != null)
-               {
-                  connection.close();
-               }
+               connection.close();
             }
          }
-
-         if (tableNames.contains("ZSCHEDULEITEM"))
-         {
-            return readProjectFile(new MerlinReader(), file);
-         }
-
-         return null;
       }
 
-      finally
+      if (tableNames.contains("ZSCHEDULEITEM"))
       {
-         FileHelper.deleteQuietly(file);
+         return readProjectFile(new MerlinReader(), file);
       }
+
+      return null;
    }
 
    /**
@@ -538,115 +711,326 @@ public final class UniversalProjectReader implements ProjectReader
    }
 
    /**
-    * We have a directory. Determine if this contains a multi-file database we understand, if so
-    * process it. If it does not contain a database, test each file within the directory
-    * structure to determine if it contains a file whose format we understand.
+    * We have identified that we have a zip file on the file system. Rather than
+    * extracting the contents into a temporary directory, each entry is read directly
+    * from the zip file, following the same order as handleDirectory. The zip file is
+    * only extracted if it contains a multi-file database, as these must be read from
+    * a directory.
     *
-    * @param directory directory to process
-    * @return ProjectFile instance if we can process anything, or null
+    * @param file schedule data
+    * @return ProjectFile instance
     */
-   private ProjectFile handleDirectory(File directory) throws Exception
+   private ProjectFile handleZipFile(File file) throws Exception
    {
-      ProjectFile result = handleDatabaseInDirectory(directory);
-      if (result == null)
+      ZipFile zipFile;
+
+      try
       {
-         result = handleFileInDirectory(directory);
+         zipFile = new ZipFile(file);
+      }
+
+      catch (ZipException ex)
+      {
+         return handleExtractedZipFile(file, "");
+      }
+
+      try
+      {
+         Map<String, List<ZipEntry>> files = new HashMap<String, List<ZipEntry>>();
+         Map<String, Set<String>> directories = new HashMap<String, Set<String>>();
+         addZipDirectory(files, directories, "");
+
+         Enumeration<? extends ZipEntry> entries = zipFile.entries();
+         while (entries.hasMoreElements())
+         {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (entry.isDirectory())
+            {
+               addZipDirectory(files, directories, name.substring(0, name.length() - 1));
+            }
+            else
+            {
+               int index = name.lastIndexOf('/');
+               String directory = index == -1 ? "" : name.substring(0, index);
+               addZipDirectory(files, directories, directory);
+               files.get(directory).add(entry);
+            }
+         }
+
+         return handleZipDirectory(file, zipFile, files, directories, "");
+      }
+
+      finally
+      {
+         zipFile.close();
       }
-      return result;
    }
 
    /**
-    * Given a directory, determine if it contains a multi-file database whose format
-    * we can process.
+    * Process a directory within a zip file. Determine if this contains a multi-file
+    * database, if so extract the zip file and process it. Otherwise test each file
+    * within the directory, then each subdirectory, to determine if it contains a
+    * file whose format we understand.
     *
-    * @param directory directory to process
+    * @param file zip file
+    * @param zipFile open zip file
+    * @param files zip entries for files, keyed by directory
+    * @param directories subdirectory names, keyed by directory
+    * @param directory name of the directory to process
     * @return ProjectFile instance if we can process anything, or null
     */
-   private ProjectFile handleDatabaseInDirectory(File directory) throws Exception
+   private ProjectFile handleZipDirectory(File file, ZipFile zipFile, Map<String, List<ZipEntry>> files, Map<String, Set<String>> directories, String directory) throws Exception
    {
-      byte[] buffer = new byte[BUFFER_SIZE];
-      File[] files = directory.listFiles();
-      if (files != null)
+      List<ZipEntry> entries = new ArrayList<ZipEntry>();
+      for (ZipEntry entry : files.get(directory))
       {
-         for (File file : files)
+         InputStream is = zipFile.getInputStream(entry);
+         byte[] buffer;
+
+         try
          {
-            if (file.isDirectory())
-            {
-               continue;
-            }
+            buffer = readHeader(is);
+         }
 
-            FileInputStream fis = new FileInputStream(file);
-            int bytesRead = fis.read(buffer);
-            fis.close();
+         finally
+         {
+            is.close();
+         }
 
-            //
-            // If the file is smaller than the buffer we are peeking into,
-            // it's probably not a valid schedule file.
-            //
-            if (bytesRead != BUFFER_SIZE)
+         if (buffer != null)
+         {
+            FormatDetectionResult detection = DETECTOR.detect(buffer, BUFFER_SIZE, null);
+            if (isMultiFileDatabase(detection))
             {
-               continue;
+               return handleExtractedZipFile(file, directory);
             }
 
-            if (matchesFingerprint(buffer, BTRIEVE_FINGERPRINT))
+            if (isReadable(detection))
             {
-               return handleP3BtrieveDatabase(directory);
+               entries.add(entry);
             }
+         }
+      }
 
-            if (matchesFingerprint(buffer, STW_FINGERPRINT))
+      for (ZipEntry entry : entries)
+      {
+         InputStream is = zipFile.getInputStream(entry);
+
+         try
+         {
+            UniversalProjectReader reader = new UniversalProjectReader();
+            reader.setFieldStorageType(m_fieldStorageType);
+            ProjectFile result = reader.read(is);
+            if (result != null)
             {
-               return handleSureTrakDatabase(directory);
+               return result;
             }
          }
+
+         finally
+         {
+            is.close();
+         }
+      }
+
+      for (String subdirectory : directories.get(directory))
+      {
+         ProjectFile result = handleZipDirectory(file, zipFile, files, directories, subdirectory);
+         if (result != null)
+         {
+            return result;
+         }
       }
+
       return null;
    }
 
    /**
-    * Given a directory, determine if it  (or any subdirectory) contains a file
-    * whose format we understand.
+    * Record a directory within a zip file, along with any parent directories
+    * which have not already been seen.
+    *
+    * @param files zip entries for files, keyed by directory
+    * @param directories subdirectory names, keyed by directory
+    * @param directory directory name
+    */
+   private void addZipDirectory(Map<String, List<ZipEntry>> files, Map<String, Set<String>> directories, String directory)
+   {
+      if (!directories.containsKey(directory))
+      {
+         files.put(directory, new ArrayList<ZipEntry>());
+         directories.put(directory, new LinkedHashSet<String>());
+         if (!directory.isEmpty())
+         {
+            int index = directory.lastIndexOf('/');
+            String parent = index == -1 ? "" : directory.substring(0, index);
+            addZipDirectory(files, directories, parent);
+            directories.get(parent).add(directory);
+         }
+      }
+   }
+
+   /**
+    * Extract a zip file into a temporary directory, and process a directory
+    * within the extracted content.
+    *
+    * @param file zip file
+    * @param directory name of the directory to process
+    * @return ProjectFile instance if we can process anything, or null
+    */
+   private ProjectFile handleExtractedZipFile(File file, String directory) throws Exception
+   {
+      InputStream is = null;
+      File dir = null;
+
+      try
+      {
+         is = new FileInputStream(file);
+         dir = InputStreamHelper.writeZipStreamToTempDir(is);
+         return handleDirectory(new File(dir, directory));
+      }
+
+      finally
+      {
+         StreamHelper.closeQuietly(is);
+         FileHelper.deleteQuietly(dir);
+      }
+   }
+
+   /**
+    * We have a directory. Determine if this contains a multi-file database we understand, if so
+    * process it. If it does not contain a database, test each file within the directory
+    * structure to determine if it contains a file whose format we understand.
+    * The header of each file in the directory is read once, and the format detected
+    * is used both to find a database and to avoid opening files we can't read.
     *
     * @param directory directory to process
     * @return ProjectFile instance if we can process anything, or null
     */
-   private ProjectFile handleFileInDirectory(File directory) throws Exception
+   private ProjectFile handleDirectory(File directory) throws Exception
    {
-      List<File> directories = new ArrayList<File>();
       File[] files = directory.listFiles();
+      if (files == null)
+      {
+         return null;
+      }
 
-      if (files != null)
+      List<File> directories = new ArrayList<File>();
+      Map<File, FormatDetectionResult> detections = new LinkedHashMap<File, FormatDetectionResult>();
+      for (File file : files)
       {
-         // Try files first
-         for (File file : files)
+         if (file.isDirectory())
          {
-            if (file.isDirectory())
+            directories.add(file);
+         }
+         else
+         {
+            //
+            // If the file is smaller than the buffer we are peeking into,
+            // it's probably not a valid schedule file.
+            //
+            byte[] buffer = readHeader(file);
+            if (buffer != null)
             {
-               directories.add(file);
+               detections.put(file, DETECTOR.detect(buffer, BUFFER_SIZE, null));
             }
-            else
+         }
+      }
+
+      ProjectFile result = handleDatabaseInDirectory(directory, detections);
+      if (result == null)
+      {
+         result = handleFileInDirectory(detections, directories);
+      }
+      return result;
+   }
+
+   /**
+    * Given a directory, determine if it contains a multi-file database whose format
+    * we can process.
+    *
+    * @param directory directory to process
+    * @param detections formats detected for the files in the directory
+    * @return ProjectFile instance if we can process anything, or null
+    */
+   private ProjectFile handleDatabaseInDirectory(File directory, Map<File, FormatDetectionResult> detections) throws Exception
+   {
+      for (FormatDetectionResult detection : detections.values())
+      {
+         if (isMultiFileDatabase(detection))
+         {
+            if (detection.matches(ProjectFileFormat.P3_DATABASE))
             {
-               UniversalProjectReader reader = new UniversalProjectReader();
-               ProjectFile result = reader.read(file);
-               if (result != null)
-               {
-                  return result;
-               }
+               return handleP3BtrieveDatabase(directory);
             }
+            return handleSureTrakDatabase(directory);
          }
+      }
+      return null;
+   }
 
-         // Haven't found a file we can read? Try the directories.
-         for (File file : directories)
+   /**
+    * Given a directory, determine if it  (or any subdirectory) contains a file
+    * whose format we understand.
+    *
+    * @param detections formats detected for the files in the directory
+    * @param directories subdirectories
+    * @return ProjectFile instance if we can process anything, or null
+    */
+   private ProjectFile handleFileInDirectory(Map<File, FormatDetectionResult> detections, List<File> directories) throws Exception
+   {
+      // Try files first
+      for (Map.Entry<File, FormatDetectionResult> entry : detections.entrySet())
+      {
+         if (isReadable(entry.getValue()))
          {
-            ProjectFile result = handleDirectory(file);
+            UniversalProjectReader reader = new UniversalProjectReader();
+            reader.setFieldStorageType(m_fieldStorageType);
+            ProjectFile result = reader.read(entry.getKey());
             if (result != null)
             {
                return result;
             }
          }
       }
+
+      // Haven't found a file we can read? Try the directories.
+      for (File file : directories)
+      {
+         ProjectFile result = handleDirectory(file);
+         if (result != null)
+         {
+            return result;
+         }
+      }
+
       return null;
    }
 
+   /**
+    * Determine if a file is part of a multi-file database.
+    *
+    * @param detection format detected for the file
+    * @return true if the file is part of a multi-file database
+    */
+   private boolean isMultiFileDatabase(FormatDetectionResult detection)
+   {
+      return detection.getByteOrderMarkLength() == 0 && (detection.matches(ProjectFileFormat.P3_DATABASE) || detection.matches(ProjectFileFormat.SURETRAK_DATABASE));
+   }
+
+   /**
+    * Determine if it is worth trying to read a file. Files with a byte order
+    * mark are always read, as their format is determined once the byte order mark
+    * has been skipped.
+    *
+    * @param detection format detected for the file
+    * @return true if the file may be readable
+    */
+   private boolean isReadable(FormatDetectionResult detection)
+   {
+      return detection.getByteOrderMarkLength() != 0 || detection.getFormat() != null;
+   }
+
    /**
     * Determine if we have a P3 Btrieve multi-file database.
     *
@@ -680,6 +1064,7 @@ public final class UniversalProjectReader implements ProjectReader
    private ProjectFile handleByteOrderMark(InputStream stream, int length, Charset charset) throws Exception
    {
       UniversalProjectReader reader = new UniversalProjectReader();
+      reader.setFieldStorageType(m_fieldStorageType);
       reader.setSkipBytes(length);
       reader.setCharset(charset);
       return reader.read(stream);
@@ -762,6 +1147,7 @@ public final class UniversalProjectReader implements ProjectReader
    {
       PrimaveraXERFileReader reader = new PrimaveraXERFileReader();
       reader.setCharset(m_charset);
+      reader.setFieldStorageType(m_fieldStorageType);
       List<ProjectFile> projects = reader.readAll(stream);
       ProjectFile project = null;
       for (ProjectFile file : projects)
@@ -819,7 +1205,8 @@ public final class UniversalProjectReader implements ProjectReader
    }
 
    /**
-    * Adds any listeners attached to this reader to the reader created internally.
+    * Adds any listeners attached to this reader to the reader created internally,
+    * and passes on the field storage type where the reader supports it.
     *
     * @param reader internal project reader
     */
@@ -832,162 +1219,21 @@ public final class UniversalProjectReader implements ProjectReader
             reader.addProjectListener(listener);
          }
       }
+
+      if (reader instanceof AbstractProjectReader)
+      {
+         ((AbstractProjectReader) reader).setFieldStorageType(m_fieldStorageType);
+      }
    }
 
    private int m_skipBytes;
    private Charset m_charset;
    private List<ProjectListener> m_projectListeners;
+   private FieldStorageType m_fieldStorageType = FieldStorageType.DENSE;
 
    private static final int BUFFER_SIZE = 512;
 
-   private static final byte[] OLE_COMPOUND_DOC_FINGERPRINT =
-   {
-      (byte) 0xD0,
-      (byte) 0xCF,
-      (byte) 0x11,
-      (byte) 0xE0,
-      (byte) 0xA1,
-      (byte) 0xB1,
-      (byte) 0x1A,
-      (byte) 0xE1
-   };
-
-   private static final byte[] PP_FINGERPRINT =
-   {
-      (byte) 0x00,
-      (byte) 0x00,
-      (byte) 0x30,
-      (byte) 0x30,
-      (byte) 0x30,
-      (byte) 0x30,
-      (byte) 0x30,
-      (byte) 0x30
-   };
-
-   private static final byte[] MPX_FINGERPRINT =
-   {
-      (byte) 'M',
-      (byte) 'P',
-      (byte) 'X'
-   };
-
-   private static final byte[] MDB_FINGERPRINT =
-   {
-      (byte) 0x00,
-      (byte) 0x01,
-      (byte) 0x00,
-      (byte) 0x00,
-      (byte) 'S',
-      (byte) 't',
-      (byte) 'a',
-      (byte) 'n',
-      (byte) 'd',
-      (byte) 'a',
-      (byte) 'r',
-      (byte) 'd',
-      (byte) ' ',
-      (byte) 'J',
-      (byte) 'e',
-      (byte) 't',
-      (byte) ' ',
-      (byte) 'D',
-      (byte) 'B',
-   };
-
-   private static final byte[] SQLITE_FINGERPRINT =
-   {
-      (byte) 'S',
-      (byte) 'Q',
-      (byte) 'L',
-      (byte) 'i',
-      (byte) 't',
-      (byte) 'e',
-      (byte) ' ',
-      (byte) 'f',
-      (byte) 'o',
-      (byte) 'r',
-      (byte) 'm',
-      (byte) 'a',
-      (byte) 't'
-   };
-
-   private static final byte[] XER_FINGERPRINT =
-   {
-      (byte) 'E',
-      (byte) 'R',
-      (byte) 'M',
-      (byte) 'H',
-      (byte) 'D',
-      (byte) 'R'
-   };
-
-   private static final byte[] ZIP_FINGERPRINT =
-   {
-      (byte) 'P',
-      (byte) 'K'
-   };
-
-   private static final byte[] PHOENIX_FINGERPRINT =
-   {
-      (byte) 'P',
-      (byte) 'P',
-      (byte) 'X',
-      (byte) '!',
-      (byte) '!',
-      (byte) '!',
-      (byte) '!'
-   };
-
-   private static final byte[] BINARY_PLIST =
-   {
-      (byte) 'b',
-      (byte) 'p',
-      (byte) 'l',
-      (byte) 'i',
-      (byte) 's',
-      (byte) 't'
-   };
-
-   private static final byte[] FASTTRACK_FINGERPRINT =
-   {
-      (byte) 0x1C,
-      (byte) 0x00,
-      (byte) 0x00,
-      (byte) 0x00,
-      (byte) 0x8B,
-      (byte) 0x00,
-      (byte) 0x00,
-      (byte) 0x00
-   };
-
-   private static final byte[] PROJECTLIBRE_FINGERPRINT =
-   {
-      (byte) 0xAC,
-      (byte) 0xED,
-      (byte) 0x00,
-      (byte) 0x05
-   };
-
-   private static final byte[] BTRIEVE_FINGERPRINT =
-   {
-      (byte) 0x46,
-      (byte) 0x43,
-      (byte) 0x00,
-      (byte) 0x00
-   };
-
-   private static final byte[] STW_FINGERPRINT =
-   {
-      (byte) 0x53,
-      (byte) 0x54,
-      (byte) 0x57
-   };
-
-   private static final byte[] DOS_EXE_FINGERPRINT =
-   {
-      (byte) 0x4D,
-      (byte) 0x5A
-   };
+   private static final FormatDetector DETECTOR = new FormatDetector();
 
    private static final byte[] WINDOWS_NE_EXE_FINGERPRINT =
    {
@@ -1001,59 +1247,8 @@ public final class UniversalProjectReader implements ProjectReader
       (byte) 0x8B
    };
 
-   private static final byte[] SYNCHRO_FINGERPRINT =
-   {
-      (byte) 0xB6,
-      (byte) 0x17
-   };
-
-   private static final byte[] SDEF_FINGERPRINT =
-   {
-      (byte) 'V',
-      (byte) 'O',
-      (byte) 'L',
-      (byte) 'M'
-   };
-
-   private static final byte[] UTF8_BOM_FINGERPRINT =
-   {
-      (byte) 0xEF,
-      (byte) 0xBB,
-      (byte) 0xBF
-   };
-
-   private static final byte[] UTF16_BOM_FINGERPRINT =
-   {
-      (byte) 0xFE,
-      (byte) 0xFF
-   };
-
-   private static final byte[] UTF16LE_BOM_FINGERPRINT =
-   {
-      (byte) 0xFF,
-      (byte) 0xFE
-   };
-
-   private static final Pattern PLANNER_FINGERPRINT = Pattern.compile(".*<project.*mrproject-version.*", Pattern.DOTALL);
-
-   private static final Pattern PMXML_FINGERPRINT = Pattern.compile(".*(<BusinessObjects|APIBusinessObjects).*", Pattern.DOTALL);
-
-   private static final Pattern MSPDI_FINGERPRINT_1 = Pattern.compile(".*xmlns=\"http://schemas\\.microsoft\\.com/project.*", Pattern.DOTALL);
-
-   private static final Pattern MSPDI_FINGERPRINT_2 = Pattern.compile(".*<Project.*<SaveVersion>.*", Pattern.DOTALL);
-   
-   private static final Pattern PHOENIX_XML_FINGERPRINT = Pattern.compile(".*<project.*version=\"(\\d+|\\d+\\.\\d+)\".*update_mode=\"(true|false)\".*>.*", Pattern.DOTALL);
-
-   private static final Pattern GANTTPROJECT_FINGERPRINT = Pattern.compile(".*<project.*webLink.*", Pattern.DOTALL);
-
-   private static final Pattern TURBOPROJECT_FINGERPRINT = Pattern.compile(".*dWBSTAB.*", Pattern.DOTALL);
-
    private static final Pattern PRX_FINGERPRINT = Pattern.compile("!Self-Extracting Primavera Project", Pattern.DOTALL);
 
    private static final Pattern PRX3_FINGERPRINT = Pattern.compile("PRX3", Pattern.DOTALL);
 
-   private static final Pattern CONCEPT_DRAW_FINGERPRINT = Pattern.compile(".*Application=\\\"CDProject\\\".*", Pattern.DOTALL);
-
-   private static final Pattern GANTT_DESIGNER_FINGERPRINT = Pattern.compile(".*<Gantt Version=.*", Pattern.DOTALL);
-
 }
@@ -63,6 +63,7 @@ public final class SDEFReader extends AbstractProjectReader
    {
       Context context = new Context();
       ProjectFile project = context.getProject();
+      project.getProjectConfig().setFieldStorageType(getFieldStorageType());
 
       CustomFieldContainer fields = project.getCustomFields();
       fields.getCustomField(TaskField.TEXT1).setAlias("Activity ID");
@@ -0,0 +1,144 @@
+/*
+ * file:       SnapshotFormat.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.snapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.ConstraintField;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.FieldTypeClass;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.TaskField;
+
+/**
+ * Constants describing the layout of a snapshot file.
+ *
+ * A snapshot starts with the MAGIC bytes followed by the format VERSION.
+ * Integers are written as variable length quantities, signed values
+ * using zig-zag encoding. Each string is written in full the first
+ * time it is seen, and by its index in a string table thereafter.
+ * Field values are preceded by one of the value type tags defined here.
+ * Fields are identified by name, via a table written at the start of each
+ * section, so files remain readable if field enums change.
+ */
+final class SnapshotFormat
+{
+   /**
+    * Constructor.
+    */
+   private SnapshotFormat()
+   {
+      // private constructor to prevent instantiation
+   }
+
+   /**
+    * Retrieve a field type given its class and name.
+    *
+    * @param typeClass field type class
+    * @param name field name
+    * @return FieldType instance, or null if the field is not recognised
+    */
+   static FieldType getFieldType(FieldTypeClass typeClass, String name)
+   {
+      Map<String, FieldType> map = FIELD_MAPS.get(typeClass);
+      return map == null ? null : map.get(name);
+   }
+
+   /**
+    * Create a map of field names to field types.
+    *
+    * @param fields field types
+    * @return field map
+    */
+   private static Map<String, FieldType> createFieldMap(FieldType[] fields)
+   {
+      Map<String, FieldType> map = new HashMap<String, FieldType>();
+      for (FieldType field : fields)
+      {
+         map.put(field.name(), field);
+      }
+      return map;
+   }
+
+   static final byte[] MAGIC =
+   {
+      'M',
+      'P',
+      'X',
+      'J',
+      'S',
+      'N',
+      'A',
+      'P'
+   };
+
+   static final int VERSION = 1;
+
+   static final int TYPE_NULL = 0;
+   static final int TYPE_STRING = 1;
+   static final int TYPE_INTEGER = 2;
+   static final int TYPE_LONG = 3;
+   static final int TYPE_SHORT = 4;
+   static final int TYPE_DOUBLE = 5;
+   static final int TYPE_FLOAT = 6;
+   static final int TYPE_BIG_INTEGER = 7;
+   static final int TYPE_BIG_DECIMAL = 8;
+   static final int TYPE_TRUE = 9;
+   static final int TYPE_FALSE = 10;
+   static final int TYPE_CHARACTER = 11;
+   static final int TYPE_DATE = 12;
+   static final int TYPE_DURATION = 13;
+   static final int TYPE_RATE = 14;
+   static final int TYPE_PRIORITY = 15;
+   static final int TYPE_UUID = 16;
+   static final int TYPE_ENUM = 17;
+   static final int TYPE_CALENDAR = 18;
+   static final int TYPE_DATE_RANGE = 19;
+   static final int TYPE_LIST = 20;
+   static final int TYPE_MAP = 21;
+   static final int TYPE_BINARY = 22;
+   static final int TYPE_SUBPROJECT = 23;
+
+   static final int TIMEPHASED_WORK = 0;
+   static final int TIMEPHASED_ACTUAL_WORK = 1;
+   static final int TIMEPHASED_ACTUAL_OVERTIME_WORK = 2;
+   static final int TIMEPHASED_BASELINE_WORK = 3;
+   static final int TIMEPHASED_BASELINE_COST = 4;
+
+   static final int BASELINE_COUNT = 11;
+   static final int COST_RATE_TABLE_COUNT = 5;
+
+   private static final Map<FieldTypeClass, Map<String, FieldType>> FIELD_MAPS = new HashMap<FieldTypeClass, Map<String, FieldType>>();
+   static
+   {
+      FIELD_MAPS.put(FieldTypeClass.PROJECT, createFieldMap(ProjectField.values()));
+      FIELD_MAPS.put(FieldTypeClass.TASK, createFieldMap(TaskField.values()));
+      FIELD_MAPS.put(FieldTypeClass.RESOURCE, createFieldMap(ResourceField.values()));
+      FIELD_MAPS.put(FieldTypeClass.ASSIGNMENT, createFieldMap(AssignmentField.values()));
+      FIELD_MAPS.put(FieldTypeClass.CONSTRAINT, createFieldMap(ConstraintField.values()));
+   }
+}
@@ -0,0 +1,278 @@
+/*
+ * file:       SnapshotInputStream.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.mpxj.common.CharsetHelper;
+
+/**
+ * Buffered input stream which reads the primitive values
+ * written by SnapshotOutputStream.
+ */
+final class SnapshotInputStream
+{
+   /**
+    * Constructor.
+    *
+    * @param stream source input stream
+    */
+   public SnapshotInputStream(InputStream stream)
+   {
+      m_stream = stream;
+   }
+
+   /**
+    * Read a single byte.
+    *
+    * @return byte value, in the range 0 to 255
+    */
+   public int readByte() throws IOException
+   {
+      if (m_position == m_length)
+      {
+         fill();
+      }
+      return m_buffer[m_position++] & 0xFF;
+   }
+
+   /**
+    * Read an array of bytes.
+    *
+    * @param length number of bytes to read
+    * @return byte array
+    */
+   public byte[] readBytes(int length) throws IOException
+   {
+      byte[] result = new byte[length];
+      int offset = 0;
+      while (offset < length)
+      {
+         if (m_position == m_length)
+         {
+            fill();
+         }
+         int count = Math.min(length - offset, m_length - m_position);
+         System.arraycopy(m_buffer, m_position, result, offset, count);
+         m_position += count;
+         offset += count;
+      }
+      return result;
+   }
+
+   /**
+    * Read a boolean value.
+    *
+    * @return boolean value
+    */
+   public boolean readBoolean() throws IOException
+   {
+      return readByte() != 0;
+   }
+
+   /**
+    * Read a variable length quantity.
+    *
+    * @return value treated as unsigned
+    */
+   public long readUnsigned() throws IOException
+   {
+      long result = 0;
+      int shift = 0;
+      while (true)
+      {
+         int b = readByte();
+         result |= (long) (b & 0x7F) << shift;
+         if ((b & 0x80) == 0)
+         {
+            break;
+         }
+
+         shift += 7;
+         if (shift > 63)
+         {
+            throw new IOException("Invalid variable length quantity");
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read a signed int value.
+    *
+    * @return int value
+    */
+   public int readInt() throws IOException
+   {
+      int value = (int) readUnsigned();
+      return (value >>> 1) ^ -(value & 1);
+   }
+
+   /**
+    * Read a signed long value.
+    *
+    * @return long value
+    */
+   public long readLong() throws IOException
+   {
+      long value = readUnsigned();
+      return (value >>> 1) ^ -(value & 1);
+   }
+
+   /**
+    * Read a nullable Integer value.
+    *
+    * @return Integer value
+    */
+   public Integer readInteger() throws IOException
+   {
+      long value = readUnsigned();
+      Integer result;
+      if (value == 0)
+      {
+         result = null;
+      }
+      else
+      {
+         int intValue = (int) (value - 1);
+         result = Integer.valueOf((intValue >>> 1) ^ -(intValue & 1));
+      }
+      return result;
+   }
+
+   /**
+    * Read a double value.
+    *
+    * @return double value
+    */
+   public double readDouble() throws IOException
+   {
+      long bits = 0;
+      for (int shift = 0; shift < 64; shift += 8)
+      {
+         bits |= (long) readByte() << shift;
+      }
+      return Double.longBitsToDouble(bits);
+   }
+
+   /**
+    * Read a number written by SnapshotOutputStream.writeNumber.
+    *
+    * @return number
+    */
+   public double readNumber() throws IOException
+   {
+      return readByte() == 0 ? readInt() : readDouble();
+   }
+
+   /**
+    * Read a nullable date value.
+    *
+    * @return date value
+    */
+   public Date readDate() throws IOException
+   {
+      Date result;
+      if (readByte() == 0)
+      {
+         result = null;
+      }
+      else
+      {
+         m_lastDate += readLong();
+         result = new Date(m_lastDate);
+      }
+      return result;
+   }
+
+   /**
+    * Read a nullable string.
+    *
+    * @return string value
+    */
+   public String readString() throws IOException
+   {
+      long value = readUnsigned();
+      String result;
+      if (value == 0)
+      {
+         result = null;
+      }
+      else
+      {
+         if (value == 1)
+         {
+            int length = (int) readUnsigned();
+            if (m_length - m_position >= length)
+            {
+               result = new String(m_buffer, m_position, length, CharsetHelper.UTF8);
+               m_position += length;
+            }
+            else
+            {
+               result = new String(readBytes(length), CharsetHelper.UTF8);
+            }
+            m_strings.add(result);
+         }
+         else
+         {
+            long index = value - 2;
+            if (index >= m_strings.size())
+            {
+               throw new IOException("Invalid string reference");
+            }
+            result = m_strings.get((int) index);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read more data into the buffer.
+    */
+   private void fill() throws IOException
+   {
+      int count = m_stream.read(m_buffer);
+      if (count <= 0)
+      {
+         throw new EOFException();
+      }
+      m_length = count;
+      m_position = 0;
+   }
+
+   private final InputStream m_stream;
+   private final byte[] m_buffer = new byte[BUFFER_SIZE];
+   private final List<String> m_strings = new ArrayList<String>();
+   private int m_position;
+   private int m_length;
+   private long m_lastDate;
+
+   private static final int BUFFER_SIZE = 65536;
+}
@@ -0,0 +1,276 @@
+/*
+ * file:       SnapshotOutputStream.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.mpxj.common.CharsetHelper;
+
+/**
+ * Buffered output stream which writes the primitive values
+ * used by the snapshot format.
+ */
+final class SnapshotOutputStream
+{
+   /**
+    * Constructor.
+    *
+    * @param stream target output stream
+    */
+   public SnapshotOutputStream(OutputStream stream)
+   {
+      m_stream = stream;
+   }
+
+   /**
+    * Write a single byte.
+    *
+    * @param value byte value
+    */
+   public void writeByte(int value) throws IOException
+   {
+      if (m_length == m_buffer.length)
+      {
+         flushBuffer();
+      }
+      m_buffer[m_length++] = (byte) value;
+   }
+
+   /**
+    * Write an array of bytes.
+    *
+    * @param data byte array
+    */
+   public void writeBytes(byte[] data) throws IOException
+   {
+      if (data.length > m_buffer.length - m_length)
+      {
+         flushBuffer();
+         if (data.length > m_buffer.length)
+         {
+            m_stream.write(data);
+            return;
+         }
+      }
+      System.arraycopy(data, 0, m_buffer, m_length, data.length);
+      m_length += data.length;
+   }
+
+   /**
+    * Write a boolean value.
+    *
+    * @param value boolean value
+    */
+   public void writeBoolean(boolean value) throws IOException
+   {
+      writeByte(value ? 1 : 0);
+   }
+
+   /**
+    * Write a non-negative value as a variable length quantity.
+    * Seven bits are written per byte, least significant first, with the
+    * top bit set if more bytes follow.
+    *
+    * @param value value treated as unsigned
+    */
+   public void writeUnsigned(long value) throws IOException
+   {
+      if (m_buffer.length - m_length < MAX_VARINT_BYTES)
+      {
+         flushBuffer();
+      }
+
+      while ((value & ~0x7FL) != 0)
+      {
+         m_buffer[m_length++] = (byte) ((value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+      m_buffer[m_length++] = (byte) value;
+   }
+
+   /**
+    * Write a signed int value.
+    *
+    * @param value int value
+    */
+   public void writeInt(int value) throws IOException
+   {
+      writeUnsigned(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+   }
+
+   /**
+    * Write a signed long value.
+    *
+    * @param value long value
+    */
+   public void writeLong(long value) throws IOException
+   {
+      writeUnsigned((value << 1) ^ (value >> 63));
+   }
+
+   /**
+    * Write a nullable Integer value.
+    *
+    * @param value Integer value
+    */
+   public void writeInteger(Integer value) throws IOException
+   {
+      if (value == null)
+      {
+         writeUnsigned(0);
+      }
+      else
+      {
+         int intValue = value.intValue();
+         writeUnsigned((((intValue << 1) ^ (intValue >> 31)) & 0xFFFFFFFFL) + 1);
+      }
+   }
+
+   /**
+    * Write a double value.
+    *
+    * @param value double value
+    */
+   public void writeDouble(double value) throws IOException
+   {
+      long bits = Double.doubleToLongBits(value);
+      if (m_buffer.length - m_length < 8)
+      {
+         flushBuffer();
+      }
+
+      for (int shift = 0; shift < 64; shift += 8)
+      {
+         m_buffer[m_length++] = (byte) (bits >>> shift);
+      }
+   }
+
+   /**
+    * Write a number. Whole numbers which fit in an int are written
+    * as variable length quantities, other values in full.
+    *
+    * @param value number
+    */
+   public void writeNumber(double value) throws IOException
+   {
+      int intValue = (int) value;
+      if (intValue == value && (intValue != 0 || Double.doubleToRawLongBits(value) == 0))
+      {
+         writeByte(0);
+         writeInt(intValue);
+      }
+      else
+      {
+         writeByte(1);
+         writeDouble(value);
+      }
+   }
+
+   /**
+    * Write a nullable date value, as an offset from the previous date
+    * written. Dates written close together are usually close in value,
+    * so this produces short encodings.
+    *
+    * @param value date value
+    */
+   public void writeDate(Date value) throws IOException
+   {
+      if (value == null)
+      {
+         writeByte(0);
+      }
+      else
+      {
+         long time = value.getTime();
+         writeByte(1);
+         writeLong(time - m_lastDate);
+         m_lastDate = time;
+      }
+   }
+
+   /**
+    * Write a nullable string. The first occurrence of a string is written
+    * in full and added to the string table. Subsequent occurrences are
+    * written as a reference to the string table entry.
+    *
+    * @param value string value
+    */
+   public void writeString(String value) throws IOException
+   {
+      if (value == null)
+      {
+         writeUnsigned(0);
+      }
+      else
+      {
+         Integer index = m_strings.get(value);
+         if (index == null)
+         {
+            m_strings.put(value, Integer.valueOf(m_strings.size()));
+            byte[] data = value.getBytes(CharsetHelper.UTF8);
+            writeUnsigned(1);
+            writeUnsigned(data.length);
+            writeBytes(data);
+         }
+         else
+         {
+            writeUnsigned(index.intValue() + 2L);
+         }
+      }
+   }
+
+   /**
+    * Write any buffered data and flush the underlying stream.
+    */
+   public void flush() throws IOException
+   {
+      flushBuffer();
+      m_stream.flush();
+   }
+
+   /**
+    * Write any buffered data to the underlying stream.
+    */
+   private void flushBuffer() throws IOException
+   {
+      if (m_length != 0)
+      {
+         m_stream.write(m_buffer, 0, m_length);
+         m_length = 0;
+      }
+   }
+
+   private final OutputStream m_stream;
+   private final byte[] m_buffer = new byte[BUFFER_SIZE];
+   private final Map<String, Integer> m_strings = new HashMap<String, Integer>();
+   private int m_length;
+   private long m_lastDate;
+
+   private static final int BUFFER_SIZE = 65536;
+   private static final int MAX_VARINT_BYTES = 10;
+}
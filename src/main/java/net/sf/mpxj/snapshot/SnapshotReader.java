@@ -0,0 +1,1070 @@
+/*
+ * file:       SnapshotReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.sf.mpxj.Availability;
+import net.sf.mpxj.CostRateTable;
+import net.sf.mpxj.CostRateTableEntry;
+import net.sf.mpxj.DataType;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.DayType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.FieldTypeClass;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarDateRanges;
+import net.sf.mpxj.ProjectCalendarException;
+import net.sf.mpxj.ProjectCalendarWeek;
+import net.sf.mpxj.ProjectConfig;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.RecurrenceType;
+import net.sf.mpxj.RecurringData;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.SubProject;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedCost;
+import net.sf.mpxj.TimephasedItem;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.DefaultTimephasedCostContainer;
+import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.common.TimephasedCostSeries;
+import net.sf.mpxj.common.TimephasedWorkSeries;
+import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.reader.AbstractProjectReader;
+
+/**
+ * This class creates a new ProjectFile instance by reading a snapshot
+ * written by SnapshotWriter. Field values are restored exactly as they were
+ * held when the snapshot was written, so no values are recalculated.
+ */
+public final class SnapshotReader extends AbstractProjectReader
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void addProjectListener(ProjectListener listener)
+   {
+      if (m_projectListeners == null)
+      {
+         m_projectListeners = new LinkedList<ProjectListener>();
+      }
+      m_projectListeners.add(listener);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(InputStream stream) throws MPXJException
+   {
+      try
+      {
+         m_projectFile = createProjectFile();
+         m_eventManager = m_projectFile.getEventManager();
+         m_stream = new SnapshotInputStream(stream);
+         m_tasks = new ArrayList<Task>();
+         m_enumClasses = new HashMap<String, Class<?>>();
+
+         ProjectConfig config = m_projectFile.getProjectConfig();
+         config.setAutoTaskID(false);
+         config.setAutoTaskUniqueID(false);
+         config.setAutoResourceID(false);
+         config.setAutoResourceUniqueID(false);
+         config.setAutoOutlineLevel(false);
+         config.setAutoOutlineNumber(false);
+         config.setAutoWBS(false);
+         config.setAutoCalendarUniqueID(false);
+         config.setAutoAssignmentUniqueID(false);
+
+         m_eventManager.addProjectListeners(m_projectListeners);
+
+         if (!Arrays.equals(SnapshotFormat.MAGIC, m_stream.readBytes(SnapshotFormat.MAGIC.length)))
+         {
+            throw new MPXJException(MPXJException.INVALID_FILE);
+         }
+
+         if (m_stream.readUnsigned() != SnapshotFormat.VERSION)
+         {
+            throw new MPXJException(MPXJException.INVALID_FORMAT);
+         }
+
+         readProperties();
+         readCustomFields();
+         readCalendars();
+         readResources();
+         readTasks();
+         readRelations();
+         readAssignments();
+
+         //
+         // Ensure that the unique ID counters are correct
+         //
+         config.updateUniqueCounters();
+
+         return m_projectFile;
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      catch (IllegalArgumentException ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_FORMAT, ex);
+      }
+
+      catch (ClassCastException ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_FORMAT, ex);
+      }
+
+      finally
+      {
+         m_projectFile = null;
+         m_eventManager = null;
+         m_stream = null;
+         m_tasks = null;
+         m_enumClasses = null;
+         m_fields = null;
+         m_resourceDefaults = null;
+         m_taskDefaults = null;
+         m_assignmentDefaults = null;
+      }
+   }
+
+   /**
+    * Read project properties. The default values of a new ProjectProperties
+    * instance are cleared before the values from the snapshot are applied.
+    */
+   private void readProperties() throws IOException
+   {
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+      for (ProjectField field : ProjectField.values())
+      {
+         properties.set(field, null);
+      }
+
+      readFieldNames(FieldTypeClass.PROJECT);
+      readFields(properties, null);
+   }
+
+   /**
+    * Read custom field aliases.
+    */
+   private void readCustomFields() throws IOException
+   {
+      long count = m_stream.readUnsigned();
+      for (long index = 0; index < count; index++)
+      {
+         String typeClass = m_stream.readString();
+         String name = m_stream.readString();
+         String alias = m_stream.readString();
+
+         FieldType field = SnapshotFormat.getFieldType(FieldTypeClass.valueOf(typeClass), name);
+         if (field != null)
+         {
+            m_projectFile.getCustomFields().getCustomField(field).setAlias(alias);
+         }
+      }
+   }
+
+   /**
+    * Read calendars. Parent calendars are resolved once all calendars
+    * have been read, calendars linked to resources are resolved
+    * once the resources have been read.
+    */
+   private void readCalendars() throws IOException
+   {
+      int listedCount = (int) m_stream.readUnsigned();
+      int count = listedCount + (int) m_stream.readUnsigned();
+      List<Integer> parents = new ArrayList<Integer>(count);
+      m_calendars = new ArrayList<ProjectCalendar>(count);
+      m_calendarResources = new ArrayList<Integer>(count);
+
+      for (int index = 0; index < count; index++)
+      {
+         ProjectCalendar calendar = index < listedCount ? m_projectFile.addCalendar() : new ProjectCalendar(m_projectFile);
+         m_calendars.add(calendar);
+         Integer uniqueID = m_stream.readInteger();
+         if (uniqueID != null)
+         {
+            calendar.setUniqueID(uniqueID);
+         }
+         calendar.setName(m_stream.readString());
+         parents.add(m_stream.readInteger());
+         m_calendarResources.add(m_stream.readInteger());
+
+         calendar.setMinutesPerDay(m_stream.readInteger());
+         calendar.setMinutesPerWeek(m_stream.readInteger());
+         calendar.setMinutesPerMonth(m_stream.readInteger());
+         calendar.setMinutesPerYear(m_stream.readInteger());
+
+         readWeek(calendar);
+
+         long exceptionCount = m_stream.readUnsigned();
+         for (long exceptionIndex = 0; exceptionIndex < exceptionCount; exceptionIndex++)
+         {
+            ProjectCalendarException exception = calendar.addCalendarException(m_stream.readDate(), m_stream.readDate());
+            exception.setName(m_stream.readString());
+            readRanges(exception);
+            exception.setRecurring(readRecurringData());
+         }
+
+         long weekCount = m_stream.readUnsigned();
+         for (long weekIndex = 0; weekIndex < weekCount; weekIndex++)
+         {
+            ProjectCalendarWeek week = calendar.addWorkWeek();
+            week.setName(m_stream.readString());
+            if (m_stream.readBoolean())
+            {
+               week.setDateRange(new DateRange(m_stream.readDate(), m_stream.readDate()));
+            }
+            readWeek(week);
+         }
+      }
+
+      for (int index = 0; index < count; index++)
+      {
+         Integer parentID = parents.get(index);
+         if (parentID != null)
+         {
+            m_calendars.get(index).setParent(m_projectFile.getCalendarByUniqueID(parentID));
+         }
+      }
+
+      for (ProjectCalendar calendar : m_calendars)
+      {
+         m_eventManager.fireCalendarReadEvent(calendar);
+      }
+   }
+
+   /**
+    * Read the day types and working hours for a calendar or work week.
+    *
+    * @param week calendar or work week
+    */
+   private void readWeek(ProjectCalendarWeek week) throws IOException
+   {
+      for (Day day : Day.values())
+      {
+         String type = m_stream.readString();
+         if (type != null)
+         {
+            week.setWorkingDay(day, DayType.valueOf(type));
+         }
+
+         if (m_stream.readBoolean())
+         {
+            readRanges(week.addCalendarHours(day));
+         }
+      }
+   }
+
+   /**
+    * Read a list of date ranges.
+    *
+    * @param ranges container for the date ranges
+    */
+   private void readRanges(ProjectCalendarDateRanges ranges) throws IOException
+   {
+      long count = m_stream.readUnsigned();
+      for (long index = 0; index < count; index++)
+      {
+         ranges.addRange(new DateRange(m_stream.readDate(), m_stream.readDate()));
+      }
+   }
+
+   /**
+    * Read recurring exception data.
+    *
+    * @return recurring data, or null if not present
+    */
+   private RecurringData readRecurringData() throws IOException
+   {
+      RecurringData data = null;
+      if (m_stream.readBoolean())
+      {
+         data = new RecurringData();
+         data.setStartDate(m_stream.readDate());
+         data.setFinishDate(m_stream.readDate());
+         data.setOccurrences(m_stream.readInteger());
+         String type = m_stream.readString();
+         data.setRecurrenceType(type == null ? null : RecurrenceType.valueOf(type));
+         data.setUseEndDate(m_stream.readBoolean());
+         data.setWorkingDaysOnly(m_stream.readBoolean());
+         for (Day day : Day.values())
+         {
+            data.setWeeklyDay(day, m_stream.readBoolean());
+         }
+         data.setRelative(m_stream.readBoolean());
+         data.setFrequency(m_stream.readInteger());
+         data.setDayNumber(m_stream.readInteger());
+         data.setMonthNumber(m_stream.readInteger());
+      }
+      return data;
+   }
+
+   /**
+    * Read resources.
+    */
+   private void readResources() throws IOException
+   {
+      readFieldNames(FieldTypeClass.RESOURCE);
+
+      long count = m_stream.readUnsigned();
+      for (long index = 0; index < count; index++)
+      {
+         Resource resource = m_projectFile.addResource();
+         if (m_resourceDefaults == null)
+         {
+            m_resourceDefaults = getDefaultFields(resource, m_fields);
+         }
+
+         resource.disableEvents();
+         clearFields(resource, m_resourceDefaults);
+         readFields(resource, ResourceField.UNIQUE_ID);
+         resource.setIsNull(m_stream.readBoolean());
+         resource.setActveDirectoryGUID(m_stream.readString());
+
+         for (int tableIndex = 0; tableIndex < SnapshotFormat.COST_RATE_TABLE_COUNT; tableIndex++)
+         {
+            long entryCount = m_stream.readUnsigned();
+            if (entryCount != 0)
+            {
+               CostRateTable table = new CostRateTable();
+               for (long entryIndex = 1; entryIndex < entryCount; entryIndex++)
+               {
+                  Rate standardRate = (Rate) readValue();
+                  TimeUnit standardRateFormat = (TimeUnit) readValue();
+                  Rate overtimeRate = (Rate) readValue();
+                  TimeUnit overtimeRateFormat = (TimeUnit) readValue();
+                  Number costPerUse = (Number) readValue();
+                  table.add(new CostRateTableEntry(standardRate, standardRateFormat, overtimeRate, overtimeRateFormat, costPerUse, m_stream.readDate()));
+               }
+               resource.setCostRateTable(tableIndex, table);
+            }
+         }
+
+         long availabilityCount = m_stream.readUnsigned();
+         for (long availabilityIndex = 0; availabilityIndex < availabilityCount; availabilityIndex++)
+         {
+            resource.getAvailability().add(new Availability(m_stream.readDate(), m_stream.readDate(), (Number) readValue()));
+         }
+         resource.enableEvents();
+
+         setIdentifiers(resource, ResourceField.UNIQUE_ID, ResourceField.ID);
+         m_eventManager.fireResourceReadEvent(resource);
+      }
+
+      //
+      // Link resource calendars, preserving the calendar name
+      //
+      for (int index = 0; index < m_calendarResources.size(); index++)
+      {
+         Integer resourceID = m_calendarResources.get(index);
+         if (resourceID != null)
+         {
+            Resource resource = m_projectFile.getResourceByUniqueID(resourceID);
+            if (resource != null)
+            {
+               ProjectCalendar calendar = m_calendars.get(index);
+               String name = calendar.getName();
+               calendar.setResource(resource);
+               calendar.setName(name);
+            }
+         }
+      }
+      m_calendars = null;
+      m_calendarResources = null;
+   }
+
+   /**
+    * Read tasks, followed by the task hierarchy.
+    */
+   private void readTasks() throws IOException
+   {
+      readFieldNames(FieldTypeClass.TASK);
+
+      long count = m_stream.readUnsigned();
+      for (long index = 0; index < count; index++)
+      {
+         Task task = m_projectFile.addTask();
+         m_tasks.add(task);
+         if (m_taskDefaults == null)
+         {
+            m_taskDefaults = getDefaultFields(task, m_fields);
+         }
+
+         task.disableEvents();
+         clearFields(task, m_taskDefaults);
+         readFields(task, TaskField.UNIQUE_ID);
+         task.setNull(m_stream.readBoolean());
+         task.setExpanded(m_stream.readBoolean());
+         task.enableEvents();
+
+         setIdentifiers(task, TaskField.UNIQUE_ID, TaskField.ID);
+         m_eventManager.fireTaskReadEvent(task);
+      }
+
+      //
+      // Adding child tasks marks the parent as a summary task,
+      // so we restore the original values once the hierarchy is built.
+      //
+      List<Object> summaries = new ArrayList<Object>(m_tasks.size());
+      for (Task task : m_tasks)
+      {
+         summaries.add(task.getCachedValue(TaskField.SUMMARY));
+      }
+
+      m_projectFile.getChildTasks().clear();
+      readChildTasks(null);
+
+      for (int index = 0; index < m_tasks.size(); index++)
+      {
+         Task task = m_tasks.get(index);
+         task.disableEvents();
+         task.set(TaskField.SUMMARY, summaries.get(index));
+         task.enableEvents();
+      }
+   }
+
+   /**
+    * Read the child tasks of a task, followed by the child tasks of
+    * each of these tasks.
+    *
+    * @param parent parent task, or null for the top level tasks
+    */
+   private void readChildTasks(Task parent) throws IOException
+   {
+      long count = m_stream.readUnsigned();
+      for (long index = 0; index < count; index++)
+      {
+         Task task = getTask(m_stream.readUnsigned());
+         if (parent == null)
+         {
+            m_projectFile.getChildTasks().add(task);
+         }
+         else
+         {
+            parent.addChildTask(task);
+         }
+         readChildTasks(task);
+      }
+   }
+
+   /**
+    * Read the predecessors of each task.
+    */
+   private void readRelations() throws IOException
+   {
+      for (Task task : m_tasks)
+      {
+         long count = m_stream.readUnsigned();
+         for (long index = 0; index < count; index++)
+         {
+            Task target = getTask(m_stream.readUnsigned());
+            RelationType type = (RelationType) readValue();
+            Duration lag = (Duration) readValue();
+            Integer uniqueID = m_stream.readInteger();
+
+            Relation relation = task.addPredecessor(target, type, lag);
+            relation.setUniqueID(uniqueID);
+            m_eventManager.fireRelationReadEvent(relation);
+         }
+      }
+   }
+
+   /**
+    * Read resource assignments, and their timephased data.
+    */
+   private void readAssignments() throws IOException
+   {
+      readFieldNames(FieldTypeClass.ASSIGNMENT);
+
+      long count = m_stream.readUnsigned();
+      for (long index = 0; index < count; index++)
+      {
+         Task task = getTask(m_stream.readUnsigned());
+         ResourceAssignment assignment = new ResourceAssignment(m_projectFile, task);
+         if (m_assignmentDefaults == null)
+         {
+            m_assignmentDefaults = getDefaultFields(assignment, m_fields);
+         }
+
+         assignment.disableEvents();
+         clearFields(assignment, m_assignmentDefaults);
+         readFields(assignment, null);
+         readTimephasedData(assignment);
+         assignment.enableEvents();
+
+         task.addResourceAssignment(assignment);
+         m_eventManager.fireAssignmentReadEvent(assignment);
+      }
+   }
+
+   /**
+    * Read the timephased data for an assignment.
+    *
+    * @param assignment parent assignment
+    */
+   private void readTimephasedData(ResourceAssignment assignment) throws IOException
+   {
+      long kind;
+      while ((kind = m_stream.readUnsigned()) != 0)
+      {
+         switch ((int) kind - 1)
+         {
+            case SnapshotFormat.TIMEPHASED_WORK:
+            {
+               assignment.setTimephasedWork(new DefaultTimephasedWorkContainer(null, null, readTimephasedWork(), false));
+               break;
+            }
+
+            case SnapshotFormat.TIMEPHASED_ACTUAL_WORK:
+            {
+               assignment.setTimephasedActualWork(new DefaultTimephasedWorkContainer(null, null, readTimephasedWork(), false));
+               break;
+            }
+
+            case SnapshotFormat.TIMEPHASED_ACTUAL_OVERTIME_WORK:
+            {
+               assignment.setTimephasedActualOvertimeWork(new DefaultTimephasedWorkContainer(null, null, readTimephasedWork(), false));
+               break;
+            }
+
+            case SnapshotFormat.TIMEPHASED_BASELINE_WORK:
+            {
+               int baseline = getBaselineIndex();
+               assignment.setTimephasedBaselineWork(baseline, new DefaultTimephasedWorkContainer(null, null, readTimephasedWork(), false));
+               break;
+            }
+
+            case SnapshotFormat.TIMEPHASED_BASELINE_COST:
+            {
+               int baseline = getBaselineIndex();
+               assignment.setTimephasedBaselineCost(baseline, new DefaultTimephasedCostContainer(null, null, readTimephasedCost(), false));
+               break;
+            }
+
+            default:
+            {
+               throw new IOException("Invalid timephased data type " + kind);
+            }
+         }
+      }
+   }
+
+   /**
+    * Read and validate a baseline index.
+    *
+    * @return baseline index
+    */
+   private int getBaselineIndex() throws IOException
+   {
+      long index = m_stream.readUnsigned();
+      if (index >= SnapshotFormat.BASELINE_COUNT)
+      {
+         throw new IOException("Invalid baseline index " + index);
+      }
+      return (int) index;
+   }
+
+   /**
+    * Read a list of timephased work items.
+    *
+    * @return timephased work
+    */
+   private List<TimephasedWork> readTimephasedWork() throws IOException
+   {
+      long count = m_stream.readUnsigned();
+      List<TimephasedWork> list = new TimephasedWorkSeries();
+      for (long index = 0; index < count; index++)
+      {
+         TimephasedWork item = new TimephasedWork();
+         readTimephasedItem(item);
+         list.add(item);
+      }
+      return list;
+   }
+
+   /**
+    * Read a list of timephased cost items.
+    *
+    * @return timephased cost
+    */
+   private List<TimephasedCost> readTimephasedCost() throws IOException
+   {
+      long count = m_stream.readUnsigned();
+      List<TimephasedCost> list = new TimephasedCostSeries();
+      for (long index = 0; index < count; index++)
+      {
+         TimephasedCost item = new TimephasedCost();
+         readTimephasedItem(item);
+         list.add(item);
+      }
+      return list;
+   }
+
+   /**
+    * Populate a timephased item.
+    *
+    * @param item timephased item
+    */
+   @SuppressWarnings("unchecked") private <T> void readTimephasedItem(TimephasedItem<T> item) throws IOException
+   {
+      item.setStart(m_stream.readDate());
+      item.setFinish(m_stream.readDate());
+      item.setTotalAmount((T) readValue());
+      item.setAmountPerDay((T) readValue());
+      item.setModified(m_stream.readBoolean());
+   }
+
+   /**
+    * Retrieve a task by its index in the snapshot.
+    *
+    * @param index task index
+    * @return Task instance
+    */
+   private Task getTask(long index) throws IOException
+   {
+      if (index >= m_tasks.size())
+      {
+         throw new IOException("Invalid task index " + index);
+      }
+      return m_tasks.get((int) index);
+   }
+
+   /**
+    * Read the table of field names at the start of a section.
+    * Fields which are not recognised are mapped to null, and their
+    * values are ignored.
+    *
+    * @param typeClass field type class for this section
+    */
+   private void readFieldNames(FieldTypeClass typeClass) throws IOException
+   {
+      int count = (int) m_stream.readUnsigned();
+      m_fields = new FieldType[count];
+      for (int index = 0; index < count; index++)
+      {
+         m_fields[index] = SnapshotFormat.getFieldType(typeClass, m_stream.readString());
+      }
+   }
+
+   /**
+    * Determine which fields are populated when a new container is created.
+    * Relation lists are ignored as they are populated separately.
+    *
+    * @param container new field container
+    * @param fields field types to test
+    * @return populated fields
+    */
+   private List<FieldType> getDefaultFields(FieldContainer container, FieldType[] fields)
+   {
+      List<FieldType> result = new ArrayList<FieldType>();
+      for (FieldType field : fields)
+      {
+         if (field != null && field.getDataType() != DataType.RELATION_LIST && container.getCachedValue(field) != null)
+         {
+            result.add(field);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Clear the default values set when a container was created.
+    *
+    * @param container field container
+    * @param fields fields to clear
+    */
+   private void clearFields(FieldContainer container, List<FieldType> fields)
+   {
+      for (FieldType field : fields)
+      {
+         container.set(field, null);
+      }
+   }
+
+   /**
+    * Read the populated fields of a container. For tasks and resources
+    * the unique ID and ID are read but not set, as identifiers are set
+    * once the container has been populated.
+    *
+    * @param container field container
+    * @param uniqueID unique ID field, or null if the container's identifiers can be set directly
+    */
+   private void readFields(FieldContainer container, FieldType uniqueID) throws IOException
+   {
+      m_uniqueID = null;
+      m_id = null;
+
+      long index;
+      while ((index = m_stream.readUnsigned()) != 0)
+      {
+         if (index > m_fields.length)
+         {
+            throw new IOException("Invalid field index " + index);
+         }
+
+         FieldType field = m_fields[(int) index - 1];
+         Object value = readValue();
+
+         if (field == null)
+         {
+            continue;
+         }
+
+         if (uniqueID != null && field == uniqueID)
+         {
+            m_uniqueID = (Integer) value;
+            continue;
+         }
+
+         if (uniqueID != null && (field == TaskField.ID || field == ResourceField.ID))
+         {
+            m_id = (Integer) value;
+            continue;
+         }
+
+         container.set(field, value);
+      }
+   }
+
+   /**
+    * Set the identifiers of a task or resource once it has been populated.
+    *
+    * @param container task or resource
+    * @param uniqueID unique ID field
+    * @param id ID field
+    */
+   private void setIdentifiers(FieldContainer container, FieldType uniqueID, FieldType id)
+   {
+      if (m_uniqueID != null)
+      {
+         container.set(uniqueID, m_uniqueID);
+      }
+
+      if (m_id != null)
+      {
+         container.set(id, m_id);
+      }
+   }
+
+   /**
+    * Read a value preceded by a tag representing its type.
+    *
+    * @return value
+    */
+   private Object readValue() throws IOException
+   {
+      Object result;
+      int type = m_stream.readByte();
+
+      switch (type)
+      {
+         case SnapshotFormat.TYPE_NULL:
+         {
+            result = null;
+            break;
+         }
+
+         case SnapshotFormat.TYPE_STRING:
+         {
+            result = m_stream.readString();
+            break;
+         }
+
+         case SnapshotFormat.TYPE_INTEGER:
+         {
+            result = Integer.valueOf(m_stream.readInt());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_LONG:
+         {
+            result = Long.valueOf(m_stream.readLong());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_SHORT:
+         {
+            result = Short.valueOf((short) m_stream.readInt());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DOUBLE:
+         {
+            result = Double.valueOf(m_stream.readNumber());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_FLOAT:
+         {
+            result = Float.valueOf((float) m_stream.readNumber());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_BIG_INTEGER:
+         {
+            result = new BigInteger(m_stream.readString());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_BIG_DECIMAL:
+         {
+            result = new BigDecimal(m_stream.readString());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_TRUE:
+         {
+            result = Boolean.TRUE;
+            break;
+         }
+
+         case SnapshotFormat.TYPE_FALSE:
+         {
+            result = Boolean.FALSE;
+            break;
+         }
+
+         case SnapshotFormat.TYPE_CHARACTER:
+         {
+            result = Character.valueOf((char) m_stream.readUnsigned());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DATE:
+         {
+            result = m_stream.readDate();
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DURATION:
+         {
+            double duration = m_stream.readNumber();
+            result = Duration.getInstance(duration, readTimeUnit());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_RATE:
+         {
+            double amount = m_stream.readNumber();
+            result = new Rate(amount, readTimeUnit());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_PRIORITY:
+         {
+            result = Priority.getInstance(m_stream.readInt());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_UUID:
+         {
+            long mostSignificantBits = m_stream.readLong();
+            result = new UUID(mostSignificantBits, m_stream.readLong());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_ENUM:
+         {
+            result = readEnum();
+            break;
+         }
+
+         case SnapshotFormat.TYPE_CALENDAR:
+         {
+            result = m_projectFile.getCalendarByUniqueID(m_stream.readInteger());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DATE_RANGE:
+         {
+            result = new DateRange(m_stream.readDate(), m_stream.readDate());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_LIST:
+         {
+            long count = m_stream.readUnsigned();
+            List<Object> list = new LinkedList<Object>();
+            for (long index = 0; index < count; index++)
+            {
+               list.add(readValue());
+            }
+            result = list;
+            break;
+         }
+
+         case SnapshotFormat.TYPE_MAP:
+         {
+            long count = m_stream.readUnsigned();
+            Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+            for (long index = 0; index < count; index++)
+            {
+               Object key = readValue();
+               map.put(key, readValue());
+            }
+            result = map;
+            break;
+         }
+
+         case SnapshotFormat.TYPE_BINARY:
+         {
+            result = m_stream.readBytes((int) m_stream.readUnsigned());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_SUBPROJECT:
+         {
+            SubProject subProject = new SubProject();
+            subProject.setDosFileName(m_stream.readString());
+            subProject.setDosFullPath(m_stream.readString());
+            subProject.setFileName(m_stream.readString());
+            subProject.setFullPath(m_stream.readString());
+            subProject.setUniqueIDOffset(m_stream.readInteger());
+            subProject.setTaskUniqueID(m_stream.readInteger());
+            long count = m_stream.readUnsigned();
+            for (long index = 0; index < count; index++)
+            {
+               subProject.addExternalTaskUniqueID(m_stream.readInteger());
+            }
+            result = subProject;
+            break;
+         }
+
+         default:
+         {
+            throw new IOException("Invalid value type " + type);
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Read a nullable time unit.
+    *
+    * @return TimeUnit instance
+    */
+   private TimeUnit readTimeUnit() throws IOException
+   {
+      String name = m_stream.readString();
+      return name == null ? null : TimeUnit.valueOf(name);
+   }
+
+   /**
+    * Read an enum value, identified by its class name and constant name.
+    * Classes are loaded without being initialised, and only enums from
+    * MPXJ's own packages are accepted.
+    *
+    * @return enum value
+    */
+   @SuppressWarnings(
+   {
+      "unchecked",
+      "rawtypes"
+   }) private Object readEnum() throws IOException
+   {
+      String className = m_stream.readString();
+      String name = m_stream.readString();
+
+      Class<?> enumClass = m_enumClasses.get(className);
+      if (enumClass == null)
+      {
+         if (!className.startsWith(ENUM_PACKAGE_PREFIX))
+         {
+            throw new IOException("Unknown enum class " + className);
+         }
+
+         try
+         {
+            enumClass = Class.forName(className, false, SnapshotReader.class.getClassLoader());
+         }
+
+         catch (ClassNotFoundException ex)
+         {
+            throw new IOException("Unknown enum class " + className);
+         }
+
+         if (!enumClass.isEnum())
+         {
+            throw new IOException("Unknown enum class " + className);
+         }
+         m_enumClasses.put(className, enumClass);
+      }
+
+      return Enum.valueOf((Class<Enum>) enumClass, name);
+   }
+
+   private ProjectFile m_projectFile;
+   private EventManager m_eventManager;
+   private SnapshotInputStream m_stream;
+   private List<ProjectListener> m_projectListeners;
+   private List<Task> m_tasks;
+   private List<ProjectCalendar> m_calendars;
+   private List<Integer> m_calendarResources;
+   private Map<String, Class<?>> m_enumClasses;
+   private FieldType[] m_fields;
+   private List<FieldType> m_resourceDefaults;
+   private List<FieldType> m_taskDefaults;
+   private List<FieldType> m_assignmentDefaults;
+   private Integer m_uniqueID;
+   private Integer m_id;
+
+   /**
+    * Enum values are only read for classes in this package, so a snapshot
+    * can't cause arbitrary classes to be loaded.
+    */
+   private static final String ENUM_PACKAGE_PREFIX = "net.sf.mpxj.";
+}
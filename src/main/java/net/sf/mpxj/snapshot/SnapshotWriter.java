@@ -0,0 +1,771 @@
+/*
+ * file:       SnapshotWriter.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.Availability;
+import net.sf.mpxj.CostRateTable;
+import net.sf.mpxj.CostRateTableEntry;
+import net.sf.mpxj.CustomField;
+import net.sf.mpxj.DataType;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.DayType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarException;
+import net.sf.mpxj.ProjectCalendarHours;
+import net.sf.mpxj.ProjectCalendarWeek;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.RecurringData;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.SubProject;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimephasedItem;
+import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.writer.AbstractProjectWriter;
+
+/**
+ * This class writes a project as a compact binary snapshot, which can be
+ * read back by SnapshotReader much more quickly than the original file.
+ * The snapshot holds the project properties, custom field aliases,
+ * calendars, resources, tasks, relations, resource assignments and
+ * their timephased data. Views, tables, filters, groups and activity
+ * codes are not written.
+ *
+ * The snapshot format is intended as a cache of a project read from
+ * another file format, and is not guaranteed to be readable by other
+ * versions of MPXJ.
+ */
+public final class SnapshotWriter extends AbstractProjectWriter
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void write(ProjectFile projectFile, OutputStream stream) throws IOException
+   {
+      try
+      {
+         m_projectFile = projectFile;
+         m_stream = new SnapshotOutputStream(stream);
+         m_taskIndexes = new IdentityHashMap<Task, Integer>();
+         m_tasks = new ArrayList<Task>();
+
+         m_stream.writeBytes(SnapshotFormat.MAGIC);
+         m_stream.writeUnsigned(SnapshotFormat.VERSION);
+
+         writeProperties();
+         writeCustomFields();
+         writeCalendars();
+         writeResources();
+         writeTasks();
+         writeRelations();
+         writeAssignments();
+
+         m_stream.flush();
+      }
+
+      finally
+      {
+         m_projectFile = null;
+         m_stream = null;
+         m_taskIndexes = null;
+         m_tasks = null;
+      }
+   }
+
+   /**
+    * Write project properties.
+    */
+   private void writeProperties() throws IOException
+   {
+      writeFieldNames(ProjectField.values());
+      writeFields(m_projectFile.getProjectProperties(), ProjectField.values());
+   }
+
+   /**
+    * Write custom field aliases.
+    */
+   private void writeCustomFields() throws IOException
+   {
+      List<CustomField> fields = new ArrayList<CustomField>();
+      for (CustomField field : m_projectFile.getCustomFields())
+      {
+         if (field.getFieldType() != null && field.getAlias() != null)
+         {
+            fields.add(field);
+         }
+      }
+
+      m_stream.writeUnsigned(fields.size());
+      for (CustomField field : fields)
+      {
+         FieldType type = field.getFieldType();
+         m_stream.writeString(type.getFieldTypeClass().name());
+         m_stream.writeString(type.name());
+         m_stream.writeString(field.getAlias());
+      }
+   }
+
+   /**
+    * Write calendars. Each calendar's parent and resource is
+    * written as a unique ID, and resolved once the calendars and
+    * resources have been read. Resource calendars which have not been
+    * added to the project's list of calendars are written after
+    * the calendars in the list.
+    */
+   private void writeCalendars() throws IOException
+   {
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+      List<ProjectCalendar> calendars = new ArrayList<ProjectCalendar>(m_projectFile.getCalendars());
+      int listedCount = calendars.size();
+      Set<ProjectCalendar> listed = Collections.newSetFromMap(new IdentityHashMap<ProjectCalendar, Boolean>());
+      listed.addAll(calendars);
+      for (Resource resource : m_projectFile.getResources())
+      {
+         ProjectCalendar calendar = resource.getResourceCalendar();
+         if (calendar != null && listed.add(calendar))
+         {
+            calendars.add(calendar);
+         }
+      }
+
+      m_stream.writeUnsigned(listedCount);
+      m_stream.writeUnsigned(calendars.size() - listedCount);
+      for (ProjectCalendar calendar : calendars)
+      {
+         m_stream.writeInteger(calendar.getUniqueID());
+         m_stream.writeString(calendar.getName());
+         m_stream.writeInteger(calendar.getParent() == null ? null : calendar.getParent().getUniqueID());
+         m_stream.writeInteger(calendar.getResource() == null ? null : calendar.getResource().getUniqueID());
+
+         writeMinutes(calendar.getMinutesPerDay(), properties.getMinutesPerDay());
+         writeMinutes(calendar.getMinutesPerWeek(), properties.getMinutesPerWeek());
+         writeMinutes(calendar.getMinutesPerMonth(), properties.getMinutesPerMonth());
+         writeMinutes(calendar.getMinutesPerYear(), properties.getMinutesPerYear());
+
+         writeWeek(calendar);
+
+         List<ProjectCalendarException> exceptions = calendar.getCalendarExceptions();
+         m_stream.writeUnsigned(exceptions.size());
+         for (ProjectCalendarException exception : exceptions)
+         {
+            m_stream.writeDate(exception.getFromDate());
+            m_stream.writeDate(exception.getToDate());
+            m_stream.writeString(exception.getName());
+            writeRanges(exception.getRangeCount(), exception);
+            writeRecurringData(exception.getRecurring());
+         }
+
+         List<ProjectCalendarWeek> weeks = calendar.getWorkWeeks();
+         m_stream.writeUnsigned(weeks.size());
+         for (ProjectCalendarWeek week : weeks)
+         {
+            m_stream.writeString(week.getName());
+            DateRange range = week.getDateRange();
+            m_stream.writeBoolean(range != null);
+            if (range != null)
+            {
+               m_stream.writeDate(range.getStart());
+               m_stream.writeDate(range.getEnd());
+            }
+            writeWeek(week);
+         }
+      }
+   }
+
+   /**
+    * Write a calendar's minutes per period value. The value is only
+    * written if it differs from the value inherited from the project.
+    *
+    * @param value calendar value
+    * @param defaultValue project value
+    */
+   private void writeMinutes(int value, Number defaultValue) throws IOException
+   {
+      m_stream.writeInteger(value == NumberHelper.getInt(defaultValue) ? null : Integer.valueOf(value));
+   }
+
+   /**
+    * Write the day types and working hours for a calendar or work week.
+    *
+    * @param week calendar or work week
+    */
+   private void writeWeek(ProjectCalendarWeek week) throws IOException
+   {
+      for (Day day : Day.values())
+      {
+         DayType type = week.getWorkingDay(day);
+         m_stream.writeString(type == null ? null : type.name());
+
+         ProjectCalendarHours hours = week.getCalendarHours(day);
+         m_stream.writeBoolean(hours != null);
+         if (hours != null)
+         {
+            writeRanges(hours.getRangeCount(), hours);
+         }
+      }
+   }
+
+   /**
+    * Write a list of date ranges.
+    *
+    * @param count number of ranges
+    * @param ranges ranges
+    */
+   private void writeRanges(int count, Iterable<DateRange> ranges) throws IOException
+   {
+      m_stream.writeUnsigned(count);
+      for (DateRange range : ranges)
+      {
+         m_stream.writeDate(range.getStart());
+         m_stream.writeDate(range.getEnd());
+      }
+   }
+
+   /**
+    * Write recurring exception data.
+    *
+    * @param data recurring data, may be null
+    */
+   private void writeRecurringData(RecurringData data) throws IOException
+   {
+      m_stream.writeBoolean(data != null);
+      if (data != null)
+      {
+         m_stream.writeDate(data.getStartDate());
+         m_stream.writeDate(data.getFinishDate());
+         m_stream.writeInteger(data.getOccurrences());
+         m_stream.writeString(data.getRecurrenceType() == null ? null : data.getRecurrenceType().name());
+         m_stream.writeBoolean(data.getUseEndDate());
+         m_stream.writeBoolean(data.isWorkingDaysOnly());
+         for (Day day : Day.values())
+         {
+            m_stream.writeBoolean(data.getWeeklyDay(day));
+         }
+         m_stream.writeBoolean(data.getRelative());
+         m_stream.writeInteger(data.getFrequency());
+         m_stream.writeInteger(data.getDayNumber());
+         m_stream.writeInteger(data.getMonthNumber());
+      }
+   }
+
+   /**
+    * Write resources.
+    */
+   private void writeResources() throws IOException
+   {
+      writeFieldNames(ResourceField.values());
+
+      List<Resource> resources = m_projectFile.getResources();
+      m_stream.writeUnsigned(resources.size());
+      for (Resource resource : resources)
+      {
+         writeFields(resource, ResourceField.values());
+         m_stream.writeBoolean(resource.getNull());
+         m_stream.writeString(resource.getActiveDirectoryGUID());
+
+         for (int index = 0; index < SnapshotFormat.COST_RATE_TABLE_COUNT; index++)
+         {
+            CostRateTable table = resource.getCostRateTable(index);
+            if (table == null)
+            {
+               m_stream.writeUnsigned(0);
+            }
+            else
+            {
+               m_stream.writeUnsigned(table.size() + 1);
+               for (CostRateTableEntry entry : table)
+               {
+                  writeValue(entry.getStandardRate());
+                  writeValue(entry.getStandardRateFormat());
+                  writeValue(entry.getOvertimeRate());
+                  writeValue(entry.getOvertimeRateFormat());
+                  writeValue(entry.getCostPerUse());
+                  m_stream.writeDate(entry.getEndDate());
+               }
+            }
+         }
+
+         m_stream.writeUnsigned(resource.getAvailability().size());
+         for (Availability availability : resource.getAvailability())
+         {
+            m_stream.writeDate(availability.getRange().getStart());
+            m_stream.writeDate(availability.getRange().getEnd());
+            writeValue(availability.getUnits());
+         }
+
+         m_projectFile.getEventManager().fireResourceWrittenEvent(resource);
+      }
+   }
+
+   /**
+    * Write tasks, in the order they appear in the project's task list.
+    * Each task is referred to by its position in this list. The task
+    * hierarchy is written once all of the tasks have been written.
+    */
+   private void writeTasks() throws IOException
+   {
+      writeFieldNames(TaskField.values());
+
+      m_tasks.addAll(m_projectFile.getTasks());
+      m_stream.writeUnsigned(m_tasks.size());
+      for (Task task : m_tasks)
+      {
+         m_taskIndexes.put(task, Integer.valueOf(m_taskIndexes.size()));
+         writeFields(task, TaskField.values());
+         m_stream.writeBoolean(task.getNull());
+         m_stream.writeBoolean(task.getExpanded());
+         m_projectFile.getEventManager().fireTaskWrittenEvent(task);
+      }
+
+      writeChildTasks(m_projectFile.getChildTasks());
+   }
+
+   /**
+    * Write the positions of a list of child tasks, followed by the
+    * child tasks of each of these tasks.
+    *
+    * @param tasks child tasks
+    */
+   private void writeChildTasks(List<Task> tasks) throws IOException
+   {
+      List<Task> children = new ArrayList<Task>(tasks.size());
+      for (Task task : tasks)
+      {
+         if (m_taskIndexes.containsKey(task))
+         {
+            children.add(task);
+         }
+      }
+
+      m_stream.writeUnsigned(children.size());
+      for (Task task : children)
+      {
+         m_stream.writeUnsigned(m_taskIndexes.get(task).intValue());
+         writeChildTasks(task.getChildTasks());
+      }
+   }
+
+   /**
+    * Write the predecessors of each task.
+    */
+   private void writeRelations() throws IOException
+   {
+      List<Relation> relations = new ArrayList<Relation>();
+      for (Task task : m_tasks)
+      {
+         relations.clear();
+         List<Relation> predecessors = task.getPredecessors();
+         if (predecessors != null)
+         {
+            for (Relation relation : predecessors)
+            {
+               if (m_taskIndexes.containsKey(relation.getTargetTask()))
+               {
+                  relations.add(relation);
+               }
+            }
+         }
+
+         m_stream.writeUnsigned(relations.size());
+         for (Relation relation : relations)
+         {
+            m_stream.writeUnsigned(m_taskIndexes.get(relation.getTargetTask()).intValue());
+            writeValue(relation.getType());
+            writeValue(relation.getLag());
+            m_stream.writeInteger(relation.getUniqueID());
+            m_projectFile.getEventManager().fireRelationWrittenEvent(relation);
+         }
+      }
+   }
+
+   /**
+    * Write resource assignments, and their timephased data.
+    */
+   private void writeAssignments() throws IOException
+   {
+      writeFieldNames(AssignmentField.values());
+
+      List<ResourceAssignment> assignments = new ArrayList<ResourceAssignment>();
+      for (ResourceAssignment assignment : m_projectFile.getResourceAssignments())
+      {
+         if (m_taskIndexes.containsKey(assignment.getTask()))
+         {
+            assignments.add(assignment);
+         }
+      }
+
+      m_stream.writeUnsigned(assignments.size());
+      for (ResourceAssignment assignment : assignments)
+      {
+         m_stream.writeUnsigned(m_taskIndexes.get(assignment.getTask()).intValue());
+         writeFields(assignment, AssignmentField.values());
+
+         writeTimephasedData(SnapshotFormat.TIMEPHASED_WORK, -1, assignment.getTimephasedWork());
+         writeTimephasedData(SnapshotFormat.TIMEPHASED_ACTUAL_WORK, -1, assignment.getTimephasedActualWork());
+         writeTimephasedData(SnapshotFormat.TIMEPHASED_ACTUAL_OVERTIME_WORK, -1, assignment.getTimephasedActualOvertimeWork());
+         for (int index = 0; index < SnapshotFormat.BASELINE_COUNT; index++)
+         {
+            writeTimephasedData(SnapshotFormat.TIMEPHASED_BASELINE_WORK, index, assignment.getTimephasedBaselineWork(index));
+            writeTimephasedData(SnapshotFormat.TIMEPHASED_BASELINE_COST, index, assignment.getTimephasedBaselineCost(index));
+         }
+         m_stream.writeUnsigned(0);
+
+         m_projectFile.getEventManager().fireAssignmentWrittenEvent(assignment);
+      }
+   }
+
+   /**
+    * Write a list of timephased items, if present.
+    *
+    * @param kind timephased data kind
+    * @param baseline baseline index, or -1 if this is not baseline data
+    * @param items timephased items
+    */
+   private void writeTimephasedData(int kind, int baseline, List<? extends TimephasedItem<?>> items) throws IOException
+   {
+      if (items != null)
+      {
+         m_stream.writeUnsigned(kind + 1);
+         if (baseline != -1)
+         {
+            m_stream.writeUnsigned(baseline);
+         }
+
+         m_stream.writeUnsigned(items.size());
+         for (TimephasedItem<?> item : items)
+         {
+            m_stream.writeDate(item.getStart());
+            m_stream.writeDate(item.getFinish());
+            writeValue(item.getTotalAmount());
+            writeValue(item.getAmountPerDay());
+            m_stream.writeBoolean(item.getModified());
+         }
+      }
+   }
+
+   /**
+    * Write the names of the fields in a section. Fields in the section
+    * are identified by their position in this list.
+    *
+    * @param fields field types
+    */
+   private void writeFieldNames(FieldType[] fields) throws IOException
+   {
+      m_stream.writeUnsigned(fields.length);
+      for (FieldType field : fields)
+      {
+         m_stream.writeString(field.name());
+      }
+   }
+
+   /**
+    * Write the populated fields of a container. Each field is written as
+    * its index plus one, followed by its value. The list is terminated by zero.
+    * Relation lists are written separately.
+    *
+    * @param container field container
+    * @param fields field types
+    */
+   private void writeFields(FieldContainer container, FieldType[] fields) throws IOException
+   {
+      for (int index = 0; index < fields.length; index++)
+      {
+         FieldType field = fields[index];
+         if (field.getDataType() == DataType.RELATION_LIST)
+         {
+            continue;
+         }
+
+         Object value = container.getCachedValue(field);
+         if (value != null)
+         {
+            m_stream.writeUnsigned(index + 1);
+            writeValue(value);
+         }
+      }
+      m_stream.writeUnsigned(0);
+   }
+
+   /**
+    * Write a value preceded by a tag representing its type.
+    *
+    * @param value value to write
+    */
+   private void writeValue(Object value) throws IOException
+   {
+      if (value == null)
+      {
+         m_stream.writeByte(SnapshotFormat.TYPE_NULL);
+         return;
+      }
+
+      Integer type = VALUE_TYPES.get(value.getClass());
+      if (type == null)
+      {
+         writeOtherValue(value);
+         return;
+      }
+
+      m_stream.writeByte(type.intValue());
+      switch (type.intValue())
+      {
+         case SnapshotFormat.TYPE_STRING:
+         {
+            m_stream.writeString((String) value);
+            break;
+         }
+
+         case SnapshotFormat.TYPE_INTEGER:
+         case SnapshotFormat.TYPE_SHORT:
+         {
+            m_stream.writeInt(((Number) value).intValue());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_LONG:
+         {
+            m_stream.writeLong(((Long) value).longValue());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DOUBLE:
+         case SnapshotFormat.TYPE_FLOAT:
+         {
+            m_stream.writeNumber(((Number) value).doubleValue());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_BIG_INTEGER:
+         case SnapshotFormat.TYPE_BIG_DECIMAL:
+         {
+            m_stream.writeString(value.toString());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_CHARACTER:
+         {
+            m_stream.writeUnsigned(((Character) value).charValue());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DATE:
+         {
+            m_stream.writeDate((Date) value);
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DURATION:
+         {
+            Duration duration = (Duration) value;
+            m_stream.writeNumber(duration.getDuration());
+            m_stream.writeString(duration.getUnits() == null ? null : duration.getUnits().name());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_RATE:
+         {
+            Rate rate = (Rate) value;
+            m_stream.writeNumber(rate.getAmount());
+            m_stream.writeString(rate.getUnits() == null ? null : rate.getUnits().name());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_PRIORITY:
+         {
+            m_stream.writeInt(((Priority) value).getValue());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_UUID:
+         {
+            UUID uuid = (UUID) value;
+            m_stream.writeLong(uuid.getMostSignificantBits());
+            m_stream.writeLong(uuid.getLeastSignificantBits());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_CALENDAR:
+         {
+            m_stream.writeInteger(((ProjectCalendar) value).getUniqueID());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_DATE_RANGE:
+         {
+            DateRange range = (DateRange) value;
+            m_stream.writeDate(range.getStart());
+            m_stream.writeDate(range.getEnd());
+            break;
+         }
+
+         case SnapshotFormat.TYPE_BINARY:
+         {
+            byte[] data = (byte[]) value;
+            m_stream.writeUnsigned(data.length);
+            m_stream.writeBytes(data);
+            break;
+         }
+
+         case SnapshotFormat.TYPE_SUBPROJECT:
+         {
+            SubProject subProject = (SubProject) value;
+            m_stream.writeString(subProject.getDosFileName());
+            m_stream.writeString(subProject.getDosFullPath());
+            m_stream.writeString(subProject.getFileName());
+            m_stream.writeString(subProject.getFullPath());
+            m_stream.writeInteger(subProject.getUniqueIDOffset());
+            m_stream.writeInteger(subProject.getTaskUniqueID());
+            List<Integer> ids = subProject.getAllExternalTaskUniqueIDs();
+            m_stream.writeUnsigned(ids.size());
+            for (Integer id : ids)
+            {
+               m_stream.writeInteger(id);
+            }
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+   }
+
+   /**
+    * Write a value whose class does not have a type tag of its own.
+    *
+    * @param value value to write
+    */
+   private void writeOtherValue(Object value) throws IOException
+   {
+      if (value instanceof Boolean)
+      {
+         m_stream.writeByte(((Boolean) value).booleanValue() ? SnapshotFormat.TYPE_TRUE : SnapshotFormat.TYPE_FALSE);
+      }
+      else
+      {
+         if (value instanceof Enum)
+         {
+            Enum<?> e = (Enum<?>) value;
+            m_stream.writeByte(SnapshotFormat.TYPE_ENUM);
+            m_stream.writeString(e.getDeclaringClass().getName());
+            m_stream.writeString(e.name());
+         }
+         else
+         {
+            if (value instanceof List)
+            {
+               List<?> list = (List<?>) value;
+               m_stream.writeByte(SnapshotFormat.TYPE_LIST);
+               m_stream.writeUnsigned(list.size());
+               for (Object item : list)
+               {
+                  writeValue(item);
+               }
+            }
+            else
+            {
+               if (value instanceof Map)
+               {
+                  Map<?, ?> map = (Map<?, ?>) value;
+                  m_stream.writeByte(SnapshotFormat.TYPE_MAP);
+                  m_stream.writeUnsigned(map.size());
+                  for (Map.Entry<?, ?> entry : map.entrySet())
+                  {
+                     writeValue(entry.getKey());
+                     writeValue(entry.getValue());
+                  }
+               }
+               else
+               {
+                  if (value instanceof Date)
+                  {
+                     m_stream.writeByte(SnapshotFormat.TYPE_DATE);
+                     m_stream.writeDate((Date) value);
+                  }
+                  else
+                  {
+                     m_stream.writeByte(SnapshotFormat.TYPE_STRING);
+                     m_stream.writeString(value.toString());
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   private ProjectFile m_projectFile;
+   private SnapshotOutputStream m_stream;
+   private Map<Task, Integer> m_taskIndexes;
+   private List<Task> m_tasks;
+
+   private static final Map<Class<?>, Integer> VALUE_TYPES = new HashMap<Class<?>, Integer>();
+   static
+   {
+      VALUE_TYPES.put(String.class, Integer.valueOf(SnapshotFormat.TYPE_STRING));
+      VALUE_TYPES.put(Integer.class, Integer.valueOf(SnapshotFormat.TYPE_INTEGER));
+      VALUE_TYPES.put(Long.class, Integer.valueOf(SnapshotFormat.TYPE_LONG));
+      VALUE_TYPES.put(Short.class, Integer.valueOf(SnapshotFormat.TYPE_SHORT));
+      VALUE_TYPES.put(Double.class, Integer.valueOf(SnapshotFormat.TYPE_DOUBLE));
+      VALUE_TYPES.put(Float.class, Integer.valueOf(SnapshotFormat.TYPE_FLOAT));
+      VALUE_TYPES.put(BigInteger.class, Integer.valueOf(SnapshotFormat.TYPE_BIG_INTEGER));
+      VALUE_TYPES.put(BigDecimal.class, Integer.valueOf(SnapshotFormat.TYPE_BIG_DECIMAL));
+      VALUE_TYPES.put(Character.class, Integer.valueOf(SnapshotFormat.TYPE_CHARACTER));
+      VALUE_TYPES.put(Date.class, Integer.valueOf(SnapshotFormat.TYPE_DATE));
+      VALUE_TYPES.put(Duration.class, Integer.valueOf(SnapshotFormat.TYPE_DURATION));
+      VALUE_TYPES.put(Rate.class, Integer.valueOf(SnapshotFormat.TYPE_RATE));
+      VALUE_TYPES.put(Priority.class, Integer.valueOf(SnapshotFormat.TYPE_PRIORITY));
+      VALUE_TYPES.put(UUID.class, Integer.valueOf(SnapshotFormat.TYPE_UUID));
+      VALUE_TYPES.put(ProjectCalendar.class, Integer.valueOf(SnapshotFormat.TYPE_CALENDAR));
+      VALUE_TYPES.put(DateRange.class, Integer.valueOf(SnapshotFormat.TYPE_DATE_RANGE));
+      VALUE_TYPES.put(byte[].class, Integer.valueOf(SnapshotFormat.TYPE_BINARY));
+      VALUE_TYPES.put(SubProject.class, Integer.valueOf(SnapshotFormat.TYPE_SUBPROJECT));
+   }
+}
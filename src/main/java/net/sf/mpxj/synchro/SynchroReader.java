@@ -114,7 +114,7 @@ public final class SynchroReader extends AbstractProjectReader
     */
    private ProjectFile read() throws Exception
    {
-      m_project = new ProjectFile();
+      m_project = createProjectFile();
       m_eventManager = m_project.getEventManager();
 
       m_project.getProjectProperties().setFileApplication("Synchro");
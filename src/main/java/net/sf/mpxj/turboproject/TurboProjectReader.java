@@ -80,7 +80,7 @@ public final class TurboProjectReader extends AbstractProjectReader
    {
       try
       {
-         m_projectFile = new ProjectFile();
+         m_projectFile = createProjectFile();
          m_eventManager = m_projectFile.getEventManager();
          m_tables = new HashMap<String, Table>();
 
@@ -0,0 +1,110 @@
+/*
+ * file:       TimephasedAggregation.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.util.List;
+
+import net.sf.mpxj.DateRange;
+
+/**
+ * The result of aggregating timephased work and cost across a timescale.
+ * Each row of the work and cost matrices corresponds to one of the keys,
+ * each column corresponds to one of the timescale date ranges.
+ */
+public final class TimephasedAggregation
+{
+   /**
+    * Constructor.
+    *
+    * @param dateList timescale date ranges
+    * @param keys row keys
+    * @param work work in hours, one row per key
+    * @param cost cost, one row per key
+    */
+   TimephasedAggregation(List<DateRange> dateList, List<Object> keys, double[][] work, double[][] cost)
+   {
+      m_dateList = dateList;
+      m_keys = keys;
+      m_work = work;
+      m_cost = cost;
+   }
+
+   /**
+    * Retrieve the timescale date ranges represented by the columns.
+    *
+    * @return date ranges
+    */
+   public List<DateRange> getDateList()
+   {
+      return m_dateList;
+   }
+
+   /**
+    * Retrieve the keys represented by the rows, in the order in which
+    * they were first encountered. A null key represents assignments
+    * for which the grouping field has no value.
+    *
+    * @return row keys
+    */
+   public List<Object> getKeys()
+   {
+      return m_keys;
+   }
+
+   /**
+    * Retrieve the work matrix, expressed in hours.
+    *
+    * @return work matrix
+    */
+   public double[][] getWork()
+   {
+      return m_work;
+   }
+
+   /**
+    * Retrieve the cost matrix.
+    *
+    * @return cost matrix
+    */
+   public double[][] getCost()
+   {
+      return m_cost;
+   }
+
+   /**
+    * Retrieve the row index for a key.
+    *
+    * @param key row key
+    * @return row index, or -1 if the key is not present
+    */
+   public int getRowIndex(Object key)
+   {
+      return m_keys.indexOf(key);
+   }
+
+   private final List<DateRange> m_dateList;
+   private final List<Object> m_keys;
+   private final double[][] m_work;
+   private final double[][] m_cost;
+}
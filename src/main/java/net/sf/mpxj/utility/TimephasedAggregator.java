@@ -0,0 +1,603 @@
+/*
+ * file:       TimephasedAggregator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.ParallelHelper;
+import net.sf.mpxj.common.TimephasedCostSeries;
+import net.sf.mpxj.common.TimephasedWorkSeries;
+import net.sf.mpxj.mpp.TimescaleUnits;
+
+/**
+ * Aggregates the timephased work and cost of resource assignments across
+ * a timescale, for one or more projects. Assignments are grouped by the
+ * value of a task, resource or assignment field, and the results are
+ * returned as dense matrices with one row per group and one column per
+ * timescale date range. For example, grouping by ResourceField.UNIQUE_ID
+ * produces a resource histogram for a single project; grouping by
+ * ResourceField.NAME combines the same resource across several projects.
+ *
+ * The values for each assignment are calculated in the same way as
+ * TimephasedUtility.segmentWork and TimephasedUtility.segmentCost, using the
+ * assignment's calendar, and include both actual and remaining work and cost.
+ * Rather than testing each day of each range against the calendar, the
+ * number of working days up to each day of the timescale is calculated
+ * once per calendar. The timephased data and calendars are read on the
+ * calling thread; the matrices can then be populated by several threads.
+ */
+public final class TimephasedAggregator
+{
+   /**
+    * Constructor.
+    *
+    * @param rangeUnits timescale units
+    * @param dateList timescale date ranges
+    */
+   public TimephasedAggregator(TimescaleUnits rangeUnits, List<DateRange> dateList)
+   {
+      if (rangeUnits == TimescaleUnits.MINUTES || rangeUnits == TimescaleUnits.HOURS)
+      {
+         throw new UnsupportedOperationException("Please request this functionality from the MPXJ maintainer");
+      }
+
+      m_dateList = dateList;
+      m_rangeStart = new long[dateList.size()];
+      m_rangeEnd = new long[dateList.size()];
+
+      long timescaleStart = Long.MAX_VALUE;
+      long timescaleEnd = Long.MIN_VALUE;
+      for (int index = 0; index < m_rangeStart.length; index++)
+      {
+         DateRange range = dateList.get(index);
+         m_rangeStart[index] = range.getStart().getTime();
+         m_rangeEnd[index] = range.getEnd().getTime();
+         timescaleStart = Math.min(timescaleStart, m_rangeStart[index]);
+         timescaleEnd = Math.max(timescaleEnd, m_rangeEnd[index]);
+      }
+
+      m_dayStarts = getDayStarts(timescaleStart, timescaleEnd);
+   }
+
+   /**
+    * Retrieve the number of threads used to populate the matrices.
+    *
+    * @return number of threads
+    */
+   public int getParallelism()
+   {
+      return m_parallelism;
+   }
+
+   /**
+    * Set the number of threads used to populate the matrices. The results
+    * are identical whatever value is used.
+    *
+    * @param parallelism number of threads
+    */
+   public void setParallelism(int parallelism)
+   {
+      m_parallelism = parallelism;
+   }
+
+   /**
+    * Aggregate the timephased work and cost for a single project.
+    *
+    * @param file project file
+    * @param groupBy task, resource or assignment field used to group assignments
+    * @return aggregated work and cost
+    */
+   public TimephasedAggregation aggregate(ProjectFile file, FieldType groupBy) throws MPXJException
+   {
+      return aggregate(Collections.singletonList(file), groupBy);
+   }
+
+   /**
+    * Aggregate the timephased work and cost for several projects.
+    *
+    * @param files project files
+    * @param groupBy task, resource or assignment field used to group assignments
+    * @return aggregated work and cost
+    */
+   public TimephasedAggregation aggregate(List<ProjectFile> files, FieldType groupBy) throws MPXJException
+   {
+      switch (groupBy.getFieldTypeClass())
+      {
+         case TASK:
+         case RESOURCE:
+         case ASSIGNMENT:
+         {
+            break;
+         }
+
+         default:
+         {
+            throw new IllegalArgumentException("Unsupported grouping field: " + groupBy);
+         }
+      }
+
+      //
+      // Collect the timephased data for each assignment. Reading the
+      // timephased data and the calendars may populate cached values,
+      // so this is done on the calling thread.
+      //
+      List<Object> keys = new ArrayList<Object>();
+      Map<Object, Integer> keyMap = new HashMap<Object, Integer>();
+      List<List<AssignmentData>> rows = new ArrayList<List<AssignmentData>>();
+      Map<ProjectCalendar, int[]> calendarMap = new HashMap<ProjectCalendar, int[]>();
+      int assignmentCount = 0;
+
+      for (ProjectFile file : files)
+      {
+         double[] hoursPerUnit = getHoursPerUnit(file.getProjectProperties());
+
+         for (ResourceAssignment assignment : file.getResourceAssignments())
+         {
+            Object key = getKey(assignment, groupBy);
+            Integer row = keyMap.get(key);
+            if (row == null)
+            {
+               row = Integer.valueOf(keys.size());
+               keyMap.put(key, row);
+               keys.add(key);
+               rows.add(new ArrayList<AssignmentData>());
+            }
+
+            ProjectCalendar calendar = assignment.getCalendar();
+            int[] workingDays = calendarMap.get(calendar);
+            if (workingDays == null)
+            {
+               workingDays = getWorkingDays(calendar);
+               calendarMap.put(calendar, workingDays);
+            }
+
+            AssignmentData data = new AssignmentData();
+            data.workingDays = workingDays;
+            data.hoursPerUnit = hoursPerUnit;
+            data.actualWork = TimephasedWorkSeries.getInstance(assignment.getTimephasedActualWork());
+            data.work = TimephasedWorkSeries.getInstance(assignment.getTimephasedWork());
+
+            //
+            // Timephased cost can't be calculated for an assignment without a resource
+            //
+            if (assignment.getResource() != null)
+            {
+               data.actualCost = TimephasedCostSeries.getInstance(assignment.getTimephasedActualCost());
+               data.cost = TimephasedCostSeries.getInstance(assignment.getTimephasedCost());
+            }
+
+            rows.get(row.intValue()).add(data);
+            ++assignmentCount;
+         }
+      }
+
+      //
+      // Populate the matrices. Each row is populated by a single thread,
+      // in assignment order, so the results don't depend on the number
+      // of threads used.
+      //
+      double[][] work = new double[rows.size()][m_rangeStart.length];
+      double[][] cost = new double[rows.size()][m_rangeStart.length];
+      int threadCount = Math.min(Math.min(m_parallelism, rows.size()), assignmentCount / MIN_ASSIGNMENTS_PER_THREAD);
+
+      if (threadCount < 2)
+      {
+         aggregateRows(rows, work, cost, 0, rows.size());
+      }
+      else
+      {
+         aggregateRowsInParallel(rows, work, cost, threadCount, assignmentCount);
+      }
+
+      return new TimephasedAggregation(m_dateList, keys, work, cost);
+   }
+
+   /**
+    * Populate the matrices using a pool of threads. Rows are allocated to
+    * each thread so that the number of assignments processed by each
+    * thread is roughly the same.
+    *
+    * @param rows assignment data for each row
+    * @param work work matrix
+    * @param cost cost matrix
+    * @param threadCount number of threads
+    * @param assignmentCount total number of assignments
+    */
+   private void aggregateRowsInParallel(final List<List<AssignmentData>> rows, final double[][] work, final double[][] cost, int threadCount, int assignmentCount) throws MPXJException
+   {
+      List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threadCount);
+      int assignmentsPerThread = (assignmentCount + threadCount - 1) / threadCount;
+      int start = 0;
+      int count = 0;
+
+      for (int index = 0; index < rows.size(); index++)
+      {
+         count += rows.get(index).size();
+         if (count >= assignmentsPerThread || index + 1 == rows.size())
+         {
+            final int rangeStart = start;
+            final int rangeEnd = index + 1;
+            tasks.add(new Callable<Void>()
+            {
+               @Override public Void call()
+               {
+                  aggregateRows(rows, work, cost, rangeStart, rangeEnd);
+                  return null;
+               }
+            });
+            start = rangeEnd;
+            count = 0;
+         }
+      }
+
+      try
+      {
+         ParallelHelper.invokeAll(tasks, threadCount, MPXJException.class);
+      }
+
+      catch (InterruptedException ex)
+      {
+         Thread.currentThread().interrupt();
+         throw new MPXJException("Interrupted while aggregating timephased data", ex);
+      }
+   }
+
+   /**
+    * Populate a range of rows in the matrices.
+    *
+    * @param rows assignment data for each row
+    * @param work work matrix
+    * @param cost cost matrix
+    * @param start first row index
+    * @param end last row index (exclusive)
+    */
+   private void aggregateRows(List<List<AssignmentData>> rows, double[][] work, double[][] cost, int start, int end)
+   {
+      for (int index = start; index < end; index++)
+      {
+         for (AssignmentData data : rows.get(index))
+         {
+            addWork(data, data.actualWork, work[index]);
+            addWork(data, data.work, work[index]);
+            addCost(data, data.actualCost, cost[index]);
+            addCost(data, data.cost, cost[index]);
+         }
+      }
+   }
+
+   /**
+    * Add timephased work for an assignment to a row of the work matrix.
+    *
+    * @param data assignment data
+    * @param series timephased work
+    * @param row matrix row
+    */
+   private void addWork(AssignmentData data, TimephasedWorkSeries series, double[] row)
+   {
+      if (series == null)
+      {
+         return;
+      }
+
+      int lastStartIndex = 0;
+      for (int rangeIndex = 0; rangeIndex < row.length; rangeIndex++)
+      {
+         int startIndex = series.getStartIndex(m_rangeStart[rangeIndex], m_rangeEnd[rangeIndex], lastStartIndex);
+         if (startIndex != -1)
+         {
+            long rangeStart = m_rangeStart[rangeIndex];
+            long rangeEnd = m_rangeEnd[rangeIndex];
+            double totalWork = 0;
+            boolean done = false;
+
+            do
+            {
+               long start = Math.max(rangeStart, series.getStartTime(startIndex));
+               long end = getEnd(start, Math.min(rangeEnd, series.getFinishTime(startIndex)));
+               TimeUnit units = series.getAmountPerDayUnits(startIndex);
+               if (units != null)
+               {
+                  totalWork += series.getAmountPerDayValue(startIndex) * data.hoursPerUnit[units.ordinal()] * getWorkingDays(data.workingDays, start, end);
+               }
+
+               done = true;
+               if (end < rangeEnd && startIndex + 1 < series.size())
+               {
+                  ++startIndex;
+                  done = false;
+               }
+            }
+            while (!done);
+
+            row[rangeIndex] += totalWork;
+            lastStartIndex = startIndex;
+         }
+      }
+   }
+
+   /**
+    * Add timephased cost for an assignment to a row of the cost matrix.
+    *
+    * @param data assignment data
+    * @param series timephased cost
+    * @param row matrix row
+    */
+   private void addCost(AssignmentData data, TimephasedCostSeries series, double[] row)
+   {
+      if (series == null)
+      {
+         return;
+      }
+
+      int lastStartIndex = 0;
+      for (int rangeIndex = 0; rangeIndex < row.length; rangeIndex++)
+      {
+         int startIndex = series.getStartIndex(m_rangeStart[rangeIndex], m_rangeEnd[rangeIndex], lastStartIndex);
+         if (startIndex != -1)
+         {
+            long rangeStart = m_rangeStart[rangeIndex];
+            long rangeEnd = m_rangeEnd[rangeIndex];
+            double totalCost = 0;
+            boolean done = false;
+
+            do
+            {
+               long start = Math.max(rangeStart, series.getStartTime(startIndex));
+               long end = getEnd(start, Math.min(rangeEnd, series.getFinishTime(startIndex)));
+               double amountPerDay = series.getAmountPerDayValue(startIndex);
+               if (!Double.isNaN(amountPerDay))
+               {
+                  totalCost += amountPerDay * getWorkingDays(data.workingDays, start, end);
+               }
+
+               done = true;
+               if (end < rangeEnd && startIndex + 1 < series.size())
+               {
+                  ++startIndex;
+                  done = false;
+               }
+            }
+            while (!done);
+
+            row[rangeIndex] += totalCost;
+            lastStartIndex = startIndex;
+         }
+      }
+   }
+
+   /**
+    * Counting forward one day at a time from a start date, determine
+    * the date reached once we are no longer before a limit date.
+    *
+    * @param start start date
+    * @param limit limit date
+    * @return date reached
+    */
+   private long getEnd(long start, long limit)
+   {
+      long result = start;
+
+      if (start < limit)
+      {
+         //
+         // Every day before the day containing the limit is visited,
+         // the day containing the limit is visited if the time of day
+         // we reach on that day is before the limit.
+         //
+         Calendar cal = DateHelper.popCalendar(start);
+         cal.add(Calendar.DAY_OF_YEAR, getDayIndex(limit) - getDayIndex(start));
+         if (cal.getTimeInMillis() < limit)
+         {
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+         }
+         result = cal.getTimeInMillis();
+         DateHelper.pushCalendar(cal);
+      }
+
+      return result;
+   }
+
+   /**
+    * Determine the number of working days visited when counting forward
+    * one day at a time from a start date to an end date.
+    *
+    * @param workingDays cumulative working days for the assignment calendar
+    * @param start start date
+    * @param end end date
+    * @return number of working days
+    */
+   private int getWorkingDays(int[] workingDays, long start, long end)
+   {
+      return workingDays[getDayIndex(end)] - workingDays[getDayIndex(start)];
+   }
+
+   /**
+    * Retrieve the index of the timescale day containing a date.
+    *
+    * @param date date
+    * @return day index
+    */
+   private int getDayIndex(long date)
+   {
+      int index = Arrays.binarySearch(m_dayStarts, date);
+      return index < 0 ? -index - 2 : index;
+   }
+
+   /**
+    * Determine the start of each day spanned by the timescale.
+    *
+    * @param timescaleStart timescale start
+    * @param timescaleEnd timescale end
+    * @return start of each day
+    */
+   private long[] getDayStarts(long timescaleStart, long timescaleEnd)
+   {
+      List<Long> days = new ArrayList<Long>();
+      if (timescaleStart <= timescaleEnd)
+      {
+         //
+         // Include the day following the timescale end, as counting
+         // forward through the last day of the timescale reaches it.
+         //
+         Calendar cal = DateHelper.popCalendar(timescaleStart);
+         while (true)
+         {
+            cal.set(Calendar.HOUR_OF_DAY, 0);
+            cal.set(Calendar.MINUTE, 0);
+            cal.set(Calendar.SECOND, 0);
+            cal.set(Calendar.MILLISECOND, 0);
+            days.add(Long.valueOf(cal.getTimeInMillis()));
+            if (cal.getTimeInMillis() > timescaleEnd)
+            {
+               break;
+            }
+            cal.add(Calendar.DAY_OF_YEAR, 1);
+         }
+         DateHelper.pushCalendar(cal);
+      }
+
+      long[] result = new long[days.size()];
+      for (int index = 0; index < result.length; index++)
+      {
+         result[index] = days.get(index).longValue();
+      }
+      return result;
+   }
+
+   /**
+    * Determine the cumulative number of working days for each day
+    * of the timescale. The value at index n is the number of working days
+    * before day n. A null calendar treats every day as a working day.
+    *
+    * @param calendar calendar
+    * @return cumulative working days
+    */
+   private int[] getWorkingDays(ProjectCalendar calendar)
+   {
+      int[] result = new int[m_dayStarts.length + 1];
+      for (int index = 0; index < m_dayStarts.length; index++)
+      {
+         boolean working = calendar == null || calendar.isWorkingDate(new Date(m_dayStarts[index]));
+         result[index + 1] = result[index] + (working ? 1 : 0);
+      }
+      return result;
+   }
+
+   /**
+    * Determine the number of hours represented by one of each time unit,
+    * using the defaults for a project.
+    *
+    * @param properties project properties
+    * @return hours, indexed by time unit
+    */
+   private double[] getHoursPerUnit(ProjectProperties properties)
+   {
+      double minutesPerDay = NumberHelper.getDouble(properties.getMinutesPerDay());
+      double minutesPerWeek = NumberHelper.getDouble(properties.getMinutesPerWeek());
+      double daysPerMonth = NumberHelper.getDouble(properties.getDaysPerMonth());
+
+      TimeUnit[] units = TimeUnit.values();
+      double[] result = new double[units.length];
+      for (TimeUnit unit : units)
+      {
+         result[unit.ordinal()] = Duration.convertUnits(1, unit, TimeUnit.HOURS, minutesPerDay, minutesPerWeek, daysPerMonth).getDuration();
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the value used to group an assignment.
+    *
+    * @param assignment resource assignment
+    * @param groupBy grouping field
+    * @return grouping value
+    */
+   private Object getKey(ResourceAssignment assignment, FieldType groupBy)
+   {
+      FieldContainer container;
+      switch (groupBy.getFieldTypeClass())
+      {
+         case TASK:
+         {
+            container = assignment.getTask();
+            break;
+         }
+
+         case RESOURCE:
+         {
+            container = assignment.getResource();
+            break;
+         }
+
+         default:
+         {
+            container = assignment;
+            break;
+         }
+      }
+
+      return container == null ? null : container.getCurrentValue(groupBy);
+   }
+
+   /**
+    * Data collected for a single assignment.
+    */
+   private static final class AssignmentData
+   {
+      int[] workingDays;
+      double[] hoursPerUnit;
+      TimephasedWorkSeries actualWork;
+      TimephasedWorkSeries work;
+      TimephasedCostSeries actualCost;
+      TimephasedCostSeries cost;
+   }
+
+   private final List<DateRange> m_dateList;
+   private final long[] m_rangeStart;
+   private final long[] m_rangeEnd;
+   private final long[] m_dayStarts;
+   private int m_parallelism = 1;
+
+   private static final int MIN_ASSIGNMENTS_PER_THREAD = 16;
+}
@@ -34,10 +34,12 @@ import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.TimephasedCost;
-import net.sf.mpxj.TimephasedItem;
 import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.AbstractTimephasedSeries;
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.TimephasedCostSeries;
+import net.sf.mpxj.common.TimephasedWorkSeries;
 import net.sf.mpxj.mpp.TimescaleUnits;
 
 /**
@@ -59,6 +61,7 @@ public final class TimephasedUtility
    public ArrayList<Duration> segmentWork(ProjectCalendar projectCalendar, List<TimephasedWork> work, TimescaleUnits rangeUnits, List<DateRange> dateList)
    {
       ArrayList<Duration> result = new ArrayList<Duration>(dateList.size());
+      TimephasedWorkSeries series = TimephasedWorkSeries.getInstance(work);
       int lastStartIndex = 0;
 
       //
@@ -73,7 +76,7 @@ public final class TimephasedUtility
          // assignment date ranges in the list, then we show a zero
          // duration for this date range.
          //
-         int startIndex = lastStartIndex == -1 ? -1 : getStartIndex(range, work, lastStartIndex);
+         int startIndex = lastStartIndex == -1 ? -1 : getStartIndex(range, series, lastStartIndex);
          if (startIndex == -1)
          {
             result.add(Duration.getInstance(0, TimeUnit.HOURS));
@@ -86,7 +89,7 @@ public final class TimephasedUtility
             // much time from this resource assignment can be allocated
             // to the current date range.
             //
-            result.add(getRangeDuration(projectCalendar, rangeUnits, range, work, startIndex));
+            result.add(getRangeDuration(projectCalendar, rangeUnits, range, series, startIndex));
             lastStartIndex = startIndex;
          }
       }
@@ -124,6 +127,7 @@ public final class TimephasedUtility
    public ArrayList<Double> segmentCost(ProjectCalendar projectCalendar, List<TimephasedCost> cost, TimescaleUnits rangeUnits, ArrayList<DateRange> dateList)
    {
       ArrayList<Double> result = new ArrayList<Double>(dateList.size());
+      TimephasedCostSeries series = TimephasedCostSeries.getInstance(cost);
       int lastStartIndex = 0;
 
       //
@@ -138,7 +142,7 @@ public final class TimephasedUtility
          // assignment date ranges in the list, then we show a zero
          // duration for this date range.
          //
-         int startIndex = lastStartIndex == -1 ? -1 : getStartIndex(range, cost, lastStartIndex);
+         int startIndex = lastStartIndex == -1 ? -1 : getStartIndex(range, series, lastStartIndex);
          if (startIndex == -1)
          {
             result.add(NumberHelper.DOUBLE_ZERO);
@@ -151,7 +155,7 @@ public final class TimephasedUtility
             // much time from this resource assignment can be allocated
             // to the current date range.
             //
-            result.add(getRangeCost(projectCalendar, rangeUnits, range, cost, startIndex));
+            result.add(getRangeCost(projectCalendar, rangeUnits, range, series, startIndex));
             lastStartIndex = startIndex;
          }
       }
@@ -179,58 +183,14 @@ public final class TimephasedUtility
     * Used to locate the first timephased resource assignment block which
     * intersects with the target date range.
     *
-    * @param <T> payload type
     * @param range target date range
     * @param assignments timephased resource assignments
     * @param startIndex index at which to start the search
     * @return index of timephased resource assignment which intersects with the target date range
     */
-   private <T extends TimephasedItem<?>> int getStartIndex(DateRange range, List<T> assignments, int startIndex)
+   private int getStartIndex(DateRange range, AbstractTimephasedSeries<?> assignments, int startIndex)
    {
-      int result = -1;
-      if (assignments != null)
-      {
-         long rangeStart = range.getStart().getTime();
-         long rangeEnd = range.getEnd().getTime();
-
-         for (int loop = startIndex; loop < assignments.size(); loop++)
-         {
-            T assignment = assignments.get(loop);
-            int compareResult = DateHelper.compare(assignment.getStart(), assignment.getFinish(), rangeStart);
-
-            //
-            // The start of the target range falls after the assignment end -
-            // move on to test the next assignment.
-            //
-            if (compareResult > 0)
-            {
-               continue;
-            }
-
-            //
-            // The start of the target range  falls within the assignment -
-            // return the index of this assignment to the caller.
-            //
-            if (compareResult == 0)
-            {
-               result = loop;
-               break;
-            }
-
-            //
-            // At this point, we know that the start of the target range is before
-            // the assignment start. We need to determine if the end of the
-            // target range overlaps the assignment.
-            //
-            compareResult = DateHelper.compare(assignment.getStart(), assignment.getFinish(), rangeEnd);
-            if (compareResult >= 0)
-            {
-               result = loop;
-               break;
-            }
-         }
-      }
-      return result;
+      return assignments == null ? -1 : assignments.getStartIndex(range.getStart().getTime(), range.getEnd().getTime(), startIndex);
    }
 
    /**
@@ -244,7 +204,7 @@ public final class TimephasedUtility
     * @param startIndex index at which to start searching through the timephased resource assignments
     * @return work duration
     */
-   private Duration getRangeDuration(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, List<TimephasedWork> assignments, int startIndex)
+   private Duration getRangeDuration(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, TimephasedWorkSeries assignments, int startIndex)
    {
       Duration result;
 
@@ -280,7 +240,7 @@ public final class TimephasedUtility
     * @param startIndex index at which to start searching through the timephased resource assignments
     * @return work duration
     */
-   private Duration getRangeDurationSubDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, List<TimephasedWork> assignments, int startIndex)
+   private Duration getRangeDurationSubDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, TimephasedWorkSeries assignments, int startIndex)
    {
       throw new UnsupportedOperationException("Please request this functionality from the MPXJ maintainer");
    }
@@ -298,7 +258,7 @@ public final class TimephasedUtility
     * @param startIndex index at which to start searching through the timephased resource assignments
     * @return work duration
     */
-   private Duration getRangeDurationWholeDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, List<TimephasedWork> assignments, int startIndex)
+   private Duration getRangeDurationWholeDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, TimephasedWorkSeries assignments, int startIndex)
    {
       // option 1:
       // Our date range starts before the start of the TRA at the start index.
@@ -323,7 +283,6 @@ public final class TimephasedUtility
 
       int totalDays = 0;
       double totalWork = 0;
-      TimephasedWork assignment = assignments.get(startIndex);
       boolean done = false;
 
       do
@@ -332,14 +291,14 @@ public final class TimephasedUtility
          // Select the correct start date
          //
          long startDate = range.getStart().getTime();
-         long assignmentStart = assignment.getStart().getTime();
+         long assignmentStart = assignments.getStartTime(startIndex);
          if (startDate < assignmentStart)
          {
             startDate = assignmentStart;
          }
 
          long rangeEndDate = range.getEnd().getTime();
-         long traEndDate = assignment.getFinish().getTime();
+         long traEndDate = assignments.getFinishTime(startIndex);
 
          Calendar cal = DateHelper.popCalendar(startDate);
          Date calendarDate = cal.getTime();
@@ -365,21 +324,17 @@ public final class TimephasedUtility
          // check to see if the next TRA can be used.
          //
          done = true;
-         totalWork += (assignment.getAmountPerDay().getDuration() * totalDays);
-         if (startDate < rangeEndDate)
+         totalWork += (assignments.getAmountPerDayValue(startIndex) * totalDays);
+         if (startDate < rangeEndDate && startIndex + 1 < assignments.size())
          {
             ++startIndex;
-            if (startIndex < assignments.size())
-            {
-               assignment = assignments.get(startIndex);
-               totalDays = 0;
-               done = false;
-            }
+            totalDays = 0;
+            done = false;
          }
       }
       while (!done);
 
-      return Duration.getInstance(totalWork, assignment.getAmountPerDay().getUnits());
+      return Duration.getInstance(totalWork, assignments.getAmountPerDayUnits(startIndex));
    }
 
    /**
@@ -393,7 +348,7 @@ public final class TimephasedUtility
     * @param startIndex index at which to start searching through the timephased resource assignments
     * @return work duration
     */
-   private Double getRangeCost(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, List<TimephasedCost> assignments, int startIndex)
+   private Double getRangeCost(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, TimephasedCostSeries assignments, int startIndex)
    {
       Double result;
 
@@ -429,11 +384,10 @@ public final class TimephasedUtility
     * @param startIndex index at which to start searching through the timephased resource assignments
     * @return work duration
     */
-   private Double getRangeCostWholeDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, List<TimephasedCost> assignments, int startIndex)
+   private Double getRangeCostWholeDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, TimephasedCostSeries assignments, int startIndex)
    {
       int totalDays = 0;
       double totalCost = 0;
-      TimephasedCost assignment = assignments.get(startIndex);
       boolean done = false;
 
       do
@@ -442,14 +396,14 @@ public final class TimephasedUtility
          // Select the correct start date
          //
          long startDate = range.getStart().getTime();
-         long assignmentStart = assignment.getStart().getTime();
+         long assignmentStart = assignments.getStartTime(startIndex);
          if (startDate < assignmentStart)
          {
             startDate = assignmentStart;
          }
 
          long rangeEndDate = range.getEnd().getTime();
-         long traEndDate = assignment.getFinish().getTime();
+         long traEndDate = assignments.getFinishTime(startIndex);
 
          Calendar cal = DateHelper.popCalendar(startDate);
          Date calendarDate = cal.getTime();
@@ -474,16 +428,12 @@ public final class TimephasedUtility
          // check to see if the next TRA can be used.
          //
          done = true;
-         totalCost += (assignment.getAmountPerDay().doubleValue() * totalDays);
-         if (startDate < rangeEndDate)
+         totalCost += (assignments.getAmountPerDayValue(startIndex) * totalDays);
+         if (startDate < rangeEndDate && startIndex + 1 < assignments.size())
          {
             ++startIndex;
-            if (startIndex < assignments.size())
-            {
-               assignment = assignments.get(startIndex);
-               totalDays = 0;
-               done = false;
-            }
+            totalDays = 0;
+            done = false;
          }
       }
       while (!done);
@@ -504,7 +454,7 @@ public final class TimephasedUtility
     * @param startIndex index at which to start searching through the timephased resource assignments
     * @return work duration
     */
-   private Double getRangeCostSubDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, List<TimephasedCost> assignments, int startIndex)
+   private Double getRangeCostSubDay(ProjectCalendar projectCalendar, TimescaleUnits rangeUnits, DateRange range, TimephasedCostSeries assignments, int startIndex)
    {
       throw new UnsupportedOperationException("Please request this functionality from the MPXJ maintainer");
    }
@@ -0,0 +1,152 @@
+/*
+ * file:       ColumnarTableTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import net.sf.mpxj.common.ColumnarTable;
+import net.sf.mpxj.common.TableSchema;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the ColumnarTable class.
+ */
+public class ColumnarTableTest
+{
+   /**
+    * Ensure that values of each type are stored and retrieved correctly.
+    */
+   @Test public void testValues()
+   {
+      TableSchema schema = new TableSchema(new String[]
+      {
+         "id",
+         "cost",
+         "start",
+         "name"
+      });
+
+      assertEquals(4, schema.getColumnCount());
+      assertEquals(2, schema.getOrdinal("start"));
+      assertEquals(-1, schema.getOrdinal("finish"));
+      assertEquals("name", schema.getColumnName(3));
+
+      ColumnarTable table = new ColumnarTable(schema);
+      for (int index = 0; index < 100; index++)
+      {
+         int row = table.addRow();
+         assertEquals(index, row);
+
+         if (index % 10 != 0)
+         {
+            table.setValue(row, 0, Integer.valueOf(index));
+            table.setValue(row, 1, Double.valueOf(index * 1.5));
+            table.setValue(row, 2, new Date(index * 1000L));
+            table.setValue(row, 3, "Row " + index);
+         }
+      }
+      assertEquals(100, table.getRowCount());
+
+      for (int row = 0; row < 100; row++)
+      {
+         if (row % 10 == 0)
+         {
+            for (int column = 0; column < 4; column++)
+            {
+               assertTrue(table.isNull(row, column));
+               assertNull(table.getObject(row, column));
+            }
+            assertEquals(0, table.getInt(row, 0));
+            assertEquals(0.0, table.getDouble(row, 1), 0.0);
+         }
+         else
+         {
+            assertEquals(Integer.valueOf(row), table.getObject(row, 0));
+            assertEquals(row, table.getInt(row, 0));
+            assertEquals(row, table.getDouble(row, 0), 0.0);
+            assertEquals(Double.valueOf(row * 1.5), table.getObject(row, 1));
+            assertEquals(row * 1.5, table.getDouble(row, 1), 0.0);
+            assertEquals(new Date(row * 1000L), table.getObject(row, 2));
+            assertEquals("Row " + row, table.getObject(row, 3));
+         }
+      }
+
+      table.setValue(5, 0, null);
+      assertTrue(table.isNull(5, 0));
+      assertNull(table.getObject(5, 0));
+   }
+
+   /**
+    * Ensure that a column holding mixed types retains all of its values.
+    */
+   @Test public void testMixedTypes()
+   {
+      ColumnarTable table = new ColumnarTable(new TableSchema(new String[]
+      {
+         "value"
+      }));
+
+      table.setValue(table.addRow(), 0, Integer.valueOf(1));
+      table.addRow();
+      table.setValue(table.addRow(), 0, Integer.valueOf(3));
+      table.setValue(table.addRow(), 0, "Four");
+
+      assertEquals(Integer.valueOf(1), table.getObject(0, 0));
+      assertNull(table.getObject(1, 0));
+      assertEquals(Integer.valueOf(3), table.getObject(2, 0));
+      assertEquals("Four", table.getObject(3, 0));
+      assertEquals(3, table.getInt(2, 0));
+   }
+
+   /**
+    * Ensure that a cleared table can be reused.
+    */
+   @Test public void testClear()
+   {
+      ColumnarTable table = new ColumnarTable(new TableSchema(new String[]
+      {
+         "id",
+         "name"
+      }));
+
+      int row = table.addRow();
+      table.setValue(row, 0, Integer.valueOf(1));
+      table.setValue(row, 1, "One");
+
+      table.clear();
+      assertEquals(0, table.getRowCount());
+
+      row = table.addRow();
+      assertEquals(0, row);
+      assertTrue(table.isNull(row, 0));
+      assertTrue(table.isNull(row, 1));
+
+      table.setValue(row, 0, Integer.valueOf(2));
+      assertEquals(2, table.getInt(row, 0));
+      assertNull(table.getObject(row, 1));
+   }
+}
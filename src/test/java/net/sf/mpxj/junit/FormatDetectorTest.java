@@ -0,0 +1,249 @@
+/*
+ * file:       FormatDetectorTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.FileHelper;
+import net.sf.mpxj.reader.FormatDetectionResult;
+import net.sf.mpxj.reader.FormatDetector;
+import net.sf.mpxj.reader.ProjectFileFormat;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the FormatDetector class.
+ */
+public class FormatDetectorTest
+{
+   /**
+    * Ensure that byte and regular expression fingerprints are matched,
+    * and that the highest priority format is reported.
+    */
+   @Test public void testFingerprints()
+   {
+      FormatDetector detector = new FormatDetector();
+
+      FormatDetectionResult result = detector.detect(getHeader(null, "MPX,Microsoft Project for Windows,4.0,ANSI"));
+      assertEquals(ProjectFileFormat.MPX, result.getFormat());
+      assertEquals(0.375, result.getConfidence(), 0);
+      assertNull(result.getCharset());
+
+      //
+      // Snapshot files share a prefix with MPX files
+      //
+      result = detector.detect(getHeader(null, "MPXJSNAP"));
+      assertEquals(ProjectFileFormat.SNAPSHOT, result.getFormat());
+      assertEquals(1.0, result.getConfidence(), 0);
+      assertEquals(Arrays.asList(ProjectFileFormat.SNAPSHOT, ProjectFileFormat.MPX), result.getFormats());
+      assertEquals(0.375, result.getConfidence(ProjectFileFormat.MPX), 0);
+
+      result = detector.detect(getHeader(null, "<?xml version=\"1.0\"?>\n<Project xmlns=\"http://schemas.microsoft.com/project\">"));
+      assertEquals(ProjectFileFormat.MSPDI, result.getFormat());
+      assertEquals(0.5, result.getConfidence(), 0);
+
+      result = detector.detect(getHeader(null, " {\n \"custom_fields\": []"));
+      assertEquals(ProjectFileFormat.JSON, result.getFormat());
+      assertNull(detector.detect(getHeader(null, "x{\"custom_fields\": []")).getFormat());
+
+      result = detector.detect(getHeader(new byte[]
+      {
+         (byte) 0xEF,
+         (byte) 0xBB,
+         (byte) 0xBF
+      }, "<Project><SaveVersion>14</SaveVersion>"));
+      assertEquals(ProjectFileFormat.MSPDI, result.getFormat());
+      assertEquals(CharsetHelper.UTF8, result.getCharset());
+      assertEquals(3, result.getByteOrderMarkLength());
+
+      result = detector.detect(getHeader(null, "Nothing to see here"));
+      assertNull(result.getFormat());
+      assertEquals(0, result.getConfidence(), 0);
+      assertTrue(result.getFormats().isEmpty());
+      assertEquals(detector.getHeaderSize(), result.getHeaderLength());
+
+      //
+      // Headers shorter than the fingerprint
+      //
+      assertNull(detector.detect(new byte[]
+      {
+         (byte) 'M',
+         (byte) 'P'
+      }).getFormat());
+      assertNull(detector.detect(new byte[0]).getFormat());
+   }
+
+   /**
+    * Ensure that additional fingerprints can be registered.
+    */
+   @Test public void testAdditionalFingerprints()
+   {
+      FormatDetector detector = new FormatDetector();
+      detector.addFingerprint(ProjectFileFormat.MPX, new byte[]
+      {
+         (byte) 'X',
+         (byte) 'P',
+         (byte) 'M'
+      }, 0.9);
+      detector.addFingerprint(ProjectFileFormat.PLANNER, Pattern.compile("planner-version"));
+
+      FormatDetectionResult result = detector.detect(getHeader(null, "XPM"));
+      assertEquals(ProjectFileFormat.MPX, result.getFormat());
+      assertEquals(0.9, result.getConfidence(), 0);
+
+      result = detector.detect(getHeader(null, "<project planner-version=\"1\">"));
+      assertEquals(ProjectFileFormat.PLANNER, result.getFormat());
+
+      //
+      // The default fingerprints take priority
+      //
+      result = detector.detect(getHeader(null, "MPX planner-version"));
+      assertEquals(Arrays.asList(ProjectFileFormat.MPX, ProjectFileFormat.PLANNER), result.getFormats());
+
+      try
+      {
+         detector.addFingerprint(ProjectFileFormat.MPX, new byte[1], 2);
+         fail("Expected IllegalArgumentException");
+      }
+
+      catch (IllegalArgumentException ex)
+      {
+         // Expected
+      }
+   }
+
+   /**
+    * Ensure that the files in a directory tree are detected in the expected
+    * order, using one or more threads, and that results are cached until
+    * a file changes.
+    */
+   @Test public void testDirectory() throws Exception
+   {
+      File dir = FileHelper.createTempDir();
+
+      try
+      {
+         File subdir = new File(dir, "a");
+         FileHelper.mkdirs(subdir);
+
+         List<File> expected = new ArrayList<File>();
+         List<ProjectFileFormat> formats = new ArrayList<ProjectFileFormat>();
+         for (int index = 0; index < 20; index++)
+         {
+            File file = new File(index < 10 ? dir : subdir, "file" + index);
+            writeFile(file, getHeader(null, index % 2 == 0 ? "MPX" : "ERMHDR"));
+            expected.add(file);
+            formats.add(index % 2 == 0 ? ProjectFileFormat.MPX : ProjectFileFormat.PRIMAVERA_XER);
+         }
+
+         FormatDetector detector = new FormatDetector();
+         Map<File, FormatDetectionResult> single = detector.detectDirectory(dir, 1);
+         detector.clearCache();
+         Map<File, FormatDetectionResult> parallel = detector.detectDirectory(dir, 4);
+
+         assertEquals(expected.size(), single.size());
+         List<File> files = new ArrayList<File>(single.keySet());
+         assertEquals(files, new ArrayList<File>(parallel.keySet()));
+         for (int index = 0; index < files.size(); index++)
+         {
+            assertEquals(index < 10 ? dir : subdir, files.get(index).getParentFile());
+         }
+
+         for (int index = 0; index < expected.size(); index++)
+         {
+            File file = expected.get(index);
+            assertEquals(formats.get(index), single.get(file).getFormat());
+            assertEquals(formats.get(index), parallel.get(file).getFormat());
+         }
+
+         //
+         // Cached results are reused until the file changes
+         //
+         File file = expected.get(0);
+         FormatDetectionResult result = detector.detect(file);
+         assertSame(result, detector.detect(file));
+         writeFile(file, new byte[10]);
+         result = detector.detect(file);
+         assertNull(result.getFormat());
+         assertEquals(10, result.getHeaderLength());
+      }
+
+      finally
+      {
+         FileHelper.deleteQuietly(dir);
+      }
+   }
+
+   /**
+    * Create a header padded to the size examined by the detector.
+    *
+    * @param prefix bytes preceding the text, or null
+    * @param text header text
+    * @return header bytes
+    */
+   private byte[] getHeader(byte[] prefix, String text)
+   {
+      byte[] buffer = new byte[512];
+      Arrays.fill(buffer, (byte) ' ');
+      int offset = 0;
+      if (prefix != null)
+      {
+         System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+         offset = prefix.length;
+      }
+      byte[] data = text.getBytes(CharsetHelper.UTF8);
+      System.arraycopy(data, 0, buffer, offset, data.length);
+      return buffer;
+   }
+
+   /**
+    * Write data to a file.
+    *
+    * @param file target file
+    * @param data file content
+    */
+   private void writeFile(File file, byte[] data) throws IOException
+   {
+      FileOutputStream os = new FileOutputStream(file);
+      try
+      {
+         os.write(data);
+      }
+
+      finally
+      {
+         os.close();
+      }
+   }
+}
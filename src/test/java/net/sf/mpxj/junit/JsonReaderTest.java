@@ -0,0 +1,211 @@
+/*
+ * file:       JsonReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.json.JsonReader;
+import net.sf.mpxj.json.JsonStreamReader;
+import net.sf.mpxj.json.JsonWriter;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.planner.PlannerReader;
+import net.sf.mpxj.primavera.PrimaveraPMFileReader;
+import net.sf.mpxj.reader.ProjectReader;
+import net.sf.mpxj.reader.UniversalProjectReader;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the JsonReader and JsonStreamReader classes.
+ */
+public class JsonReaderTest
+{
+   /**
+    * Ensure that escape sequences, numbers and literals are tokenized correctly.
+    */
+   @Test public void testTokenizer() throws Exception
+   {
+      String json = "{\"a\\u0041\" : [\"x\\n\\\"y\", -12, 1.5e2, true, false, null, {}]}";
+      JsonStreamReader reader = new JsonStreamReader(new ByteArrayInputStream(json.getBytes("UTF-8")), CharsetHelper.UTF8);
+
+      assertEquals(JsonStreamReader.START_OBJECT, reader.nextToken());
+      assertEquals(JsonStreamReader.NAME, reader.nextToken());
+      assertEquals("aA", reader.getText());
+      assertEquals(JsonStreamReader.START_LIST, reader.nextToken());
+      assertEquals(JsonStreamReader.STRING, reader.nextToken());
+      assertEquals("x\n\"y", reader.getText());
+      assertEquals(JsonStreamReader.NUMBER, reader.nextToken());
+      assertEquals(-12, reader.getInt());
+      assertEquals(JsonStreamReader.NUMBER, reader.nextToken());
+      assertEquals(150.0, reader.getDouble(), 0.0);
+      assertEquals(150, reader.getLong());
+      assertEquals(JsonStreamReader.TRUE, reader.nextToken());
+      assertEquals(JsonStreamReader.FALSE, reader.nextToken());
+      assertEquals(JsonStreamReader.NULL, reader.nextToken());
+      assertEquals(JsonStreamReader.START_OBJECT, reader.nextToken());
+      reader.skipValue();
+      assertEquals(JsonStreamReader.END_OBJECT, reader.getToken());
+      assertEquals(JsonStreamReader.END_LIST, reader.nextToken());
+      assertEquals(JsonStreamReader.END_OBJECT, reader.nextToken());
+      assertEquals(JsonStreamReader.END_DOCUMENT, reader.nextToken());
+   }
+
+   /**
+    * Ensure that a Planner file survives a JSON round trip.
+    */
+   @Test public void testPlannerRoundTrip() throws Exception
+   {
+      testRoundTrip(new PlannerReader(), "planner-sample.planner");
+   }
+
+   /**
+    * Ensure that an MSPDI file with task relationships survives a JSON round trip.
+    */
+   @Test public void testMspdiRoundTrip() throws Exception
+   {
+      testRoundTrip(new MSPDIReader(), "mspdirelations.xml");
+   }
+
+   /**
+    * Ensure that a PMXML file survives a JSON round trip.
+    */
+   @Test public void testPmxmlRoundTrip() throws Exception
+   {
+      testRoundTrip(new PrimaveraPMFileReader(), "generated/task-percentcomplete/percent-complete-8.4.pmxml");
+   }
+
+   /**
+    * Ensure that the MPX, MSPDI and MPP files in the test data survive
+    * a JSON round trip.
+    */
+   @Test public void testTestDataRoundTrip() throws Exception
+   {
+      for (String directory : ROUND_TRIP_DIRECTORIES)
+      {
+         for (File file : MpxjTestData.listFiles(directory, ""))
+         {
+            String name = file.getName().toLowerCase();
+            if ((name.endsWith(".mpx") || name.endsWith(".xml") || name.endsWith(".mpp")) && !EXCLUDED_FILES.contains(name))
+            {
+               ProjectFile project = new UniversalProjectReader().read(file);
+               if (project != null)
+               {
+                  testRoundTrip(file.getPath(), project);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Read a file, write it as JSON, read the JSON back, and ensure that
+    * the project structure is preserved and that writing the project
+    * again produces identical JSON.
+    *
+    * @param reader reader for the source file
+    * @param name source file name
+    */
+   private void testRoundTrip(ProjectReader reader, String name) throws Exception
+   {
+      testRoundTrip(name, reader.read(MpxjTestData.filePath(name)));
+   }
+
+   /**
+    * Write a project as JSON, read the JSON back, and ensure that
+    * the project structure is preserved and that writing the project
+    * again produces identical JSON.
+    *
+    * @param name source file name
+    * @param expected project read from the source file
+    */
+   private void testRoundTrip(String name, ProjectFile expected) throws Exception
+   {
+      byte[] json = writeJson(expected);
+      ProjectFile project = new JsonReader().read(new ByteArrayInputStream(json));
+
+      assertEquals(expected.getTasks().size(), project.getTasks().size());
+      assertEquals(expected.getResources().size(), project.getResources().size());
+      assertEquals(expected.getResourceAssignments().size(), project.getResourceAssignments().size());
+      assertEquals(expected.getChildTasks().size(), project.getChildTasks().size());
+
+      for (Task expectedTask : expected.getTasks())
+      {
+         Task task = project.getTaskByUniqueID(expectedTask.getUniqueID());
+         assertNotNull(name, task);
+         assertEquals(expectedTask.getName(), task.getName());
+         assertEquals(expectedTask.getOutlineLevel(), task.getOutlineLevel());
+         assertEquals(expectedTask.getStart(), task.getStart());
+         assertEquals(expectedTask.getFinish(), task.getFinish());
+
+         assertEquals(expectedTask.getPredecessors().size(), task.getPredecessors().size());
+         for (int index = 0; index < task.getPredecessors().size(); index++)
+         {
+            Relation expectedRelation = expectedTask.getPredecessors().get(index);
+            Relation relation = task.getPredecessors().get(index);
+            assertEquals(expectedRelation.getTargetTask().getUniqueID(), relation.getTargetTask().getUniqueID());
+            assertEquals(expectedRelation.getType(), relation.getType());
+         }
+      }
+
+      assertEquals(name, new String(json, "UTF-8"), new String(writeJson(project), "UTF-8"));
+   }
+
+   /**
+    * Write a project as JSON.
+    *
+    * @param project project to write
+    * @return JSON data
+    */
+   private byte[] writeJson(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      JsonWriter writer = new JsonWriter();
+      writer.setPretty(true);
+      writer.write(project, stream);
+      return stream.toByteArray();
+   }
+
+   private static final String[] ROUND_TRIP_DIRECTORIES =
+   {
+      "",
+      "legacy"
+   };
+
+   /**
+    * Password protected files, and an MPX file which can only be read
+    * once the reader's locale has been set.
+    */
+   private static final Set<String> EXCLUDED_FILES = new HashSet<String>(Arrays.asList("password-protected-mpp9.mpp", "readpassword9.mpp", "bothpassword9.mpp", "sample.de.mpx"));
+}
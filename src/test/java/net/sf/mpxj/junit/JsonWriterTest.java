@@ -0,0 +1,188 @@
+/*
+ * file:       JsonWriterTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.json.JsonStreamWriter;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the JsonStreamWriter class.
+ */
+public class JsonWriterTest
+{
+   /**
+    * Ensure that strings are escaped and encoded correctly, including
+    * characters outside the basic multilingual plane which span
+    * the writer's internal buffer boundary.
+    */
+   @Test public void testStrings() throws Exception
+   {
+      StringBuilder text = new StringBuilder();
+      for (int index = 0; index < 5000; index++)
+      {
+         text.append("a\u00E9\u20AC\uD83D\uDE00");
+      }
+      String value = text.toString();
+
+      assertEquals("{\"a\":\"" + value + "\"}", write(value, CharsetHelper.UTF8));
+      assertEquals("{\"a\":\"" + value + "\"}", write(value, Charset.forName("UTF-16")));
+      assertEquals("{\"a\":\"\\\"\\\\\\/\\b\\f\\n\\r\\t\"}", write("\"\\/\b\f\n\r\t\u0001", CharsetHelper.UTF8));
+   }
+
+   /**
+    * Ensure that numbers and dates are written in the same format
+    * as Double.toString and SimpleDateFormat.
+    */
+   @Test public void testNumbersAndDates() throws Exception
+   {
+      SimpleDateFormat format = new SimpleDateFormat("\"yyyy-MM-dd'T'HH:mm:ss.S\"");
+      Random random = new Random(0);
+      double[] doubles =
+      {
+         1,
+         -1,
+         0.5,
+         9999999,
+         10000000,
+         -10000000,
+         1.0E-4,
+         Double.MAX_VALUE,
+         Long.MIN_VALUE
+      };
+
+      for (double value : doubles)
+      {
+         assertEquals("{\"a\":" + Double.toString(value) + "}", write(value));
+      }
+
+      for (int index = 0; index < 1000; index++)
+      {
+         double value = random.nextInt(20000000) - 10000000;
+         assertEquals("{\"a\":" + Double.toString(value) + "}", write(value));
+
+         long longValue = random.nextLong();
+         assertEquals("{\"a\":" + Long.toString(longValue) + "}", write(longValue));
+
+         Date date = new Date(random.nextLong() % 100000000000000L);
+         assertEquals("{\"a\":" + format.format(date) + "}", write(date));
+      }
+   }
+
+   /**
+    * Write a single string attribute.
+    *
+    * @param value attribute value
+    * @param encoding target encoding
+    * @return JSON text
+    */
+   private String write(String value, Charset encoding) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      JsonStreamWriter writer = new JsonStreamWriter(stream, encoding);
+      writer.writeStartObject(null);
+      writer.writeNameValuePair("a", value);
+      writer.writeEndObject();
+      writer.flush();
+      return new String(stream.toByteArray(), encoding);
+   }
+
+   /**
+    * Write a single double attribute.
+    *
+    * @param value attribute value
+    * @return JSON text
+    */
+   private String write(double value) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      JsonStreamWriter writer = createWriter(stream);
+      writer.writeNameValuePair("a", value);
+      return finish(writer, stream);
+   }
+
+   /**
+    * Write a single long attribute.
+    *
+    * @param value attribute value
+    * @return JSON text
+    */
+   private String write(long value) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      JsonStreamWriter writer = createWriter(stream);
+      writer.writeNameValuePair("a", value);
+      return finish(writer, stream);
+   }
+
+   /**
+    * Write a single date attribute.
+    *
+    * @param value attribute value
+    * @return JSON text
+    */
+   private String write(Date value) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      JsonStreamWriter writer = createWriter(stream);
+      writer.writeNameValuePair("a", value);
+      return finish(writer, stream);
+   }
+
+   /**
+    * Create a writer and start an object.
+    *
+    * @param stream output stream
+    * @return JsonStreamWriter instance
+    */
+   private JsonStreamWriter createWriter(ByteArrayOutputStream stream) throws Exception
+   {
+      JsonStreamWriter writer = new JsonStreamWriter(stream, CharsetHelper.UTF8);
+      writer.writeStartObject(null);
+      return writer;
+   }
+
+   /**
+    * End the object and retrieve the JSON text.
+    *
+    * @param writer JsonStreamWriter instance
+    * @param stream output stream
+    * @return JSON text
+    */
+   private String finish(JsonStreamWriter writer, ByteArrayOutputStream stream) throws Exception
+   {
+      writer.writeEndObject();
+      writer.flush();
+      return new String(stream.toByteArray(), CharsetHelper.UTF8);
+   }
+}
@@ -0,0 +1,111 @@
+/*
+ * file:       MppFileTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.mpp.MPPReader;
+import net.sf.mpxj.reader.UniversalProjectReader;
+import net.sf.mpxj.snapshot.SnapshotWriter;
+
+import org.junit.Test;
+
+/**
+ * Ensure that MPP files read directly from the file system are identical
+ * to the same files read from an input stream.
+ */
+public class MppFileTest
+{
+   /**
+    * Test MPP9 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp9() throws Exception
+   {
+      testFileRead("mpp9timephased.mpp");
+   }
+
+   /**
+    * Test MPP12 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp12() throws Exception
+   {
+      testFileRead("mpp12timephased.mpp");
+   }
+
+   /**
+    * Test MPP14 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp14() throws Exception
+   {
+      testFileRead("mpp14timephased.mpp");
+      testFileRead("mpp14task.mpp");
+   }
+
+   /**
+    * Read a file from a stream and directly from the file system,
+    * using both MPPReader and UniversalProjectReader, and compare the results.
+    *
+    * @param fileName test file name
+    */
+   private void testFileRead(String fileName) throws Exception
+   {
+      File file = new File(MpxjTestData.filePath(fileName));
+
+      InputStream stream = new FileInputStream(file);
+      ProjectFile expected = new MPPReader().read(stream);
+      stream.close();
+
+      byte[] expectedData = writeSnapshot(expected);
+      assertArrayEquals(expectedData, writeSnapshot(new MPPReader().read(file)));
+      assertArrayEquals(expectedData, writeSnapshot(new UniversalProjectReader().read(file)));
+   }
+
+   /**
+    * Write a project as a snapshot. The current date is cleared first:
+    * where a file does not supply it, it defaults to the time at which
+    * the project was read, so it differs between reads.
+    *
+    * @param project project to write
+    * @return snapshot data
+    */
+   private byte[] writeSnapshot(ProjectFile project) throws Exception
+   {
+      project.getProjectProperties().setCurrentDate(null);
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new SnapshotWriter().write(project, stream);
+      return stream.toByteArray();
+   }
+}
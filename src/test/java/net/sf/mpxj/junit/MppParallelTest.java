@@ -0,0 +1,130 @@
+/*
+ * file:       MppParallelTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       07/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.mpp.MPPReader;
+
+import org.junit.Test;
+
+/**
+ * Ensure that MPP files read using multiple threads are identical
+ * to the same files read using a single thread.
+ */
+public class MppParallelTest
+{
+   /**
+    * Test MPP9 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp9() throws Exception
+   {
+      testParallelRead("mpp9timephased.mpp");
+      testParallelRead("generated/task-durations/task-durations-project2003-mpp9.mpp");
+   }
+
+   /**
+    * Test MPP12 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp12() throws Exception
+   {
+      testParallelRead("mpp12timephased.mpp");
+      testParallelRead("generated/task-durations/task-durations-project2007-mpp12.mpp");
+   }
+
+   /**
+    * Test MPP14 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp14() throws Exception
+   {
+      testParallelRead("mpp14timephased.mpp");
+      testParallelRead("mpp14task.mpp");
+      testParallelRead("generated/task-durations/task-durations-project2010-mpp14.mpp");
+   }
+
+   /**
+    * Read a file with and without parallel decoding and compare the results.
+    * Rows are only split between threads when there are at least 16 rows
+    * per thread, so the task-durations files, which contain over 100 tasks
+    * and assignments, are read using all four threads.
+    *
+    * @param fileName test file name
+    */
+   private void testParallelRead(String fileName) throws Exception
+   {
+      ProjectFile expected = new MPPReader().read(MpxjTestData.filePath(fileName));
+
+      MPPReader reader = new MPPReader();
+      reader.setParallelism(4);
+      ProjectFile actual = reader.read(MpxjTestData.filePath(fileName));
+
+      compare(expected.getTasks(), actual.getTasks(), TaskField.values());
+      compare(expected.getResources(), actual.getResources(), ResourceField.values());
+      compare(expected.getResourceAssignments(), actual.getResourceAssignments(), AssignmentField.values());
+
+      for (int index = 0; index < expected.getTasks().size(); index++)
+      {
+         Task expectedTask = expected.getTasks().get(index);
+         Task actualTask = actual.getTasks().get(index);
+         assertEquals(String.valueOf(expectedTask.getParentTask()), String.valueOf(actualTask.getParentTask()));
+         assertEquals(expectedTask.getPredecessors().size(), actualTask.getPredecessors().size());
+      }
+   }
+
+   /**
+    * Compare the field values of two lists of entities.
+    *
+    * @param expected expected entities
+    * @param actual actual entities
+    * @param fields fields to compare
+    */
+   private void compare(List<? extends FieldContainer> expected, List<? extends FieldContainer> actual, FieldType[] fields)
+   {
+      assertEquals(expected.size(), actual.size());
+      for (int index = 0; index < expected.size(); index++)
+      {
+         FieldContainer expectedContainer = expected.get(index);
+         FieldContainer actualContainer = actual.get(index);
+         for (FieldType field : fields)
+         {
+            assertEquals(field.toString(), String.valueOf(expectedContainer.getCachedValue(field)), String.valueOf(actualContainer.getCachedValue(field)));
+         }
+      }
+   }
+}
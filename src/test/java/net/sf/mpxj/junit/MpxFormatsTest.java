@@ -0,0 +1,321 @@
+/*
+ * file:       MpxFormatsTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+import net.sf.mpxj.CurrencySymbolPosition;
+import net.sf.mpxj.DateOrder;
+import net.sf.mpxj.ProjectDateFormat;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.ProjectTimeFormat;
+import net.sf.mpxj.mpx.MPXJDateFormat;
+import net.sf.mpxj.mpx.MPXJFormats;
+import net.sf.mpxj.mpx.MPXJNumberFormat;
+
+import org.junit.Test;
+
+/**
+ * Ensure that parsing dates and numbers from a range of characters
+ * produces the same results as parsing the equivalent string.
+ */
+public class MpxFormatsTest
+{
+   /**
+    * Test dates written using each combination of date format, date order and time format.
+    */
+   @Test public void testDates() throws Exception
+   {
+      Calendar calendar = Calendar.getInstance();
+      for (Locale locale : LOCALES)
+      {
+         for (ProjectDateFormat dateFormat : ProjectDateFormat.values())
+         {
+            for (DateOrder dateOrder : DateOrder.values())
+            {
+               for (ProjectTimeFormat timeFormat : ProjectTimeFormat.values())
+               {
+                  ProjectFile file = new ProjectFile();
+                  ProjectProperties properties = file.getProjectProperties();
+                  properties.setDateFormat(dateFormat);
+                  properties.setDateOrder(dateOrder);
+                  properties.setTimeFormat(timeFormat);
+                  MPXJFormats formats = new MPXJFormats(locale, "NA", file);
+
+                  calendar.clear();
+                  calendar.set(1999, Calendar.DECEMBER, 31, 23, 59);
+                  for (int loop = 0; loop < 50; loop++)
+                  {
+                     Date date = calendar.getTime();
+                     testDate(formats.getDateTimeFormat(), formats.getDateTimeFormat().format(date));
+                     testDate(formats.getDateFormat(), formats.getDateFormat().format(date));
+                     testDate(formats.getDateTimeFormat(), formats.getDateFormat().format(date));
+                     calendar.add(Calendar.MINUTE, 1000 * 37);
+                  }
+
+                  testDate(formats.getDateTimeFormat(), "NA");
+                  testDate(formats.getDateTimeFormat(), " ");
+                  testDate(formats.getDateTimeFormat(), "31/12/99 24:00");
+                  testDate(formats.getDateTimeFormat(), "xx");
+
+                  String dateText = formats.getDateFormat().format(calendar.getTime());
+                  for (String time : TIMES)
+                  {
+                     testDate(formats.getDateTimeFormat(), dateText + " " + time);
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Test numbers using the currency and decimal formats.
+    */
+   @Test public void testNumbers() throws Exception
+   {
+      for (CurrencySymbolPosition position : CurrencySymbolPosition.values())
+      {
+         ProjectFile file = new ProjectFile();
+         ProjectProperties properties = file.getProjectProperties();
+         properties.setSymbolPosition(position);
+         properties.setCurrencySymbol("$");
+         MPXJFormats formats = new MPXJFormats(Locale.ENGLISH, "NA", file);
+
+         for (String text : NUMBERS)
+         {
+            testNumber(formats.getCurrencyFormat(), text);
+            testNumber(formats.getDecimalFormat(), text);
+            testNumber(formats.getPercentageDecimalFormat(), text);
+         }
+
+         testNumber(formats.getCurrencyFormat(), formats.getCurrencyFormat().format(1234.5));
+         testNumber(formats.getCurrencyFormat(), formats.getCurrencyFormat().format(-1234.5));
+      }
+   }
+
+   /**
+    * Ensure that changes to a number format made after it has been used
+    * to parse a range of characters are applied to later parses.
+    */
+   @Test public void testNumberFormatChanges() throws Exception
+   {
+      MPXJNumberFormat format = new MPXJNumberFormat();
+      format.applyPattern("0.00", null, '.', ',');
+      testNumber(format, "1.5");
+
+      format.setParseIntegerOnly(true);
+      testNumber(format, "1.5");
+      format.setParseIntegerOnly(false);
+
+      format.setMultiplier(100);
+      testNumber(format, "50");
+      format.setMultiplier(1);
+
+      format.setPositivePrefix("+");
+      testNumber(format, "5");
+      testNumber(format, "+5");
+      format.setPositivePrefix("");
+
+      DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.ENGLISH);
+      symbols.setDecimalSeparator(',');
+      symbols.setGroupingSeparator('.');
+      format.setDecimalFormatSymbols(symbols);
+      testNumber(format, "1.5");
+      testNumber(format, "1,5");
+
+      format.applyPattern("0.00%");
+      testNumber(format, "50%");
+   }
+
+   /**
+    * Ensure that a date parsed from a range of characters matches the
+    * date parsed from a string.
+    *
+    * @param format date format
+    * @param text date text
+    */
+   private void testDate(MPXJDateFormat format, String text)
+   {
+      String data = "x," + text + ",y";
+      assertEquals(text, parse(format, text), parse(format, data, 2, 2 + text.length()));
+   }
+
+   /**
+    * Ensure that a number parsed from a range of characters matches the
+    * number parsed from a string, including the type of the result.
+    *
+    * @param format number format
+    * @param text number text
+    */
+   private void testNumber(MPXJNumberFormat format, String text)
+   {
+      String data = "x," + text + ",y";
+      Object expected = parse(format, text);
+      Object actual = parse(format, data, 2, 2 + text.length());
+      assertEquals(text, expected, actual);
+      if (expected != null)
+      {
+         assertEquals(text, expected.getClass(), actual.getClass());
+      }
+   }
+
+   /**
+    * Parse a date from a string, returning the exception class on failure.
+    *
+    * @param format date format
+    * @param text date text
+    * @return parse result
+    */
+   private Object parse(MPXJDateFormat format, String text)
+   {
+      try
+      {
+         return format.parse(text);
+      }
+
+      catch (ParseException ex)
+      {
+         return ex.getClass();
+      }
+   }
+
+   /**
+    * Parse a date from a range of characters, returning the exception class on failure.
+    *
+    * @param format date format
+    * @param text date text
+    * @param start start of the range
+    * @param end end of the range
+    * @return parse result
+    */
+   private Object parse(MPXJDateFormat format, String text, int start, int end)
+   {
+      try
+      {
+         return format.parse(text, start, end);
+      }
+
+      catch (ParseException ex)
+      {
+         return ex.getClass();
+      }
+   }
+
+   /**
+    * Parse a number from a string, returning the exception class on failure.
+    *
+    * @param format number format
+    * @param text number text
+    * @return parse result
+    */
+   private Object parse(MPXJNumberFormat format, String text)
+   {
+      try
+      {
+         return format.parse(text);
+      }
+
+      catch (ParseException ex)
+      {
+         return ex.getClass();
+      }
+   }
+
+   /**
+    * Parse a number from a range of characters, returning the exception class on failure.
+    *
+    * @param format number format
+    * @param text number text
+    * @param start start of the range
+    * @param end end of the range
+    * @return parse result
+    */
+   private Object parse(MPXJNumberFormat format, String text, int start, int end)
+   {
+      try
+      {
+         return format.parse(text, start, end);
+      }
+
+      catch (ParseException ex)
+      {
+         return ex.getClass();
+      }
+   }
+
+   private static final Locale[] LOCALES =
+   {
+      Locale.ENGLISH,
+      Locale.GERMAN,
+      Locale.FRENCH
+   };
+
+   /**
+    * Times which are longer or shorter than the time patterns,
+    * including minutes immediately followed by an am/pm marker.
+    */
+   private static final String[] TIMES =
+   {
+      "08:13pm",
+      "08:131pm",
+      "08:1313pm",
+      "8:5pm",
+      "08:131 pm",
+      "0813",
+      "08:131"
+   };
+
+   private static final String[] NUMBERS =
+   {
+      "0",
+      "-0",
+      "0.00",
+      "-0.00",
+      "12",
+      "12.50",
+      "-12.5",
+      " 7 ",
+      "0.1",
+      "123456789012345678",
+      "1234567890123456789",
+      "50%",
+      "1E3",
+      "1,234.50",
+      "(12.00)",
+      "$12.00",
+      "12.00$",
+      "$ 12.00",
+      "12.00 $",
+      "",
+      "x"
+   };
+}
@@ -37,6 +37,9 @@ import net.sf.mpxj.junit.legacy.BasicTest;
 import net.sf.mpxj.junit.primavera.PrimaveraDatabaseReaderTest;
 import net.sf.mpxj.junit.project.DataLinksTest;
 import net.sf.mpxj.junit.project.DefaultDurationFormatTest;
+import net.sf.mpxj.junit.project.FieldStorageTest;
+import net.sf.mpxj.junit.project.ProjectFreezeTest;
+import net.sf.mpxj.junit.project.ProjectStreamTest;
 import net.sf.mpxj.junit.project.ProjectPropertiesOnlyTest;
 import net.sf.mpxj.junit.project.ProjectPropertiesTest;
 import net.sf.mpxj.junit.project.ProjectValueListsTest;
@@ -92,6 +95,9 @@ import net.sf.mpxj.junit.task.TaskTextValuesTest;
    MppEmbeddedTest.class,
    MppRecurringTest.class,
    MppNullTaskTest.class,
+   MppParallelTest.class,
+   MppFileTest.class,
+   MpxFormatsTest.class,
    ProjectWriterUtilityTest.class,
    PlannerCalendarTest.class,
    PlannerResourceTest.class,
@@ -148,7 +154,22 @@ import net.sf.mpxj.junit.task.TaskTextValuesTest;
    RecurringDataTest.class,
    DataLinksTest.class,
    LocaleDataTest.class,
-   CustomerDataTest.class
+   CustomerDataTest.class,
+   FieldStorageTest.class,
+   ProjectStreamTest.class,
+   XerMultiProjectTest.class,
+   ColumnarTableTest.class,
+   ProjectFreezeTest.class,
+   XmlPoolTest.class,
+   JsonReaderTest.class,
+   JsonWriterTest.class,
+   SnapshotTest.class,
+   TimephasedSeriesTest.class,
+   TimephasedAggregatorTest.class,
+   TimephasedNormalisationTest.class,
+   FormatDetectorTest.class,
+   ParallelHelperTest.class,
+   UniversalProjectReaderTest.class
 }) public class MpxjTestSuite
 {
    // No class body required
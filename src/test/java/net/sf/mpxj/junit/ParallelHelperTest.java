@@ -0,0 +1,148 @@
+/*
+ * file:       ParallelHelperTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import net.sf.mpxj.common.ParallelHelper;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the ParallelHelper class.
+ */
+public class ParallelHelperTest
+{
+   /**
+    * Ensure that every task is run, using one or more threads.
+    */
+   @Test public void testInvokeAll() throws Exception
+   {
+      for (int threadCount = 1; threadCount <= 4; threadCount++)
+      {
+         final AtomicIntegerArray counts = new AtomicIntegerArray(10);
+         List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+         for (int index = 0; index < counts.length(); index++)
+         {
+            final int taskIndex = index;
+            tasks.add(new Callable<Void>()
+            {
+               @Override public Void call()
+               {
+                  counts.incrementAndGet(taskIndex);
+                  return null;
+               }
+            });
+         }
+
+         ParallelHelper.invokeAll(tasks, threadCount, IOException.class);
+
+         for (int index = 0; index < counts.length(); index++)
+         {
+            assertEquals(1, counts.get(index));
+         }
+      }
+   }
+
+   /**
+    * Ensure that exceptions raised by the tasks are rethrown
+    * unchanged, or wrapped if they are not of the expected type.
+    */
+   @Test public void testExceptions() throws Exception
+   {
+      IOException ioException = new IOException("io");
+      IllegalStateException runtimeException = new IllegalStateException("runtime");
+      Exception otherException = new Exception("other");
+
+      for (int threadCount = 1; threadCount <= 2; threadCount++)
+      {
+         try
+         {
+            ParallelHelper.invokeAll(getTasks(ioException), threadCount, IOException.class);
+            fail("Expected IOException");
+         }
+
+         catch (IOException ex)
+         {
+            assertSame(ioException, ex);
+         }
+
+         try
+         {
+            ParallelHelper.invokeAll(getTasks(runtimeException), threadCount, IOException.class);
+            fail("Expected IllegalStateException");
+         }
+
+         catch (IllegalStateException ex)
+         {
+            assertSame(runtimeException, ex);
+         }
+
+         try
+         {
+            ParallelHelper.invokeAll(getTasks(otherException), threadCount, IOException.class);
+            fail("Expected RuntimeException");
+         }
+
+         catch (RuntimeException ex)
+         {
+            assertSame(otherException, ex.getCause());
+         }
+      }
+   }
+
+   /**
+    * Create a pair of tasks, the second of which throws an exception.
+    *
+    * @param exception exception to throw
+    * @return list of tasks
+    */
+   private List<Callable<Void>> getTasks(final Exception exception)
+   {
+      List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+      tasks.add(new Callable<Void>()
+      {
+         @Override public Void call()
+         {
+            return null;
+         }
+      });
+
+      tasks.add(new Callable<Void>()
+      {
+         @Override public Void call() throws Exception
+         {
+            throw exception;
+         }
+      });
+
+      return tasks;
+   }
+}
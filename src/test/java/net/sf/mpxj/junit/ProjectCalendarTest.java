@@ -27,15 +27,21 @@ import static org.junit.Assert.*;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectCalendarException;
+import net.sf.mpxj.ProjectCalendarHours;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.mpp.MPPReader;
 
 import org.junit.Test;
@@ -710,4 +716,329 @@ public class ProjectCalendarTest
       //
       assertNull(cal.getStartTime(df.parse("11/10/2003 00:00")));
    }
+
+   /**
+    * Ensure that the results of working time calculations are cached,
+    * and that the cache is cleared when the calendar is modified.
+    *
+    * @throws Exception
+    */
+   @Test public void testCache() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile project = new ProjectFile();
+      ProjectCalendar projectCalendar = project.addDefaultBaseCalendar();
+      assertEquals(1024, projectCalendar.getCacheSize());
+
+      Date startDate = df.parse("13/03/2006 08:00");
+      Date endDate = df.parse("17/03/2006 17:00");
+      assertEquals(5.0, projectCalendar.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      assertEquals(0, projectCalendar.getCacheHitCount());
+      assertEquals(1, projectCalendar.getCacheMissCount());
+
+      //
+      // Equal dates, but different instances, should hit the cache
+      //
+      assertEquals(5.0, projectCalendar.getWork(new Date(startDate.getTime()), new Date(endDate.getTime()), TimeUnit.DAYS).getDuration(), 0.01);
+      assertEquals(1, projectCalendar.getCacheHitCount());
+      assertEquals(1, projectCalendar.getCacheMissCount());
+
+      //
+      // Modifying the calendar discards cached results
+      //
+      ProjectCalendarException exception = projectCalendar.addCalendarException(df.parse("15/03/2006 00:00"), df.parse("15/03/2006 23:59"));
+      assertNotNull(exception);
+      assertEquals(4.0, projectCalendar.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      assertEquals(1, projectCalendar.getCacheHitCount());
+      assertEquals(2, projectCalendar.getCacheMissCount());
+
+      //
+      // A small cache still returns the correct results once entries are evicted
+      //
+      ProjectCalendar referenceCalendar = new ProjectFile().addDefaultBaseCalendar();
+      referenceCalendar.addCalendarException(df.parse("15/03/2006 00:00"), df.parse("15/03/2006 23:59"));
+      referenceCalendar.setCacheSize(0);
+
+      projectCalendar.setCacheSize(4);
+      assertEquals(4, projectCalendar.getCacheSize());
+      for (int loop = 0; loop < 2; loop++)
+      {
+         for (int day = 0; day < 20; day++)
+         {
+            Date end = new Date(startDate.getTime() + day * 24L * 60L * 60L * 1000L);
+            assertEquals(referenceCalendar.getWork(startDate, end, TimeUnit.DAYS).getDuration(), projectCalendar.getWork(startDate, end, TimeUnit.DAYS).getDuration(), 0.01);
+         }
+      }
+
+      //
+      // Caching can be disabled
+      //
+      projectCalendar.setCacheSize(0);
+      projectCalendar.getWork(startDate, endDate, TimeUnit.DAYS);
+      projectCalendar.getWork(startDate, endDate, TimeUnit.DAYS);
+      assertEquals(0, projectCalendar.getCacheHitCount());
+      assertEquals(2, projectCalendar.getCacheMissCount());
+   }
+
+   /**
+    * Ensure that a calendar can be shared by multiple threads
+    * performing working time calculations.
+    *
+    * @throws Exception
+    */
+   @Test public void testConcurrentCache() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile project = new ProjectFile();
+      final ProjectCalendar projectCalendar = project.addDefaultBaseCalendar();
+      projectCalendar.setCacheSize(16);
+      final Date startDate = df.parse("13/03/2006 08:00");
+
+      //
+      // Calculate the expected results using a calendar with no cache
+      //
+      ProjectCalendar referenceCalendar = new ProjectFile().addDefaultBaseCalendar();
+      referenceCalendar.setCacheSize(0);
+      final double[] expected = new double[100];
+      for (int day = 0; day < expected.length; day++)
+      {
+         expected[day] = referenceCalendar.getWork(startDate, new Date(startDate.getTime() + day * 24L * 60L * 60L * 1000L), TimeUnit.HOURS).getDuration();
+      }
+
+      final AtomicInteger failures = new AtomicInteger();
+      Thread[] threads = new Thread[4];
+      for (int index = 0; index < threads.length; index++)
+      {
+         threads[index] = new Thread()
+         {
+            @Override public void run()
+            {
+               for (int loop = 0; loop < 1000; loop++)
+               {
+                  int day = (loop * 7) % expected.length;
+                  double actual = projectCalendar.getWork(startDate, new Date(startDate.getTime() + day * 24L * 60L * 60L * 1000L), TimeUnit.HOURS).getDuration();
+                  if (Math.abs(actual - expected[day]) > 0.01)
+                  {
+                     failures.incrementAndGet();
+                  }
+               }
+            }
+         };
+         threads[index].start();
+      }
+
+      for (Thread thread : threads)
+      {
+         thread.join();
+      }
+
+      assertEquals(0, failures.get());
+      assertTrue(projectCalendar.getCacheHitCount() > 0);
+      assertEquals(4000, projectCalendar.getCacheHitCount() + projectCalendar.getCacheMissCount());
+   }
+
+   /**
+    * Test calculations spanning long periods, which use the
+    * compiled timeline, and ensure the timeline is discarded
+    * when the calendar is modified.
+    *
+    * @throws Exception
+    */
+   @Test public void testTimeline() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile project = new ProjectFile();
+      ProjectCalendar projectCalendar = project.addDefaultBaseCalendar();
+      Date startDate = df.parse("13/03/2006 08:00");
+      Date finishDate = df.parse("28/07/2006 17:00");
+      Duration duration = Duration.getInstance(100, TimeUnit.DAYS);
+
+      assertEquals("28/07/2006 17:00", df.format(projectCalendar.getDate(startDate, duration, false)));
+      assertEquals("31/07/2006 08:00", df.format(projectCalendar.getDate(startDate, duration, true)));
+      assertEquals("13/03/2006 08:00", df.format(projectCalendar.getStartDate(finishDate, duration)));
+      assertEquals(800.0, projectCalendar.getWork(startDate, finishDate, TimeUnit.HOURS).getDuration(), 0.0);
+      assertEquals(-800.0, projectCalendar.getWork(finishDate, startDate, TimeUnit.HOURS).getDuration(), 0.0);
+
+      //
+      // Adding an exception must invalidate the timeline
+      //
+      projectCalendar.addCalendarException(df.parse("04/04/2006 00:00"), df.parse("06/04/2006 23:59"));
+      assertEquals("02/08/2006 17:00", df.format(projectCalendar.getDate(startDate, duration, false)));
+      assertEquals("08/03/2006 08:00", df.format(projectCalendar.getStartDate(finishDate, duration)));
+      assertEquals(776.0, projectCalendar.getWork(startDate, finishDate, TimeUnit.HOURS).getDuration(), 0.0);
+
+      //
+      // Compare results with a calendar which has no cache, calculating
+      // in steps which are too short to use the timeline
+      //
+      ProjectCalendar referenceCalendar = new ProjectFile().addDefaultBaseCalendar();
+      referenceCalendar.setCacheSize(0);
+      referenceCalendar.addCalendarException(df.parse("04/04/2006 00:00"), df.parse("06/04/2006 23:59"));
+      assertEquals(getDateInSteps(referenceCalendar, startDate, 100), projectCalendar.getDate(startDate, duration, false));
+      assertEquals(getStartDateInSteps(referenceCalendar, finishDate, 100), projectCalendar.getStartDate(finishDate, duration));
+      assertEquals(getWorkInSteps(referenceCalendar, startDate, finishDate), projectCalendar.getWork(startDate, finishDate, TimeUnit.HOURS).getDuration(), 0.0);
+   }
+
+   /**
+    * Ensure that the timeline gives the same results as calculating day by
+    * day where daylight saving time starts at midnight, so a day starts
+    * at 01:00. DateHelper pools Calendar instances per thread, so the
+    * calculation runs in a new thread to ensure that all of the Calendar
+    * instances use the time zone under test.
+    */
+   @Test public void testTimelineMidnightDaylightSaving() throws Throwable
+   {
+      TimeZone defaultTimeZone = TimeZone.getDefault();
+      final Throwable[] failure = new Throwable[1];
+
+      try
+      {
+         TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+
+         Thread thread = new Thread()
+         {
+            @Override public void run()
+            {
+               try
+               {
+                  compareTimelineMidnightDaylightSaving();
+               }
+
+               catch (Throwable ex)
+               {
+                  failure[0] = ex;
+               }
+            }
+         };
+
+         thread.start();
+         thread.join();
+      }
+
+      finally
+      {
+         TimeZone.setDefault(defaultTimeZone);
+      }
+
+      if (failure[0] != null)
+      {
+         throw failure[0];
+      }
+   }
+
+   /**
+    * Compare results from a calendar using a timeline with those from a
+    * calendar with no cache, across the start of daylight saving time
+    * in Sao Paulo on 05/11/2006.
+    */
+   private void compareTimelineMidnightDaylightSaving() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectCalendar projectCalendar = createLocalTimeCalendar();
+      ProjectCalendar referenceCalendar = createLocalTimeCalendar();
+      referenceCalendar.setCacheSize(0);
+
+      Date startDate = df.parse("02/10/2006 08:00");
+      Date finishDate = df.parse("29/12/2006 17:00");
+      assertEquals(getWorkInSteps(referenceCalendar, startDate, finishDate), projectCalendar.getWork(startDate, finishDate, TimeUnit.HOURS).getDuration(), 0.0);
+
+      Date expectedFinish = startDate;
+      Date expectedStart = finishDate;
+      for (int days = 1; days <= 60; days++)
+      {
+         expectedFinish = getDateInSteps(referenceCalendar, expectedFinish, 1);
+         expectedStart = getStartDateInSteps(referenceCalendar, expectedStart, 1);
+         Duration duration = Duration.getInstance(days, TimeUnit.DAYS);
+         assertEquals(expectedFinish, projectCalendar.getDate(startDate, duration, false));
+         assertEquals(expectedStart, projectCalendar.getStartDate(finishDate, duration));
+      }
+   }
+
+   /**
+    * Create a default calendar. The default working hours are created
+    * when ProjectCalendarWeek is loaded, which may have been before the
+    * default time zone was changed, so the hours are created again here
+    * using the current time zone.
+    *
+    * @return calendar
+    */
+   private ProjectCalendar createLocalTimeCalendar()
+   {
+      ProjectCalendar calendar = new ProjectFile().addDefaultBaseCalendar();
+      for (Day day : Day.values())
+      {
+         if (calendar.isWorkingDay(day))
+         {
+            ProjectCalendarHours hours = calendar.addCalendarHours(day);
+            hours.addRange(new DateRange(DateHelper.getTime(8, 0), DateHelper.getTime(12, 0)));
+            hours.addRange(new DateRange(DateHelper.getTime(13, 0), DateHelper.getTime(17, 0)));
+         }
+      }
+      return calendar;
+   }
+
+   /**
+    * Calculate a finish date one working day at a time. Each step is too
+    * short for the calendar to use its timeline.
+    *
+    * @param calendar calendar
+    * @param startDate start date
+    * @param days number of working days
+    * @return finish date
+    */
+   private Date getDateInSteps(ProjectCalendar calendar, Date startDate, int days)
+   {
+      Date date = startDate;
+      for (int step = 0; step < days; step++)
+      {
+         date = calendar.getDate(date, ONE_DAY, false);
+      }
+      return date;
+   }
+
+   /**
+    * Calculate a start date one working day at a time. Each step is too
+    * short for the calendar to use its timeline.
+    *
+    * @param calendar calendar
+    * @param finishDate finish date
+    * @param days number of working days
+    * @return start date
+    */
+   private Date getStartDateInSteps(ProjectCalendar calendar, Date finishDate, int days)
+   {
+      Date date = finishDate;
+      for (int step = 0; step < days; step++)
+      {
+         date = calendar.getStartDate(date, ONE_DAY);
+      }
+      return date;
+   }
+
+   /**
+    * Calculate the work between two dates in hours, a few days at a time.
+    * Each step is too short for the calendar to use its timeline.
+    *
+    * @param calendar calendar
+    * @param startDate start date
+    * @param finishDate finish date
+    * @return work in hours
+    */
+   private double getWorkInSteps(ProjectCalendar calendar, Date startDate, Date finishDate)
+   {
+      double work = 0;
+      Calendar cal = Calendar.getInstance();
+      cal.setTime(startDate);
+      Date date = startDate;
+      while (date.getTime() < finishDate.getTime())
+      {
+         cal.add(Calendar.DAY_OF_YEAR, 5);
+         Date next = cal.getTime().getTime() < finishDate.getTime() ? cal.getTime() : finishDate;
+         work += calendar.getWork(date, next, TimeUnit.HOURS).getDuration();
+         date = next;
+      }
+      return work;
+   }
+
+   private static final Duration ONE_DAY = Duration.getInstance(1, TimeUnit.DAYS);
 }
@@ -0,0 +1,203 @@
+/*
+ * file:       SnapshotTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.mpx.MPXReader;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+import net.sf.mpxj.planner.PlannerReader;
+import net.sf.mpxj.reader.ProjectReader;
+import net.sf.mpxj.reader.UniversalProjectReader;
+import net.sf.mpxj.snapshot.SnapshotReader;
+import net.sf.mpxj.snapshot.SnapshotWriter;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the SnapshotReader and SnapshotWriter classes.
+ */
+public class SnapshotTest
+{
+   /**
+    * Ensure that an MSPDI file with timephased data survives a snapshot round trip.
+    */
+   @Test public void testTimephasedRoundTrip() throws Exception
+   {
+      ProjectFile project = testRoundTrip(new MSPDIReader(), "mspditimephased.xml");
+      for (ResourceAssignment assignment : project.getResourceAssignments())
+      {
+         if (assignment.getTimephasedWork() != null && !assignment.getTimephasedWork().isEmpty())
+         {
+            return;
+         }
+      }
+      fail("Expected timephased data");
+   }
+
+   /**
+    * Ensure that an MSPDI file with cost rate tables survives a snapshot round trip.
+    */
+   @Test public void testCostRateTableRoundTrip() throws Exception
+   {
+      testRoundTrip(new MSPDIReader(), "mspdicostratetable.xml");
+   }
+
+   /**
+    * Ensure that an MSPDI file with null tasks survives a snapshot round trip.
+    */
+   @Test public void testNullTaskRoundTrip() throws Exception
+   {
+      testRoundTrip(new MSPDIReader(), "mspdinulltasks.xml");
+   }
+
+   /**
+    * Ensure that an MPX file with resource calendars survives a snapshot round trip.
+    */
+   @Test public void testMpxRoundTrip() throws Exception
+   {
+      testRoundTrip(new MPXReader(), "legacy/sample.mpx");
+   }
+
+   /**
+    * Ensure that a Planner file with calendars survives a snapshot round trip.
+    */
+   @Test public void testPlannerRoundTrip() throws Exception
+   {
+      testRoundTrip(new PlannerReader(), "planner-calendar.planner");
+   }
+
+   /**
+    * Ensure that data which is not a snapshot is rejected.
+    */
+   @Test public void testInvalidFile() throws Exception
+   {
+      try
+      {
+         new SnapshotReader().read(new ByteArrayInputStream("MPXJSNAX".getBytes("UTF-8")));
+         fail("Expected exception");
+      }
+
+      catch (MPXJException ex)
+      {
+         assertEquals(MPXJException.INVALID_FILE, ex.getMessage());
+      }
+   }
+
+   /**
+    * Ensure that a snapshot is recognised and read by UniversalProjectReader.
+    */
+   @Test public void testUniversalProjectReader() throws Exception
+   {
+      ProjectFile expected = new MPXReader().read(MpxjTestData.filePath("legacy/sample.mpx"));
+      byte[] snapshot = writeSnapshot(expected);
+      ProjectFile project = new UniversalProjectReader().read(new ByteArrayInputStream(snapshot));
+      assertNotNull(project);
+      assertArrayEquals(snapshot, writeSnapshot(project));
+   }
+
+   /**
+    * Ensure that an enum value naming a class outside MPXJ is rejected
+    * without the class being loaded.
+    */
+   @Test public void testUntrustedEnumClass() throws Exception
+   {
+      ProjectFile project = new MPXReader().read(MpxjTestData.filePath("legacy/sample.mpx"));
+      String snapshot = new String(writeSnapshot(project), "ISO-8859-1");
+      assertTrue(snapshot.contains("net.sf.mpxj.AccrueType"));
+
+      // Replace the class name with one of the same length
+      byte[] data = snapshot.replace("net.sf.mpxj.AccrueType", "java.math.RoundingMode").getBytes("ISO-8859-1");
+
+      try
+      {
+         new SnapshotReader().read(new ByteArrayInputStream(data));
+         fail("Expected exception");
+      }
+
+      catch (MPXJException ex)
+      {
+         assertEquals(MPXJException.READ_ERROR, ex.getMessage());
+         assertEquals("Unknown enum class java.math.RoundingMode", ex.getCause().getMessage());
+      }
+   }
+
+   /**
+    * Read a file, write it as a snapshot, read the snapshot back, and ensure
+    * that writing the project as a snapshot again produces the same data,
+    * and that the project written as MSPDI is unchanged.
+    *
+    * @param reader reader for the source file
+    * @param name source file name
+    * @return project read from the snapshot
+    */
+   private ProjectFile testRoundTrip(ProjectReader reader, String name) throws Exception
+   {
+      ProjectFile expected = reader.read(MpxjTestData.filePath(name));
+      byte[] snapshot = writeSnapshot(expected);
+      ProjectFile project = new SnapshotReader().read(new ByteArrayInputStream(snapshot));
+      assertArrayEquals(snapshot, writeSnapshot(project));
+
+      assertEquals(expected.getTasks().size(), project.getTasks().size());
+      assertEquals(expected.getResources().size(), project.getResources().size());
+      assertEquals(expected.getResourceAssignments().size(), project.getResourceAssignments().size());
+      assertEquals(expected.getCalendars().size(), project.getCalendars().size());
+      assertEquals(writeMspdi(expected), writeMspdi(project));
+
+      return project;
+   }
+
+   /**
+    * Write a project as a snapshot.
+    *
+    * @param project project to write
+    * @return snapshot data
+    */
+   private byte[] writeSnapshot(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new SnapshotWriter().write(project, stream);
+      return stream.toByteArray();
+   }
+
+   /**
+    * Write a project as MSPDI, ignoring the creation and last saved dates.
+    *
+    * @param project project to write
+    * @return MSPDI text
+    */
+   private String writeMspdi(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new MSPDIWriter().write(project, stream);
+      return new String(stream.toByteArray(), "UTF-8").replaceAll("<CreationDate>.*</CreationDate>", "").replaceAll("<LastSaved>.*</LastSaved>", "");
+   }
+}
@@ -0,0 +1,213 @@
+/*
+ * file:       TimephasedAggregatorTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.mpp.TimescaleUnits;
+import net.sf.mpxj.utility.TimephasedAggregation;
+import net.sf.mpxj.utility.TimephasedAggregator;
+import net.sf.mpxj.utility.TimephasedUtility;
+import net.sf.mpxj.utility.TimescaleUtility;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the TimephasedAggregator class.
+ */
+public class TimephasedAggregatorTest
+{
+   /**
+    * Ensure that the values aggregated for each assignment match those
+    * produced by TimephasedUtility.
+    */
+   @Test public void testAssignments() throws Exception
+   {
+      ProjectFile file = createProject();
+      TimescaleUnits[] units =
+      {
+         TimescaleUnits.DAYS,
+         TimescaleUnits.WEEKS,
+         TimescaleUnits.MONTHS
+      };
+
+      for (TimescaleUnits unit : units)
+      {
+         List<DateRange> dateList = new TimescaleUtility().createTimescale(m_df.parse("25/02/2019 00:00"), unit, 40);
+         TimephasedAggregation aggregation = new TimephasedAggregator(unit, dateList).aggregate(file, AssignmentField.UNIQUE_ID);
+         assertEquals(file.getResourceAssignments().size(), aggregation.getKeys().size());
+
+         for (ResourceAssignment assignment : file.getResourceAssignments())
+         {
+            int row = aggregation.getRowIndex(assignment.getUniqueID());
+            double[] work = aggregation.getWork()[row];
+            double[] cost = aggregation.getCost()[row];
+
+            List<Duration> expectedWork = new TimephasedUtility().segmentWork(assignment.getCalendar(), assignment.getTimephasedWork(), unit, dateList);
+            List<Double> expectedCost = new TimephasedUtility().segmentCost(assignment.getCalendar(), assignment.getTimephasedCost(), unit, new ArrayList<DateRange>(dateList));
+
+            for (int index = 0; index < dateList.size(); index++)
+            {
+               assertEquals(expectedWork.get(index).convertUnits(TimeUnit.HOURS, file.getProjectProperties()).getDuration(), work[index], 0.000001);
+               assertEquals(expectedCost.get(index).doubleValue(), cost[index], 0.000001);
+            }
+         }
+      }
+   }
+
+   /**
+    * Ensure that assignments are grouped correctly, and that the same
+    * results are produced whatever number of threads is used.
+    */
+   @Test public void testGrouping() throws Exception
+   {
+      ProjectFile file = createProject();
+      List<DateRange> dateList = new TimescaleUtility().createTimescale(m_df.parse("25/02/2019 00:00"), TimescaleUnits.DAYS, 60);
+      TimephasedAggregator aggregator = new TimephasedAggregator(TimescaleUnits.DAYS, dateList);
+
+      TimephasedAggregation byAssignment = aggregator.aggregate(file, AssignmentField.UNIQUE_ID);
+      TimephasedAggregation byResource = aggregator.aggregate(file, ResourceField.NAME);
+      assertEquals(Arrays.<Object> asList("R1", "R2", "R3"), byResource.getKeys());
+
+      for (int index = 0; index < dateList.size(); index++)
+      {
+         double expectedWork = 0;
+         double expectedCost = 0;
+         for (ResourceAssignment assignment : file.getResourceAssignments())
+         {
+            if (assignment.getResource().getName().equals("R2"))
+            {
+               int row = byAssignment.getRowIndex(assignment.getUniqueID());
+               expectedWork += byAssignment.getWork()[row][index];
+               expectedCost += byAssignment.getCost()[row][index];
+            }
+         }
+
+         int row = byResource.getRowIndex("R2");
+         assertEquals(expectedWork, byResource.getWork()[row][index], 0.000001);
+         assertEquals(expectedCost, byResource.getCost()[row][index], 0.000001);
+      }
+
+      //
+      // Aggregate the same project twice, which creates duplicate keys
+      // when grouping by unique ID, using several threads
+      //
+      List<ProjectFile> files = Arrays.asList(file, file);
+      TimephasedAggregation single = aggregator.aggregate(files, ResourceField.UNIQUE_ID);
+      aggregator.setParallelism(4);
+      TimephasedAggregation parallel = aggregator.aggregate(files, ResourceField.UNIQUE_ID);
+      assertEquals(single.getKeys(), parallel.getKeys());
+      assertTrue(Arrays.deepEquals(single.getWork(), parallel.getWork()));
+      assertTrue(Arrays.deepEquals(single.getCost(), parallel.getCost()));
+   }
+
+   /**
+    * Create a project with three resources, one with its own calendar,
+    * assigned to a number of tasks.
+    *
+    * @return project file
+    */
+   private ProjectFile createProject() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      ProjectCalendar calendar = file.addDefaultBaseCalendar();
+      calendar.addCalendarException(m_df.parse("06/03/2019 00:00"), m_df.parse("07/03/2019 23:59"));
+
+      for (int index = 1; index <= 3; index++)
+      {
+         Resource resource = file.addResource();
+         resource.setName("R" + index);
+         resource.setStandardRate(new Rate(index * 10, TimeUnit.HOURS));
+         resource.setOvertimeRate(new Rate(0, TimeUnit.HOURS));
+         resource.setCostPerUse(Double.valueOf(0));
+      }
+
+      ProjectCalendar resourceCalendar = file.addDefaultDerivedCalendar();
+      resourceCalendar.setParent(calendar);
+      resourceCalendar.addCalendarException(m_df.parse("13/03/2019 00:00"), m_df.parse("13/03/2019 23:59"));
+      file.getResourceByID(Integer.valueOf(3)).setResourceCalendar(resourceCalendar);
+
+      for (int index = 0; index < 40; index++)
+      {
+         Task task = file.addTask();
+         task.setName("T" + index);
+
+         ResourceAssignment assignment = task.addResourceAssignment(file.getResourceByID(Integer.valueOf(1 + index % 3)));
+         assignment.setUniqueID(Integer.valueOf(index));
+
+         Date start = m_df.parse("01/03/2019 08:00");
+         start = new Date(start.getTime() + (index % 10) * MILLISECONDS_PER_DAY);
+         List<TimephasedWork> list = new ArrayList<TimephasedWork>();
+         list.add(getWork(start, 3, 8));
+         list.add(getWork(new Date(start.getTime() + 4 * MILLISECONDS_PER_DAY), 5, index % 4 + 2));
+         assignment.setTimephasedWork(new DefaultTimephasedWorkContainer(assignment.getCalendar(), null, list, false));
+         assignment.setStart(start);
+      }
+
+      return file;
+   }
+
+   /**
+    * Create a timephased work item.
+    *
+    * @param start start date
+    * @param days number of days
+    * @param hoursPerDay hours of work per day
+    * @return timephased work item
+    */
+   private TimephasedWork getWork(Date start, int days, double hoursPerDay)
+   {
+      TimephasedWork item = new TimephasedWork();
+      item.setStart(start);
+      item.setFinish(new Date(start.getTime() + (days - 1) * MILLISECONDS_PER_DAY + 9 * MILLISECONDS_PER_HOUR));
+      item.setAmountPerDay(Duration.getInstance(hoursPerDay, TimeUnit.HOURS));
+      item.setTotalAmount(Duration.getInstance(hoursPerDay * days, TimeUnit.HOURS));
+      return item;
+   }
+
+   private DateFormat m_df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+
+   private static final long MILLISECONDS_PER_HOUR = 60L * 60 * 1000;
+   private static final long MILLISECONDS_PER_DAY = 24 * MILLISECONDS_PER_HOUR;
+}
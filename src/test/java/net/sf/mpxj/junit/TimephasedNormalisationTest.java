@@ -0,0 +1,182 @@
+/*
+ * file:       TimephasedNormalisationTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.common.TimephasedWorkNormaliser;
+import net.sf.mpxj.mpp.MPPTimephasedBaselineWorkNormaliser;
+import net.sf.mpxj.mpp.MPPTimephasedWorkNormaliser;
+import net.sf.mpxj.mspdi.MSPDITimephasedWorkNormaliser;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise normalisation of raw timephased data.
+ */
+public class TimephasedNormalisationTest
+{
+   /**
+    * Ensure that normalising all of the timephased data in a project using
+    * several threads produces the same results as normalising the
+    * data for each assignment when it is first retrieved.
+    */
+   @Test public void testParallelNormalisation() throws Exception
+   {
+      ProjectFile lazy = createProject();
+      ProjectFile parallel = createProject();
+      parallel.normaliseTimephasedData(4);
+
+      List<ResourceAssignment> lazyAssignments = lazy.getResourceAssignments();
+      List<ResourceAssignment> parallelAssignments = parallel.getResourceAssignments();
+      assertEquals(lazyAssignments.size(), parallelAssignments.size());
+
+      for (int index = 0; index < lazyAssignments.size(); index++)
+      {
+         ResourceAssignment expected = lazyAssignments.get(index);
+         ResourceAssignment actual = parallelAssignments.get(index);
+         assertEquals(expected.getTimephasedWork(), actual.getTimephasedWork());
+         assertEquals(expected.getTimephasedActualWork(), actual.getTimephasedActualWork());
+         assertEquals(expected.getTimephasedBaselineWork(0), actual.getTimephasedBaselineWork(0));
+      }
+   }
+
+   /**
+    * Ensure that raw timephased data is unaffected by changes to the
+    * list it was created from, and can be scaled before it is normalised.
+    */
+   @Test public void testRawData() throws Exception
+   {
+      ProjectCalendar calendar = new ProjectFile().addDefaultBaseCalendar();
+      TimephasedWorkNormaliser normaliser = new MSPDITimephasedWorkNormaliser();
+      List<TimephasedWork> list = new ArrayList<TimephasedWork>();
+      list.add(getWork(m_df.parse("04/03/2019 08:00"), 3, 8));
+      list.add(getWork(m_df.parse("07/03/2019 08:00"), 2, 4));
+
+      List<TimephasedWork> scaledList = new ArrayList<TimephasedWork>();
+      for (TimephasedWork item : list)
+      {
+         scaledList.add(new TimephasedWork(item, 0.25, 0.5));
+      }
+      List<TimephasedWork> expected = new DefaultTimephasedWorkContainer(calendar, normaliser, new ArrayList<TimephasedWork>(list), true).getData();
+      List<TimephasedWork> expectedScaled = new DefaultTimephasedWorkContainer(calendar, normaliser, scaledList, true).getData();
+
+      DefaultTimephasedWorkContainer container = new DefaultTimephasedWorkContainer(calendar, normaliser, list, true);
+      DefaultTimephasedWorkContainer scaled = new DefaultTimephasedWorkContainer(container, 0.5, 0.25);
+      list.clear();
+
+      assertTrue(container.hasData());
+      assertEquals(expected, container.getData());
+      assertEquals(expectedScaled, scaled.getData());
+   }
+
+   /**
+    * Create a project with a number of assignments, using resources with
+    * different calendars, holding raw timephased data.
+    *
+    * @return project file
+    */
+   private ProjectFile createProject() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      ProjectCalendar calendar = file.addDefaultBaseCalendar();
+      calendar.addCalendarException(m_df.parse("06/03/2019 00:00"), m_df.parse("07/03/2019 23:59"));
+
+      for (int index = 0; index < 4; index++)
+      {
+         Resource resource = file.addResource();
+         resource.setName("R" + index);
+         if (index % 2 == 0)
+         {
+            ProjectCalendar resourceCalendar = file.addDefaultDerivedCalendar();
+            resourceCalendar.setParent(calendar);
+            resourceCalendar.addCalendarException(m_df.parse("1" + index + "/03/2019 00:00"), m_df.parse("1" + index + "/03/2019 23:59"));
+            resource.setResourceCalendar(resourceCalendar);
+         }
+      }
+
+      TimephasedWorkNormaliser[] normalisers =
+      {
+         new MSPDITimephasedWorkNormaliser(),
+         new MPPTimephasedWorkNormaliser()
+      };
+
+      for (int index = 0; index < 100; index++)
+      {
+         Task task = file.addTask();
+         task.setName("T" + index);
+         ResourceAssignment assignment = task.addResourceAssignment(file.getResourceByID(Integer.valueOf(1 + index % 4)));
+
+         Date start = new Date(m_df.parse("01/03/2019 08:00").getTime() + (index % 10) * MILLISECONDS_PER_DAY);
+         List<TimephasedWork> list = new ArrayList<TimephasedWork>();
+         list.add(getWork(start, 3, 8));
+         list.add(getWork(new Date(start.getTime() + 3 * MILLISECONDS_PER_DAY), 4, index % 8 + 1));
+
+         TimephasedWorkNormaliser normaliser = normalisers[index % 2];
+         assignment.setTimephasedWork(new DefaultTimephasedWorkContainer(assignment.getCalendar(), normaliser, list, true));
+         assignment.setTimephasedActualWork(new DefaultTimephasedWorkContainer(assignment.getCalendar(), normaliser, list.subList(0, 1), true));
+         assignment.setTimephasedBaselineWork(0, new DefaultTimephasedWorkContainer(file.getBaselineCalendar(), new MPPTimephasedBaselineWorkNormaliser(), list, true));
+      }
+
+      return file;
+   }
+
+   /**
+    * Create a timephased work item.
+    *
+    * @param start start date
+    * @param days number of days
+    * @param hoursPerDay hours of work per day
+    * @return timephased work item
+    */
+   private TimephasedWork getWork(Date start, int days, double hoursPerDay)
+   {
+      TimephasedWork item = new TimephasedWork();
+      item.setStart(start);
+      item.setFinish(new Date(start.getTime() + (days - 1) * MILLISECONDS_PER_DAY + 9 * MILLISECONDS_PER_HOUR));
+      item.setAmountPerDay(Duration.getInstance(hoursPerDay, TimeUnit.HOURS));
+      item.setTotalAmount(Duration.getInstance(hoursPerDay * days, TimeUnit.HOURS));
+      return item;
+   }
+
+   private DateFormat m_df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+
+   private static final long MILLISECONDS_PER_HOUR = 60L * 60 * 1000;
+   private static final long MILLISECONDS_PER_DAY = 24 * MILLISECONDS_PER_HOUR;
+}
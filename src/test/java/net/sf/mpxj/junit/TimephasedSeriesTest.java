@@ -0,0 +1,180 @@
+/*
+ * file:       TimephasedSeriesTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedCost;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.TimephasedCostSeries;
+import net.sf.mpxj.common.TimephasedWorkSeries;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the TimephasedWorkSeries and TimephasedCostSeries classes.
+ */
+public class TimephasedSeriesTest
+{
+   /**
+    * Ensure that a work series presents the same items as the list it was created from.
+    */
+   @Test public void testWorkList()
+   {
+      List<TimephasedWork> list = new ArrayList<TimephasedWork>();
+      list.add(getWork(0, 2, 16, 8, true));
+      list.add(getWork(3, 4, 480, 480, false));
+      list.add(getWork(4, 6, 8, 4, false));
+
+      TimephasedWorkSeries series = TimephasedWorkSeries.getInstance(list);
+      assertSame(series, TimephasedWorkSeries.getInstance(series));
+      assertEquals(list, series);
+      assertEquals(list.toString(), series.toString());
+      assertTrue(series.get(0).getModified());
+      assertEquals(TimeUnit.MINUTES, series.getAmountPerDayUnits(1));
+
+      //
+      // Items retrieved from the series are copies
+      //
+      series.get(0).setStart(getDate(1));
+      assertEquals(getDate(0), series.get(0).getStart());
+
+      TimephasedWorkSeries scaled = new TimephasedWorkSeries(series, 0.5, 0.25);
+      assertEquals(new TimephasedWork(list.get(2), 0.5, 0.25), scaled.get(2));
+   }
+
+   /**
+    * Ensure that a cost series presents the same items as the list it was
+    * created from, including missing amounts.
+    */
+   @Test public void testCostList()
+   {
+      List<TimephasedCost> list = new ArrayList<TimephasedCost>();
+      list.add(getCost(0, 1, Double.valueOf(10), Double.valueOf(10)));
+      list.add(getCost(1, 3, Double.valueOf(20), null));
+
+      TimephasedCostSeries series = TimephasedCostSeries.getInstance(list);
+      assertEquals(list.toString(), series.toString());
+      assertNull(series.get(1).getAmountPerDay());
+      assertEquals(20, series.getTotalAmountValue(1), 0);
+   }
+
+   /**
+    * Ensure that items intersecting with a date range are located correctly,
+    * both when the series is in date order and when it is not.
+    */
+   @Test public void testStartIndex()
+   {
+      TimephasedWorkSeries ordered = new TimephasedWorkSeries();
+      ordered.add(getWork(0, 2, 16, 8, false));
+      ordered.add(getWork(4, 5, 8, 8, false));
+      ordered.add(getWork(5, 8, 24, 8, false));
+
+      assertEquals(0, ordered.getStartIndex(getTime(0), getTime(1), 0));
+      assertEquals(1, ordered.getStartIndex(getTime(3), getTime(4), 0));
+      assertEquals(-1, ordered.getStartIndex(getTime(2) + 1, getTime(4) - 1, 0));
+      assertEquals(1, ordered.getStartIndex(getTime(5), getTime(6), 1));
+      assertEquals(2, ordered.getStartIndex(getTime(6), getTime(7), 1));
+      assertEquals(-1, ordered.getStartIndex(getTime(9), getTime(10), 0));
+
+      TimephasedWorkSeries unordered = new TimephasedWorkSeries();
+      unordered.add(getWork(5, 8, 24, 8, false));
+      unordered.add(getWork(0, 2, 16, 8, false));
+
+      assertEquals(1, unordered.getStartIndex(getTime(1), getTime(2), 0));
+      assertEquals(0, unordered.getStartIndex(getTime(6), getTime(7), 0));
+      assertEquals(-1, unordered.getStartIndex(getTime(3), getTime(4), 0));
+   }
+
+   /**
+    * Create a timephased work item.
+    *
+    * @param start start day
+    * @param finish finish day
+    * @param total total work
+    * @param perDay work per day
+    * @param modified modified flag
+    * @return timephased work item
+    */
+   private TimephasedWork getWork(int start, int finish, double total, double perDay, boolean modified)
+   {
+      TimephasedWork item = new TimephasedWork();
+      item.setStart(getDate(start));
+      item.setFinish(getDate(finish));
+      item.setTotalAmount(Duration.getInstance(total, TimeUnit.HOURS));
+      item.setAmountPerDay(Duration.getInstance(perDay, perDay == total ? TimeUnit.MINUTES : TimeUnit.HOURS));
+      item.setModified(modified);
+      return item;
+   }
+
+   /**
+    * Create a timephased cost item.
+    *
+    * @param start start day
+    * @param finish finish day
+    * @param total total cost
+    * @param perDay cost per day
+    * @return timephased cost item
+    */
+   private TimephasedCost getCost(int start, int finish, Number total, Number perDay)
+   {
+      TimephasedCost item = new TimephasedCost();
+      item.setStart(getDate(start));
+      item.setFinish(getDate(finish));
+      item.setTotalAmount(total);
+      item.setAmountPerDay(perDay);
+      return item;
+   }
+
+   /**
+    * Retrieve a date a number of days after a fixed base date.
+    *
+    * @param day day number
+    * @return Date instance
+    */
+   private Date getDate(int day)
+   {
+      return new Date(getTime(day));
+   }
+
+   /**
+    * Retrieve a timestamp a number of days after a fixed base date.
+    *
+    * @param day day number
+    * @return timestamp
+    */
+   private long getTime(int day)
+   {
+      return BASE_DATE + day * MILLISECONDS_PER_DAY;
+   }
+
+   private static final long BASE_DATE = 1546300800000L;
+   private static final long MILLISECONDS_PER_DAY = 24L * 60 * 60 * 1000;
+}
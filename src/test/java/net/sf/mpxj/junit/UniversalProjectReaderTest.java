@@ -0,0 +1,290 @@
+/*
+ * file:       UniversalProjectReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.junit.primavera.TestDatabase;
+import net.sf.mpxj.reader.UniversalProjectReader;
+import net.sf.mpxj.snapshot.SnapshotWriter;
+
+import org.junit.Test;
+
+/**
+ * Ensure that UniversalProjectReader gives the same results when reading
+ * a file directly from the file system as when reading it from a stream.
+ */
+public class UniversalProjectReaderTest
+{
+   /**
+    * Ensure that a schedule is found in a nested directory of a zip file,
+    * after entries which can't be read have been skipped.
+    */
+   @Test public void testZipFile() throws Exception
+   {
+      File file = File.createTempFile("universal", ".zip");
+
+      try
+      {
+         writeZipFile(file, false);
+         ProjectFile project = testFileRead(file);
+         assertNotNull(project);
+         assertEquals(new UniversalProjectReader().read(MpxjTestData.filePath(SCHEDULE)).getTasks().size(), project.getTasks().size());
+      }
+
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Ensure that a zip file without a central directory is read
+    * from its entries.
+    */
+   @Test public void testCorruptZipFile() throws Exception
+   {
+      File file = File.createTempFile("universal", ".zip");
+
+      try
+      {
+         writeZipFile(file, true);
+         assertNotNull(testFileRead(file));
+      }
+
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Ensure that a Primavera SQLite database is read.
+    */
+   @Test public void testSQLiteFile() throws Exception
+   {
+      File file = File.createTempFile("universal", ".sqlite");
+      TestDatabase database = new TestDatabase();
+
+      try
+      {
+         database.addRow("project", Integer.valueOf(1), "Project 1");
+         database.addRow("projwbs", Integer.valueOf(10), Integer.valueOf(1), null, Integer.valueOf(1));
+         database.addRow("task", Integer.valueOf(100), Integer.valueOf(1));
+         database.write(file);
+
+         assertNotNull(testFileRead(file));
+      }
+
+      finally
+      {
+         database.close();
+         file.delete();
+      }
+   }
+
+   /**
+    * Read a file from the file system and from a stream, and ensure
+    * that the results are the same.
+    *
+    * @param file file to read
+    * @return project read from the file system
+    */
+   private ProjectFile testFileRead(File file) throws Exception
+   {
+      ProjectFile project = new UniversalProjectReader().read(file);
+
+      InputStream stream = new FileInputStream(file);
+      ProjectFile expected;
+
+      try
+      {
+         expected = new UniversalProjectReader().read(stream);
+      }
+
+      finally
+      {
+         stream.close();
+      }
+
+      assertEquals(expected == null, project == null);
+      if (project != null)
+      {
+         assertArrayEquals(writeSnapshot(expected), writeSnapshot(project));
+      }
+
+      return project;
+   }
+
+   /**
+    * Write a zip file containing a text file and a binary file which
+    * can't be read as schedules, followed by a schedule in a nested
+    * directory.
+    *
+    * @param file zip file
+    * @param truncated true if the central directory should be omitted
+    */
+   private void writeZipFile(File file, boolean truncated) throws Exception
+   {
+      byte[] binary = new byte[1024];
+      Arrays.fill(binary, (byte) 0x5A);
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ZipOutputStream zip = new ZipOutputStream(bytes);
+      writeZipEntry(zip, "readme.txt", "Not a schedule".getBytes("UTF-8"));
+      writeZipEntry(zip, "data/binary.dat", binary);
+      writeZipEntry(zip, "data/schedule/sample.mpx", readFile(new File(MpxjTestData.filePath(SCHEDULE))));
+      zip.finish();
+      int length = bytes.size();
+      zip.close();
+
+      //
+      // The entries are written before the central directory, so truncating
+      // the data at the central directory leaves the entries intact.
+      //
+      byte[] data = bytes.toByteArray();
+      if (truncated)
+      {
+         length = indexOf(data, CENTRAL_DIRECTORY_SIGNATURE);
+      }
+
+      OutputStream os = new FileOutputStream(file);
+
+      try
+      {
+         os.write(data, 0, length);
+      }
+
+      finally
+      {
+         os.close();
+      }
+   }
+
+   /**
+    * Write a single zip entry.
+    *
+    * @param zip zip file
+    * @param name entry name
+    * @param data entry data
+    */
+   private void writeZipEntry(ZipOutputStream zip, String name, byte[] data) throws Exception
+   {
+      zip.putNextEntry(new ZipEntry(name));
+      zip.write(data);
+      zip.closeEntry();
+   }
+
+   /**
+    * Read the content of a file.
+    *
+    * @param file file to read
+    * @return file content
+    */
+   private byte[] readFile(File file) throws Exception
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      InputStream is = new FileInputStream(file);
+
+      try
+      {
+         byte[] buffer = new byte[4096];
+         int length;
+         while ((length = is.read(buffer)) != -1)
+         {
+            bytes.write(buffer, 0, length);
+         }
+      }
+
+      finally
+      {
+         is.close();
+      }
+
+      return bytes.toByteArray();
+   }
+
+   /**
+    * Find the first occurrence of a byte sequence.
+    *
+    * @param data data to search
+    * @param pattern byte sequence to find
+    * @return index of the byte sequence, or -1 if not found
+    */
+   private int indexOf(byte[] data, byte[] pattern)
+   {
+      int result = -1;
+      for (int index = 0; index <= data.length - pattern.length; index++)
+      {
+         int offset = 0;
+         while (offset < pattern.length && data[index + offset] == pattern[offset])
+         {
+            ++offset;
+         }
+
+         if (offset == pattern.length)
+         {
+            result = index;
+            break;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Write a project as a snapshot. The current date is cleared first,
+    * as it defaults to the time at which the project was read.
+    *
+    * @param project project to write
+    * @return snapshot data
+    */
+   private byte[] writeSnapshot(ProjectFile project) throws Exception
+   {
+      project.getProjectProperties().setCurrentDate(null);
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new SnapshotWriter().write(project, stream);
+      return stream.toByteArray();
+   }
+
+   private static final String SCHEDULE = "legacy/sample.mpx";
+
+   private static final byte[] CENTRAL_DIRECTORY_SIGNATURE =
+   {
+      0x50,
+      0x4B,
+      0x01,
+      0x02
+   };
+}
@@ -0,0 +1,326 @@
+/*
+ * file:       XerMultiProjectTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.primavera.PrimaveraXERFileReader;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise reading XER files containing more than one project.
+ */
+public class XerMultiProjectTest
+{
+   /**
+    * Ensure that the rows indexed for each project are used to read
+    * the correct project, both when all projects are read together
+    * and when each project is read individually.
+    */
+   @Test public void testProjectIndex() throws Exception
+   {
+      File file = createMultiProjectFile(null);
+
+      try
+      {
+         List<ProjectFile> projects = readAll(file);
+         assertEquals(2, projects.size());
+
+         ProjectFile project1 = projects.get(0);
+         ProjectFile project2 = projects.get(1);
+         assertEquals(String.valueOf(PROJECT_ID), project1.getProjectProperties().getUniqueID());
+         assertEquals(String.valueOf(PROJECT_ID + ID_OFFSET), project2.getProjectProperties().getUniqueID());
+         assertEquals(TASK_COUNT, getActivityCount(project1));
+         assertEquals(TASK_COUNT, getActivityCount(project2));
+
+         for (Task task : project1.getTasks())
+         {
+            Task other = project2.getTaskByUniqueID(Integer.valueOf(task.getUniqueID().intValue() + ID_OFFSET));
+            assertNotNull(other);
+            assertEquals(task.getName(), other.getName());
+            assertEquals(task.getStart(), other.getStart());
+            assertEquals(task.getFinish(), other.getFinish());
+         }
+
+         //
+         // Reading each project individually, and reading the same
+         // project more than once, gives the same result.
+         //
+         for (int pass = 0; pass < 2; pass++)
+         {
+            compare(project1, read(file, PROJECT_ID, false));
+            compare(project2, read(file, PROJECT_ID + ID_OFFSET, false));
+         }
+      }
+
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Ensure that projects read lazily using the file index match those
+    * read eagerly, including where a quoted value contains tabs,
+    * quote characters and a line break.
+    */
+   @Test public void testLazyMatchesEager() throws Exception
+   {
+      File file = createMultiProjectFile("\"Quoted\tname\nwith \"\"line break\"\"\"");
+
+      try
+      {
+         PrimaveraXERFileReader lazyReader = new PrimaveraXERFileReader();
+         lazyReader.setLazyProjectLoading(true);
+         assertEquals(new PrimaveraXERFileReader().listProjects(file), lazyReader.listProjects(file));
+
+         List<ProjectFile> projects = readAll(file);
+         assertEquals(2, projects.size());
+
+         ProjectFile project2 = projects.get(1);
+         assertNotNull(findTask(project2, "Quoted\tname\nwith \"line break\""));
+         assertEquals(TASK_COUNT, getActivityCount(project2));
+
+         for (ProjectFile project : projects)
+         {
+            int projectID = Integer.parseInt(project.getProjectProperties().getUniqueID());
+            ProjectFile eager = read(file, projectID, false);
+            compare(project, eager);
+
+            lazyReader.setProjectID(projectID);
+            compare(eager, lazyReader.read(file));
+         }
+      }
+
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Create an XER file containing two projects. The first project is the
+    * project from the sample XER file. The second is a copy of the first,
+    * with its IDs offset so that they are unique.
+    *
+    * @param taskName name of the first task in the second project, or null to retain the existing name
+    * @return temporary file
+    */
+   private File createMultiProjectFile(String taskName) throws Exception
+   {
+      File file = File.createTempFile("multi", ".xer");
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(MpxjTestData.filePath("generated/task-percentcomplete/percent-complete-8.4.xer")), CHARSET));
+      Writer writer = new OutputStreamWriter(new FileOutputStream(file), CHARSET);
+
+      try
+      {
+         String table = null;
+         List<String> fields = null;
+         boolean renamed = false;
+         String line;
+
+         while ((line = reader.readLine()) != null)
+         {
+            writer.write(line);
+            writer.write("\r\n");
+
+            if (line.startsWith("%T\t"))
+            {
+               table = line.substring(3).trim();
+               continue;
+            }
+
+            if (line.startsWith("%F\t"))
+            {
+               fields = Arrays.asList(line.split("\t", -1));
+               continue;
+            }
+
+            if (!line.startsWith("%R\t") || !COPIED_TABLES.contains(table))
+            {
+               continue;
+            }
+
+            String[] values = line.split("\t", -1);
+            for (int index = 1; index < values.length; index++)
+            {
+               String field = fields.get(index);
+               if (OFFSET_FIELDS.contains(field) && values[index].length() != 0)
+               {
+                  values[index] = String.valueOf(Integer.parseInt(values[index]) + ID_OFFSET);
+               }
+
+               if (taskName != null && !renamed && table.equals("TASK") && field.equals("task_name"))
+               {
+                  values[index] = taskName;
+                  renamed = true;
+               }
+            }
+
+            for (int index = 0; index < values.length; index++)
+            {
+               if (index != 0)
+               {
+                  writer.write('\t');
+               }
+               writer.write(values[index]);
+            }
+            writer.write("\r\n");
+         }
+      }
+
+      finally
+      {
+         writer.close();
+         reader.close();
+      }
+
+      return file;
+   }
+
+   /**
+    * Read all projects from a file.
+    *
+    * @param file XER file
+    * @return list of projects
+    */
+   private List<ProjectFile> readAll(File file) throws Exception
+   {
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         return new PrimaveraXERFileReader().readAll(is);
+      }
+
+      finally
+      {
+         is.close();
+      }
+   }
+
+   /**
+    * Read a single project from a file.
+    *
+    * @param file XER file
+    * @param projectID project ID
+    * @param lazy true if lazy project loading should be used
+    * @return project
+    */
+   private ProjectFile read(File file, int projectID, boolean lazy) throws Exception
+   {
+      PrimaveraXERFileReader reader = new PrimaveraXERFileReader();
+      reader.setProjectID(projectID);
+      reader.setLazyProjectLoading(lazy);
+      return reader.read(file);
+   }
+
+   /**
+    * Count the activities in a project, ignoring the tasks
+    * representing the WBS.
+    *
+    * @param project project
+    * @return activity count
+    */
+   private int getActivityCount(ProjectFile project)
+   {
+      int count = 0;
+      for (Task task : project.getTasks())
+      {
+         if (!task.getSummary())
+         {
+            ++count;
+         }
+      }
+      return count;
+   }
+
+   /**
+    * Find a task by name.
+    *
+    * @param project project
+    * @param name task name
+    * @return task, or null if not found
+    */
+   private Task findTask(ProjectFile project, String name)
+   {
+      Task result = null;
+      for (Task task : project.getTasks())
+      {
+         if (name.equals(task.getName()))
+         {
+            result = task;
+            break;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Ensure that two projects contain the same tasks.
+    *
+    * @param expected expected project
+    * @param actual actual project
+    */
+   private void compare(ProjectFile expected, ProjectFile actual)
+   {
+      assertEquals(expected.getProjectProperties().getUniqueID(), actual.getProjectProperties().getUniqueID());
+      assertEquals(expected.getTasks().size(), actual.getTasks().size());
+      for (int index = 0; index < expected.getTasks().size(); index++)
+      {
+         Task expectedTask = expected.getTasks().get(index);
+         Task actualTask = actual.getTasks().get(index);
+         assertEquals(expectedTask.getUniqueID(), actualTask.getUniqueID());
+         assertEquals(expectedTask.getText(1), actualTask.getText(1));
+         assertEquals(expectedTask.getName(), actualTask.getName());
+         assertEquals(expectedTask.getStart(), actualTask.getStart());
+         assertEquals(expectedTask.getFinish(), actualTask.getFinish());
+         assertEquals(expectedTask.getPercentageComplete(), actualTask.getPercentageComplete());
+      }
+      assertEquals(expected.getCalendars().size(), actual.getCalendars().size());
+   }
+
+   private static final Charset CHARSET = Charset.forName("ISO-8859-1");
+   private static final int PROJECT_ID = 4507;
+   private static final int ID_OFFSET = 100000;
+   private static final int TASK_COUNT = 12;
+   private static final Set<String> COPIED_TABLES = new HashSet<String>(Arrays.asList("PROJECT", "PROJWBS", "TASK"));
+   private static final Set<String> OFFSET_FIELDS = new HashSet<String>(Arrays.asList("proj_id", "wbs_id", "parent_wbs_id", "task_id"));
+}
@@ -0,0 +1,142 @@
+/*
+ * file:       XmlPoolTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.parsers.SAXParser;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.common.JAXBPool;
+import net.sf.mpxj.common.ObjectPool;
+import net.sf.mpxj.common.SAXParserPool;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+import net.sf.mpxj.planner.PlannerReader;
+
+import org.junit.Test;
+
+/**
+ * Tests to exercise the ObjectPool, JAXBPool and SAXParserPool classes.
+ */
+public class XmlPoolTest
+{
+   /**
+    * Ensure that the number of idle objects is bounded, and that usage is counted.
+    */
+   @Test public void testObjectPool()
+   {
+      ObjectPool<Object> pool = new ObjectPool<Object>(2);
+      assertNull(pool.poll());
+      assertEquals(1, pool.getMissCount());
+
+      Object value1 = new Object();
+      Object value2 = new Object();
+      pool.release(value1);
+      pool.release(value2);
+      pool.release(new Object());
+      assertEquals(2, pool.getIdleCount());
+      assertEquals(1, pool.getDiscardCount());
+
+      assertSame(value1, pool.poll());
+      assertSame(value2, pool.poll());
+      assertNull(pool.poll());
+      assertEquals(0, pool.getIdleCount());
+      assertEquals(2, pool.getHitCount());
+      assertEquals(2, pool.getMissCount());
+   }
+
+   /**
+    * Ensure that repeated reads reuse pooled Unmarshaller and SAXParser instances.
+    */
+   @Test public void testReaderReuse() throws Exception
+   {
+      JAXBPool pool = JAXBPool.getInstance("net.sf.mpxj.planner.schema", PlannerReader.class.getClassLoader());
+      ObjectPool<SAXParser> parsers = SAXParserPool.NAMESPACE_AWARE.getParserPool();
+
+      String fileName = MpxjTestData.filePath("planner-sample.planner");
+      ProjectFile expected = new PlannerReader().read(fileName);
+      long unmarshallerHits = pool.getUnmarshallerPool().getHitCount();
+      long parserHits = parsers.getHitCount();
+
+      ProjectFile project = new PlannerReader().read(fileName);
+      assertEquals(expected.getTasks().size(), project.getTasks().size());
+      assertEquals(expected.getResources().size(), project.getResources().size());
+      assertTrue(pool.getUnmarshallerPool().getHitCount() > unmarshallerHits);
+      assertTrue(parsers.getHitCount() > parserHits);
+   }
+
+   /**
+    * Ensure that marshallers are returned to their default configuration when released.
+    */
+   @Test public void testMarshallerReset() throws Exception
+   {
+      JAXBPool pool = JAXBPool.getInstance("net.sf.mpxj.mspdi.schema", MSPDIWriter.class.getClassLoader());
+      Marshaller marshaller = pool.borrowMarshaller();
+      Object formatted = marshaller.getProperty(Marshaller.JAXB_FORMATTED_OUTPUT);
+      marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.valueOf(!Boolean.TRUE.equals(formatted)));
+      pool.release(marshaller);
+
+      Marshaller reused = pool.borrowMarshaller();
+      assertEquals(formatted, reused.getProperty(Marshaller.JAXB_FORMATTED_OUTPUT));
+      pool.release(reused);
+
+      ProjectFile project = new PlannerReader().read(MpxjTestData.filePath("planner-sample.planner"));
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new MSPDIWriter().write(project, stream);
+      assertTrue(stream.size() > 0);
+   }
+
+   /**
+    * Ensure that warming up a pool creates the requested number of idle instances.
+    */
+   @Test public void testWarmUp() throws Exception
+   {
+      SAXParserPool.NAMESPACE_AWARE.warmUp(4);
+      assertTrue(SAXParserPool.NAMESPACE_AWARE.getParserPool().getIdleCount() >= 4);
+
+      JAXBPool pool = JAXBPool.getInstance("net.sf.mpxj.planner.schema", PlannerReader.class.getClassLoader());
+      pool.warmUp(3);
+      assertTrue(pool.getUnmarshallerPool().getIdleCount() >= 3);
+      assertTrue(pool.getMarshallerPool().getIdleCount() >= 3);
+      assertSame(pool, JAXBPool.getInstance("net.sf.mpxj.planner.schema", PlannerReader.class.getClassLoader()));
+   }
+
+   /**
+    * Ensure that a separate pool is held for each class loader.
+    */
+   @Test public void testPoolPerClassLoader() throws Exception
+   {
+      ClassLoader parent = PlannerReader.class.getClassLoader();
+      ClassLoader child = new URLClassLoader(new URL[0], parent);
+      JAXBPool pool = JAXBPool.getInstance("net.sf.mpxj.planner.schema", parent);
+      JAXBPool childPool = JAXBPool.getInstance("net.sf.mpxj.planner.schema", child);
+      assertNotSame(pool, childPool);
+      assertSame(childPool, JAXBPool.getInstance("net.sf.mpxj.planner.schema", child));
+   }
+}
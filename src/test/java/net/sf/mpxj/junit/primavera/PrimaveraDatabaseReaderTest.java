@@ -24,6 +24,15 @@
 package net.sf.mpxj.junit.primavera;
 
 import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import net.sf.mpxj.FieldTypeClass;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.listener.DefaultProjectListener;
 import net.sf.mpxj.primavera.PrimaveraDatabaseReader;
 
 import org.junit.Test;
@@ -53,4 +62,193 @@ public class PrimaveraDatabaseReaderTest
       reader.setSchema("test.");
       assertEquals("test.", reader.getSchema());
    }
+
+   /**
+    * Ensure that tasks are processed as they are fetched, rather than
+    * after all task rows have been read.
+    */
+   @Test public void testStreaming() throws Exception
+   {
+      final TestDatabase database = createDatabase();
+      final int[] fetchedRows = new int[1];
+
+      try
+      {
+         PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+         reader.setDataSource(database);
+         reader.setProjectID(1);
+         reader.setFetchSize(500);
+         assertEquals(500, reader.getFetchSize());
+         reader.addProjectListener(new DefaultProjectListener()
+         {
+            @Override public void taskRead(Task task)
+            {
+               if (!task.getSummary() && fetchedRows[0] == 0)
+               {
+                  fetchedRows[0] = database.getRowCount("task");
+               }
+            }
+         });
+
+         ProjectFile project = reader.read();
+         assertEquals(1, fetchedRows[0]);
+         assertEquals(3, database.getRowCount("task"));
+         assertEquals(4, project.getTasks().size());
+         assertEquals(2, project.getResourceAssignments().size());
+         assertEquals(1, project.getTaskByUniqueID(Integer.valueOf(102)).getPredecessors().size());
+         assertEquals(0, database.getOpenConnectionCount());
+      }
+
+      finally
+      {
+         database.close();
+      }
+   }
+
+   /**
+    * Ensure that reading all projects uses a single connection,
+    * and issues the same queries for each project as reading the
+    * project individually.
+    */
+   @Test public void testReadAll() throws Exception
+   {
+      TestDatabase database = createDatabase();
+
+      try
+      {
+         PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+         reader.setDataSource(database);
+         reader.setProjectID(1);
+         reader.read();
+         assertEquals(1, database.getQueryCount("task"));
+         assertEquals(1, database.getQueryCount("project"));
+      }
+
+      finally
+      {
+         database.close();
+      }
+
+      database = createDatabase();
+
+      try
+      {
+         PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+         reader.setDataSource(database);
+         List<ProjectFile> projects = reader.readAll();
+         assertEquals(2, projects.size());
+
+         // one additional query is used to list the projects
+         assertEquals(2, database.getQueryCount("task"));
+         assertEquals(3, database.getQueryCount("project"));
+         assertEquals(1, database.getMaxOpenConnectionCount());
+         assertEquals(0, database.getOpenConnectionCount());
+
+         for (ProjectFile project : projects)
+         {
+            assertEquals(4, project.getTasks().size());
+            assertEquals(2, project.getResourceAssignments().size());
+         }
+      }
+
+      finally
+      {
+         database.close();
+      }
+   }
+
+   /**
+    * Ensure that projects are read concurrently, that the results are
+    * returned in project ID order, and that data common to all projects
+    * is only read once.
+    */
+   @Test public void testParallelReadAll() throws Exception
+   {
+      TestDatabase database = createDatabase(8);
+      database.addTable("udftype", "udf_type_id", "table_name", "logical_data_type", "udf_type_label");
+      database.addRow("udftype", Integer.valueOf(1), "TASK", "FT_TEXT", "Text Field");
+      database.addTable("taskactv", "task_id", "actv_code_type_id", "actv_code_id", "proj_id");
+      database.addTable("actvtype", "actv_code_type_id", "actv_code_type");
+      database.addTable("actvcode", "actv_code_id", "actv_code_type_id", "short_name", "actv_code_name");
+      database.addRow("actvtype", Integer.valueOf(1), "Phase");
+      database.addRow("actvtype", Integer.valueOf(2), "Area");
+      database.addRow("actvcode", Integer.valueOf(1), Integer.valueOf(1), "P1", "Phase 1");
+      database.addRow("taskactv", Integer.valueOf(100), Integer.valueOf(1), Integer.valueOf(1), Integer.valueOf(1));
+
+      PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+      reader.setFetchSize(100);
+      List<ProjectFile> projects = reader.readAll(database, 4);
+      assertEquals(8, projects.size());
+
+      for (int index = 0; index < projects.size(); index++)
+      {
+         ProjectFile project = projects.get(index);
+         int taskBase = (index + 1) * 100;
+         assertEquals(String.valueOf(index + 1), project.getProjectProperties().getUniqueID());
+         assertEquals(4, project.getTasks().size());
+         assertEquals(2, project.getResourceAssignments().size());
+         assertNotNull(project.getTaskByUniqueID(Integer.valueOf(taskBase)));
+         assertEquals(index == 0 ? 1 : 0, project.getActivityCodes().size());
+         assertEquals(TaskField.TEXT4, project.getCustomFields().getFieldByAlias(FieldTypeClass.TASK, "Text Field"));
+      }
+
+      assertEquals(1, database.getQueryCount("udftype"));
+      assertEquals(1, database.getQueryCount("actvtype"));
+      assertEquals(1, database.getQueryCount("prefer"));
+      assertEquals(8, database.getQueryCount("task"));
+      assertTrue(database.getMaxOpenConnectionCount() <= 4);
+      assertEquals(0, database.getOpenConnectionCount());
+      database.close();
+   }
+
+   /**
+    * Create a database containing two projects.
+    *
+    * @return test database
+    */
+   private TestDatabase createDatabase() throws SQLException
+   {
+      return createDatabase(2);
+   }
+
+   /**
+    * Create a database containing a number of projects, each with a WBS entry,
+    * three activities, a relationship and two resource assignments.
+    *
+    * @param projectCount number of projects
+    * @return test database
+    */
+   private TestDatabase createDatabase(int projectCount) throws SQLException
+   {
+      TestDatabase database = new TestDatabase();
+      database.addTable("project", "proj_id", "proj_short_name");
+      database.addTable("rsrc", "rsrc_id", "rsrc_name", "rsrc_short_name");
+      database.addTable("projwbs", "wbs_id", "proj_id", "parent_wbs_id", "wbs_short_name", "wbs_name", "seq_num");
+      database.addTable("task", "task_id", "proj_id", "wbs_id", "task_code", "task_name", "task_type", "complete_pct_type", "phys_complete_pct");
+      database.addTable("taskpred", "task_pred_id", "task_id", "pred_task_id", "proj_id", "pred_type", "lag_hr_cnt");
+      database.addTable("taskrsrc", "taskrsrc_id", "task_id", "rsrc_id", "proj_id", "remain_qty", "target_qty_per_hr");
+
+      database.addRow("rsrc", Integer.valueOf(1), "Resource 1", "R1");
+
+      for (int projectID = 1; projectID <= projectCount; projectID++)
+      {
+         Integer proj = Integer.valueOf(projectID);
+         Integer wbs = Integer.valueOf(projectID * 10);
+         int taskBase = projectID * 100;
+
+         database.addRow("project", proj, "Project " + projectID);
+         database.addRow("projwbs", wbs, proj, null, "WBS" + projectID, "WBS " + projectID, Integer.valueOf(1));
+
+         for (int index = 0; index < 3; index++)
+         {
+            database.addRow("task", Integer.valueOf(taskBase + index), proj, wbs, "A" + (taskBase + index), "Task " + (taskBase + index), "TT_Task", "CP_Phys", Double.valueOf(index * 25.0));
+         }
+
+         database.addRow("taskpred", Integer.valueOf(taskBase), Integer.valueOf(taskBase + 2), Integer.valueOf(taskBase + 1), proj, "PR_FS", Double.valueOf(0));
+         database.addRow("taskrsrc", Integer.valueOf(taskBase), Integer.valueOf(taskBase), Integer.valueOf(1), proj, Double.valueOf(8), Double.valueOf(1));
+         database.addRow("taskrsrc", Integer.valueOf(taskBase + 1), Integer.valueOf(taskBase + 1), Integer.valueOf(1), proj, Double.valueOf(16), Double.valueOf(1));
+      }
+
+      return database;
+   }
 }
@@ -0,0 +1,558 @@
+/*
+ * file:       TestDatabase.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.primavera;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.sqlite.Function;
+
+/**
+ * An in-memory SQLite database holding a subset of the P6 schema, used to
+ * exercise PrimaveraDatabaseReader. Each table is exposed through a view
+ * which records the number of queries executed against the table, and the
+ * number of rows fetched from it.
+ */
+public final class TestDatabase implements DataSource
+{
+   /**
+    * Constructor.
+    */
+   public TestDatabase() throws SQLException
+   {
+      m_url = "jdbc:sqlite:file:mpxjtest" + DATABASE_COUNT.incrementAndGet() + "?mode=memory&cache=shared";
+
+      // This connection keeps the in-memory database alive until the fixture is closed
+      m_connection = createConnection();
+
+      for (Map.Entry<String, String[]> entry : DEFAULT_TABLES.entrySet())
+      {
+         addTable(entry.getKey(), entry.getValue());
+      }
+   }
+
+   /**
+    * Define a table. Columns required by the queries issued by the reader
+    * are added to the table if they are not included in the column names.
+    *
+    * @param name table name
+    * @param columns column names
+    */
+   public void addTable(String name, String... columns)
+   {
+      List<String> names = new ArrayList<String>(Arrays.asList(columns));
+      String[] defaultColumns = DEFAULT_TABLES.get(name);
+      if (defaultColumns != null)
+      {
+         for (String column : defaultColumns)
+         {
+            if (!names.contains(column))
+            {
+               names.add(column);
+            }
+         }
+      }
+
+      if (!names.contains("delete_date"))
+      {
+         names.add("delete_date");
+      }
+
+      m_columns.put(name, names);
+      m_rows.put(name, new ArrayList<Object[]>());
+   }
+
+   /**
+    * Add a row to a table. Values are supplied in the order in which
+    * the columns were named when the table was defined.
+    *
+    * @param name table name
+    * @param values column values
+    */
+   public void addRow(String name, Object... values)
+   {
+      m_rows.get(name).add(values);
+   }
+
+   /**
+    * Retrieve the number of queries executed against a table.
+    *
+    * @param name table name
+    * @return query count
+    */
+   public int getQueryCount(String name)
+   {
+      return getCount(m_queryCounts, name);
+   }
+
+   /**
+    * Retrieve the number of rows fetched from a table.
+    *
+    * @param name table name
+    * @return row count
+    */
+   public int getRowCount(String name)
+   {
+      return getCount(m_rowCounts, name);
+   }
+
+   /**
+    * Retrieve the number of connections which have been opened but not closed.
+    *
+    * @return open connection count
+    */
+   public synchronized int getOpenConnectionCount() throws SQLException
+   {
+      int result = 0;
+      for (Connection connection : m_connections)
+      {
+         if (!connection.isClosed())
+         {
+            ++result;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the largest number of connections open at the same time.
+    *
+    * @return maximum open connection count
+    */
+   public synchronized int getMaxOpenConnectionCount()
+   {
+      return m_maxOpenConnectionCount;
+   }
+
+   /**
+    * Release the database.
+    */
+   public void close() throws SQLException
+   {
+      m_connection.close();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public synchronized Connection getConnection() throws SQLException
+   {
+      if (!m_tablesCreated)
+      {
+         createTables(m_connection, true);
+         m_tablesCreated = true;
+      }
+
+      m_maxOpenConnectionCount = Math.max(m_maxOpenConnectionCount, getOpenConnectionCount() + 1);
+
+      Connection connection = createConnection();
+      m_connections.add(connection);
+
+      return connection;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public Connection getConnection(String username, String password) throws SQLException
+   {
+      return getConnection();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public PrintWriter getLogWriter()
+   {
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setLogWriter(PrintWriter out)
+   {
+      // Not required
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void setLoginTimeout(int seconds)
+   {
+      // Not required
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public int getLoginTimeout()
+   {
+      return 0;
+   }
+
+   /**
+    * Required by DataSource from Java 7 onwards.
+    *
+    * @return parent logger
+    */
+   public Logger getParentLogger() throws SQLFeatureNotSupportedException
+   {
+      throw new SQLFeatureNotSupportedException();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public <T> T unwrap(Class<T> iface) throws SQLException
+   {
+      throw new SQLException("Not a wrapper");
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public boolean isWrapperFor(Class<?> iface)
+   {
+      return false;
+   }
+
+   /**
+    * Open a connection to the database, and register the functions
+    * used to record queries and rows fetched.
+    *
+    * @return connection
+    */
+   private Connection createConnection() throws SQLException
+   {
+      Connection connection = DriverManager.getConnection(m_url);
+      Function.create(connection, "record_query", new CountingFunction(m_queryCounts));
+      Function.create(connection, "record_row", new CountingFunction(m_rowCounts));
+      return connection;
+   }
+
+   /**
+    * Write the tables to a SQLite database file. The tables are written
+    * without the views used to count queries and rows.
+    *
+    * @param file database file
+    */
+   public void write(File file) throws SQLException
+   {
+      Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
+
+      try
+      {
+         createTables(connection, false);
+      }
+
+      finally
+      {
+         connection.close();
+      }
+   }
+
+   /**
+    * Create the tables, and populate them. Where queries are counted,
+    * each table is held as name_data, and exposed through a view
+    * which calls the counting functions. The single row subquery is
+    * evaluated once each time the view is queried, even when no rows
+    * are returned.
+    *
+    * @param connection database connection
+    * @param counted true if queries and rows are counted
+    */
+   private void createTables(Connection connection, boolean counted) throws SQLException
+   {
+      Statement statement = connection.createStatement();
+
+      try
+      {
+         for (Map.Entry<String, List<String>> entry : m_columns.entrySet())
+         {
+            String name = entry.getKey();
+            List<String> columns = entry.getValue();
+            List<Object[]> rows = m_rows.get(name);
+
+            String tableName = counted ? name + "_data" : name;
+            StringBuilder sql = new StringBuilder("create table " + tableName + " (");
+            StringBuilder insert = new StringBuilder("insert into " + tableName + " values (");
+            for (int index = 0; index < columns.size(); index++)
+            {
+               if (index != 0)
+               {
+                  sql.append(", ");
+                  insert.append(", ");
+               }
+               sql.append(columns.get(index));
+               sql.append(' ');
+               sql.append(getType(columns.get(index), rows, index));
+               insert.append('?');
+            }
+            sql.append(')');
+            insert.append(')');
+            statement.executeUpdate(sql.toString());
+
+            if (counted)
+            {
+               statement.executeUpdate("create view " + name + " as select " + tableName + ".* from (select record_query('" + name + "') as counted limit 1), " + tableName + " where counted = 1 and record_row('" + name + "', " + tableName + ".rowid) = 1");
+            }
+
+            PreparedStatement ps = connection.prepareStatement(insert.toString());
+            try
+            {
+               for (Object[] row : rows)
+               {
+                  for (int index = 0; index < columns.size(); index++)
+                  {
+                     ps.setObject(index + 1, index < row.length ? row[index] : null);
+                  }
+                  ps.executeUpdate();
+               }
+            }
+
+            finally
+            {
+               ps.close();
+            }
+         }
+      }
+
+      finally
+      {
+         statement.close();
+      }
+   }
+
+   /**
+    * Determine the SQL type of a column from the values it holds,
+    * or from its name if it holds no values.
+    *
+    * @param name column name
+    * @param rows table rows
+    * @param index column index
+    * @return SQL type name
+    */
+   private String getType(String name, List<Object[]> rows, int index)
+   {
+      for (Object[] row : rows)
+      {
+         Object value = index < row.length ? row[index] : null;
+         if (value instanceof Integer)
+         {
+            return "INTEGER";
+         }
+
+         if (value instanceof Double)
+         {
+            return "DOUBLE";
+         }
+
+         if (value != null)
+         {
+            return "VARCHAR";
+         }
+      }
+
+      if (name.endsWith("_id") || name.endsWith("seq_num"))
+      {
+         return "INTEGER";
+      }
+
+      return name.endsWith("_date") ? "DATETIME" : "VARCHAR";
+   }
+
+   /**
+    * Retrieve a count for a table.
+    *
+    * @param counts counts by table name
+    * @param name table name
+    * @return count
+    */
+   private static int getCount(Map<String, AtomicInteger> counts, String name)
+   {
+      synchronized (counts)
+      {
+         AtomicInteger count = counts.get(name);
+         return count == null ? 0 : count.get();
+      }
+   }
+
+   /**
+    * SQL function which increments the count for the table named by its
+    * first argument, and returns one.
+    */
+   private static final class CountingFunction extends Function
+   {
+      /**
+       * Constructor.
+       *
+       * @param counts counts by table name
+       */
+      public CountingFunction(Map<String, AtomicInteger> counts)
+      {
+         m_counts = counts;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override protected void xFunc() throws SQLException
+      {
+         String name = value_text(0);
+         AtomicInteger count;
+         synchronized (m_counts)
+         {
+            count = m_counts.get(name);
+            if (count == null)
+            {
+               count = new AtomicInteger();
+               m_counts.put(name, count);
+            }
+         }
+         count.incrementAndGet();
+         result(1);
+      }
+
+      private final Map<String, AtomicInteger> m_counts;
+   }
+
+   private final String m_url;
+   private final Connection m_connection;
+   private final Map<String, List<String>> m_columns = new LinkedHashMap<String, List<String>>();
+   private final Map<String, List<Object[]>> m_rows = new HashMap<String, List<Object[]>>();
+   private final Map<String, AtomicInteger> m_queryCounts = new HashMap<String, AtomicInteger>();
+   private final Map<String, AtomicInteger> m_rowCounts = new HashMap<String, AtomicInteger>();
+   private final List<Connection> m_connections = new ArrayList<Connection>();
+   private boolean m_tablesCreated;
+   private int m_maxOpenConnectionCount;
+
+   private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+   /**
+    * Tables queried by the reader, with the columns used in the queries.
+    */
+   private static final Map<String, String[]> DEFAULT_TABLES = new LinkedHashMap<String, String[]>();
+   static
+   {
+      DEFAULT_TABLES.put("project", new String[]
+      {
+         "proj_id",
+         "proj_short_name"
+      });
+      DEFAULT_TABLES.put("prefer", new String[]
+      {
+         "prefer_id",
+         "curr_id"
+      });
+      DEFAULT_TABLES.put("currtype", new String[]
+      {
+         "curr_id"
+      });
+      DEFAULT_TABLES.put("udftype", new String[]
+      {
+         "udf_type_id"
+      });
+      DEFAULT_TABLES.put("udfvalue", new String[]
+      {
+         "udf_type_id",
+         "fk_id",
+         "proj_id"
+      });
+      DEFAULT_TABLES.put("actvtype", new String[]
+      {
+         "actv_code_type_id"
+      });
+      DEFAULT_TABLES.put("actvcode", new String[]
+      {
+         "actv_code_id"
+      });
+      DEFAULT_TABLES.put("taskactv", new String[]
+      {
+         "task_id",
+         "actv_code_type_id",
+         "actv_code_id",
+         "proj_id"
+      });
+      DEFAULT_TABLES.put("projprop", new String[]
+      {
+         "proj_id",
+         "prop_name"
+      });
+      DEFAULT_TABLES.put("rsrc", new String[]
+      {
+         "rsrc_id",
+         "rsrc_seq_num"
+      });
+      DEFAULT_TABLES.put("rsrcrate", new String[]
+      {
+         "rsrc_rate_id",
+         "rsrc_id"
+      });
+      DEFAULT_TABLES.put("calendar", new String[]
+      {
+         "clndr_id",
+         "proj_id"
+      });
+      DEFAULT_TABLES.put("projwbs", new String[]
+      {
+         "wbs_id",
+         "proj_id",
+         "parent_wbs_id",
+         "seq_num"
+      });
+      DEFAULT_TABLES.put("task", new String[]
+      {
+         "task_id",
+         "proj_id"
+      });
+      DEFAULT_TABLES.put("taskpred", new String[]
+      {
+         "task_pred_id",
+         "proj_id"
+      });
+      DEFAULT_TABLES.put("taskrsrc", new String[]
+      {
+         "taskrsrc_id",
+         "rsrc_id",
+         "proj_id"
+      });
+   }
+}
@@ -0,0 +1,263 @@
+/*
+ * file:       FieldStorageTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       01/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.project;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldStorageType;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.ArrayFieldStore;
+import net.sf.mpxj.common.DateHelper;
+import net.sf.mpxj.common.FieldStore;
+import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.common.PrimitiveFieldStore;
+import net.sf.mpxj.common.SparseFieldStore;
+import net.sf.mpxj.junit.MpxjTestData;
+import net.sf.mpxj.mpp.MPPReader;
+import net.sf.mpxj.reader.UniversalProjectReader;
+
+/**
+ * Test to exercise the alternative field storage types.
+ */
+public class FieldStorageTest
+{
+   /**
+    * Exercise the sparse field store directly.
+    */
+   @Test public void testSparseFieldStore()
+   {
+      SparseFieldStore store = new SparseFieldStore();
+      for (int index = 99; index >= 0; index -= 3)
+      {
+         store.set(index, Integer.valueOf(index));
+      }
+      assertEquals(34, store.size());
+
+      for (int index = 0; index < 100; index++)
+      {
+         Object expected = (99 - index) % 3 == 0 ? Integer.valueOf(index) : null;
+         assertEquals(expected, store.get(index));
+      }
+
+      store.set(0, null);
+      store.set(51, null);
+      store.set(99, null);
+      assertEquals(31, store.size());
+      assertNull(store.get(0));
+      assertNull(store.get(51));
+      assertNull(store.get(99));
+      assertEquals(Integer.valueOf(3), store.get(3));
+      assertEquals(Integer.valueOf(96), store.get(96));
+   }
+
+   /**
+    * Ensure that a file read using sparse storage is identical
+    * to the same file read using dense storage.
+    */
+   @Test public void testSparseMatchesDense() throws Exception
+   {
+      String fileName = MpxjTestData.filePath("mpp14task.mpp");
+      ProjectFile dense = read(fileName, FieldStorageType.DENSE);
+      ProjectFile sparse = read(fileName, FieldStorageType.SPARSE);
+
+      assertEquals(FieldStorageType.SPARSE, sparse.getProjectConfig().getFieldStorageType());
+      compare(dense.getTasks(), sparse.getTasks(), TaskField.values());
+      compare(dense.getResources(), sparse.getResources(), ResourceField.values());
+      compare(dense.getResourceAssignments(), sparse.getResourceAssignments(), AssignmentField.values());
+   }
+
+   /**
+    * Ensure that the storage type is passed on to the readers used by
+    * UniversalProjectReader, and that it applies only to the reader
+    * on which it is set.
+    */
+   @Test public void testUniversalProjectReader() throws Exception
+   {
+      UniversalProjectReader reader = new UniversalProjectReader();
+      reader.setFieldStorageType(FieldStorageType.SPARSE);
+      assertEquals(FieldStorageType.SPARSE, reader.read(MpxjTestData.filePath("mpp14task.mpp")).getProjectConfig().getFieldStorageType());
+      assertEquals(FieldStorageType.SPARSE, reader.read(MpxjTestData.filePath("legacy/sample.mpx")).getProjectConfig().getFieldStorageType());
+      assertEquals(FieldStorageType.DENSE, new UniversalProjectReader().read(MpxjTestData.filePath("legacy/sample.mpx")).getProjectConfig().getFieldStorageType());
+   }
+
+   /**
+    * Ensure that a file read using primitive storage is identical
+    * to the same file read using dense storage, and that the
+    * primitive accessors return the expected values.
+    */
+   @Test public void testPrimitiveMatchesDense() throws Exception
+   {
+      String fileName = MpxjTestData.filePath("mpp14task.mpp");
+      ProjectFile dense = read(fileName, FieldStorageType.DENSE);
+      ProjectFile primitive = read(fileName, FieldStorageType.PRIMITIVE);
+
+      compare(dense.getTasks(), primitive.getTasks(), TaskField.values());
+      compare(dense.getResources(), primitive.getResources(), ResourceField.values());
+      compare(dense.getResourceAssignments(), primitive.getResourceAssignments(), AssignmentField.values());
+
+      for (int index = 0; index < dense.getTasks().size(); index++)
+      {
+         Task expected = dense.getTasks().get(index);
+         Task actual = primitive.getTasks().get(index);
+
+         assertEquals(expected.getStart() == null ? DateHelper.NULL_MILLIS : expected.getStart().getTime(), actual.getStartMillis());
+         assertEquals(expected.getFinish() == null ? DateHelper.NULL_MILLIS : expected.getFinish().getTime(), actual.getFinishMillis());
+         assertEquals(NumberHelper.getDouble(expected.getCost()), actual.getCostValue(), 0);
+         assertEquals(expected.getDuration() == null ? 0 : expected.getDuration().getDuration(), actual.getDurationValue(), 0);
+         assertEquals(expected.getDuration() == null ? null : expected.getDuration().getUnits(), actual.getCachedUnits(TaskField.DURATION));
+      }
+   }
+
+   /**
+    * Exercise the primitive field store directly.
+    */
+   @Test public void testPrimitiveFieldStore()
+   {
+      PrimitiveFieldStore store = new PrimitiveFieldStore();
+      Date date = new Date(1262304000000L);
+      store.set(1, date);
+      store.set(2, Double.valueOf(1.5));
+      store.set(3, Duration.getInstance(2.5, TimeUnit.HOURS));
+      store.set(4, "text");
+      store.set(5, Integer.valueOf(7));
+
+      assertEquals(date, store.get(1));
+      assertEquals(Double.valueOf(1.5), store.get(2));
+      assertEquals(Duration.getInstance(2.5, TimeUnit.HOURS), store.get(3));
+      assertEquals("text", store.get(4));
+      assertEquals(Integer.valueOf(7), store.get(5));
+
+      assertEquals(date.getTime(), store.getMillis(1, DateHelper.NULL_MILLIS));
+      assertEquals(DateHelper.NULL_MILLIS, store.getMillis(2, DateHelper.NULL_MILLIS));
+      assertEquals(1.5, store.getDouble(2, 0), 0);
+      assertEquals(2.5, store.getDouble(3, 0), 0);
+      assertEquals(7, store.getDouble(5, 0), 0);
+      assertEquals(TimeUnit.HOURS, store.getUnits(3));
+      assertNull(store.getUnits(2));
+
+      store.set(3, "replaced");
+      assertEquals("replaced", store.get(3));
+      assertNull(store.getUnits(3));
+
+      store.set(1, null);
+      assertNull(store.get(1));
+      assertEquals(4, store.size());
+   }
+
+   /**
+    * Ensure that the primitive field store returns the same instance
+    * from repeated calls to get, and that its accessors give the same
+    * results as the other field stores.
+    */
+   @Test public void testPrimitiveMatchesOtherStores()
+   {
+      Object[] values =
+      {
+         null,
+         new Date(1262304000000L),
+         Double.valueOf(1.5),
+         Duration.getInstance(2.5, TimeUnit.HOURS),
+         "text",
+         Integer.valueOf(7),
+         Long.valueOf(8),
+         Boolean.TRUE
+      };
+
+      FieldStore[] stores =
+      {
+         new ArrayFieldStore(values.length),
+         new SparseFieldStore(),
+         new PrimitiveFieldStore()
+      };
+
+      for (FieldStore store : stores)
+      {
+         for (int index = 0; index < values.length; index++)
+         {
+            store.set(index, values[index]);
+         }
+      }
+
+      FieldStore expected = stores[0];
+      for (FieldStore store : stores)
+      {
+         for (int index = 0; index < values.length; index++)
+         {
+            assertEquals(values[index], store.get(index));
+            assertSame(store.get(index), store.get(index));
+            assertEquals(expected.getMillis(index, DateHelper.NULL_MILLIS), store.getMillis(index, DateHelper.NULL_MILLIS));
+            assertEquals(expected.getDouble(index, -1), store.getDouble(index, -1), 0);
+            assertEquals(expected.getUnits(index), store.getUnits(index));
+         }
+      }
+   }
+
+   /**
+    * Read a file using the specified storage type.
+    *
+    * @param fileName file name
+    * @param type storage type
+    * @return ProjectFile instance
+    */
+   private ProjectFile read(String fileName, FieldStorageType type) throws Exception
+   {
+      MPPReader reader = new MPPReader();
+      reader.setFieldStorageType(type);
+      return reader.read(fileName);
+   }
+
+   /**
+    * Compare the field values of two lists of entities.
+    *
+    * @param expected expected entities
+    * @param actual actual entities
+    * @param fields fields to compare
+    */
+   private void compare(List<? extends FieldContainer> expected, List<? extends FieldContainer> actual, FieldType[] fields)
+   {
+      assertEquals(expected.size(), actual.size());
+      for (int index = 0; index < expected.size(); index++)
+      {
+         FieldContainer expectedContainer = expected.get(index);
+         FieldContainer actualContainer = actual.get(index);
+         for (FieldType field : fields)
+         {
+            assertEquals(field.toString(), String.valueOf(expectedContainer.getCachedValue(field)), String.valueOf(actualContainer.getCachedValue(field)));
+         }
+      }
+   }
+}
@@ -0,0 +1,343 @@
+/*
+ * file:       ProjectFreezeTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       17/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.project;
+
+import static org.junit.Assert.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldStorageType;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Tests to exercise frozen projects.
+ */
+public class ProjectFreezeTest
+{
+   /**
+    * Ensure that calculated values are populated, and that
+    * changes are rejected once a project is frozen.
+    */
+   @Test public void testFreeze() throws Exception
+   {
+      final ProjectFile file = createProject();
+      Task task1 = file.getTaskByUniqueID(Integer.valueOf(1));
+      assertNull(task1.getCachedValue(TaskField.START_VARIANCE));
+      assertFalse(file.isFrozen());
+
+      file.freeze();
+      assertTrue(file.isFrozen());
+      assertTrue(file.getTasks().isFrozen());
+      assertNotNull(task1.getCachedValue(TaskField.START_VARIANCE));
+      assertNotNull(task1.getCachedValue(TaskField.TOTAL_SLACK));
+      assertNotNull(task1.getCachedValue(TaskField.CRITICAL));
+
+      //
+      // Reading values, including calculated values, is still permitted
+      //
+      assertEquals("Task 1", task1.getName());
+      assertEquals(Duration.getInstance(0, TimeUnit.DAYS), task1.getStartVariance());
+      assertNotNull(task1.getCompleteThrough());
+
+      //
+      // Setting a field to its current value is ignored,
+      // any other change is rejected
+      //
+      task1.setName("Task 1");
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            file.getTaskByUniqueID(Integer.valueOf(1)).setName("Changed");
+         }
+      });
+
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            file.addTask();
+         }
+      });
+
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            file.getChildTasks().clear();
+         }
+      });
+
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            Task task = file.getTaskByUniqueID(Integer.valueOf(2));
+            task.addPredecessor(file.getTaskByUniqueID(Integer.valueOf(3)), RelationType.FINISH_START, null);
+         }
+      });
+
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            file.getResourceByUniqueID(Integer.valueOf(1)).setName("Changed");
+         }
+      });
+
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            file.getDefaultCalendar().addCalendarException(new Date(), new Date());
+         }
+      });
+
+      assertUnsupported(new Runnable()
+      {
+         @Override public void run()
+         {
+            file.getProjectProperties().setAuthor("Changed");
+         }
+      });
+
+      assertEquals("Task 1", task1.getName());
+      assertEquals(3, file.getTasks().size());
+      assertEquals(1, task1.getSuccessors().size());
+   }
+
+   /**
+    * Ensure that a frozen project can be queried by multiple threads.
+    */
+   @Test public void testConcurrentQueries() throws Exception
+   {
+      ProjectFile reference = createProject();
+      final List<String> expected = summarise(reference);
+
+      final ProjectFile file = createProject();
+      file.freeze();
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+         for (int index = 0; index < 8; index++)
+         {
+            results.add(executor.submit(new Callable<Boolean>()
+            {
+               @Override public Boolean call() throws Exception
+               {
+                  boolean result = true;
+                  for (int loop = 0; loop < 100; loop++)
+                  {
+                     result &= expected.equals(summarise(file));
+                  }
+                  return Boolean.valueOf(result);
+               }
+            }));
+         }
+
+         for (Future<Boolean> result : results)
+         {
+            assertTrue(result.get().booleanValue());
+         }
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Ensure that a frozen project which holds its field values as
+    * primitives can be queried by multiple threads, and that every
+    * thread sees the same instance for each value.
+    */
+   @Test public void testConcurrentPrimitiveQueries() throws Exception
+   {
+      ProjectFile reference = createProject(FieldStorageType.PRIMITIVE, 300);
+      final List<String> expected = summarise(reference);
+
+      final ProjectFile file = createProject(FieldStorageType.PRIMITIVE, 300);
+      file.freeze();
+
+      final int threadCount = 8;
+      final CountDownLatch latch = new CountDownLatch(threadCount);
+      ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+      try
+      {
+         List<Future<List<Object>>> results = new ArrayList<Future<List<Object>>>();
+         for (int index = 0; index < threadCount; index++)
+         {
+            results.add(executor.submit(new Callable<List<Object>>()
+            {
+               @Override public List<Object> call() throws Exception
+               {
+                  latch.countDown();
+                  latch.await();
+
+                  List<Object> values = new ArrayList<Object>();
+                  for (Task task : file.getTasks())
+                  {
+                     values.add(task.getStart());
+                     values.add(task.getFinish());
+                     values.add(task.getDuration());
+                     values.add(task.getBaselineStart());
+                     values.add(task.getLateStart());
+                  }
+                  assertEquals(expected, summarise(file));
+                  return values;
+               }
+            }));
+         }
+
+         List<Object> first = results.get(0).get();
+         for (Future<List<Object>> result : results)
+         {
+            List<Object> values = result.get();
+            assertEquals(first.size(), values.size());
+            for (int index = 0; index < first.size(); index++)
+            {
+               assertSame(first.get(index), values.get(index));
+            }
+         }
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Summarise calculated values from a project.
+    *
+    * @param file project file
+    * @return summary
+    */
+   private List<String> summarise(ProjectFile file)
+   {
+      List<String> result = new ArrayList<String>();
+      ProjectCalendar calendar = file.getDefaultCalendar();
+      for (Task task : file.getTasks())
+      {
+         result.add(task.getName() + " " + task.getTotalSlack() + " " + task.getCritical() + " " + task.getCompleteThrough() + " " + task.getCV());
+         result.add(String.valueOf(calendar.getDate(task.getStart(), Duration.getInstance(20, TimeUnit.DAYS), false)));
+         result.add(String.valueOf(calendar.getWork(task.getStart(), task.getFinish(), TimeUnit.HOURS)));
+      }
+      return result;
+   }
+
+   /**
+    * Create a small project for testing.
+    *
+    * @return project file
+    */
+   private ProjectFile createProject() throws Exception
+   {
+      return createProject(FieldStorageType.DENSE, 3);
+   }
+
+   /**
+    * Create a small project for testing.
+    *
+    * @param storageType field storage type
+    * @param taskCount number of tasks
+    * @return project file
+    */
+   private ProjectFile createProject(FieldStorageType storageType, int taskCount) throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      file.getProjectConfig().setFieldStorageType(storageType);
+      file.addDefaultBaseCalendar();
+
+      Resource resource = file.addResource();
+      resource.setName("Resource 1");
+
+      Task previous = null;
+      for (int index = 1; index <= taskCount; index++)
+      {
+         Task task = file.addTask();
+         task.setName("Task " + index);
+         int day = (index - 1) % 9 + 1;
+         task.setStart(df.parse("0" + day + "/03/2006 08:00"));
+         task.setFinish(df.parse("2" + day + "/03/2006 17:00"));
+         task.setBaselineStart(task.getStart());
+         task.setDuration(Duration.getInstance(15, TimeUnit.DAYS));
+         task.setActualStart(task.getStart());
+         task.setPercentageComplete(Integer.valueOf(((index - 1) % 3 + 1) * 25));
+         task.setEarlyStart(task.getStart());
+         task.setLateStart(df.parse("1" + day + "/03/2006 08:00"));
+         task.setEarlyFinish(task.getFinish());
+         task.setLateFinish(task.getFinish());
+         task.addResourceAssignment(resource);
+         if (previous != null)
+         {
+            task.addPredecessor(previous, RelationType.START_START, null);
+         }
+         previous = task;
+      }
+
+      return file;
+   }
+
+   /**
+    * Ensure that an operation is rejected.
+    *
+    * @param operation operation to attempt
+    */
+   private void assertUnsupported(Runnable operation)
+   {
+      try
+      {
+         operation.run();
+         fail("Expected UnsupportedOperationException");
+      }
+
+      catch (UnsupportedOperationException ex)
+      {
+         // Expected
+      }
+   }
+}
@@ -0,0 +1,319 @@
+/*
+ * file:       ProjectStreamTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2019
+ * date:       06/10/2019
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.project;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.junit.MpxjTestData;
+import net.sf.mpxj.listener.ProjectStreamListener;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+import net.sf.mpxj.primavera.PrimaveraXERFileReader;
+import net.sf.mpxj.reader.StreamingProjectReader;
+
+/**
+ * Tests to exercise the streaming read API.
+ */
+public class ProjectStreamTest
+{
+   /**
+    * Ensure that a listener which retains everything produces
+    * the same result as a normal read.
+    */
+   @Test public void testRetainAll() throws Exception
+   {
+      String fileName = MpxjTestData.filePath("mspdirelations.xml");
+      ProjectFile expected = new MSPDIReader().read(fileName);
+      ProjectFile actual = read(new MSPDIReader(), fileName, new FilterListener(false, false));
+
+      assertEquals(expected.getTasks().size(), actual.getTasks().size());
+      assertEquals(expected.getResources().size(), actual.getResources().size());
+      assertEquals(expected.getResourceAssignments().size(), actual.getResourceAssignments().size());
+      assertEquals(expected.getCalendars().size(), actual.getCalendars().size());
+      assertEquals(expected.getProjectProperties().getDefaultCalendarName(), actual.getProjectProperties().getDefaultCalendarName());
+
+      for (Task expectedTask : expected.getTasks())
+      {
+         Task actualTask = actual.getTaskByUniqueID(expectedTask.getUniqueID());
+         assertNotNull(actualTask);
+         for (int index = 0; index < TaskField.MAX_VALUE; index++)
+         {
+            TaskField field = TaskField.getInstance(index);
+            if (field != null)
+            {
+               assertEquals(field.toString(), String.valueOf(expectedTask.getCachedValue(field)), String.valueOf(actualTask.getCachedValue(field)));
+            }
+         }
+      }
+   }
+
+   /**
+    * Ensure that reading an MSPDI file with streaming input enabled
+    * produces the same result as a normal read, including timephased data.
+    */
+   @Test public void testMspdiStreamingInput() throws Exception
+   {
+      String fileName = MpxjTestData.filePath("mspditimephased.xml");
+      ProjectFile expected = new MSPDIReader().read(fileName);
+
+      MSPDIReader reader = new MSPDIReader();
+      reader.setStreamingInput(true);
+      ProjectFile actual = reader.read(fileName);
+
+      assertEquals(expected.getTasks().size(), actual.getTasks().size());
+      assertEquals(expected.getResources().size(), actual.getResources().size());
+      assertEquals(expected.getResourceAssignments().size(), actual.getResourceAssignments().size());
+
+      for (int index = 0; index < expected.getResourceAssignments().size(); index++)
+      {
+         ResourceAssignment expectedAssignment = expected.getResourceAssignments().get(index);
+         ResourceAssignment actualAssignment = actual.getResourceAssignments().get(index);
+         assertEquals(expectedAssignment.getUniqueID(), actualAssignment.getUniqueID());
+         assertEquals(expectedAssignment.getWork(), actualAssignment.getWork());
+         assertEquals(String.valueOf(expectedAssignment.getTimephasedWork()), String.valueOf(actualAssignment.getTimephasedWork()));
+         assertEquals(String.valueOf(expectedAssignment.getTimephasedActualWork()), String.valueOf(actualAssignment.getTimephasedActualWork()));
+      }
+   }
+
+   /**
+    * Ensure that an MSPDI file written with streaming output enabled
+    * contains the same data as one written normally.
+    */
+   @Test public void testMspdiStreamingOutput() throws Exception
+   {
+      String fileName = MpxjTestData.filePath("mspditimephased.xml");
+      ProjectFile expected = writeAndRead(fileName, false);
+      ProjectFile actual = writeAndRead(fileName, true);
+
+      assertEquals(expected.getTasks().size(), actual.getTasks().size());
+      assertEquals(expected.getResources().size(), actual.getResources().size());
+      assertEquals(expected.getResourceAssignments().size(), actual.getResourceAssignments().size());
+      assertEquals(expected.getCalendars().size(), actual.getCalendars().size());
+      assertEquals(expected.getCustomFields().size(), actual.getCustomFields().size());
+
+      for (int index = 0; index < expected.getTasks().size(); index++)
+      {
+         Task expectedTask = expected.getTasks().get(index);
+         Task actualTask = actual.getTasks().get(index);
+         assertEquals(expectedTask.getUniqueID(), actualTask.getUniqueID());
+         assertEquals(expectedTask.getName(), actualTask.getName());
+         assertEquals(expectedTask.getStart(), actualTask.getStart());
+         assertEquals(expectedTask.getFinish(), actualTask.getFinish());
+         assertEquals(expectedTask.getPredecessors().size(), actualTask.getPredecessors().size());
+      }
+
+      for (int index = 0; index < expected.getResourceAssignments().size(); index++)
+      {
+         ResourceAssignment expectedAssignment = expected.getResourceAssignments().get(index);
+         ResourceAssignment actualAssignment = actual.getResourceAssignments().get(index);
+         assertEquals(expectedAssignment.getUniqueID(), actualAssignment.getUniqueID());
+         assertEquals(String.valueOf(expectedAssignment.getTimephasedWork()), String.valueOf(actualAssignment.getTimephasedWork()));
+         assertEquals(String.valueOf(expectedAssignment.getTimephasedActualWork()), String.valueOf(actualAssignment.getTimephasedActualWork()));
+      }
+   }
+
+   /**
+    * Ensure that entities are discarded when an MSPDI file is streamed.
+    */
+   @Test public void testMspdiDiscard() throws Exception
+   {
+      FilterListener listener = new FilterListener(true, true);
+      ProjectFile file = read(new MSPDIReader(), MpxjTestData.filePath("mspdirelations.xml"), listener);
+      assertTrue(listener.getDiscardedTaskCount() > 0);
+      validate(file, listener);
+   }
+
+   /**
+    * Ensure that entities are discarded when an XER file is streamed.
+    */
+   @Test public void testXerDiscard() throws Exception
+   {
+      String fileName = MpxjTestData.filePath("generated/task-percentcomplete/percent-complete-8.4.xer");
+      ProjectFile expected = new PrimaveraXERFileReader().read(fileName);
+
+      FilterListener listener = new FilterListener(true, true);
+      ProjectFile file = read(new PrimaveraXERFileReader(), fileName, listener);
+      assertTrue(listener.getDiscardedTaskCount() > 0);
+      assertEquals(expected.getTasks().size() - listener.getDiscardedTaskCount(), file.getTasks().size());
+      validate(file, listener);
+   }
+
+   /**
+    * Validate that the project only contains retained entities.
+    *
+    * @param file project file
+    * @param listener listener used to read the file
+    */
+   private void validate(ProjectFile file, FilterListener listener)
+   {
+      for (Task task : file.getTasks())
+      {
+         assertTrue(listener.retain(task.getUniqueID()));
+         assertEquals(task, file.getTaskByUniqueID(task.getUniqueID()));
+
+         for (Relation relation : task.getPredecessors())
+         {
+            assertTrue(listener.retain(relation.getTargetTask().getUniqueID()));
+         }
+
+         for (Task child : task.getChildTasks())
+         {
+            assertEquals(task, child.getParentTask());
+         }
+      }
+
+      for (Resource resource : file.getResources())
+      {
+         assertTrue(listener.retain(resource.getUniqueID()));
+      }
+
+      for (ResourceAssignment assignment : file.getResourceAssignments())
+      {
+         assertTrue(listener.retain(assignment.getTaskUniqueID()));
+         assertTrue(assignment.getResourceUniqueID() == null || listener.retain(assignment.getResourceUniqueID()));
+      }
+   }
+
+   /**
+    * Read a file using a stream listener.
+    *
+    * @param reader streaming reader
+    * @param fileName file name
+    * @param listener stream listener
+    * @return ProjectFile instance
+    */
+   private ProjectFile read(StreamingProjectReader reader, String fileName, ProjectStreamListener listener) throws Exception
+   {
+      InputStream stream = new FileInputStream(fileName);
+      try
+      {
+         return reader.read(stream, listener);
+      }
+
+      finally
+      {
+         stream.close();
+      }
+   }
+
+   /**
+    * Read a project and write it as an MSPDI file, including
+    * timephased data, then read the MSPDI file.
+    *
+    * @param fileName file name
+    * @param streamingOutput true if streaming output is used
+    * @return ProjectFile instance
+    */
+   private ProjectFile writeAndRead(String fileName, boolean streamingOutput) throws Exception
+   {
+      ProjectFile file = new MSPDIReader().read(fileName);
+      MSPDIWriter writer = new MSPDIWriter();
+      writer.setWriteTimephasedData(true);
+      writer.setStreamingOutput(streamingOutput);
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      writer.write(file, stream);
+      return new MSPDIReader().read(new ByteArrayInputStream(stream.toByteArray()));
+   }
+
+   /**
+    * Listener which discards tasks and resources with odd unique IDs.
+    */
+   private static class FilterListener implements ProjectStreamListener
+   {
+      /**
+       * Constructor.
+       *
+       * @param discardTasks true if tasks should be discarded
+       * @param discardResources true if resources should be discarded
+       */
+      public FilterListener(boolean discardTasks, boolean discardResources)
+      {
+         m_discardTasks = discardTasks;
+         m_discardResources = discardResources;
+      }
+
+      @Override public boolean taskRead(Task task)
+      {
+         boolean result = !m_discardTasks || retain(task.getUniqueID());
+         if (!result)
+         {
+            ++m_discardedTaskCount;
+         }
+         return result;
+      }
+
+      @Override public boolean resourceRead(Resource resource)
+      {
+         return !m_discardResources || retain(resource.getUniqueID());
+      }
+
+      @Override public boolean assignmentRead(ResourceAssignment assignment)
+      {
+         return true;
+      }
+
+      @Override public boolean relationRead(Relation relation)
+      {
+         return true;
+      }
+
+      /**
+       * Determine if an entity with the given unique ID is retained.
+       *
+       * @param uniqueID unique ID
+       * @return true if retained
+       */
+      public boolean retain(Integer uniqueID)
+      {
+         return uniqueID == null || uniqueID.intValue() % 2 == 0;
+      }
+
+      /**
+       * Retrieve the number of tasks discarded.
+       *
+       * @return discarded task count
+       */
+      public int getDiscardedTaskCount()
+      {
+         return m_discardedTaskCount;
+      }
+
+      private final boolean m_discardTasks;
+      private final boolean m_discardResources;
+      private int m_discardedTaskCount;
+   }
+}